@@ -41,20 +41,21 @@ dependencies {
     implementation ("com.google.firebase:firebase-storage:20.2.1")
 
 
-    // Picasso for image loading
-    implementation ("com.squareup.picasso:picasso:2.71828")
-
     // CalendarView library
     // https://github.com/Applandeo/Material-Calendar-View
     implementation("com.applandeo:material-calendar-view:1.9.2")
 
+    // Glide for image loading (memory/disk caches configured in utils.MindfulJotGlideModule)
     implementation("com.github.bumptech.glide:glide:4.16.0")
     annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
+
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     testImplementation(libs.junit)
+    testImplementation(libs.jmh.core)
+    testAnnotationProcessor(libs.jmh.generator.annprocess)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -5,25 +5,30 @@ import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.SimpleDateFormat;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Locale;
 
 import edu.northeastern.numad25sp_group4.R;
 import models.Emotion;
 import models.EmotionEntry;
+import utils.ImageLoader;
 
 public class EmotionEntryAdapter extends RecyclerView.Adapter<EmotionEntryAdapter.EntryViewHolder> {
 
     private Context context;
     private List<EmotionEntry> entries;
     private OnEntryClickListener listener;
+    private final int thumbnailSizePx;
+    private final DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("h:mm a", Locale.getDefault());
 
     public interface OnEntryClickListener {
         void onEntryClick(EmotionEntry entry);
@@ -33,6 +38,14 @@ public class EmotionEntryAdapter extends RecyclerView.Adapter<EmotionEntryAdapte
         this.context = context;
         this.entries = entries;
         this.listener = listener;
+        this.thumbnailSizePx = context.getResources().getDimensionPixelSize(R.dimen.entry_row_thumbnail_size);
+    }
+
+    /**
+     * Size the row thumbnails are decoded at, for prefetching the same ones
+     */
+    public int getThumbnailSizePx() {
+        return thumbnailSizePx;
     }
 
     @NonNull
@@ -46,9 +59,8 @@ public class EmotionEntryAdapter extends RecyclerView.Adapter<EmotionEntryAdapte
     public void onBindViewHolder(@NonNull EntryViewHolder holder, int position) {
         EmotionEntry entry = entries.get(position);
 
-        // Format the time
-        SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
-        String timeStr = timeFormat.format(entry.getTimestamp());
+        // Format the time as the writer's clock showed it, even if they've since changed zones
+        String timeStr = timeFormat.format(LocalTime.ofSecondOfDay(entry.localMinuteOfDay() * 60L));
 
         // Build the emotion text
         StringBuilder emotionText = new StringBuilder();
@@ -68,6 +80,17 @@ public class EmotionEntryAdapter extends RecyclerView.Adapter<EmotionEntryAdapte
         // Set the text
         holder.tvEntryInfo.setText(emotionText + " - Emotion logged at " + timeStr);
 
+        // Show the first photo, at the size ThumbnailPrefetcher warms the cache with
+        String thumbnailUrl = entry.getImageUrls() != null && !entry.getImageUrls().isEmpty()
+                ? entry.getImageUrlForSize(0, thumbnailSizePx) : null;
+        if (thumbnailUrl != null && !thumbnailUrl.isEmpty()) {
+            holder.ivEntryThumbnail.setVisibility(View.VISIBLE);
+            ImageLoader.loadThumbnail(holder.ivEntryThumbnail, thumbnailUrl, thumbnailSizePx);
+        } else {
+            ImageLoader.clear(holder.ivEntryThumbnail);
+            holder.ivEntryThumbnail.setVisibility(View.GONE);
+        }
+
         // Set click listener
         holder.cardEntry.setOnClickListener(v -> {
             if (listener != null) {
@@ -107,6 +130,13 @@ public class EmotionEntryAdapter extends RecyclerView.Adapter<EmotionEntryAdapte
         }
     }
 
+    @Override
+    public void onViewRecycled(@NonNull EntryViewHolder holder) {
+        super.onViewRecycled(holder);
+        // Release the bitmap back to the pool as soon as the row goes off screen
+        ImageLoader.clear(holder.ivEntryThumbnail);
+    }
+
     @Override
     public int getItemCount() {
         return entries.size();
@@ -156,11 +186,13 @@ public class EmotionEntryAdapter extends RecyclerView.Adapter<EmotionEntryAdapte
     static class EntryViewHolder extends RecyclerView.ViewHolder {
         com.google.android.material.card.MaterialCardView cardEntry;
         TextView tvEntryInfo;
+        ImageView ivEntryThumbnail;
 
         EntryViewHolder(View itemView) {
             super(itemView);
             cardEntry = itemView.findViewById(R.id.card_entry);
             tvEntryInfo = itemView.findViewById(R.id.tv_entry_info);
+            ivEntryThumbnail = itemView.findViewById(R.id.iv_entry_thumbnail);
         }
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package adapters;
 
 import android.content.Context;
+import android.content.Intent;
 import android.net.Uri;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -11,17 +12,21 @@ import android.widget.ImageView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.squareup.picasso.Picasso;
-
 import java.util.List;
 
+import edu.northeastern.numad25sp_group4.ImageViewerActivity;
 import edu.northeastern.numad25sp_group4.R;
+import models.EmotionEntry;
+import utils.ImageLoader;
+
 public class EntryImageAdapter extends RecyclerView.Adapter<EntryImageAdapter.ImageViewHolder> {
 
     private final Context context;
     private final List<Uri> imageUris;
     private final OnImageRemoveListener listener;
     private boolean editMode = false; // Add this flag to track edit mode
+    private final int thumbnailSizePx;
+    private EmotionEntry renditionSource; // Entry whose stored renditions back remote images
 
     public interface OnImageRemoveListener {
         void onImageRemove(int position);
@@ -31,6 +36,16 @@ public class EntryImageAdapter extends RecyclerView.Adapter<EntryImageAdapter.Im
         this.context = context;
         this.imageUris = imageUris;
         this.listener = listener;
+        this.thumbnailSizePx = context.getResources().getDimensionPixelSize(R.dimen.entry_image_size);
+    }
+
+    /**
+     * Sets the entry whose small/medium renditions should be used for remote images.
+     * Local (not yet uploaded) images are always loaded from their content Uri.
+     */
+    public void setRenditionSource(EmotionEntry entry) {
+        this.renditionSource = entry;
+        notifyDataSetChanged();
     }
 
     // Add this method to update edit mode state
@@ -48,14 +63,16 @@ public class EntryImageAdapter extends RecyclerView.Adapter<EntryImageAdapter.Im
 
     @Override
     public void onBindViewHolder(@NonNull ImageViewHolder holder, int position) {
-        Uri imageUri = imageUris.get(position);
-
-        // Use Picasso to load the image
-        Picasso.get()
-                .load(imageUri)
-                .resize(240, 240)
-                .centerCrop()
-                .into(holder.ivEntryImage);
+        // Load through the shared image loader, decoded at the thumbnail size
+        ImageLoader.loadThumbnail(holder.ivEntryImage, thumbnailSource(imageUris.get(position)), thumbnailSizePx);
+
+        // Open the full-screen viewer on tap
+        holder.ivEntryImage.setOnClickListener(v -> {
+            int adapterPosition = holder.getAdapterPosition();
+            if (adapterPosition != RecyclerView.NO_POSITION) {
+                openViewer(imageUris.get(adapterPosition));
+            }
+        });
 
         // Only show remove button in edit mode
         holder.btnRemoveImage.setVisibility(editMode ? View.VISIBLE : View.GONE);
@@ -68,6 +85,49 @@ public class EntryImageAdapter extends RecyclerView.Adapter<EntryImageAdapter.Im
         });
     }
 
+    /**
+     * Picks the stored rendition matching the thumbnail size, or the Uri itself
+     * when it is not one of the rendition source's images. A String either way,
+     * the model the viewer's preview loads too, so both share a cache key.
+     */
+    private String thumbnailSource(Uri imageUri) {
+        if (renditionSource == null || renditionSource.getImageUrls() == null) {
+            return imageUri.toString();
+        }
+        int index = renditionSource.getImageUrls().indexOf(imageUri.toString());
+        if (index < 0) {
+            return imageUri.toString();
+        }
+        return renditionSource.getImageUrlForSize(index, thumbnailSizePx);
+    }
+
+    /**
+     * Opens the full-screen viewer with the original image, the thumbnail shown here
+     * as an instant preview, and the medium rendition when the entry has one
+     */
+    private void openViewer(Uri imageUri) {
+        Intent intent = new Intent(context, ImageViewerActivity.class);
+        intent.putExtra("imageUri", imageUri.toString());
+        intent.putExtra("previewUri", thumbnailSource(imageUri));
+        intent.putExtra("previewSizePx", thumbnailSizePx);
+
+        if (renditionSource != null && renditionSource.getImageUrls() != null) {
+            int index = renditionSource.getImageUrls().indexOf(imageUri.toString());
+            String medium = renditionSource.getImageUrlForSize(index, EmotionEntry.MEDIUM_RENDITION_PX);
+            if (medium != null && !medium.equals(imageUri.toString())) {
+                intent.putExtra("mediumUri", medium);
+            }
+        }
+        context.startActivity(intent);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull ImageViewHolder holder) {
+        super.onViewRecycled(holder);
+        // Release the bitmap back to the pool as soon as the row goes off screen
+        ImageLoader.clear(holder.ivEntryImage);
+    }
+
     @Override
     public int getItemCount() {
         return imageUris.size();
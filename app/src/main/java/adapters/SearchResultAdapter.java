@@ -0,0 +1,103 @@
+package adapters;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.google.android.material.card.MaterialCardView;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+import edu.northeastern.numad25sp_group4.R;
+import search.InvertedIndex;
+import search.Snippet;
+
+public class SearchResultAdapter extends RecyclerView.Adapter<SearchResultAdapter.ResultViewHolder> {
+
+    private final Context context;
+    private final List<InvertedIndex.Hit> hits;
+    private final OnResultClickListener listener;
+    private final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.getDefault());
+
+    public interface OnResultClickListener {
+        void onResultClick(InvertedIndex.Hit hit);
+    }
+
+    public SearchResultAdapter(Context context, List<InvertedIndex.Hit> hits, OnResultClickListener listener) {
+        this.context = context;
+        this.hits = hits;
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public ResultViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.item_search_result, parent, false);
+        return new ResultViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ResultViewHolder holder, int position) {
+        InvertedIndex.Hit hit = hits.get(position);
+
+        // The day the entry was written on, wherever the writer was
+        holder.tvResultDate.setText(dateFormat.format(LocalDate.ofEpochDay(hit.getEpochDay())));
+        holder.tvResultText.setText(highlight(hit.getSnippet()));
+        holder.tvResultText.setVisibility(hit.getSnippet().getText().isEmpty() ? View.GONE : View.VISIBLE);
+        holder.tvResultTags.setText(String.join(" · ", hit.getTags()));
+        holder.tvResultTags.setVisibility(hit.getTags().isEmpty() ? View.GONE : View.VISIBLE);
+
+        holder.cardResult.setOnClickListener(v -> {
+            if (listener != null) {
+                listener.onResultClick(hit);
+            }
+        });
+    }
+
+    // Matched words in bold and the highlight color
+    private CharSequence highlight(Snippet snippet) {
+        SpannableString text = new SpannableString(snippet.getText());
+        int color = ContextCompat.getColor(context, R.color.high_energy_pleasant);
+        for (int i = 0; i < snippet.getHighlightCount(); i++) {
+            int start = snippet.getHighlightStart(i);
+            int end = snippet.getHighlightEnd(i);
+            text.setSpan(new StyleSpan(Typeface.BOLD), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            text.setSpan(new ForegroundColorSpan(color), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        return text;
+    }
+
+    @Override
+    public int getItemCount() {
+        return hits.size();
+    }
+
+    static class ResultViewHolder extends RecyclerView.ViewHolder {
+        MaterialCardView cardResult;
+        TextView tvResultDate;
+        TextView tvResultText;
+        TextView tvResultTags;
+
+        ResultViewHolder(View itemView) {
+            super(itemView);
+            cardResult = itemView.findViewById(R.id.card_search_result);
+            tvResultDate = itemView.findViewById(R.id.tv_result_date);
+            tvResultText = itemView.findViewById(R.id.tv_result_text);
+            tvResultTags = itemView.findViewById(R.id.tv_result_tags);
+        }
+    }
+}
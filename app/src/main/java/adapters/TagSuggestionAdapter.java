@@ -0,0 +1,103 @@
+package adapters;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import edu.northeastern.numad25sp_group4.R;
+import search.InvertedIndex;
+
+/**
+ * Suggestions for a tag input, from the user's own tags, most used first.
+ * Tags already on the entry are left out.
+ */
+public class TagSuggestionAdapter extends ArrayAdapter<InvertedIndex.Tag> {
+
+    // Rows shown in the dropdown
+    private static final int MAX_SUGGESTIONS = 5;
+
+    private final Collection<String> currentTags;
+    private volatile InvertedIndex index;
+
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            FilterResults results = new FilterResults();
+            InvertedIndex current = index;
+            if (current == null || constraint == null || InvertedIndex.tagKey(constraint.toString()).isEmpty()) {
+                results.values = new ArrayList<InvertedIndex.Tag>();
+                results.count = 0;
+                return results;
+            }
+            // A few extra so some are left after dropping the entry's own tags
+            List<InvertedIndex.Tag> tags = current.suggestTags(constraint.toString(),
+                    MAX_SUGGESTIONS + currentTags.size());
+            results.values = tags;
+            results.count = tags.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            clear();
+            // Checked here on the main thread, where the entry's tags change
+            List<String> taken = new ArrayList<>();
+            for (String tag : currentTags) {
+                taken.add(InvertedIndex.tagKey(tag));
+            }
+            for (InvertedIndex.Tag tag : (List<InvertedIndex.Tag>) results.values) {
+                if (getCount() < MAX_SUGGESTIONS && !taken.contains(tag.getKey())) {
+                    add(tag);
+                }
+            }
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public CharSequence convertResultToString(Object resultValue) {
+            return ((InvertedIndex.Tag) resultValue).getName();
+        }
+    };
+
+    /**
+     * @param currentTags the entry's tags, read each time suggestions are shown
+     */
+    public TagSuggestionAdapter(Context context, Collection<String> currentTags) {
+        super(context, R.layout.spinner_dropdown_item_white);
+        this.currentTags = currentTags;
+    }
+
+    /**
+     * Suggestions start once the user's index is open
+     */
+    public void setIndex(InvertedIndex index) {
+        this.index = index;
+    }
+
+    @NonNull
+    @Override
+    public View getView(int position, View convertView, @NonNull ViewGroup parent) {
+        TextView view = (TextView) (convertView != null ? convertView
+                : LayoutInflater.from(getContext()).inflate(R.layout.spinner_dropdown_item_white, parent, false));
+        InvertedIndex.Tag tag = getItem(position);
+        view.setText(tag.getName() + " · " + tag.getCount());
+        return view;
+    }
+
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+}
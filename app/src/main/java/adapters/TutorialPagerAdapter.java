@@ -12,6 +12,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import java.util.List;
 
 import edu.northeastern.numad25sp_group4.R;
+import utils.ImageLoader;
 
 /**
  * Adapter for the tutorial carousel
@@ -48,7 +49,8 @@ public class TutorialPagerAdapter extends RecyclerView.Adapter<TutorialPagerAdap
         }
 
         public void bind(TutorialSlide slide) {
-            ivTutorialImage.setImageResource(slide.getImageResourceId());
+            // Decode the carousel artwork at the view size rather than full resolution
+            ImageLoader.loadResource(ivTutorialImage, slide.getImageResourceId());
         }
     }
 
@@ -0,0 +1,280 @@
+package analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import models.Emotion;
+
+/**
+ * Computed analytics, kept across screen visits and process restarts.
+ *
+ * A timeframe's stats are keyed by user id, timeframe, the period's start date
+ * and the user's data version (users/{uid}/dataVersion, bumped by every entry
+ * save and delete). A lookup only hits when all four match, so a changed entry
+ * or a new week/month/year is never served stale. Whole snapshots also match on
+ * today's date and the time zone days were computed in, since both move entries
+ * between days and change the streak. Storing a newer result for a user drops
+ * the old one.
+ *
+ * The per-day series behind the trend charts is cached with the same user and
+ * data version. The cache is rewritten to disk after every put, on a background
+ * thread; with a few years of history that is tens of kilobytes per user. A
+ * file that is truncated, corrupt or implausibly large is treated as an empty
+ * cache.
+ */
+public class AnalyticsCache {
+
+    private static final String FILE_NAME = "analytics_cache.bin";
+    private static final int FORMAT_VERSION = 4;
+
+    // Users who have signed in on this device and whose results we keep
+    private static final int MAX_USERS = 4;
+
+    private static AnalyticsCache instance;
+
+    private final File file;
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor();
+
+    // Least recently used user first
+    private final LinkedHashMap<String, UserResults> results = new LinkedHashMap<>(8, 0.75f, true);
+
+    /**
+     * One user's results for one data version
+     */
+    private static class UserResults {
+        long dataVersion;
+        long todayEpochDay;
+        String zoneId;
+        final Map<Timeframe, Long> periodStartEpochDays = new EnumMap<>(Timeframe.class);
+        final Map<Timeframe, TimeframeStats> stats = new EnumMap<>(Timeframe.class);
+        DailySeries dailySeries;
+    }
+
+    AnalyticsCache(File file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * @param cacheDir directory the cache file lives in (e.g. Context.getCacheDir())
+     */
+    public static synchronized AnalyticsCache getInstance(File cacheDir) {
+        if (instance == null) {
+            instance = new AnalyticsCache(new File(cacheDir, FILE_NAME));
+        }
+        return instance;
+    }
+
+    /**
+     * Cached stats for one timeframe, or null if none match all parts of the key
+     */
+    public synchronized TimeframeStats get(String userId, Timeframe timeframe, LocalDate periodStart, long dataVersion) {
+        UserResults userResults = results.get(userId);
+        if (userResults == null || userResults.dataVersion != dataVersion) {
+            return null;
+        }
+        Long cachedStart = userResults.periodStartEpochDays.get(timeframe);
+        if (cachedStart == null || cachedStart != periodStart.toEpochDay()) {
+            return null;
+        }
+        return userResults.stats.get(timeframe);
+    }
+
+    /**
+     * The full snapshot for today in the zone, or null if any timeframe is missing or stale
+     */
+    public synchronized AnalyticsSnapshot getSnapshot(String userId, LocalDate today, ZoneId zone, long dataVersion) {
+        UserResults userResults = results.get(userId);
+        if (userResults == null || userResults.dataVersion != dataVersion
+                || userResults.todayEpochDay != today.toEpochDay()
+                || !zone.getId().equals(userResults.zoneId)) {
+            return null;
+        }
+
+        EnumMap<Timeframe, TimeframeStats> stats = new EnumMap<>(Timeframe.class);
+        for (Timeframe timeframe : Timeframe.values()) {
+            TimeframeStats cached = get(userId, timeframe, timeframe.startDate(today), dataVersion);
+            if (cached == null) {
+                return null;
+            }
+            stats.put(timeframe, cached);
+        }
+        return new AnalyticsSnapshot(today, zone, stats, userResults.dailySeries);
+    }
+
+    /**
+     * Stores a freshly computed snapshot, replacing anything cached for the user
+     */
+    public synchronized void put(String userId, long dataVersion, AnalyticsSnapshot snapshot) {
+        UserResults userResults = new UserResults();
+        userResults.dataVersion = dataVersion;
+        userResults.todayEpochDay = snapshot.getToday().toEpochDay();
+        userResults.zoneId = snapshot.getZone().getId();
+        for (Timeframe timeframe : Timeframe.values()) {
+            userResults.periodStartEpochDays.put(timeframe, timeframe.startDate(snapshot.getToday()).toEpochDay());
+            userResults.stats.put(timeframe, snapshot.getStats(timeframe));
+        }
+        userResults.dailySeries = snapshot.getDailySeries();
+
+        results.remove(userId);
+        results.put(userId, userResults);
+        Iterator<String> oldest = results.keySet().iterator();
+        while (results.size() > MAX_USERS && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+
+        saveExecutor.execute(this::save);
+    }
+
+    /**
+     * Waits for the saves queued so far to reach the file
+     */
+    void awaitSaved() throws InterruptedException, ExecutionException {
+        saveExecutor.submit(() -> { }).get();
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = CacheFile.open(file)) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            int userCount = CacheFile.checkLength(in, in.readInt(), 1);
+            for (int u = 0; u < userCount; u++) {
+                String userId = in.readUTF();
+                UserResults userResults = new UserResults();
+                userResults.dataVersion = in.readLong();
+                userResults.todayEpochDay = in.readLong();
+                userResults.zoneId = in.readUTF();
+
+                int timeframeCount = CacheFile.checkLength(in, in.readInt(), 1);
+                for (int t = 0; t < timeframeCount; t++) {
+                    String timeframeName = in.readUTF();
+                    long periodStart = in.readLong();
+                    int checkins = in.readInt();
+                    int emotions = in.readInt();
+                    int[] categoryCounts = new int[CacheFile.checkLength(in, in.readInt(), Integer.BYTES)];
+                    for (int c = 0; c < categoryCounts.length; c++) {
+                        categoryCounts[c] = in.readInt();
+                    }
+                    int sentimentSum = in.readInt();
+                    int sentimentCount = in.readInt();
+                    int[] categorySentimentSums = CacheFile.readInts(in);
+                    int[] categorySentimentCounts = CacheFile.readInts(in);
+
+                    Timeframe timeframe;
+                    try {
+                        timeframe = Timeframe.valueOf(timeframeName);
+                    } catch (IllegalArgumentException e) {
+                        continue; // Timeframe no longer exists
+                    }
+                    userResults.periodStartEpochDays.put(timeframe, periodStart);
+                    userResults.stats.put(timeframe, new TimeframeStats(checkins, emotions, categoryCounts,
+                            sentimentSum, sentimentCount, categorySentimentSums, categorySentimentCounts));
+                }
+                userResults.dailySeries = readDailySeries(in);
+                results.put(userId, userResults);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Unreadable cache is just a cold cache
+            results.clear();
+        }
+    }
+
+    private static DailySeries readDailySeries(DataInputStream in) throws IOException {
+        long firstEpochDay = in.readLong();
+        int[] entryCounts = readInts(in);
+        int[][] categoryCounts = new int[CacheFile.checkLength(in, in.readInt(), Integer.BYTES)][];
+        for (int c = 0; c < categoryCounts.length; c++) {
+            categoryCounts[c] = readInts(in);
+        }
+        int[] energySums = readInts(in);
+        int[] energyCounts = readInts(in);
+        int[] sentimentSums = readInts(in);
+        int[] sentimentCounts = readInts(in);
+        if (categoryCounts.length != Emotion.Category.values().length) {
+            throw new IOException("Category count changed");
+        }
+        return new DailySeries(firstEpochDay, entryCounts, categoryCounts, energySums, energyCounts,
+                sentimentSums, sentimentCounts);
+    }
+
+    private static void writeDailySeries(DataOutputStream out, DailySeries series) throws IOException {
+        out.writeLong(series.getFirstEpochDay());
+        CacheFile.writeInts(out, series.entryCounts());
+        out.writeInt(series.categoryCounts().length);
+        for (int[] counts : series.categoryCounts()) {
+            CacheFile.writeInts(out, counts);
+        }
+        CacheFile.writeInts(out, series.energySums());
+        CacheFile.writeInts(out, series.energyCounts());
+        CacheFile.writeInts(out, series.sentimentSums());
+        CacheFile.writeInts(out, series.sentimentCounts());
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = CacheFile.readInts(in);
+        if (values.length > DailySeries.MAX_DAYS) {
+            throw new IOException("Bad series length " + values.length);
+        }
+        return values;
+    }
+
+    // Runs on saveExecutor: serializes under the lock, then writes without holding it
+    private void save() {
+        try {
+            CacheFile.replace(file, serialize());
+        } catch (IOException e) {
+            // Kept in memory; the next put tries again
+        }
+    }
+
+    private synchronized byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(results.size());
+            for (Map.Entry<String, UserResults> user : results.entrySet()) {
+                UserResults userResults = user.getValue();
+                out.writeUTF(user.getKey());
+                out.writeLong(userResults.dataVersion);
+                out.writeLong(userResults.todayEpochDay);
+                out.writeUTF(userResults.zoneId);
+
+                out.writeInt(userResults.stats.size());
+                for (Map.Entry<Timeframe, TimeframeStats> entry : userResults.stats.entrySet()) {
+                    TimeframeStats stats = entry.getValue();
+                    out.writeUTF(entry.getKey().name());
+                    out.writeLong(userResults.periodStartEpochDays.get(entry.getKey()));
+                    out.writeInt(stats.getCheckinCount());
+                    out.writeInt(stats.getEmotionCount());
+                    out.writeInt(Emotion.Category.values().length);
+                    for (Emotion.Category category : Emotion.Category.values()) {
+                        out.writeInt(stats.getCategoryCount(category));
+                    }
+                    out.writeInt(stats.getSentimentSum());
+                    out.writeInt(stats.getSentimentCount());
+                    CacheFile.writeInts(out, stats.categorySentimentSums());
+                    CacheFile.writeInts(out, stats.categorySentimentCounts());
+                }
+                writeDailySeries(out, userResults.dailySeries);
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
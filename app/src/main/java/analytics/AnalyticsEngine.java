@@ -0,0 +1,104 @@
+package analytics;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.EnumMap;
+
+import models.Emotion;
+import models.EmotionEntry;
+
+/**
+ * Computes the analytics screen's metrics in a single pass over a user's entries.
+ *
+ * Every entry is bucketed by the local day it was written on (stored on the
+ * entry, or taken in the engine's zone for entries saved before that, and no
+ * later than today); from
+ * that day the pass updates the counts of each timeframe the day falls in and
+ * the per-day series behind the trend charts, so the check-in count, emotion
+ * count, category breakdown and journal sentiment for all timeframes and the daily history come
+ * out of one loop. Streaks are then derived from the series' logged
+ * days (see StreakAnalyzer). Plain Java, no Android dependencies.
+ */
+public class AnalyticsEngine {
+
+    // How far a writer's local day can run ahead of the viewer's: UTC offsets
+    // span 26 hours, from -12:00 to +14:00
+    static final int MAX_DAYS_AHEAD = 2;
+
+    private final ZoneId zone;
+    private final LocalDays localDays;
+
+    public AnalyticsEngine(ZoneId zone) {
+        this.zone = zone;
+        this.localDays = new LocalDays(zone);
+    }
+
+    public AnalyticsSnapshot compute(Collection<EmotionEntry> entries, LocalDate today) {
+        Timeframe[] timeframes = Timeframe.values();
+        long todayEpochDay = today.toEpochDay();
+
+        long[] startEpochDays = new long[timeframes.length];
+        EnumMap<Timeframe, TimeframeStats> stats = new EnumMap<>(Timeframe.class);
+        TimeframeStats[] statsByOrdinal = new TimeframeStats[timeframes.length];
+        for (Timeframe timeframe : timeframes) {
+            startEpochDays[timeframe.ordinal()] = timeframe.startDate(today).toEpochDay();
+            statsByOrdinal[timeframe.ordinal()] = new TimeframeStats();
+            stats.put(timeframe, statsByOrdinal[timeframe.ordinal()]);
+        }
+
+        DailySeries.Builder daily = new DailySeries.Builder(todayEpochDay);
+
+        for (EmotionEntry entry : entries) {
+            if (entry.getTimestamp() == null) {
+                continue;
+            }
+
+            // The day it was written on; the engine's zone only covers entries without one
+            long epochDay = entry.hasLocalTime()
+                    ? entry.getEpochDay()
+                    : localDays.epochDay(entry.getTimestamp().getTime());
+
+            // A writer in a zone ahead of ours can already be on a later day; that
+            // entry counts as today's. Anything further ahead is clock skew and
+            // doesn't count anywhere.
+            if (epochDay > todayEpochDay + MAX_DAYS_AHEAD) {
+                continue;
+            }
+            epochDay = Math.min(epochDay, todayEpochDay);
+
+            if (todayEpochDay - epochDay < DailySeries.MAX_DAYS) {
+                daily.add(epochDay, entry);
+            }
+
+            boolean scored = entry.getSentimentScore() != null;
+            int sentiment = scored ? SentimentScorer.thousandths(entry.getSentimentScore()) : 0;
+            int categoryMask = 0;
+            if (scored && entry.getEmotions() != null) {
+                for (Emotion emotion : entry.getEmotions()) {
+                    if (emotion.getCategory() != null) {
+                        categoryMask |= 1 << emotion.getCategory().ordinal();
+                    }
+                }
+            }
+
+            for (int i = 0; i < timeframes.length; i++) {
+                if (epochDay < startEpochDays[i]) {
+                    continue;
+                }
+                TimeframeStats timeframeStats = statsByOrdinal[i];
+                timeframeStats.addCheckin();
+                if (entry.getEmotions() != null) {
+                    for (Emotion emotion : entry.getEmotions()) {
+                        timeframeStats.addEmotion(emotion.getCategory());
+                    }
+                }
+                if (scored) {
+                    timeframeStats.addSentiment(sentiment, categoryMask);
+                }
+            }
+        }
+
+        return new AnalyticsSnapshot(today, zone, stats, daily.build());
+    }
+}
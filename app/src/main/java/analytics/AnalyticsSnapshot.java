@@ -0,0 +1,69 @@
+package analytics;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Everything the analytics screen shows, for every timeframe, as of one day
+ * in one time zone
+ */
+public class AnalyticsSnapshot {
+
+    private final LocalDate today;
+    private final ZoneId zone;
+    private final Map<Timeframe, TimeframeStats> statsByTimeframe;
+    private final DailySeries dailySeries;
+    private final StreakStats streakStats;
+
+    AnalyticsSnapshot(LocalDate today, ZoneId zone, EnumMap<Timeframe, TimeframeStats> statsByTimeframe,
+                      DailySeries dailySeries) {
+        this.today = today;
+        this.zone = zone;
+        this.statsByTimeframe = statsByTimeframe;
+        this.dailySeries = dailySeries;
+        this.streakStats = StreakAnalyzer.analyze(dailySeries.loggedEpochDays(), (int) today.toEpochDay());
+    }
+
+    public LocalDate getToday() {
+        return today;
+    }
+
+    /**
+     * Zone entries were mapped to days in
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Consecutive days with at least one entry, ending today, or ending
+     * yesterday if nothing has been logged yet today
+     */
+    public int getStreak() {
+        return streakStats.getCurrent();
+    }
+
+    public boolean isLoggedToday() {
+        return streakStats.isLoggedToday();
+    }
+
+    /**
+     * Longest streak, every streak run and gap days
+     */
+    public StreakStats getStreakStats() {
+        return streakStats;
+    }
+
+    public TimeframeStats getStats(Timeframe timeframe) {
+        return statsByTimeframe.get(timeframe);
+    }
+
+    /**
+     * Per-day history up to today, for the trend charts
+     */
+    public DailySeries getDailySeries() {
+        return dailySeries;
+    }
+}
@@ -0,0 +1,90 @@
+package analytics;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * File handling shared by the analytics caches. Files are read into memory
+ * whole, so every length read from one can be checked against the bytes left
+ * before anything is allocated, and written by replacing the file in one step.
+ */
+final class CacheFile {
+
+    // Far more than a cache holds for a few users with twenty years of history
+    private static final long MAX_BYTES = 8L * 1024 * 1024;
+
+    private CacheFile() {
+    }
+
+    /**
+     * The file's contents to read from
+     */
+    static DataInputStream open(File file) throws IOException {
+        long size = file.length();
+        if (size > MAX_BYTES) {
+            throw new IOException("Cache file too large: " + size);
+        }
+        byte[] bytes = new byte[(int) size];
+        try (FileInputStream in = new FileInputStream(file)) {
+            int read = 0;
+            while (read < bytes.length) {
+                int n = in.read(bytes, read, bytes.length - read);
+                if (n < 0) {
+                    throw new IOException("Cache file shrank while reading");
+                }
+                read += n;
+            }
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * A count read from the file, if that many elements of the size could still
+     * follow; otherwise the file is truncated or corrupt
+     */
+    static int checkLength(DataInputStream in, int length, int elementBytes) throws IOException {
+        // Reading from a byte array, so available() is exactly the bytes left
+        if (length < 0 || (long) length * elementBytes > in.available()) {
+            throw new IOException("Bad length " + length);
+        }
+        return length;
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[checkLength(in, in.readInt(), Integer.BYTES)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Replaces the file's contents, leaving the old file if the write fails
+     */
+    static void replace(File file, byte[] bytes) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        // Replace in one step so a crash mid-write never leaves a torn file
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+}
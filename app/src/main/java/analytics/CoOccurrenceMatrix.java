@@ -0,0 +1,230 @@
+package analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import models.Emotion;
+import models.EmotionEntry;
+
+/**
+ * How often emotions are logged together in one entry.
+ *
+ * Counts are symmetric, so only the lower triangle of the COUNT x COUNT matrix
+ * is kept, in a single int[] (about 45 KB). Cell (i, i) holds how many entries
+ * include emotion i, which companion shares are measured against. Pair counts
+ * are also rolled up by category pair as they change, so the category heatmap
+ * needs no scan.
+ *
+ * An entry holds at most two emotions, so adding or removing one touches a
+ * handful of cells; building from n entries is O(n).
+ */
+public class CoOccurrenceMatrix {
+
+    private static final int CATEGORY_COUNT = Emotion.Category.values().length;
+
+    private final int[] counts = new int[triangleSize(EmotionIds.COUNT)];
+    private final int[] categoryPairs = new int[triangleSize(CATEGORY_COUNT)];
+
+    /**
+     * Two emotions and how many entries contain both
+     */
+    public static class Pair {
+        private final int first;
+        private final int second;
+        private final int count;
+
+        Pair(int first, int second, int count) {
+            this.first = first;
+            this.second = second;
+            this.count = count;
+        }
+
+        public int getFirst() {
+            return first;
+        }
+
+        public int getSecond() {
+            return second;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    public static CoOccurrenceMatrix of(Collection<EmotionEntry> entries) {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        for (EmotionEntry entry : entries) {
+            matrix.add(entry.getEmotions());
+        }
+        return matrix;
+    }
+
+    public void add(List<Emotion> emotions) {
+        apply(ids(emotions), 1);
+    }
+
+    public void remove(List<Emotion> emotions) {
+        apply(ids(emotions), -1);
+    }
+
+    /**
+     * Adds (delta 1) or removes (delta -1) an entry given by its distinct emotion ids
+     */
+    public void apply(int[] ids, int delta) {
+        for (int i = 0; i < ids.length; i++) {
+            counts[index(ids[i], ids[i])] += delta;
+            for (int j = i + 1; j < ids.length; j++) {
+                counts[index(ids[i], ids[j])] += delta;
+                categoryPairs[index(EmotionIds.category(ids[i]).ordinal(),
+                        EmotionIds.category(ids[j]).ordinal())] += delta;
+            }
+        }
+    }
+
+    /**
+     * Distinct catalog ids of the emotions, skipping ones outside the catalog
+     */
+    public static int[] ids(List<Emotion> emotions) {
+        if (emotions == null || emotions.isEmpty()) {
+            return new int[0];
+        }
+        int[] ids = new int[emotions.size()];
+        int count = 0;
+        for (Emotion emotion : emotions) {
+            int id = EmotionIds.of(emotion);
+            if (id < 0) {
+                continue;
+            }
+            boolean seen = false;
+            for (int i = 0; i < count; i++) {
+                seen |= ids[i] == id;
+            }
+            if (!seen) {
+                ids[count++] = id;
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Entries containing both emotions; for a == b, entries containing the emotion
+     */
+    public int count(int a, int b) {
+        return counts[index(a, b)];
+    }
+
+    public int occurrences(int emotionId) {
+        return counts[index(emotionId, emotionId)];
+    }
+
+    /**
+     * The emotions most often logged alongside emotionId, most frequent first
+     * (ties by id), as pairs whose first is emotionId
+     */
+    public List<Pair> topCompanions(int emotionId, int limit) {
+        List<Pair> top = new ArrayList<>();
+        for (int other = 0; other < EmotionIds.COUNT; other++) {
+            if (other == emotionId) {
+                continue;
+            }
+            int count = counts[index(emotionId, other)];
+            if (count > 0) {
+                insertTop(top, new Pair(emotionId, other, count), limit);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * The emotion pairs logged together most often, most frequent first
+     */
+    public List<Pair> topPairs(int limit) {
+        List<Pair> top = new ArrayList<>();
+        for (int j = 1; j < EmotionIds.COUNT; j++) {
+            int row = triangleSize(j);
+            for (int i = 0; i < j; i++) {
+                int count = counts[row + i];
+                if (count > 0) {
+                    insertTop(top, new Pair(i, j, count), limit);
+                }
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Entries whose two emotions fall in categories a and b (in either order)
+     */
+    public int categoryPairCount(Emotion.Category a, Emotion.Category b) {
+        return categoryPairs[index(a.ordinal(), b.ordinal())];
+    }
+
+    /**
+     * Category pair counts as a symmetric [category ordinal][category ordinal] grid
+     */
+    public int[][] categoryHeatmap() {
+        int[][] grid = new int[CATEGORY_COUNT][CATEGORY_COUNT];
+        for (int a = 0; a < CATEGORY_COUNT; a++) {
+            for (int b = 0; b < CATEGORY_COUNT; b++) {
+                grid[a][b] = categoryPairs[index(a, b)];
+            }
+        }
+        return grid;
+    }
+
+    // Raw pair counts for IndexCache; callers must not modify them
+    int[] counts() {
+        return counts;
+    }
+
+    /**
+     * A matrix holding counts() read back, with the category pairs rolled up again
+     */
+    static CoOccurrenceMatrix restore(int[] counts) {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        if (counts.length != matrix.counts.length) {
+            throw new IllegalArgumentException("Expected " + matrix.counts.length + " counts, got " + counts.length);
+        }
+        System.arraycopy(counts, 0, matrix.counts, 0, counts.length);
+        for (int j = 1; j < EmotionIds.COUNT; j++) {
+            int row = triangleSize(j);
+            int second = EmotionIds.category(j).ordinal();
+            for (int i = 0; i < j; i++) {
+                matrix.categoryPairs[index(EmotionIds.category(i).ordinal(), second)] += counts[row + i];
+            }
+        }
+        return matrix;
+    }
+
+    // Keeps top sorted by count descending, then by ids, and at most limit long
+    private static void insertTop(List<Pair> top, Pair pair, int limit) {
+        if (limit <= 0) {
+            return;
+        }
+        int position = top.size();
+        while (position > 0 && top.get(position - 1).count < pair.count) {
+            position--;
+        }
+        if (position >= limit) {
+            return;
+        }
+        top.add(position, pair);
+        if (top.size() > limit) {
+            top.remove(top.size() - 1);
+        }
+    }
+
+    private static int index(int a, int b) {
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        return triangleSize(high) + low;
+    }
+
+    // Cells in rows 0..n-1 of a lower triangle that includes the diagonal
+    private static int triangleSize(int n) {
+        return n * (n + 1) / 2;
+    }
+}
@@ -0,0 +1,202 @@
+package analytics;
+
+import java.util.Arrays;
+
+import models.Emotion;
+import models.EmotionEntry;
+
+/**
+ * Compact per-day history: for every local day from the first entry up to today,
+ * the number of entries, emotions per category, and the energy level and
+ * journal sentiment totals used for the daily means. Five years of history is
+ * a few thousand ints per array.
+ */
+public class DailySeries {
+
+    private static final int CATEGORY_COUNT = Emotion.Category.values().length;
+
+    // Entries older than this (usually bad timestamps) are left out of the series
+    static final int MAX_DAYS = 20 * 366;
+
+    private final long firstEpochDay;
+    private final int[] entryCounts;
+    private final int[][] categoryCounts; // [category ordinal][day]
+    private final int[] energySums;
+    private final int[] energyCounts;
+    // Sentiment of scored journal text in thousandths, and how many entries were scored
+    private final int[] sentimentSums;
+    private final int[] sentimentCounts;
+
+    DailySeries(long firstEpochDay, int[] entryCounts, int[][] categoryCounts,
+                int[] energySums, int[] energyCounts, int[] sentimentSums, int[] sentimentCounts) {
+        this.firstEpochDay = firstEpochDay;
+        this.entryCounts = entryCounts;
+        this.categoryCounts = categoryCounts;
+        this.energySums = energySums;
+        this.energyCounts = energyCounts;
+        this.sentimentSums = sentimentSums;
+        this.sentimentCounts = sentimentCounts;
+    }
+
+    /**
+     * Number of days covered; day 0 is getFirstEpochDay()
+     */
+    public int length() {
+        return entryCounts.length;
+    }
+
+    public long getFirstEpochDay() {
+        return firstEpochDay;
+    }
+
+    public int getEntryCount(int day) {
+        return entryCounts[day];
+    }
+
+    public int getCategoryCount(Emotion.Category category, int day) {
+        return categoryCounts[category.ordinal()][day];
+    }
+
+    /**
+     * Mean energy level of the emotions logged that day, or NaN when none were
+     */
+    public double getMeanEnergy(int day) {
+        return energyCounts[day] == 0 ? Double.NaN : (double) energySums[day] / energyCounts[day];
+    }
+
+    /**
+     * Mean sentiment of the journal text scored that day, -1..1, or NaN when none was
+     */
+    public double getMeanSentiment(int day) {
+        return sentimentCounts[day] == 0 ? Double.NaN : sentimentSums[day] / 1000.0 / sentimentCounts[day];
+    }
+
+    /**
+     * Ascending epoch days with at least one entry
+     */
+    public int[] loggedEpochDays() {
+        int count = 0;
+        for (int entries : entryCounts) {
+            if (entries > 0) {
+                count++;
+            }
+        }
+        int[] days = new int[count];
+        int next = 0;
+        for (int day = 0; day < entryCounts.length; day++) {
+            if (entryCounts[day] > 0) {
+                days[next++] = (int) (firstEpochDay + day);
+            }
+        }
+        return days;
+    }
+
+    // Raw arrays for AnalyticsCache and chart preparation; callers must not modify them
+    int[] entryCounts() {
+        return entryCounts;
+    }
+
+    int[][] categoryCounts() {
+        return categoryCounts;
+    }
+
+    int[] energySums() {
+        return energySums;
+    }
+
+    int[] energyCounts() {
+        return energyCounts;
+    }
+
+    int[] sentimentSums() {
+        return sentimentSums;
+    }
+
+    int[] sentimentCounts() {
+        return sentimentCounts;
+    }
+
+    /**
+     * Accumulates entries by how many days before today they fall, growing
+     * backwards as older days show up, so no pre-pass is needed to find the start
+     */
+    static class Builder {
+        private final long todayEpochDay;
+        private int[] entryCounts = new int[64];
+        private int[][] categoryCounts = new int[CATEGORY_COUNT][64];
+        private int[] energySums = new int[64];
+        private int[] energyCounts = new int[64];
+        private int[] sentimentSums = new int[64];
+        private int[] sentimentCounts = new int[64];
+        private int maxDaysAgo = -1;
+
+        Builder(long todayEpochDay) {
+            this.todayEpochDay = todayEpochDay;
+        }
+
+        void add(long epochDay, EmotionEntry entry) {
+            int daysAgo = (int) (todayEpochDay - epochDay);
+            ensureCapacity(daysAgo + 1);
+            maxDaysAgo = Math.max(maxDaysAgo, daysAgo);
+
+            entryCounts[daysAgo]++;
+            if (entry.getSentimentScore() != null) {
+                sentimentSums[daysAgo] += SentimentScorer.thousandths(entry.getSentimentScore());
+                sentimentCounts[daysAgo]++;
+            }
+            if (entry.getEmotions() == null) {
+                return;
+            }
+            for (Emotion emotion : entry.getEmotions()) {
+                if (emotion.getCategory() != null) {
+                    categoryCounts[emotion.getCategory().ordinal()][daysAgo]++;
+                }
+                if (emotion.getEnergyLevel() > 0) {
+                    energySums[daysAgo] += emotion.getEnergyLevel();
+                    energyCounts[daysAgo]++;
+                }
+            }
+        }
+
+        private void ensureCapacity(int days) {
+            if (days <= entryCounts.length) {
+                return;
+            }
+            int capacity = Math.max(days, entryCounts.length * 2);
+            entryCounts = Arrays.copyOf(entryCounts, capacity);
+            energySums = Arrays.copyOf(energySums, capacity);
+            energyCounts = Arrays.copyOf(energyCounts, capacity);
+            sentimentSums = Arrays.copyOf(sentimentSums, capacity);
+            sentimentCounts = Arrays.copyOf(sentimentCounts, capacity);
+            for (int c = 0; c < CATEGORY_COUNT; c++) {
+                categoryCounts[c] = Arrays.copyOf(categoryCounts[c], capacity);
+            }
+        }
+
+        /**
+         * Series running forward from the oldest entry's day to today
+         */
+        DailySeries build() {
+            int length = maxDaysAgo + 1;
+            int[][] forwardCategories = new int[CATEGORY_COUNT][];
+            for (int c = 0; c < CATEGORY_COUNT; c++) {
+                forwardCategories[c] = reversed(categoryCounts[c], length);
+            }
+            return new DailySeries(todayEpochDay - maxDaysAgo,
+                    reversed(entryCounts, length),
+                    forwardCategories,
+                    reversed(energySums, length),
+                    reversed(energyCounts, length),
+                    reversed(sentimentSums, length),
+                    reversed(sentimentCounts, length));
+        }
+
+        private static int[] reversed(int[] byDaysAgo, int length) {
+            int[] forward = new int[length];
+            for (int i = 0; i < length; i++) {
+                forward[i] = byDaysAgo[length - 1 - i];
+            }
+            return forward;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package analytics;
+
+import java.util.List;
+
+import models.Emotion;
+
+/**
+ * Check-in and emotion counts for any range of local days, from Fenwick trees
+ * indexed by epoch day: one for entries, one for emotions and one per mood
+ * meter category. A range query or an entry change costs O(log days) per tree.
+ *
+ * The trees cover a window of days with room on both sides; a change outside
+ * it rebuilds them over a window at least twice as wide, which is O(days) but
+ * rare and amortized.
+ */
+public class DayRangeCounts {
+
+    private static final int CATEGORY_COUNT = Emotion.Category.values().length;
+
+    // Extra days allocated around the entries when the window is built or grows
+    private static final int SLACK_DAYS = 64;
+
+    private long firstEpochDay;
+    private FenwickTree checkins;
+    private FenwickTree emotions;
+    private final FenwickTree[] categories = new FenwickTree[CATEGORY_COUNT];
+
+    private long minEpochDay = Long.MAX_VALUE;
+    private long maxEpochDay = Long.MIN_VALUE;
+
+    public DayRangeCounts() {
+        this(0, new int[0], new int[0], new int[CATEGORY_COUNT][0]);
+    }
+
+    private DayRangeCounts(long firstEpochDay, int[] checkinCounts, int[] emotionCounts, int[][] categoryCounts) {
+        build(firstEpochDay, checkinCounts.length, checkinCounts, emotionCounts, categoryCounts);
+    }
+
+    /**
+     * Adds (delta 1) or removes (delta -1) an entry logged on epochDay
+     *
+     * @param categoryOrdinals the entry's emotions' category ordinals, -1 for none
+     */
+    public void apply(long epochDay, int[] categoryOrdinals, int delta) {
+        ensureCovers(epochDay);
+        int day = (int) (epochDay - firstEpochDay);
+        checkins.add(day, delta);
+        emotions.add(day, delta * categoryOrdinals.length);
+        for (int ordinal : categoryOrdinals) {
+            if (ordinal >= 0) {
+                categories[ordinal].add(day, delta);
+            }
+        }
+        if (delta > 0) {
+            minEpochDay = Math.min(minEpochDay, epochDay);
+            maxEpochDay = Math.max(maxEpochDay, epochDay);
+        }
+    }
+
+    /**
+     * Counts for the days from start to end, both inclusive
+     */
+    public TimeframeStats query(long startEpochDay, long endEpochDay) {
+        int from = (int) Math.max(0, startEpochDay - firstEpochDay);
+        int to = (int) Math.min(checkins.size() - 1, endEpochDay - firstEpochDay);
+        int[] categoryCounts = new int[CATEGORY_COUNT];
+        if (to < from) {
+            return new TimeframeStats(0, 0, categoryCounts);
+        }
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            categoryCounts[c] = categories[c].rangeSum(from, to);
+        }
+        return new TimeframeStats(checkins.rangeSum(from, to), emotions.rangeSum(from, to), categoryCounts);
+    }
+
+    /**
+     * Earliest day an entry was added on, or Long.MAX_VALUE if none was.
+     * Not moved by removals, so it can fall on a day that is now empty.
+     */
+    public long getMinEpochDay() {
+        return minEpochDay;
+    }
+
+    /**
+     * Latest day an entry was added on, or Long.MIN_VALUE if none was
+     */
+    public long getMaxEpochDay() {
+        return maxEpochDay;
+    }
+
+    /**
+     * Whether an entry on epochDay belongs in the counts: the same span of history
+     * the daily series keeps, up to the latest day a writer in a zone ahead of
+     * ours can be on. Keeps one bad timestamp from stretching the trees over
+     * centuries.
+     */
+    public static boolean isTracked(long epochDay, long todayEpochDay) {
+        return epochDay <= todayEpochDay + AnalyticsEngine.MAX_DAYS_AHEAD
+                && todayEpochDay - epochDay < DailySeries.MAX_DAYS;
+    }
+
+    /**
+     * Category ordinals of an entry's emotions, -1 where the category is missing
+     */
+    public static int[] categoryOrdinals(List<Emotion> emotionList) {
+        if (emotionList == null) {
+            return new int[0];
+        }
+        int[] ordinals = new int[emotionList.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            Emotion emotion = emotionList.get(i);
+            ordinals[i] = emotion != null && emotion.getCategory() != null ? emotion.getCategory().ordinal() : -1;
+        }
+        return ordinals;
+    }
+
+    long firstEpochDay() {
+        return firstEpochDay;
+    }
+
+    // Plain per-day counts for IndexCache: check-ins, emotions, then each category
+    int[][] countArrays() {
+        int[][] arrays = new int[2 + CATEGORY_COUNT][];
+        arrays[0] = checkins.toArray();
+        arrays[1] = emotions.toArray();
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            arrays[2 + c] = categories[c].toArray();
+        }
+        return arrays;
+    }
+
+    /**
+     * Counts holding countArrays() read back
+     */
+    static DayRangeCounts restore(long firstEpochDay, int[][] arrays, long minEpochDay, long maxEpochDay) {
+        if (arrays.length != 2 + CATEGORY_COUNT) {
+            throw new IllegalArgumentException("Expected " + (2 + CATEGORY_COUNT) + " arrays, got " + arrays.length);
+        }
+        for (int[] array : arrays) {
+            if (array.length != arrays[0].length) {
+                throw new IllegalArgumentException("Arrays differ in length");
+            }
+        }
+        int[][] categoryCounts = new int[CATEGORY_COUNT][];
+        System.arraycopy(arrays, 2, categoryCounts, 0, CATEGORY_COUNT);
+        DayRangeCounts counts = new DayRangeCounts(firstEpochDay, arrays[0], arrays[1], categoryCounts);
+        counts.minEpochDay = minEpochDay;
+        counts.maxEpochDay = maxEpochDay;
+        return counts;
+    }
+
+    private void ensureCovers(long epochDay) {
+        int size = checkins.size();
+        if (size > 0 && epochDay >= firstEpochDay && epochDay < firstEpochDay + size) {
+            return;
+        }
+
+        if (size == 0) {
+            // Nothing to keep: a fresh window centred on the day
+            int newSize = 2 * SLACK_DAYS;
+            build(epochDay - SLACK_DAYS, newSize, new int[newSize], new int[newSize],
+                    new int[CATEGORY_COUNT][newSize]);
+            return;
+        }
+
+        // Grow by at least the current size so repeated misses stay amortized O(1)
+        long slack = Math.max(SLACK_DAYS, size);
+        long newFirst = Math.min(firstEpochDay, epochDay - slack);
+        long newEnd = Math.max(firstEpochDay + size, epochDay + slack);
+        int offset = (int) (firstEpochDay - newFirst);
+        int newSize = (int) (newEnd - newFirst);
+
+        build(newFirst, newSize,
+                shifted(checkins.toArray(), offset, newSize),
+                shifted(emotions.toArray(), offset, newSize),
+                shiftedCategories(offset, newSize));
+    }
+
+    private int[][] shiftedCategories(int offset, int newSize) {
+        int[][] shifted = new int[CATEGORY_COUNT][];
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            shifted[c] = shifted(categories[c].toArray(), offset, newSize);
+        }
+        return shifted;
+    }
+
+    private static int[] shifted(int[] values, int offset, int newSize) {
+        int[] result = new int[newSize];
+        System.arraycopy(values, 0, result, offset, values.length);
+        return result;
+    }
+
+    private void build(long firstEpochDay, int size, int[] checkinCounts, int[] emotionCounts, int[][] categoryCounts) {
+        this.firstEpochDay = firstEpochDay;
+        checkins = FenwickTree.of(checkinCounts, size);
+        emotions = FenwickTree.of(emotionCounts, size);
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            categories[c] = FenwickTree.of(categoryCounts[c], size);
+        }
+    }
+
+    /**
+     * Counts for count entries, entry i logged on epochDays[i] with emotions in
+     * categoryOrdinals[i], built in one O(entries + days) pass
+     */
+    public static DayRangeCounts of(long[] epochDays, int[][] categoryOrdinals, int count) {
+        if (count == 0) {
+            return new DayRangeCounts();
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, epochDays[i]);
+            max = Math.max(max, epochDays[i]);
+        }
+
+        long first = min - SLACK_DAYS;
+        int size = (int) (max + SLACK_DAYS - first);
+        int[] checkinCounts = new int[size];
+        int[] emotionCounts = new int[size];
+        int[][] categoryCounts = new int[CATEGORY_COUNT][size];
+        for (int i = 0; i < count; i++) {
+            int day = (int) (epochDays[i] - first);
+            checkinCounts[day]++;
+            for (int ordinal : categoryOrdinals[i]) {
+                emotionCounts[day]++;
+                if (ordinal >= 0) {
+                    categoryCounts[ordinal][day]++;
+                }
+            }
+        }
+
+        DayRangeCounts counts = new DayRangeCounts(first, checkinCounts, emotionCounts, categoryCounts);
+        counts.minEpochDay = min;
+        counts.maxEpochDay = max;
+        return counts;
+    }
+}
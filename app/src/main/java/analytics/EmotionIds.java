@@ -0,0 +1,87 @@
+package analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import models.Emotion;
+import models.EmotionCatalog;
+
+/**
+ * Dense ids 0..COUNT-1 for the emotions users can log: the catalog's, in
+ * catalog order, then the first-run defaults that aren't in the catalog (see
+ * EmotionCatalog). An emotion is identified by its category and name, since
+ * energy levels repeat within a category and one name ("Hopeful") appears in
+ * two categories across the lists.
+ *
+ * Lookups match the name as shown, then its lower-case key, so the common
+ * case hashes the name without allocating.
+ */
+public class EmotionIds {
+
+    private static final Emotion[] EMOTIONS;
+    // Per category ordinal: id by display name and by key
+    private static final List<Map<String, Integer>> IDS = new ArrayList<>();
+
+    public static final int COUNT;
+
+    static {
+        for (int c = 0; c < Emotion.Category.values().length; c++) {
+            IDS.add(new HashMap<>());
+        }
+        List<Emotion> emotions = new ArrayList<>();
+        addAll(emotions, EmotionCatalog.getAll().values());
+        addAll(emotions, EmotionCatalog.createFirstRunDefaults().values());
+        EMOTIONS = emotions.toArray(new Emotion[0]);
+        COUNT = EMOTIONS.length;
+    }
+
+    private EmotionIds() {
+    }
+
+    /**
+     * The emotion's id, or -1 if it has no category or isn't in either list
+     */
+    public static int of(Emotion emotion) {
+        if (emotion == null || emotion.getCategory() == null || emotion.getName() == null) {
+            return -1;
+        }
+        Map<String, Integer> ids = IDS.get(emotion.getCategory().ordinal());
+        Integer id = ids.get(emotion.getName());
+        if (id == null) {
+            id = ids.get(EmotionCatalog.key(emotion.getName()));
+        }
+        return id == null ? -1 : id;
+    }
+
+    public static Emotion.Category category(int id) {
+        return EMOTIONS[id].getCategory();
+    }
+
+    public static String name(int id) {
+        return EMOTIONS[id].getName();
+    }
+
+    /**
+     * A copy of the listed emotion with this id
+     */
+    public static Emotion emotion(int id) {
+        Emotion emotion = EMOTIONS[id];
+        return new Emotion(emotion.getName(), emotion.getCategory(), emotion.getDefinition(), emotion.getEnergyLevel());
+    }
+
+    // Gives each emotion not seen yet in its category the next id
+    private static void addAll(List<Emotion> emotions, Iterable<Emotion> list) {
+        for (Emotion emotion : list) {
+            Map<String, Integer> ids = IDS.get(emotion.getCategory().ordinal());
+            String key = EmotionCatalog.key(emotion.getName());
+            if (ids.containsKey(key)) {
+                continue;
+            }
+            ids.put(key, emotions.size());
+            ids.put(emotion.getName(), emotions.size());
+            emotions.add(emotion);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package analytics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import models.Emotion;
+import models.EmotionEntry;
+
+/**
+ * Guesses which emotions the user is about to log, from their own history, so
+ * the first check-in screen can offer them for a single tap.
+ *
+ * Two small models are mixed. One is how often each emotion comes up at this
+ * time of day and on this weekday, combined naive Bayes style from separate
+ * four-hour band and weekday counts, so a few dozen entries already say
+ * something. The other is a first-order transition model: what tends to follow
+ * the emotions of the last entry. It only applies while the last entry is
+ * recent, and gets more weight the more often that last emotion has been seen
+ * followed by something.
+ *
+ * Everything is counts, updated once per new entry, and the whole state is
+ * saved with encode() and restored with decode(), so predicting never needs
+ * the entry history. Emotions are keyed by EmotionIds, and the newest copy of
+ * each one seen is kept, energy level included, so a pick can go into an entry
+ * without loading the catalog. Saved state records the emotion list's size and
+ * each emotion's category and name, and is dropped if the ids no longer match.
+ */
+public class EmotionPredictor {
+
+    private static final int COUNT = EmotionIds.COUNT;
+    private static final int HOURS_PER_BAND = 4;
+    private static final int BANDS = 24 / HOURS_PER_BAND;
+    private static final int WEEKDAYS = HourWeekdayMatrix.WEEKDAYS;
+
+    // Sections of the flat count array: per emotion, per band, per weekday, per transition
+    private static final int TOTALS = 0;
+    private static final int BAND_COUNTS = TOTALS + COUNT;
+    private static final int WEEKDAY_COUNTS = BAND_COUNTS + BANDS * COUNT;
+    private static final int TRANSITIONS = WEEKDAY_COUNTS + WEEKDAYS * COUNT;
+    private static final int CELLS = TRANSITIONS + COUNT * COUNT;
+
+    // Entries needed before predicting, and the fewest picks worth a row
+    static final int MIN_ENTRIES = 3;
+    public static final int MIN_PICKS = 3;
+    public static final int MAX_PICKS = 5;
+
+    // How long after an entry the next one counts as following it
+    static final long TRANSITION_WINDOW_MS = 2L * 24 * 60 * 60 * 1000;
+
+    // Transitions seen from the last emotions at which both models weigh the same
+    static final double TRANSITION_PRIOR = 4;
+
+    private static final int FORMAT_VERSION = 3;
+
+    private final int[] counts = new int[CELLS];
+    private final int[] outgoing = new int[COUNT];
+    private final Emotion[] known = new Emotion[COUNT];
+    private int[] lastIds = new int[0];
+    private long lastTimestamp;
+    private int entryCount;
+
+    /**
+     * A predictor that has seen the entries, oldest first
+     */
+    public static EmotionPredictor of(Collection<EmotionEntry> entries) {
+        List<EmotionEntry> sorted = new ArrayList<>(entries);
+        sorted.sort((a, b) -> Long.compare(a.getTimestampMillis(), b.getTimestampMillis()));
+        EmotionPredictor predictor = new EmotionPredictor();
+        for (EmotionEntry entry : sorted) {
+            predictor.update(entry);
+        }
+        return predictor;
+    }
+
+    /**
+     * Counts a new entry. Entries without local time, without emotions, or not
+     * newer than the last one seen (edits, backdated entries, repeats) are
+     * ignored, since the last entry is what transitions start from.
+     *
+     * @return whether the entry was counted
+     */
+    public boolean update(EmotionEntry entry) {
+        int cell = HourWeekdayMatrix.cell(entry);
+        if (cell < 0 || entry.getTimestampMillis() <= lastTimestamp) {
+            return false;
+        }
+        int[] ids = ids(entry.getEmotions());
+        if (ids.length == 0) {
+            return false;
+        }
+
+        int band = cell % HourWeekdayMatrix.HOURS / HOURS_PER_BAND;
+        int weekday = cell / HourWeekdayMatrix.HOURS;
+        boolean follows = entryCount > 0 && entry.getTimestampMillis() - lastTimestamp <= TRANSITION_WINDOW_MS;
+        for (int id : ids) {
+            counts[TOTALS + id]++;
+            counts[BAND_COUNTS + band * COUNT + id]++;
+            counts[WEEKDAY_COUNTS + weekday * COUNT + id]++;
+            if (follows) {
+                for (int last : lastIds) {
+                    counts[TRANSITIONS + last * COUNT + id]++;
+                    outgoing[last]++;
+                }
+            }
+        }
+        for (Emotion emotion : entry.getEmotions()) {
+            int id = EmotionIds.of(emotion);
+            if (id >= 0) {
+                known[id] = new Emotion(emotion.getName(), emotion.getCategory(), emotion.getDefinition(),
+                        emotion.getEnergyLevel());
+            }
+        }
+
+        lastIds = ids;
+        lastTimestamp = entry.getTimestampMillis();
+        entryCount++;
+        return true;
+    }
+
+    /**
+     * The emotions most likely to be logged next, best first: none until there
+     * is enough history, otherwise between MIN_PICKS and limit of them
+     *
+     * @param nowMillis when the check-in happens
+     * @param epochDay its local day
+     * @param minuteOfDay its local minutes since midnight
+     */
+    public List<Emotion> predict(long nowMillis, long epochDay, int minuteOfDay, int limit) {
+        List<Emotion> picks = new ArrayList<>();
+        if (entryCount < MIN_ENTRIES) {
+            return picks;
+        }
+        double[] scores = scores(nowMillis, epochDay, minuteOfDay);
+
+        int wanted = Math.min(Math.max(limit, MIN_PICKS), MAX_PICKS);
+        boolean[] taken = new boolean[COUNT];
+        while (picks.size() < wanted) {
+            int best = -1;
+            for (int id = 0; id < COUNT; id++) {
+                if (!taken[id] && known[id] != null && (best < 0 || scores[id] > scores[best])) {
+                    best = id;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            taken[best] = true;
+            picks.add(known[best]);
+        }
+        if (picks.size() < MIN_PICKS) {
+            picks.clear();
+        }
+        return picks;
+    }
+
+    // Each emotion's mixed probability of coming next
+    private double[] scores(long nowMillis, long epochDay, int minuteOfDay) {
+        int cell = HourWeekdayMatrix.cell(epochDay, minuteOfDay);
+        int band = cell % HourWeekdayMatrix.HOURS / HOURS_PER_BAND;
+        int weekday = cell / HourWeekdayMatrix.HOURS;
+
+        // P(emotion) P(band | emotion) P(weekday | emotion), with add-one smoothing
+        double[] timeScores = new double[COUNT];
+        double timeSum = 0;
+        for (int id = 0; id < COUNT; id++) {
+            int total = counts[TOTALS + id];
+            if (total == 0) {
+                continue;
+            }
+            timeScores[id] = total
+                    * (counts[BAND_COUNTS + band * COUNT + id] + 1.0) / (total + BANDS)
+                    * (counts[WEEKDAY_COUNTS + weekday * COUNT + id] + 1.0) / (total + WEEKDAYS);
+            timeSum += timeScores[id];
+        }
+
+        double[] transitionScores = new double[COUNT];
+        int seen = 0;
+        if (nowMillis - lastTimestamp <= TRANSITION_WINDOW_MS) {
+            for (int last : lastIds) {
+                seen += outgoing[last];
+                for (int id = 0; id < COUNT && outgoing[last] > 0; id++) {
+                    transitionScores[id] += (double) counts[TRANSITIONS + last * COUNT + id] / outgoing[last];
+                }
+            }
+        }
+        double weight = seen / (seen + TRANSITION_PRIOR);
+
+        double[] scores = new double[COUNT];
+        for (int id = 0; id < COUNT; id++) {
+            double time = timeSum > 0 ? timeScores[id] / timeSum : 0;
+            double transition = lastIds.length > 0 ? transitionScores[id] / lastIds.length : 0;
+            scores[id] = weight * transition + (1 - weight) * time;
+        }
+        return scores;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    // Distinct known ids of the emotions, in order
+    private static int[] ids(List<Emotion> emotions) {
+        if (emotions == null) {
+            return new int[0];
+        }
+        int[] ids = new int[emotions.size()];
+        int size = 0;
+        for (Emotion emotion : emotions) {
+            int id = EmotionIds.of(emotion);
+            boolean repeat = false;
+            for (int i = 0; i < size && !repeat; i++) {
+                repeat = ids[i] == id;
+            }
+            if (id >= 0 && !repeat) {
+                ids[size++] = id;
+            }
+        }
+        int[] trimmed = new int[size];
+        System.arraycopy(ids, 0, trimmed, 0, size);
+        return trimmed;
+    }
+
+    /**
+     * The state as a string for SharedPreferences: a header line, the nonzero
+     * counts, then one line per emotion seen
+     */
+    public String encode() {
+        StringBuilder out = new StringBuilder();
+        out.append(FORMAT_VERSION).append(',').append(COUNT).append(',').append(entryCount)
+                .append(',').append(lastTimestamp);
+        for (int id : lastIds) {
+            out.append(',').append(id);
+        }
+        out.append('\n');
+        boolean first = true;
+        for (int i = 0; i < CELLS; i++) {
+            if (counts[i] != 0) {
+                out.append(first ? "" : ",").append(i).append(':').append(counts[i]);
+                first = false;
+            }
+        }
+        for (int id = 0; id < COUNT; id++) {
+            if (known[id] != null) {
+                Emotion emotion = known[id];
+                out.append('\n').append(id).append('\t').append(emotion.getCategory().name())
+                        .append('\t').append(clean(emotion.getName()))
+                        .append('\t').append(emotion.getEnergyLevel())
+                        .append('\t').append(clean(emotion.getDefinition()));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Restores encode()'s output; anything unreadable or from another format starts fresh
+     */
+    public static EmotionPredictor decode(String encoded) {
+        EmotionPredictor predictor = new EmotionPredictor();
+        if (encoded == null || encoded.isEmpty()) {
+            return predictor;
+        }
+        String[] lines = encoded.split("\n", -1);
+        String[] header = lines[0].split(",");
+        // Ids and cells number a list of COUNT emotions; any other list starts fresh
+        if (lines.length < 2 || header.length < 4 || !String.valueOf(FORMAT_VERSION).equals(header[0])
+                || !String.valueOf(COUNT).equals(header[1])) {
+            return predictor;
+        }
+        try {
+            predictor.entryCount = Integer.parseInt(header[2]);
+            predictor.lastTimestamp = Long.parseLong(header[3]);
+            predictor.lastIds = new int[header.length - 4];
+            for (int i = 4; i < header.length; i++) {
+                predictor.lastIds[i - 4] = checkId(Integer.parseInt(header[i]));
+            }
+            if (!lines[1].isEmpty()) {
+                for (String pair : lines[1].split(",")) {
+                    int colon = pair.indexOf(':');
+                    int index = Integer.parseInt(pair.substring(0, colon));
+                    int count = Integer.parseInt(pair.substring(colon + 1));
+                    predictor.counts[index] = count;
+                    if (index >= TRANSITIONS) {
+                        predictor.outgoing[(index - TRANSITIONS) / COUNT] += count;
+                    }
+                }
+            }
+            for (int i = 2; i < lines.length; i++) {
+                String[] fields = lines[i].split("\t", -1);
+                int id = checkId(Integer.parseInt(fields[0]));
+                Emotion emotion = new Emotion(fields[2], Emotion.Category.valueOf(fields[1]), fields[4],
+                        Integer.parseInt(fields[3]));
+                if (EmotionIds.of(emotion) != id) {
+                    throw new IllegalArgumentException("Emotion " + id + " is now " + EmotionIds.name(id));
+                }
+                predictor.known[id] = emotion;
+            }
+        } catch (RuntimeException e) {
+            // Bad numbers, missing fields, indexes out of range or renumbered emotions
+            return new EmotionPredictor();
+        }
+        return predictor;
+    }
+
+    private static int checkId(int id) {
+        if (id < 0 || id >= COUNT) {
+            throw new IllegalArgumentException("Emotion id out of range: " + id);
+        }
+        return id;
+    }
+
+    // Tabs and line breaks would split the saved line
+    private static String clean(String text) {
+        return text == null ? "" : text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "EmotionPredictor{n=%d, lastIds=%d}", entryCount, lastIds.length);
+    }
+}
@@ -0,0 +1,82 @@
+package analytics;
+
+/**
+ * Binary indexed tree over int counts: point updates and range sums in
+ * O(log n), built from plain counts in O(n).
+ */
+public class FenwickTree {
+
+    private final int[] tree; // 1-based
+
+    public FenwickTree(int size) {
+        tree = new int[size + 1];
+    }
+
+    /**
+     * Tree over values[0..size), where values may be shorter than size
+     */
+    public static FenwickTree of(int[] values, int size) {
+        FenwickTree fenwick = new FenwickTree(size);
+        int[] tree = fenwick.tree;
+        for (int i = 0; i < Math.min(values.length, size); i++) {
+            tree[i + 1] = values[i];
+        }
+        // Push each node's sum to its parent once
+        for (int i = 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+        return fenwick;
+    }
+
+    public int size() {
+        return tree.length - 1;
+    }
+
+    public void add(int index, int delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Sum of values[0..index], or 0 for index < 0
+     */
+    public int prefixSum(int index) {
+        int sum = 0;
+        for (int i = Math.min(index + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of values[from..to], both inclusive; 0 when the range is empty
+     */
+    public int rangeSum(int from, int to) {
+        if (to < from) {
+            return 0;
+        }
+        return prefixSum(to) - prefixSum(from - 1);
+    }
+
+    /**
+     * The plain counts back out, in O(n)
+     */
+    public int[] toArray() {
+        int size = size();
+        int[] values = new int[size];
+        int[] copy = tree.clone();
+        // Undo the build: subtract each node's sum from its parent, top down
+        for (int i = size; i >= 1; i--) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                copy[parent] -= copy[i];
+            }
+        }
+        System.arraycopy(copy, 1, values, 0, size);
+        return values;
+    }
+}
@@ -0,0 +1,163 @@
+package analytics;
+
+import java.util.Collection;
+
+import models.Emotion;
+import models.EmotionEntry;
+
+/**
+ * When check-ins happen: counts per (weekday, hour) cell of the writer's local
+ * time, 7 x 24 = 168 cells, for all check-ins and per mood meter category.
+ * Weekdays run Sunday (0) to Saturday (6), like the analytics weeks.
+ *
+ * Cells are worked out from an entry's stored local day and minute of day with
+ * integer arithmetic, so a rebuild over many thousands of entries takes a few
+ * milliseconds, and a save or delete touches one cell per tree.
+ */
+public class HourWeekdayMatrix {
+
+    public static final int HOURS = 24;
+    public static final int WEEKDAYS = 7;
+    public static final int CELLS = HOURS * WEEKDAYS;
+
+    private static final int CATEGORY_COUNT = Emotion.Category.values().length;
+
+    private final int[] checkins = new int[CELLS];
+    private final int[][] categories = new int[CATEGORY_COUNT][CELLS];
+
+    public static HourWeekdayMatrix of(Collection<EmotionEntry> entries) {
+        HourWeekdayMatrix matrix = new HourWeekdayMatrix();
+        for (EmotionEntry entry : entries) {
+            int cell = cell(entry);
+            if (cell >= 0) {
+                matrix.apply(cell, DayRangeCounts.categoryOrdinals(entry.getEmotions()), 1);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * The entry's cell, or -1 if it has no stored local time
+     */
+    public static int cell(EmotionEntry entry) {
+        if (!entry.hasLocalTime()) {
+            return -1;
+        }
+        return cell(entry.getEpochDay(), entry.localMinuteOfDay());
+    }
+
+    public static int cell(long epochDay, int minuteOfDay) {
+        // 1970-01-01 was a Thursday, weekday 4 counting from Sunday
+        int weekday = (int) Math.floorMod(epochDay + 4, (long) WEEKDAYS);
+        return weekday * HOURS + minuteOfDay / 60;
+    }
+
+    /**
+     * Adds (delta 1) or removes (delta -1) a check-in in the cell
+     *
+     * @param categoryOrdinals the entry's emotions' category ordinals, -1 for none
+     */
+    public void apply(int cell, int[] categoryOrdinals, int delta) {
+        checkins[cell] += delta;
+        for (int ordinal : categoryOrdinals) {
+            if (ordinal >= 0) {
+                categories[ordinal][cell] += delta;
+            }
+        }
+    }
+
+    public int getCheckins(int weekday, int hour) {
+        return checkins[weekday * HOURS + hour];
+    }
+
+    public int getCategoryCount(Emotion.Category category, int weekday, int hour) {
+        return categories[category.ordinal()][weekday * HOURS + hour];
+    }
+
+    /**
+     * Check-ins per hour of the day, all weekdays together
+     */
+    public int[] hourHistogram() {
+        int[] hours = new int[HOURS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            hours[cell % HOURS] += checkins[cell];
+        }
+        return hours;
+    }
+
+    /**
+     * Check-ins per weekday, Sunday first
+     */
+    public int[] weekdayHistogram() {
+        int[] weekdays = new int[WEEKDAYS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            weekdays[cell / HOURS] += checkins[cell];
+        }
+        return weekdays;
+    }
+
+    /**
+     * Emotions per category per hour of the day, [category ordinal][hour]
+     */
+    public int[][] categoryHourHistogram() {
+        int[][] hours = new int[CATEGORY_COUNT][HOURS];
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                hours[c][cell % HOURS] += categories[c][cell];
+            }
+        }
+        return hours;
+    }
+
+    /**
+     * The category logged most in the cell, or null if none was (ties go to the lower ordinal)
+     */
+    public Emotion.Category dominantCategory(int weekday, int hour) {
+        int cell = weekday * HOURS + hour;
+        int best = -1;
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            if (categories[c][cell] > 0 && (best < 0 || categories[c][cell] > categories[best][cell])) {
+                best = c;
+            }
+        }
+        return best < 0 ? null : Emotion.Category.values()[best];
+    }
+
+    // Raw counts for IndexCache; callers must not modify them
+    int[] checkins() {
+        return checkins;
+    }
+
+    int[][] categories() {
+        return categories;
+    }
+
+    /**
+     * A matrix holding checkins() and categories() read back
+     */
+    static HourWeekdayMatrix restore(int[] checkins, int[][] categories) {
+        HourWeekdayMatrix matrix = new HourWeekdayMatrix();
+        if (checkins.length != CELLS || categories.length != CATEGORY_COUNT) {
+            throw new IllegalArgumentException("Wrong matrix size");
+        }
+        System.arraycopy(checkins, 0, matrix.checkins, 0, CELLS);
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            if (categories[c].length != CELLS) {
+                throw new IllegalArgumentException("Wrong matrix size");
+            }
+            System.arraycopy(categories[c], 0, matrix.categories[c], 0, CELLS);
+        }
+        return matrix;
+    }
+
+    /**
+     * Most check-ins in any one cell
+     */
+    public int maxCheckins() {
+        int max = 0;
+        for (int count : checkins) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+}
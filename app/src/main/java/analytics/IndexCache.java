@@ -0,0 +1,231 @@
+package analytics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The entry index's counts (co-occurrence, day ranges, check-in times), kept
+ * on disk next to AnalyticsCache so a cold start whose analytics come from
+ * that cache doesn't download every entry just for these cards.
+ *
+ * Keyed like AnalyticsCache by user id and data version, so any save or delete
+ * since makes it a miss. Only the totals are kept, not what each entry added,
+ * so counts read back can't take in later changes. Each put is serialized
+ * right away, since the index keeps changing the objects afterwards, and
+ * written to disk on a background thread. An unreadable file is an empty cache.
+ */
+public class IndexCache {
+
+    private static final String FILE_NAME = "entry_index_cache.bin";
+    private static final int FORMAT_VERSION = 1;
+
+    // Same as AnalyticsCache: users signed in on this device whose counts we keep
+    private static final int MAX_USERS = 4;
+
+    private static IndexCache instance;
+
+    private final File file;
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor();
+
+    // Least recently used user first; each user's counts as written to disk
+    private final LinkedHashMap<String, UserCounts> counts = new LinkedHashMap<>(8, 0.75f, true);
+
+    private static class UserCounts {
+        final long dataVersion;
+        final byte[] bytes;
+
+        UserCounts(long dataVersion, byte[] bytes) {
+            this.dataVersion = dataVersion;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * The three indexes as read back; fresh objects the caller may change
+     */
+    public static class Indexes {
+        private final CoOccurrenceMatrix coOccurrence;
+        private final DayRangeCounts dayRangeCounts;
+        private final HourWeekdayMatrix hourWeekday;
+
+        Indexes(CoOccurrenceMatrix coOccurrence, DayRangeCounts dayRangeCounts, HourWeekdayMatrix hourWeekday) {
+            this.coOccurrence = coOccurrence;
+            this.dayRangeCounts = dayRangeCounts;
+            this.hourWeekday = hourWeekday;
+        }
+
+        public CoOccurrenceMatrix getCoOccurrence() {
+            return coOccurrence;
+        }
+
+        public DayRangeCounts getDayRangeCounts() {
+            return dayRangeCounts;
+        }
+
+        public HourWeekdayMatrix getHourWeekday() {
+            return hourWeekday;
+        }
+    }
+
+    IndexCache(File file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * @param cacheDir directory the cache file lives in (e.g. Context.getCacheDir())
+     */
+    public static synchronized IndexCache getInstance(File cacheDir) {
+        if (instance == null) {
+            instance = new IndexCache(new File(cacheDir, FILE_NAME));
+        }
+        return instance;
+    }
+
+    /**
+     * The user's indexes at this data version, or null if none are cached
+     */
+    public synchronized Indexes get(String userId, long dataVersion) {
+        UserCounts userCounts = counts.get(userId);
+        if (userCounts == null || userCounts.dataVersion != dataVersion) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(userCounts.bytes))) {
+            return read(in);
+        } catch (IOException | RuntimeException e) {
+            counts.remove(userId);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the user's indexes as of this data version, replacing older ones
+     */
+    public synchronized void put(String userId, long dataVersion, CoOccurrenceMatrix coOccurrence,
+                                 DayRangeCounts dayRangeCounts, HourWeekdayMatrix hourWeekday) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, coOccurrence, dayRangeCounts, hourWeekday);
+        } catch (IOException e) {
+            return;
+        }
+
+        counts.remove(userId);
+        counts.put(userId, new UserCounts(dataVersion, bytes.toByteArray()));
+        Iterator<String> oldest = counts.keySet().iterator();
+        while (counts.size() > MAX_USERS && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+
+        saveExecutor.execute(this::save);
+    }
+
+    /**
+     * Waits for the saves queued so far to reach the file
+     */
+    void awaitSaved() throws InterruptedException, ExecutionException {
+        saveExecutor.submit(() -> { }).get();
+    }
+
+    private static void write(DataOutputStream out, CoOccurrenceMatrix coOccurrence,
+                              DayRangeCounts dayRangeCounts, HourWeekdayMatrix hourWeekday) throws IOException {
+        CacheFile.writeInts(out, coOccurrence.counts());
+
+        out.writeLong(dayRangeCounts.firstEpochDay());
+        out.writeLong(dayRangeCounts.getMinEpochDay());
+        out.writeLong(dayRangeCounts.getMaxEpochDay());
+        int[][] dayArrays = dayRangeCounts.countArrays();
+        out.writeInt(dayArrays.length);
+        for (int[] array : dayArrays) {
+            CacheFile.writeInts(out, array);
+        }
+
+        CacheFile.writeInts(out, hourWeekday.checkins());
+        out.writeInt(hourWeekday.categories().length);
+        for (int[] array : hourWeekday.categories()) {
+            CacheFile.writeInts(out, array);
+        }
+    }
+
+    // The sizes are checked again when the objects are rebuilt
+    private static Indexes read(DataInputStream in) throws IOException {
+        CoOccurrenceMatrix coOccurrence = CoOccurrenceMatrix.restore(CacheFile.readInts(in));
+
+        long firstEpochDay = in.readLong();
+        long minEpochDay = in.readLong();
+        long maxEpochDay = in.readLong();
+        int[][] dayArrays = new int[CacheFile.checkLength(in, in.readInt(), Integer.BYTES)][];
+        for (int i = 0; i < dayArrays.length; i++) {
+            dayArrays[i] = CacheFile.readInts(in);
+        }
+        DayRangeCounts dayRangeCounts = DayRangeCounts.restore(firstEpochDay, dayArrays, minEpochDay, maxEpochDay);
+
+        int[] checkins = CacheFile.readInts(in);
+        int[][] categories = new int[CacheFile.checkLength(in, in.readInt(), Integer.BYTES)][];
+        for (int c = 0; c < categories.length; c++) {
+            categories[c] = CacheFile.readInts(in);
+        }
+        HourWeekdayMatrix hourWeekday = HourWeekdayMatrix.restore(checkins, categories);
+
+        return new Indexes(coOccurrence, dayRangeCounts, hourWeekday);
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = CacheFile.open(file)) {
+            // Emotion ids number the co-occurrence cells, so a changed list is a miss
+            if (in.readInt() != FORMAT_VERSION || in.readInt() != EmotionIds.COUNT) {
+                return;
+            }
+            int userCount = CacheFile.checkLength(in, in.readInt(), 1);
+            for (int u = 0; u < userCount; u++) {
+                String userId = in.readUTF();
+                long dataVersion = in.readLong();
+                byte[] bytes = new byte[CacheFile.checkLength(in, in.readInt(), 1)];
+                in.readFully(bytes);
+                counts.put(userId, new UserCounts(dataVersion, bytes));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Unreadable cache is just a cold cache
+            counts.clear();
+        }
+    }
+
+    // Runs on saveExecutor: copies the records under the lock, then writes without holding it
+    private void save() {
+        try {
+            CacheFile.replace(file, serialize());
+        } catch (IOException e) {
+            // Kept in memory; the next put tries again
+        }
+    }
+
+    private synchronized byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(EmotionIds.COUNT);
+            out.writeInt(counts.size());
+            for (Map.Entry<String, UserCounts> user : counts.entrySet()) {
+                out.writeUTF(user.getKey());
+                out.writeLong(user.getValue().dataVersion);
+                out.writeInt(user.getValue().bytes.length);
+                out.write(user.getValue().bytes);
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
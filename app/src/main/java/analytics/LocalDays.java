@@ -0,0 +1,34 @@
+package analytics;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+
+/**
+ * Maps timestamps to local calendar days (epoch days) in one time zone,
+ * without allocating for fixed-offset zones
+ */
+public class LocalDays {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private final ZoneRules rules;
+    private final boolean fixedOffset;
+    private final long fixedOffsetMillis;
+
+    public LocalDays(ZoneId zone) {
+        rules = zone.getRules();
+        fixedOffset = rules.isFixedOffset();
+        fixedOffsetMillis = fixedOffset ? rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L : 0;
+    }
+
+    /**
+     * Local epoch day containing the instant
+     */
+    public long epochDay(long epochMillis) {
+        long offsetMillis = fixedOffset
+                ? fixedOffsetMillis
+                : rules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+        return Math.floorDiv(epochMillis + offsetMillis, MILLIS_PER_DAY);
+    }
+}
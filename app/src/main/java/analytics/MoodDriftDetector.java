@@ -0,0 +1,200 @@
+package analytics;
+
+import java.util.List;
+import java.util.Locale;
+
+import models.Emotion;
+
+/**
+ * Notices a sustained shift toward unpleasant emotions from exponentially
+ * weighted moving averages, updated once per new entry.
+ *
+ * Each category's share of an entry's emotions, and the entry's mean energy
+ * level, feed a fast average (about the last week of entries) and a slow one
+ * (a couple of months). Drift is flagged when the fast unpleasant share is
+ * high and has pulled clearly above the slow baseline; it clears only once the
+ * fast average has come most of the way back, so the message doesn't flicker
+ * from one entry to the next.
+ *
+ * The whole state is a dozen numbers, saved with encode() and restored with
+ * decode(), so checking for drift never needs the entry history.
+ */
+public class MoodDriftDetector {
+
+    private static final int CATEGORY_COUNT = Emotion.Category.values().length;
+
+    // Weights of the newest entry; about 7 and 60 entries of memory
+    static final double FAST_ALPHA = 0.25;
+    static final double SLOW_ALPHA = 0.03;
+
+    // Entries needed before the averages mean anything
+    static final int MIN_ENTRIES = 10;
+
+    // Drift starts when the fast unpleasant share is at least this and this far above the slow one
+    static final double DRIFT_SHARE = 0.6;
+    static final double DRIFT_MARGIN = 0.2;
+
+    // ...and ends when the gap closes to this
+    static final double RECOVERY_MARGIN = 0.08;
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Which way the shift points
+     */
+    public enum Drift {
+        NONE,
+        TENSE,  // mostly high energy unpleasant
+        LOW     // mostly low energy unpleasant
+    }
+
+    private final double[] fastShares = new double[CATEGORY_COUNT];
+    private final double[] slowShares = new double[CATEGORY_COUNT];
+    private double fastEnergy;
+    private double slowEnergy;
+    private int entryCount;
+    private long lastTimestamp;
+    private boolean drifting;
+
+    /**
+     * Folds in a new entry. Entries not newer than the last one seen (edits,
+     * backdated entries, repeats) are ignored, since an average can't take an
+     * old value back out.
+     *
+     * @return whether the entry was counted
+     */
+    public boolean update(List<Emotion> emotions, long timestampMillis) {
+        if (timestampMillis <= lastTimestamp || emotions == null) {
+            return false;
+        }
+
+        double[] shares = new double[CATEGORY_COUNT];
+        int counted = 0;
+        int energySum = 0;
+        for (Emotion emotion : emotions) {
+            if (emotion == null || emotion.getCategory() == null) {
+                continue;
+            }
+            shares[emotion.getCategory().ordinal()]++;
+            energySum += emotion.getEnergyLevel();
+            counted++;
+        }
+        if (counted == 0) {
+            return false;
+        }
+
+        lastTimestamp = timestampMillis;
+        double energy = (double) energySum / counted;
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            shares[c] /= counted;
+        }
+
+        if (entryCount == 0) {
+            // Start both averages at the first entry rather than at zero
+            System.arraycopy(shares, 0, fastShares, 0, CATEGORY_COUNT);
+            System.arraycopy(shares, 0, slowShares, 0, CATEGORY_COUNT);
+            fastEnergy = energy;
+            slowEnergy = energy;
+        } else {
+            for (int c = 0; c < CATEGORY_COUNT; c++) {
+                fastShares[c] += FAST_ALPHA * (shares[c] - fastShares[c]);
+                slowShares[c] += SLOW_ALPHA * (shares[c] - slowShares[c]);
+            }
+            fastEnergy += FAST_ALPHA * (energy - fastEnergy);
+            slowEnergy += SLOW_ALPHA * (energy - slowEnergy);
+        }
+        entryCount++;
+
+        double gap = unpleasant(fastShares) - unpleasant(slowShares);
+        if (drifting) {
+            drifting = gap > RECOVERY_MARGIN;
+        } else {
+            drifting = entryCount >= MIN_ENTRIES
+                    && unpleasant(fastShares) >= DRIFT_SHARE
+                    && gap >= DRIFT_MARGIN;
+        }
+        return true;
+    }
+
+    public Drift getDrift() {
+        if (!drifting) {
+            return Drift.NONE;
+        }
+        return fastShares[Emotion.Category.HIGH_ENERGY_UNPLEASANT.ordinal()]
+                >= fastShares[Emotion.Category.LOW_ENERGY_UNPLEASANT.ordinal()] ? Drift.TENSE : Drift.LOW;
+    }
+
+    public double getFastShare(Emotion.Category category) {
+        return fastShares[category.ordinal()];
+    }
+
+    public double getSlowShare(Emotion.Category category) {
+        return slowShares[category.ordinal()];
+    }
+
+    public double getFastEnergy() {
+        return fastEnergy;
+    }
+
+    public double getSlowEnergy() {
+        return slowEnergy;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    private static double unpleasant(double[] shares) {
+        return shares[Emotion.Category.HIGH_ENERGY_UNPLEASANT.ordinal()]
+                + shares[Emotion.Category.LOW_ENERGY_UNPLEASANT.ordinal()];
+    }
+
+    /**
+     * The state as one short string, for SharedPreferences
+     */
+    public String encode() {
+        StringBuilder out = new StringBuilder();
+        out.append(FORMAT_VERSION).append(',').append(entryCount).append(',').append(lastTimestamp)
+                .append(',').append(drifting ? 1 : 0);
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            out.append(',').append(fastShares[c]).append(',').append(slowShares[c]);
+        }
+        out.append(',').append(fastEnergy).append(',').append(slowEnergy);
+        return out.toString();
+    }
+
+    /**
+     * Restores encode()'s output; anything unreadable or from another format starts fresh
+     */
+    public static MoodDriftDetector decode(String encoded) {
+        MoodDriftDetector detector = new MoodDriftDetector();
+        if (encoded == null || encoded.isEmpty()) {
+            return detector;
+        }
+        String[] parts = encoded.split(",");
+        if (parts.length != 4 + 2 * CATEGORY_COUNT + 2 || !String.valueOf(FORMAT_VERSION).equals(parts[0])) {
+            return detector;
+        }
+        try {
+            detector.entryCount = Integer.parseInt(parts[1]);
+            detector.lastTimestamp = Long.parseLong(parts[2]);
+            detector.drifting = "1".equals(parts[3]);
+            int next = 4;
+            for (int c = 0; c < CATEGORY_COUNT; c++) {
+                detector.fastShares[c] = Double.parseDouble(parts[next++]);
+                detector.slowShares[c] = Double.parseDouble(parts[next++]);
+            }
+            detector.fastEnergy = Double.parseDouble(parts[next++]);
+            detector.slowEnergy = Double.parseDouble(parts[next]);
+        } catch (NumberFormatException e) {
+            return new MoodDriftDetector();
+        }
+        return detector;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "MoodDrift{n=%d, drift=%s, fastUnpleasant=%.2f, slowUnpleasant=%.2f}",
+                entryCount, getDrift(), unpleasant(fastShares), unpleasant(slowShares));
+    }
+}
@@ -0,0 +1,106 @@
+package analytics;
+
+import java.time.LocalDate;
+
+import models.Emotion;
+
+/**
+ * This period so far against the same stretch of the previous one, e.g. the
+ * first four days of this week against the first four days of last week, so a
+ * period that has just started isn't compared with a complete one. When the
+ * previous period is shorter (February after March 31st) its window stops at
+ * its last day.
+ *
+ * Both windows are summed from the snapshot's per-day series, which the
+ * analytics cache already holds, so a comparison costs no extra download.
+ */
+public class PeriodComparison {
+
+    private final Timeframe timeframe;
+    private final LocalDate previousStart;
+    private final LocalDate previousEnd;
+    private final TimeframeStats current;
+    private final TimeframeStats previous;
+
+    private PeriodComparison(Timeframe timeframe, LocalDate previousStart, LocalDate previousEnd,
+                             TimeframeStats current, TimeframeStats previous) {
+        this.timeframe = timeframe;
+        this.previousStart = previousStart;
+        this.previousEnd = previousEnd;
+        this.current = current;
+        this.previous = previous;
+    }
+
+    public static PeriodComparison of(DailySeries series, Timeframe timeframe, LocalDate today) {
+        LocalDate start = timeframe.startDate(today);
+        LocalDate previousStart = timeframe.previousStartDate(today);
+        long elapsedDays = today.toEpochDay() - start.toEpochDay();
+        LocalDate previousEnd = previousStart.plusDays(elapsedDays);
+        if (!previousEnd.isBefore(start)) {
+            previousEnd = start.minusDays(1);
+        }
+
+        return new PeriodComparison(timeframe, previousStart, previousEnd,
+                sum(series, start.toEpochDay(), today.toEpochDay()),
+                sum(series, previousStart.toEpochDay(), previousEnd.toEpochDay()));
+    }
+
+    // Counts over [fromEpochDay, toEpochDay]; days outside the series have none
+    private static TimeframeStats sum(DailySeries series, long fromEpochDay, long toEpochDay) {
+        int from = (int) Math.max(0, fromEpochDay - series.getFirstEpochDay());
+        int to = (int) Math.min(series.length() - 1, toEpochDay - series.getFirstEpochDay());
+
+        int[] entryCounts = series.entryCounts();
+        int[][] dailyCategories = series.categoryCounts();
+        int checkins = 0;
+        int emotions = 0;
+        int[] categoryCounts = new int[dailyCategories.length];
+        for (int day = from; day <= to; day++) {
+            checkins += entryCounts[day];
+            for (int c = 0; c < dailyCategories.length; c++) {
+                categoryCounts[c] += dailyCategories[c][day];
+                emotions += dailyCategories[c][day];
+            }
+        }
+        return new TimeframeStats(checkins, emotions, categoryCounts);
+    }
+
+    public Timeframe getTimeframe() {
+        return timeframe;
+    }
+
+    public LocalDate getPreviousStart() {
+        return previousStart;
+    }
+
+    public LocalDate getPreviousEnd() {
+        return previousEnd;
+    }
+
+    public TimeframeStats getCurrent() {
+        return current;
+    }
+
+    public TimeframeStats getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Change in check-ins as a percentage of the previous window's, rounded;
+     * null when the previous window had none
+     */
+    public Integer getCheckinChangePercent() {
+        int before = previous.getCheckinCount();
+        if (before == 0) {
+            return null;
+        }
+        return (int) Math.round((current.getCheckinCount() - before) * 100.0 / before);
+    }
+
+    /**
+     * Change in the category's share of emotions, in percentage points
+     */
+    public int getCategoryShareChange(Emotion.Category category) {
+        return current.getCategoryPercent(category) - previous.getCategoryPercent(category);
+    }
+}
@@ -0,0 +1,315 @@
+package analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Scores how positive or negative a journal text reads, from a word list, to
+ * set beside the emotion the user picked.
+ *
+ * Each known word carries a valence from -4 to 4. A negation ("not", "never",
+ * "didn't") flips and softens the sentiment words among the next three; an
+ * intensifier ("very") or a softener ("a bit") scales the word after it; and
+ * after "but" the clause counts more than what came before. The sum is
+ * squashed into -1..1, so a few strong words approach the ends without
+ * reaching them.
+ *
+ * The word list is a minimal perfect hash built once: every word has its own
+ * slot, found with two hashes of the token and one comparison. Tokens are
+ * hashed in place and case-folded char by char, so scoring allocates nothing
+ * per word.
+ */
+public class SentimentScorer {
+
+    // How far a negation reaches, in words, and what it does to a valence
+    static final int NEGATION_WINDOW = 3;
+    static final double NEGATION_SCALAR = -0.74;
+    static final double INTENSIFIER_SCALAR = 1.5;
+    static final double SOFTENER_SCALAR = 0.5;
+    // Weight of the clause before "but", and of the one after
+    static final double BEFORE_BUT = 0.5;
+    static final double AFTER_BUT = 1.5;
+    // Sum at which the score reaches about 0.5 when squashed
+    static final double NORMALIZATION_ALPHA = 15;
+
+    // Word kinds other than a valence, stored alongside valences
+    private static final byte NEGATION = 100;
+    private static final byte INTENSIFIER = 101;
+    private static final byte SOFTENER = 102;
+    private static final byte CONTRAST = 103;
+    private static final byte UNKNOWN = 0;
+
+    // Valence, then its words
+    private static final String[] LEXICON = {
+            "4 amazing awesome fantastic wonderful incredible excellent ecstatic elated thrilled overjoyed"
+                    + " jubilant outstanding superb magnificent blissful bliss euphoric love loved loving adore"
+                    + " adored perfect brilliant marvelous",
+            "3 happy happier happiest happiness joy joyful joyous delighted delightful excited exciting great"
+                    + " beautiful grateful gratitude thankful blessed proud glad cheerful enjoy enjoyed enjoying"
+                    + " fun inspired inspiring relieved relief peaceful peace serene content contented fulfilled"
+                    + " fulfilling lovely celebrate celebrated success successful accomplished achievement"
+                    + " hopeful optimistic confident enthusiastic passionate refreshed amused amazed fabulous"
+                    + " terrific laugh laughed laughing smile smiled smiling kindness calm relaxed relaxing"
+                    + " motivated energetic win won winning best appreciated appreciate thrive thriving"
+                    + " comforted cozy tranquil carefree yay",
+            "2 good better nice pleasant enjoyable satisfied satisfying comfortable secure safe eager"
+                    + " interesting interested playful lively friendly supported supportive helpful helped"
+                    + " productive progress improved improving hope hoping encouraged encouraging balanced rested"
+                    + " warm sweet positive energized compassionate adventurous healthy wow",
+            "1 nostalgic tender astonished mellow fresh okay ok alright fine easy strong",
+            "-1 tired bored boring meh sleepy slow weird confused confusing restless impatient perplexed sore"
+                    + " alone hard sorry lost problem problems mistake awkward moody missed miss",
+            "-2 sad sadly sadness upset unhappy worried worry worrying nervous anxious anxiety stress stressed"
+                    + " stressful frustrated frustrating frustration annoyed annoying irritated disappointed"
+                    + " disappointing disappointment lonely bad worse difficult struggle struggled struggling tense"
+                    + " exhausted drained overwhelmed guilty ashamed embarrassed insecure jealous envious afraid"
+                    + " scared fear hurt hurting pain painful cry cried crying tears fail failed failing failure"
+                    + " regret regretful homesick gloomy empty neglected rejected isolated helpless agitated"
+                    + " disturbed alarmed shocked sick ill mad negative wrong unfair ugly cranky grumpy apathetic"
+                    + " useless pathetic",
+            "-3 angry anger awful terrible horrible miserable depressed depression hopeless panic panicked"
+                    + " terrified heartbroken disgusted disgusting grief grieving resentful defeated worst crisis"
+                    + " dread dreading worthless nightmare",
+            "-4 hate hated hating furious enraged outraged devastated despair horrendous unbearable",
+    };
+    private static final String[] NEGATIONS = {
+            "not", "no", "never", "none", "nobody", "nothing", "neither", "nor", "nowhere", "without",
+            "hardly", "barely", "cannot", "cant", "dont", "doesnt", "didnt", "isnt", "wasnt", "arent",
+            "werent", "wont", "wouldnt", "shouldnt", "couldnt", "havent", "hasnt", "hadnt", "aint",
+    };
+    private static final String[] INTENSIFIERS = {
+            "very", "really", "so", "extremely", "super", "incredibly", "totally", "completely", "absolutely",
+            "truly", "deeply", "highly", "especially", "too", "pretty",
+    };
+    private static final String[] SOFTENERS = {
+            "slightly", "somewhat", "kinda", "sorta", "bit", "little", "fairly", "mildly", "rather",
+    };
+    private static final String[] CONTRASTS = {
+            "but", "however",
+    };
+
+    // Slot per word, and the bucket seeds that place them
+    private static final String[] keys;
+    private static final byte[] values;
+    private static final int[] seeds;
+
+    static {
+        List<String> words = new ArrayList<>();
+        List<Byte> kinds = new ArrayList<>();
+        for (String line : LEXICON) {
+            String[] parts = line.split(" ");
+            for (int i = 1; i < parts.length; i++) {
+                words.add(parts[i]);
+                kinds.add(Byte.parseByte(parts[0]));
+            }
+        }
+        addAll(words, kinds, NEGATIONS, NEGATION);
+        addAll(words, kinds, INTENSIFIERS, INTENSIFIER);
+        addAll(words, kinds, SOFTENERS, SOFTENER);
+        addAll(words, kinds, CONTRASTS, CONTRAST);
+        if (new HashSet<>(words).size() != words.size()) {
+            throw new IllegalStateException("Sentiment lexicon has a word twice");
+        }
+
+        int size = words.size();
+        keys = new String[size];
+        values = new byte[size];
+        seeds = new int[Math.max(1, size / 2)];
+        build(words, kinds);
+    }
+
+    private SentimentScorer() {
+    }
+
+    /**
+     * Valence of the text from -1 (negative) to 1 (positive); 0 when no word
+     * carries any, including for null or empty text
+     */
+    public static double score(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        double sum = 0;
+        double clauseWeight = 1;
+        double scale = 1;
+        int negatedWords = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (!isWordChar(c)) {
+                if (c == '.' || c == '!' || c == '?' || c == ';') {
+                    // A sentence ends the reach of negations, modifiers and "but"
+                    negatedWords = 0;
+                    scale = 1;
+                    clauseWeight = 1;
+                }
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isWordChar(text.charAt(i))) {
+                i++;
+            }
+            int end = i;
+            // Quotes around a word aren't part of it
+            while (start < end && isApostrophe(text.charAt(start))) {
+                start++;
+            }
+            while (end > start && isApostrophe(text.charAt(end - 1))) {
+                end--;
+            }
+            if (start == end) {
+                continue;
+            }
+
+            byte kind = kind(text, start, end);
+            if (kind == NEGATION) {
+                negatedWords = NEGATION_WINDOW;
+            } else if (kind == INTENSIFIER) {
+                scale *= INTENSIFIER_SCALAR;
+            } else if (kind == SOFTENER) {
+                scale *= SOFTENER_SCALAR;
+            } else if (kind == CONTRAST) {
+                sum *= BEFORE_BUT;
+                clauseWeight = AFTER_BUT;
+                negatedWords = 0;
+                scale = 1;
+            } else {
+                if (kind != UNKNOWN) {
+                    double valence = kind * scale;
+                    if (negatedWords > 0) {
+                        valence *= NEGATION_SCALAR;
+                    }
+                    sum += valence * clauseWeight;
+                }
+                scale = 1;
+                negatedWords = Math.max(0, negatedWords - 1);
+            }
+        }
+        return sum / Math.sqrt(sum * sum + NORMALIZATION_ALPHA);
+    }
+
+    /**
+     * A score in thousandths, as analytics add scores up
+     */
+    static int thousandths(double score) {
+        return (int) Math.round(score * 1000);
+    }
+
+    static int lexiconSize() {
+        return keys.length;
+    }
+
+    // What the token is: a valence, one of the modifier kinds, or UNKNOWN
+    private static byte kind(CharSequence text, int start, int end) {
+        int slot = slot(text, start, end);
+        String key = keys[slot];
+        if (key.length() == end - start) {
+            boolean same = true;
+            for (int k = 0; k < key.length() && same; k++) {
+                same = key.charAt(k) == fold(text.charAt(start + k));
+            }
+            if (same) {
+                return values[slot];
+            }
+        }
+        // Any "n't" contraction negates, whether listed or not
+        if (end - start > 3 && fold(text.charAt(end - 1)) == 't' && isApostrophe(text.charAt(end - 2))
+                && fold(text.charAt(end - 3)) == 'n') {
+            return NEGATION;
+        }
+        return UNKNOWN;
+    }
+
+    private static int slot(CharSequence text, int start, int end) {
+        int seed = seeds[Math.floorMod(hash(text, start, end, 0), seeds.length)];
+        return Math.floorMod(hash(text, start, end, seed), keys.length);
+    }
+
+    // FNV-1a over the folded chars, with the seed mixed into the start and a final avalanche
+    private static int hash(CharSequence text, int start, int end, int seed) {
+        int h = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+        for (int i = start; i < end; i++) {
+            h = (h ^ fold(text.charAt(i))) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    // Lower case, with typographic apostrophes written plain; listed words drop them
+    private static char fold(char c) {
+        return isApostrophe(c) ? '\'' : Character.toLowerCase(c);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetter(c) || isApostrophe(c);
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’';
+    }
+
+    private static void addAll(List<String> words, List<Byte> kinds, String[] list, byte kind) {
+        for (String word : list) {
+            words.add(word);
+            kinds.add(kind);
+        }
+    }
+
+    // Hash and displace: words go into buckets by one hash, then each bucket,
+    // largest first, gets the first seed that sends all its words to free slots
+    private static void build(List<String> words, List<Byte> kinds) {
+        List<List<Integer>> buckets = new ArrayList<>();
+        for (int b = 0; b < seeds.length; b++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int w = 0; w < words.size(); w++) {
+            String word = words.get(w);
+            buckets.get(Math.floorMod(hash(word, 0, word.length(), 0), seeds.length)).add(w);
+        }
+        Integer[] order = new Integer[seeds.length];
+        for (int b = 0; b < order.length; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        boolean[] taken = new boolean[keys.length];
+        Set<Integer> slots = new HashSet<>();
+        for (int b : order) {
+            List<Integer> bucket = buckets.get(b);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            for (int seed = 1; ; seed++) {
+                if (seed == 1 << 24) {
+                    throw new IllegalStateException("No perfect hash for the sentiment lexicon");
+                }
+                slots.clear();
+                for (int w : bucket) {
+                    String word = words.get(w);
+                    int slot = Math.floorMod(hash(word, 0, word.length(), seed), keys.length);
+                    if (taken[slot] || !slots.add(slot)) {
+                        break;
+                    }
+                }
+                if (slots.size() == bucket.size()) {
+                    seeds[b] = seed;
+                    for (int w : bucket) {
+                        String word = words.get(w);
+                        int slot = Math.floorMod(hash(word, 0, word.length(), seed), keys.length);
+                        taken[slot] = true;
+                        keys[slot] = word;
+                        values[slot] = kinds.get(w);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes StreakStats in one pass over logged days.
+ *
+ * Days are local epoch days, so the caller decides the time zone when it maps
+ * timestamps to days (see LocalDays); nothing here depends on the default zone.
+ */
+public class StreakAnalyzer {
+
+    private StreakAnalyzer() {
+    }
+
+    /**
+     * @param loggedEpochDays ascending, duplicate-free epoch days with at least one entry;
+     *                        days after today are ignored
+     */
+    public static StreakStats analyze(int[] loggedEpochDays, int todayEpochDay) {
+        List<StreakStats.Run> runs = new ArrayList<>();
+        StreakStats.Run longest = null;
+        int loggedDays = 0;
+        int runStart = 0;
+        int previous = 0;
+
+        for (int day : loggedEpochDays) {
+            if (day > todayEpochDay) {
+                break;
+            }
+            if (loggedDays == 0) {
+                runStart = day;
+            } else if (day != previous + 1) {
+                longest = closeRun(runs, longest, runStart, previous);
+                runStart = day;
+            }
+            previous = day;
+            loggedDays++;
+        }
+
+        if (loggedDays == 0) {
+            return new StreakStats(0, false, null, runs, 0);
+        }
+        longest = closeRun(runs, longest, runStart, previous);
+
+        StreakStats.Run last = runs.get(runs.size() - 1);
+        boolean loggedToday = previous == todayEpochDay;
+        int current = previous >= todayEpochDay - 1 ? last.getLength() : 0;
+        int gapDays = (todayEpochDay - loggedEpochDays[0] + 1) - loggedDays;
+
+        return new StreakStats(current, loggedToday, longest, runs, gapDays);
+    }
+
+    private static StreakStats.Run closeRun(List<StreakStats.Run> runs, StreakStats.Run longest,
+                                            int start, int end) {
+        StreakStats.Run run = new StreakStats.Run(start, end);
+        runs.add(run);
+        return longest == null || run.getLength() >= longest.getLength() ? run : longest;
+    }
+}
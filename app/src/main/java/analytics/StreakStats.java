@@ -0,0 +1,83 @@
+package analytics;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streak analytics over the days a user logged at least one entry
+ */
+public class StreakStats {
+
+    /**
+     * A run of consecutive logged days, inclusive at both ends
+     */
+    public static class Run {
+        private final int startEpochDay;
+        private final int endEpochDay;
+
+        Run(int startEpochDay, int endEpochDay) {
+            this.startEpochDay = startEpochDay;
+            this.endEpochDay = endEpochDay;
+        }
+
+        public LocalDate getStart() {
+            return LocalDate.ofEpochDay(startEpochDay);
+        }
+
+        public LocalDate getEnd() {
+            return LocalDate.ofEpochDay(endEpochDay);
+        }
+
+        public int getLength() {
+            return endEpochDay - startEpochDay + 1;
+        }
+    }
+
+    private final int current;
+    private final boolean loggedToday;
+    private final Run longest;
+    private final List<Run> runs;
+    private final int gapDays;
+
+    StreakStats(int current, boolean loggedToday, Run longest, List<Run> runs, int gapDays) {
+        this.current = current;
+        this.loggedToday = loggedToday;
+        this.longest = longest;
+        this.runs = Collections.unmodifiableList(runs);
+        this.gapDays = gapDays;
+    }
+
+    /**
+     * Length of the run ending today, or ending yesterday if nothing has been
+     * logged yet today (it can still be extended); otherwise 0
+     */
+    public int getCurrent() {
+        return current;
+    }
+
+    public boolean isLoggedToday() {
+        return loggedToday;
+    }
+
+    /**
+     * Longest run ever (the most recent one on ties), or null with no entries
+     */
+    public Run getLongest() {
+        return longest;
+    }
+
+    /**
+     * Every run, oldest first
+     */
+    public List<Run> getRuns() {
+        return runs;
+    }
+
+    /**
+     * Days without an entry between the first logged day and today
+     */
+    public int getGapDays() {
+        return gapDays;
+    }
+}
@@ -0,0 +1,64 @@
+package analytics;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Periods the analytics screen can report on. Each period runs from its
+ * start date up to and including today; weeks start on Sunday.
+ */
+public enum Timeframe {
+    WEEK("This Week"),
+    MONTH("This Month"),
+    YEAR("This Year");
+
+    private final String label;
+
+    Timeframe(String label) {
+        this.label = label;
+    }
+
+    /**
+     * First day of the period containing today
+     */
+    public LocalDate startDate(LocalDate today) {
+        switch (this) {
+            case WEEK:
+                int daysSinceSunday = today.getDayOfWeek().getValue() % 7; // Sunday = 7 → 0
+                return today.minusDays(daysSinceSunday);
+            case MONTH:
+                return today.withDayOfMonth(1);
+            case YEAR:
+            default:
+                return today.withDayOfYear(1);
+        }
+    }
+
+    /**
+     * First day of the period before the one containing today
+     */
+    public LocalDate previousStartDate(LocalDate today) {
+        LocalDate start = startDate(today);
+        switch (this) {
+            case WEEK:
+                return start.minusWeeks(1);
+            case MONTH:
+                return start.minusMonths(1);
+            case YEAR:
+            default:
+                return start.minusYears(1);
+        }
+    }
+
+    /**
+     * Name of the previous period, e.g. "last week"
+     */
+    public String previousLabel() {
+        return "last " + name().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,136 @@
+package analytics;
+
+import models.Emotion;
+
+/**
+ * Counts for one timeframe: check-ins (entries), emotions logged, and
+ * emotions per mood meter category. Also the sentiment of scored journal text
+ * (see SentimentScorer), overall and by the categories of the emotions picked
+ * with it, to set how an entry reads against how the user said they felt.
+ * Stats made from DayRangeCounts have no sentiment.
+ */
+public class TimeframeStats {
+
+    private int checkinCount;
+    private int emotionCount;
+    private final int[] categoryCounts = new int[Emotion.Category.values().length];
+    // Sentiment in thousandths: totals and how many scored entries they're over
+    private int sentimentSum;
+    private int sentimentCount;
+    private final int[] categorySentimentSums = new int[Emotion.Category.values().length];
+    private final int[] categorySentimentCounts = new int[Emotion.Category.values().length];
+
+    TimeframeStats() {
+    }
+
+    // Restores counts read back from AnalyticsCache
+    TimeframeStats(int checkinCount, int emotionCount, int[] categoryCounts) {
+        this.checkinCount = checkinCount;
+        this.emotionCount = emotionCount;
+        System.arraycopy(categoryCounts, 0, this.categoryCounts, 0,
+                Math.min(categoryCounts.length, this.categoryCounts.length));
+    }
+
+    // Restores counts and sentiment read back from AnalyticsCache
+    TimeframeStats(int checkinCount, int emotionCount, int[] categoryCounts, int sentimentSum, int sentimentCount,
+                   int[] categorySentimentSums, int[] categorySentimentCounts) {
+        this(checkinCount, emotionCount, categoryCounts);
+        this.sentimentSum = sentimentSum;
+        this.sentimentCount = sentimentCount;
+        System.arraycopy(categorySentimentSums, 0, this.categorySentimentSums, 0,
+                Math.min(categorySentimentSums.length, this.categorySentimentSums.length));
+        System.arraycopy(categorySentimentCounts, 0, this.categorySentimentCounts, 0,
+                Math.min(categorySentimentCounts.length, this.categorySentimentCounts.length));
+    }
+
+    void addCheckin() {
+        checkinCount++;
+    }
+
+    void addEmotion(Emotion.Category category) {
+        emotionCount++;
+        if (category != null) {
+            categoryCounts[category.ordinal()]++;
+        }
+    }
+
+    /**
+     * Adds a scored entry's sentiment, in thousandths, once to each category
+     * set in categoryMask (bit = category ordinal)
+     */
+    void addSentiment(int sentiment, int categoryMask) {
+        sentimentSum += sentiment;
+        sentimentCount++;
+        for (int c = 0; c < categorySentimentCounts.length; c++) {
+            if ((categoryMask & (1 << c)) != 0) {
+                categorySentimentSums[c] += sentiment;
+                categorySentimentCounts[c]++;
+            }
+        }
+    }
+
+    public int getCheckinCount() {
+        return checkinCount;
+    }
+
+    public int getEmotionCount() {
+        return emotionCount;
+    }
+
+    public int getCategoryCount(Emotion.Category category) {
+        return categoryCounts[category.ordinal()];
+    }
+
+    /**
+     * Share of logged emotions in the category, rounded down; 0 when nothing was logged
+     */
+    public int getCategoryPercent(Emotion.Category category) {
+        if (emotionCount == 0) {
+            return 0;
+        }
+        return getCategoryCount(category) * 100 / emotionCount;
+    }
+
+    /**
+     * Number of check-ins with scored journal text
+     */
+    public int getSentimentCount() {
+        return sentimentCount;
+    }
+
+    /**
+     * Mean sentiment of the scored journal text, -1..1, or NaN when none was scored
+     */
+    public double getMeanSentiment() {
+        return sentimentCount == 0 ? Double.NaN : sentimentSum / 1000.0 / sentimentCount;
+    }
+
+    /**
+     * Number of scored check-ins with an emotion in the category
+     */
+    public int getSentimentCount(Emotion.Category category) {
+        return categorySentimentCounts[category.ordinal()];
+    }
+
+    /**
+     * Mean sentiment of the journal text written with an emotion in the
+     * category, -1..1, or NaN when none was scored
+     */
+    public double getMeanSentiment(Emotion.Category category) {
+        int count = categorySentimentCounts[category.ordinal()];
+        return count == 0 ? Double.NaN : categorySentimentSums[category.ordinal()] / 1000.0 / count;
+    }
+
+    // Raw sentiment totals for AnalyticsCache
+    int getSentimentSum() {
+        return sentimentSum;
+    }
+
+    int[] categorySentimentSums() {
+        return categorySentimentSums;
+    }
+
+    int[] categorySentimentCounts() {
+        return categorySentimentCounts;
+    }
+}
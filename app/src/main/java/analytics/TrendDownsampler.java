@@ -0,0 +1,157 @@
+package analytics;
+
+import models.Emotion;
+
+/**
+ * Reduces long per-day series to roughly one point per pixel of chart width.
+ *
+ * Line series use Largest-Triangle-Three-Buckets, which keeps the peaks and dips
+ * a plain average or stride would flatten. The category mix is aggregated per
+ * bucket instead, since its four bands must stay aligned and sum to 100%.
+ */
+public class TrendDownsampler {
+
+    private TrendDownsampler() {
+    }
+
+    /**
+     * Indices of the points LTTB keeps from xs/ys[from, to). The first and last
+     * points are always kept; ranges with at most threshold points are kept whole.
+     *
+     * @param xs ascending x values
+     */
+    public static int[] lttb(double[] xs, double[] ys, int from, int to, int threshold) {
+        int count = to - from;
+        if (count <= 0) {
+            return new int[0];
+        }
+        if (threshold >= count || threshold < 3) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = from + i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledCount = 0;
+
+        // Interior points split into threshold - 2 buckets
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int a = from;
+        sampled[sampledCount++] = a;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third triangle corner
+            int nextStart = from + (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(from + (int) ((bucket + 2) * bucketSize) + 1, to);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += xs[i];
+                avgY += ys[i];
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // Keep the point in this bucket forming the largest triangle
+            int start = from + (int) (bucket * bucketSize) + 1;
+            int end = from + (int) ((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((xs[a] - avgX) * (ys[i] - ys[a]) - (xs[a] - xs[i]) * (avgY - ys[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+
+            sampled[sampledCount++] = chosen;
+            a = chosen;
+        }
+
+        sampled[sampledCount++] = to - 1;
+        return sampled;
+    }
+
+    /**
+     * Category shares of the emotions logged in each bucket of days [fromDay, toDay).
+     * Returns [category ordinal][bucket] fractions; a bucket with no emotions is all 0.
+     */
+    public static float[][] categoryShares(DailySeries series, int fromDay, int toDay, int bucketDays) {
+        int[][] counts = series.categoryCounts();
+        int categories = Emotion.Category.values().length;
+        int bucketCount = (toDay - fromDay + bucketDays - 1) / bucketDays;
+        float[][] shares = new float[categories][Math.max(0, bucketCount)];
+
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            int start = fromDay + bucket * bucketDays;
+            int end = Math.min(toDay, start + bucketDays);
+            int total = 0;
+            for (int c = 0; c < categories; c++) {
+                int sum = 0;
+                for (int day = start; day < end; day++) {
+                    sum += counts[c][day];
+                }
+                shares[c][bucket] = sum;
+                total += sum;
+            }
+            for (int c = 0; c < categories; c++) {
+                shares[c][bucket] = total == 0 ? 0 : shares[c][bucket] / total;
+            }
+        }
+        return shares;
+    }
+
+    /**
+     * Daily entry counts as chart points; x is the day index
+     */
+    public static double[][] entryCountPoints(DailySeries series) {
+        int length = series.length();
+        double[] xs = new double[length];
+        double[] ys = new double[length];
+        for (int day = 0; day < length; day++) {
+            xs[day] = day;
+            ys[day] = series.entryCounts()[day];
+        }
+        return new double[][]{xs, ys};
+    }
+
+    /**
+     * Daily mean energy as chart points, skipping days with no emotions
+     */
+    public static double[][] meanEnergyPoints(DailySeries series) {
+        return meanPoints(series.energySums(), series.energyCounts(), 1);
+    }
+
+    /**
+     * Daily mean journal sentiment as chart points, skipping days with no scored text
+     */
+    public static double[][] meanSentimentPoints(DailySeries series) {
+        return meanPoints(series.sentimentSums(), series.sentimentCounts(), 1000);
+    }
+
+    // Points of sums[day] / counts[day] / scale for the days with a count
+    private static double[][] meanPoints(int[] sums, int[] counts, double scale) {
+        int points = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                points++;
+            }
+        }
+
+        double[] xs = new double[points];
+        double[] ys = new double[points];
+        int p = 0;
+        for (int day = 0; day < counts.length; day++) {
+            if (counts[day] > 0) {
+                xs[p] = day;
+                ys[p] = sums[day] / scale / counts[day];
+                p++;
+            }
+        }
+        return new double[][]{xs, ys};
+    }
+}
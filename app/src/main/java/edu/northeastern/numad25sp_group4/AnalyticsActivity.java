@@ -2,6 +2,8 @@ package edu.northeastern.numad25sp_group4;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.AdapterView;
@@ -11,37 +13,79 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 
 import com.google.android.material.bottomnavigation.BottomNavigationView;
+import com.google.android.material.slider.RangeSlider;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.ValueEventListener;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.ZoneId;
-import java.util.HashSet;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import analytics.AnalyticsCache;
+import analytics.AnalyticsEngine;
+import analytics.AnalyticsSnapshot;
+import analytics.CoOccurrenceMatrix;
+import analytics.DailySeries;
+import analytics.DayRangeCounts;
+import analytics.EmotionIds;
+import analytics.HourWeekdayMatrix;
+import analytics.PeriodComparison;
+import analytics.StreakStats;
+import analytics.Timeframe;
+import analytics.TimeframeStats;
+import analytics.TrendDownsampler;
 
 import models.Emotion;
+import models.EmotionCatalog;
 import models.EmotionEntry;
+import utils.EntryIndex;
 import utils.FirebaseHelper;
+import utils.HourWeekHeatmapView;
 import utils.LoginManager;
+import utils.TrendChartView;
 
 public class AnalyticsActivity extends AppCompatActivity implements BottomNavigationView.OnItemSelectedListener {
 
-    private TextView tvAnalyticsTitle, tvStreak, tvLogFrequency, tvBreakdownTitle;
+    // Emotion pairs listed on the "Felt Together" card
+    private static final int TOP_PAIR_COUNT = 3;
+
+    private TextView tvAnalyticsTitle, tvStreak, tvStreakDetails, tvLogFrequency, tvBreakdownTitle;
     private TextView tvHighEnergyPleasant, tvLowEnergyPleasant;
-    private TextView tvHighEnergyUnpleasant, tvLowEnergyUnpleasant;
+    private TextView tvHighEnergyUnpleasant, tvLowEnergyUnpleasant, tvSentimentByCategory;
+    private TextView tvCoOccurrence, tvComparison;
+    private TextView tvRangeDates, tvRangeSummary;
+    private RangeSlider sliderRange;
+    private TextView tvCheckinTimes;
+    private HourWeekHeatmapView heatmapCheckinTimes;
     private Spinner spinnerTimeframe;
+    private TrendChartView chartDailyCheckins, chartCategoryMix, chartMeanEnergy, chartSentiment;
     private BottomNavigationView bottomNavigationView;
     private FirebaseHelper firebaseHelper;
     private LoginManager loginManager;
     private String userId;
     private boolean isFirstResume = true;
 
+    private AnalyticsCache analyticsCache;
+    private AnalyticsSnapshot snapshot;
+    // Computing from all entries is O(entries), so it runs here and posts back
+    private final ExecutorService computeExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Custom range card: slider value 0 is this day, and the counts it queries
+    private long rangeFirstEpochDay;
+    private DayRangeCounts rangeCounts;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -50,6 +94,7 @@ public class AnalyticsActivity extends AppCompatActivity implements BottomNaviga
         // Initialize helpers
         firebaseHelper = FirebaseHelper.getInstance();
         loginManager = LoginManager.getInstance();
+        analyticsCache = AnalyticsCache.getInstance(getCacheDir());
 
         // Get current user ID
         if (firebaseHelper.getCurrentUser() != null) {
@@ -62,10 +107,9 @@ public class AnalyticsActivity extends AppCompatActivity implements BottomNaviga
         // Set personalized title
         setTitle();
 
-        loadStreak();
-
-        // Set up spinner and load log frequency and emotion breakdown
+        // Set up spinner, then load every metric in one pass
         setupSpinner();
+        loadAnalytics();
 
         // Set up listeners
         setupListeners();
@@ -74,13 +118,26 @@ public class AnalyticsActivity extends AppCompatActivity implements BottomNaviga
     private void initViews() {
         tvAnalyticsTitle = findViewById(R.id.tv_analytics_title);
         tvStreak = findViewById(R.id.tv_streak);
+        tvStreakDetails = findViewById(R.id.tv_streak_details);
         tvLogFrequency = findViewById(R.id.tv_log_frequency);
         tvBreakdownTitle = findViewById(R.id.tv_breakdown_title);
         tvHighEnergyPleasant = findViewById(R.id.tv_high_energy_pleasant);
         tvLowEnergyPleasant = findViewById(R.id.tv_low_energy_pleasant);
         tvHighEnergyUnpleasant = findViewById(R.id.tv_high_energy_unpleasant);
         tvLowEnergyUnpleasant = findViewById(R.id.tv_low_energy_unpleasant);
+        tvSentimentByCategory = findViewById(R.id.tv_sentiment_by_category);
+        tvCoOccurrence = findViewById(R.id.tv_co_occurrence);
+        tvComparison = findViewById(R.id.tv_comparison);
+        tvRangeDates = findViewById(R.id.tv_range_dates);
+        tvRangeSummary = findViewById(R.id.tv_range_summary);
+        sliderRange = findViewById(R.id.slider_range);
+        tvCheckinTimes = findViewById(R.id.tv_checkin_times);
+        heatmapCheckinTimes = findViewById(R.id.heatmap_checkin_times);
         spinnerTimeframe = findViewById(R.id.spinner_timeframe);
+        chartDailyCheckins = findViewById(R.id.chart_daily_checkins);
+        chartCategoryMix = findViewById(R.id.chart_category_mix);
+        chartMeanEnergy = findViewById(R.id.chart_mean_energy);
+        chartSentiment = findViewById(R.id.chart_sentiment);
         bottomNavigationView = findViewById(R.id.bottom_navigation);
 
         // Set the Analytics tab as selected
@@ -90,6 +147,11 @@ public class AnalyticsActivity extends AppCompatActivity implements BottomNaviga
     private void setupListeners() {
         // Set up bottom navigation listener
         bottomNavigationView.setOnItemSelectedListener(this);
+
+        // Range counts are answered in memory, so follow the handles as they move
+        sliderRange.setValues(0f, 1f);
+        sliderRange.setLabelFormatter(value -> formatRangeDay(rangeFirstEpochDay + Math.round(value)));
+        sliderRange.addOnChangeListener((slider, value, fromUser) -> displayRange());
     }
 
     @Override
@@ -148,270 +210,505 @@ public class AnalyticsActivity extends AppCompatActivity implements BottomNaviga
     }
 
     /**
-     * Loads user's current streak and displays it in the streak TextView.
-     *
-     * This method uses a hybrid strategy for efficiency:
-     * - It first checks if the user has entries for today and yesterday.
-     * - If no entries are found for either day, the streak is 0.
-     * - If there's only an entry yesterday, the streak is 1.
-     * - If there is an entry today, it calls calculateFullStreak() to compute the full streak.
+     * Loads every metric on the screen, for every timeframe.
      *
-     * This avoids querying all entries unless it's necessary to compute a longer streak.
+     * Results are cached per user and data version (see AnalyticsCache), so
+     * when no entry has changed since the last visit the screen renders from the
+     * cache without downloading any entries. Otherwise all entries are loaded
+     * once and computed in a single pass (see AnalyticsEngine).
+     * Switching timeframes afterwards only re-renders the current snapshot.
      */
-    private void loadStreak() {
+    private void loadAnalytics() {
         if (userId == null) {
             tvStreak.setText("You've been logging for 0 days.");
+            tvLogFrequency.setText("Unable to load log frequency.");
+            tvComparison.setText("Unable to load comparisons.");
+            showBreakdownUnavailable();
             return;
         }
 
-        LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
+        // Today is taken in the device's current zone, fixed for this load;
+        // entries keep the day they were written on
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
 
-        firebaseHelper.getEntriesForDate(userId, today, new FirebaseHelper.FilteredEntriesListener() {
+        // Read the version before the entries, so a write in between can only
+        // make the cached result newer than its version, never older
+        firebaseHelper.getDataVersion(userId, new FirebaseHelper.DataVersionListener() {
             @Override
-            public void onSuccess(List<EmotionEntry> entriesToday) {
-                boolean hasToday = !entriesToday.isEmpty();
-
-                firebaseHelper.getEntriesForDate(userId, yesterday, new FirebaseHelper.FilteredEntriesListener() {
-                    @Override
-                    public void onSuccess(List<EmotionEntry> entriesYesterday) {
-                        boolean hasYesterday = !entriesYesterday.isEmpty();
+            public void onSuccess(long dataVersion) {
+                AnalyticsSnapshot cached = analyticsCache.getSnapshot(userId, today, zone, dataVersion);
+                if (cached != null) {
+                    displaySnapshot(cached);
+                    loadIndexed(dataVersion);
+                    return;
+                }
+                computeAnalytics(zone, today, dataVersion);
+            }
 
-                        // case 1: No entries for today or yesterday
-                        if (!hasToday && !hasYesterday) {
-                            tvStreak.setText("You've been logging for 0 days.");
-                            return;
-                        }
+            @Override
+            public void onFailure(DatabaseError error) {
+                // Can't tell whether the cache is current, so compute without it
+                computeAnalytics(zone, today, -1);
+            }
+        });
+    }
 
-                        // case 2: Only yesterday has an entry
-                        if (!hasToday) {
-                            tvStreak.setText("You've been logging for 1 day - keep it up!");
+    /**
+     * Computes from all entries; caches the result when the data version is known
+     */
+    private void computeAnalytics(ZoneId zone, LocalDate today, long dataVersion) {
+        firebaseHelper.getAllEntries(userId, new FirebaseHelper.FilteredEntriesListener() {
+            @Override
+            public void onSuccess(List<EmotionEntry> entries) {
+                if (isDestroyed()) {
+                    // computeExecutor is shut down with the screen
+                    return;
+                }
+                computeExecutor.execute(() -> {
+                    AnalyticsSnapshot computed = new AnalyticsEngine(zone).compute(entries, today);
+                    if (dataVersion >= 0) {
+                        analyticsCache.put(userId, dataVersion, computed);
+                    }
+                    // Same entries, so refresh the in-memory indexes while we have them
+                    EntryIndex.Built built = EntryIndex.build(entries);
+
+                    mainHandler.post(() -> {
+                        // The index outlives this screen, so it takes the build either way
+                        EntryIndex entryIndex = EntryIndex.getInstance(AnalyticsActivity.this);
+                        entryIndex.install(userId, dataVersion, built);
+                        if (isFinishing() || isDestroyed()) {
                             return;
                         }
-
-                        // case 3: Entry today → calculate full streak
-                        calculateFullStreak();
-                    }
-
-                    @Override
-                    public void onFailure(DatabaseError error) {
-
-                    }
+                        displaySnapshot(computed);
+                        displayIndexed(entryIndex);
+                    });
                 });
             }
 
             @Override
             public void onFailure(DatabaseError error) {
                 tvStreak.setText("Unable to load streak.");
+                tvLogFrequency.setText("Unable to load log frequency.");
+                tvComparison.setText("Unable to load comparisons.");
+                showBreakdownUnavailable();
             }
         });
     }
 
+    private void displaySnapshot(AnalyticsSnapshot computed) {
+        snapshot = computed;
+        displayStreak();
+        displayTimeframe((Timeframe) spinnerTimeframe.getSelectedItem());
+        displayTrends(computed.getDailySeries());
+        displayComparisons(computed);
+    }
 
-    private void calculateFullStreak() {
-        LocalDate today = LocalDate.now();
+    /**
+     * Each timeframe so far against the same days of the previous one: check-ins
+     * with their percentage change, and the category shares that moved most.
+     * Summed from the snapshot's daily series, so this never downloads anything.
+     */
+    private void displayComparisons(AnalyticsSnapshot computed) {
+        StringBuilder text = new StringBuilder();
+        for (Timeframe timeframe : Timeframe.values()) {
+            PeriodComparison comparison = PeriodComparison.of(computed.getDailySeries(), timeframe, computed.getToday());
+            int now = comparison.getCurrent().getCheckinCount();
+            int before = comparison.getPrevious().getCheckinCount();
+            Integer change = comparison.getCheckinChangePercent();
+
+            if (text.length() > 0) {
+                text.append("\n\n");
+            }
+            text.append(timeframe).append(" vs ").append(timeframe.previousLabel()).append(": ")
+                    .append(now).append(" check-in").append(now == 1 ? "" : "s")
+                    .append(" vs ").append(before);
+            if (change != null) {
+                text.append(String.format(Locale.getDefault(), " (%+d%%)", change));
+            }
 
-        firebaseHelper.getAllEntries(userId, new FirebaseHelper.FilteredEntriesListener() {
-            @Override
-            public void onSuccess(List<EmotionEntry> entries) {
-                Set<LocalDate> entryDates = new HashSet<>();
-
-                for (EmotionEntry entry : entries) {
-                    if (entry.getTimestamp() != null) {
-                        LocalDate date = entry.getTimestamp()
-                                .toInstant()
-                                .atZone(ZoneId.systemDefault())
-                                .toLocalDate();
-                        entryDates.add(date);
-                    }
+            // Mix shifts only mean something when both windows have emotions
+            if (comparison.getCurrent().getEmotionCount() == 0 || comparison.getPrevious().getEmotionCount() == 0) {
+                continue;
+            }
+            Emotion.Category biggest = null;
+            for (Emotion.Category category : Emotion.Category.values()) {
+                if (biggest == null || Math.abs(comparison.getCategoryShareChange(category))
+                        > Math.abs(comparison.getCategoryShareChange(biggest))) {
+                    biggest = category;
                 }
+            }
+            int shift = comparison.getCategoryShareChange(biggest);
+            if (shift == 0) {
+                text.append("\nYour emotion mix held steady");
+            } else {
+                String label = categoryLabel(biggest);
+                text.append(String.format(Locale.getDefault(), "\n%s%s %+d pts",
+                        label.substring(0, 1).toUpperCase(Locale.ROOT), label.substring(1), shift));
+            }
+        }
+        tvComparison.setText(text.toString());
+    }
 
-                int streak = 0;
-                LocalDate current = today;
-                while (entryDates.contains(current)) {
-                    streak++;
-                    current = current.minusDays(1);
-                }
+    /**
+     * Binds the per-day history to the trend charts; each chart downsamples it
+     * to its own width off the main thread
+     */
+    private void displayTrends(DailySeries series) {
+        double[][] checkins = TrendDownsampler.entryCountPoints(series);
+        chartDailyCheckins.setLineData(checkins[0], checkins[1], series.getFirstEpochDay(), series.length(), 0);
+
+        chartCategoryMix.setMixData(series);
+
+        double[][] energy = TrendDownsampler.meanEnergyPoints(series);
+        chartMeanEnergy.setLineColor(ContextCompat.getColor(this, R.color.low_energy_unpleasant));
+        chartMeanEnergy.setLineData(energy[0], energy[1], series.getFirstEpochDay(), series.length(),
+                energyChartTop(energy[1]));
+
+        double[][] sentiment = TrendDownsampler.meanSentimentPoints(series);
+        chartSentiment.setLineColor(ContextCompat.getColor(this, R.color.low_energy_pleasant));
+        chartSentiment.setLineData(sentiment[0], sentiment[1], series.getFirstEpochDay(), series.length(), -1, 1);
+    }
 
-                String msg = "You've been logging for "
-                        + streak + " day" + (streak == 1 ? "" : "s")
-                        + " – congratulations!";
-                tvStreak.setText(msg);
+    /**
+     * Top of the energy chart: the catalog's highest energy level, or higher if
+     * older emotions in the database were rated on a larger scale
+     */
+    private static float energyChartTop(double[] meanEnergies) {
+        float top = EmotionCatalog.getMaxEnergyLevel();
+        for (double energy : meanEnergies) {
+            if (energy > top) {
+                top = (float) Math.ceil(energy);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Shows the cards backed by the entry index, which stays current across
+     * entry edits, loading entries only if the index is neither in memory nor
+     * cached at this data version
+     */
+    private void loadIndexed(long dataVersion) {
+        EntryIndex.getInstance(this).load(userId, dataVersion, new EntryIndex.LoadListener() {
+            @Override
+            public void onLoaded(EntryIndex index) {
+                displayIndexed(index);
             }
 
             @Override
             public void onFailure(DatabaseError error) {
-                tvStreak.setText("Unable to load streak.");
+                tvCoOccurrence.setText("Unable to load emotions felt together.");
+                tvRangeSummary.setText("Unable to load check-ins.");
             }
         });
     }
 
-    public enum Timeframe {
-        WEEK("This Week"),
-        MONTH("This Month"),
-        YEAR("This Year");
+    private void displayIndexed(EntryIndex index) {
+        displayCoOccurrence(index);
+        setupRange(index.getDayRangeCounts());
+        displayCheckinTimes(index.getHourWeekday());
+    }
 
-        private final String label;
+    /**
+     * The weekday x hour heatmap, the busiest time, and the category that leads
+     * each part of the day
+     */
+    private void displayCheckinTimes(HourWeekdayMatrix matrix) {
+        heatmapCheckinTimes.setMatrix(matrix);
 
-        Timeframe(String label) {
-            this.label = label;
+        int max = matrix.maxCheckins();
+        if (max == 0) {
+            tvCheckinTimes.setText("No check-ins yet.");
+            return;
         }
 
-        @Override
-        public String toString() {
-            return label;
+        int busiest = 0;
+        while (matrix.getCheckins(busiest / HourWeekdayMatrix.HOURS, busiest % HourWeekdayMatrix.HOURS) < max) {
+            busiest++;
+        }
+        int busiestWeekday = busiest / HourWeekdayMatrix.HOURS;
+        int busiestHour = busiest % HourWeekdayMatrix.HOURS;
+        // Weekday 0 is Sunday; DayOfWeek counts from Monday = 1
+        String weekdayName = DayOfWeek.of(busiestWeekday == 0 ? 7 : busiestWeekday)
+                .getDisplayName(TextStyle.FULL, Locale.getDefault());
+        StringBuilder text = new StringBuilder("You check in most on " + weekdayName + "s around "
+                + LocalTime.of(busiestHour, 0).format(DateTimeFormatter.ofPattern("h a", Locale.getDefault())) + ".");
+
+        // Parts of the day as [first hour, last hour], wrapping past midnight for night
+        String[] partNames = {"Mornings", "Afternoons", "Evenings", "Nights"};
+        int[][] partHours = {{5, 11}, {12, 16}, {17, 21}, {22, 4}};
+        int[][] byHour = matrix.categoryHourHistogram();
+        for (int part = 0; part < partNames.length; part++) {
+            int best = -1;
+            int bestCount = 0;
+            for (int c = 0; c < byHour.length; c++) {
+                int count = 0;
+                for (int hour = partHours[part][0]; hour != (partHours[part][1] + 1) % HourWeekdayMatrix.HOURS;
+                     hour = (hour + 1) % HourWeekdayMatrix.HOURS) {
+                    count += byHour[c][hour];
+                }
+                if (count > bestCount) {
+                    best = c;
+                    bestCount = count;
+                }
+            }
+            if (best >= 0) {
+                text.append('\n').append(partNames[part]).append(" lean ")
+                        .append(categoryLabel(Emotion.Category.values()[best]));
+            }
         }
+        tvCheckinTimes.setText(text.toString());
     }
 
+    /**
+     * Spans the slider from the first logged day to today, keeping the handles
+     * where they were on a refresh; a new slider covers the last 30 days
+     */
+    private void setupRange(DayRangeCounts counts) {
+        long today = snapshot != null ? snapshot.getToday().toEpochDay() : LocalDate.now().toEpochDay();
+        if (counts.getMinEpochDay() > today) {
+            rangeCounts = null;
+            sliderRange.setEnabled(false);
+            tvRangeDates.setText("Drag the handles to pick a range");
+            tvRangeSummary.setText("No check-ins yet.");
+            return;
+        }
 
-    private void setupSpinner() {
-        spinnerTimeframe.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-            @Override
-            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                Timeframe selection = (Timeframe) parent.getItemAtPosition(position);
-                loadLogFrequency(selection);
-                loadEmotionBreakdown(selection);
-            }
+        boolean firstSetup = rangeCounts == null;
+        long previousStart = rangeFirstEpochDay + Math.round(sliderRange.getValues().get(0));
+        long previousEnd = rangeFirstEpochDay + Math.round(sliderRange.getValues().get(1));
 
-            @Override
-            public void onNothingSelected(AdapterView<?> parent) {
+        rangeCounts = counts;
+        // At least a day of travel so the slider is valid when everything is from today
+        rangeFirstEpochDay = Math.min(counts.getMinEpochDay(), today - 1);
+        float last = today - rangeFirstEpochDay;
 
-            }
-        });
+        long start = firstSetup ? today - 29 : previousStart;
+        long end = firstSetup ? today : previousEnd;
+        float from = Math.max(0, Math.min(last, start - rangeFirstEpochDay));
+        float to = Math.max(from, Math.min(last, end - rangeFirstEpochDay));
 
-        ArrayAdapter<Timeframe> adapter = new ArrayAdapter<>(this, R.layout.spinner_item_white, Timeframe.values());
-        adapter.setDropDownViewResource(R.layout.spinner_dropdown_item_white);
-        spinnerTimeframe.setAdapter(adapter);
+        sliderRange.setValueTo(last);
+        sliderRange.setValues(from, to);
+        sliderRange.setEnabled(true);
+        displayRange();
     }
 
-    private LocalDate getStartDateForTimeframe(Timeframe timeframe) {
-        LocalDate today = LocalDate.now();
-
-        switch (timeframe) {
-            case WEEK:
-                DayOfWeek currentDayOfWeek = today.getDayOfWeek();
-                int daysSinceSunday = currentDayOfWeek.getValue() % 7; // Sunday = 7 → 0
-                return today.minusDays(daysSinceSunday);
-            case MONTH:
-                return today.withDayOfMonth(1);
-            case YEAR:
-                return today.withDayOfYear(1);
-            default:
-                return today.minusDays(7); // fallback
+    /**
+     * Counts for the selected days, from the Fenwick trees with no network access
+     */
+    private void displayRange() {
+        if (rangeCounts == null) {
+            return;
         }
+        List<Float> values = sliderRange.getValues();
+        long start = rangeFirstEpochDay + Math.round(values.get(0));
+        long end = rangeFirstEpochDay + Math.round(values.get(1));
+        TimeframeStats stats = rangeCounts.query(start, end);
+
+        tvRangeDates.setText(formatRangeDay(start) + " – " + formatRangeDay(end));
+
+        int checkins = stats.getCheckinCount();
+        int emotions = stats.getEmotionCount();
+        String summary = String.format(Locale.getDefault(),
+                "%d check-in%s, %d emotion%s\n"
+                        + "High energy pleasant: %d%%  ·  Low energy pleasant: %d%%\n"
+                        + "High energy unpleasant: %d%%  ·  Low energy unpleasant: %d%%",
+                checkins, checkins == 1 ? "" : "s",
+                emotions, emotions == 1 ? "" : "s",
+                stats.getCategoryPercent(Emotion.Category.HIGH_ENERGY_PLEASANT),
+                stats.getCategoryPercent(Emotion.Category.LOW_ENERGY_PLEASANT),
+                stats.getCategoryPercent(Emotion.Category.HIGH_ENERGY_UNPLEASANT),
+                stats.getCategoryPercent(Emotion.Category.LOW_ENERGY_UNPLEASANT));
+        tvRangeSummary.setText(summary);
     }
 
+    private static String formatRangeDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).format(DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.getDefault()));
+    }
 
-    private void loadLogFrequency(Timeframe timeframe) {
-        if (userId == null) {
-            tvLogFrequency.setText("Unable to load log frequency.");
+    /**
+     * Most frequent emotion pairs and the category pairing they most often fall in
+     */
+    private void displayCoOccurrence(EntryIndex index) {
+        CoOccurrenceMatrix matrix = index.getCoOccurrence();
+        List<CoOccurrenceMatrix.Pair> pairs = matrix.topPairs(TOP_PAIR_COUNT);
+        if (pairs.isEmpty()) {
+            tvCoOccurrence.setText("Log two emotions in one entry to see which ones go together.");
             return;
         }
 
-        LocalDate startDate = getStartDateForTimeframe(timeframe);
-        LocalDate endDate = LocalDate.now();
+        StringBuilder text = new StringBuilder();
+        for (CoOccurrenceMatrix.Pair pair : pairs) {
+            text.append(EmotionIds.name(pair.getFirst()))
+                    .append(" + ")
+                    .append(EmotionIds.name(pair.getSecond()))
+                    .append(": ")
+                    .append(pair.getCount())
+                    .append(pair.getCount() == 1 ? " time" : " times")
+                    .append('\n');
+        }
 
-        firebaseHelper.getEntriesInRange(userId, startDate, endDate, new FirebaseHelper.FilteredEntriesListener() {
-            @Override
-            public void onSuccess(List<EmotionEntry> entries) {
-                int totalLogs = entries.size();
-                int totalEmotions = countTotalEmotions(entries);
-
-                String message = String.format(Locale.getDefault(),
-                        "You’ve checked in %d time%s %s, logging %d emotion%s.",
-                        totalLogs,
-                        totalLogs == 1 ? "" : "s",
-                        timeframe.toString().toLowerCase(),
-                        totalEmotions,
-                        totalEmotions == 1 ? "" : "s"
-                );
-
-                tvLogFrequency.setText(message);
+        // Strongest cell of the category heatmap
+        Emotion.Category[] categories = Emotion.Category.values();
+        Emotion.Category bestFirst = null;
+        Emotion.Category bestSecond = null;
+        int bestCount = 0;
+        for (int a = 0; a < categories.length; a++) {
+            for (int b = a; b < categories.length; b++) {
+                int count = matrix.categoryPairCount(categories[a], categories[b]);
+                if (count > bestCount) {
+                    bestCount = count;
+                    bestFirst = categories[a];
+                    bestSecond = categories[b];
+                }
             }
+        }
+        if (bestFirst == bestSecond) {
+            text.append("Your pairs are most often both ").append(categoryLabel(bestFirst)).append('.');
+        } else {
+            text.append("Your pairs most often mix ").append(categoryLabel(bestFirst))
+                    .append(" with ").append(categoryLabel(bestSecond)).append('.');
+        }
+        tvCoOccurrence.setText(text.toString());
+    }
 
-            @Override
-            public void onFailure(DatabaseError error) {
-                tvLogFrequency.setText("Unable to load log frequency.");
-            }
-        });
+    private static String categoryLabel(Emotion.Category category) {
+        return category.name().toLowerCase(Locale.ROOT).replace('_', ' ');
     }
 
-    private int countTotalEmotions(List<EmotionEntry> entries) {
-        int total = 0;
-        for (EmotionEntry entry : entries) {
-            if (entry.getEmotions() != null) {
-                total += entry.getEmotions().size();
-            }
+    private void displayStreak() {
+        int streak = snapshot.getStreak();
+
+        if (streak == 0) {
+            tvStreak.setText("You've been logging for 0 days.");
+        } else if (!snapshot.isLoggedToday()) {
+            // Streak is still alive if the user checks in today
+            tvStreak.setText("You've been logging for " + streak + " day" + (streak == 1 ? "" : "s")
+                    + " - keep it up!");
+        } else {
+            String msg = "You've been logging for "
+                    + streak + " day" + (streak == 1 ? "" : "s")
+                    + " – congratulations!";
+            tvStreak.setText(msg);
         }
-        return total;
+
+        displayStreakHistory(snapshot.getStreakStats());
     }
 
-    private void loadEmotionBreakdown(Timeframe timeframe) {
-        if (userId == null) {
-            tvHighEnergyPleasant.setText("High energy pleasant: --");
-            tvLowEnergyPleasant.setText("Low energy pleasant: --");
-            tvHighEnergyUnpleasant.setText("High energy unpleasant: --");
-            tvLowEnergyUnpleasant.setText("Low energy unpleasant: --");
+    /**
+     * Longest streak, how many streaks there have been and the days missed since the first entry
+     */
+    private void displayStreakHistory(StreakStats streaks) {
+        StreakStats.Run longest = streaks.getLongest();
+        if (longest == null) {
+            tvStreakDetails.setVisibility(View.GONE);
             return;
         }
 
-        LocalDate startDate = getStartDateForTimeframe(timeframe);
-        LocalDate endDate = LocalDate.now();
+        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.getDefault());
+        int runCount = streaks.getRuns().size();
+        int gapDays = streaks.getGapDays();
 
-        String custom_tf = timeframe.toString().toLowerCase();
-        tvBreakdownTitle.setText("This is your emotion breakdown for " + custom_tf + ":");
+        String details = "Longest streak: " + longest.getLength() + " day" + (longest.getLength() == 1 ? "" : "s")
+                + " (" + longest.getStart().format(dateFormat) + " – " + longest.getEnd().format(dateFormat) + ")\n"
+                + runCount + " streak" + (runCount == 1 ? "" : "s") + " so far, "
+                + gapDays + " day" + (gapDays == 1 ? "" : "s") + " without a check-in";
+        tvStreakDetails.setText(details);
+        tvStreakDetails.setVisibility(View.VISIBLE);
+    }
 
-        firebaseHelper.getEntriesInRange(userId, startDate, endDate, new FirebaseHelper.FilteredEntriesListener() {
+    private void setupSpinner() {
+        spinnerTimeframe.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
-            public void onSuccess(List<EmotionEntry> entries) {
-                int hep = 0, lep = 0, heu = 0, leu = 0;
-                int total = 0;
-
-                for (EmotionEntry entry : entries) {
-                    if (entry.getEmotions() != null) {
-                        for (Emotion emotion : entry.getEmotions()) {
-                            switch (emotion.getCategory()) {
-                                case HIGH_ENERGY_PLEASANT:
-                                    hep++;
-                                    break;
-                                case LOW_ENERGY_PLEASANT:
-                                    lep++;
-                                    break;
-                                case HIGH_ENERGY_UNPLEASANT:
-                                    heu++;
-                                    break;
-                                case LOW_ENERGY_UNPLEASANT:
-                                    leu++;
-                                    break;
-                            }
-                            total++;
-                        }
-                    }
-                }
-
-                // Protect against divide by 0
-                if (total == 0) {
-                    tvHighEnergyPleasant.setText("High energy pleasant: 0%");
-                    tvLowEnergyPleasant.setText("Low energy pleasant: 0%");
-                    tvHighEnergyUnpleasant.setText("High energy unpleasant: 0%");
-                    tvLowEnergyUnpleasant.setText("Low energy unpleasant: 0%");
-                    return;
-                }
-
-                tvHighEnergyPleasant.setText(String.format(Locale.getDefault(), "High energy pleasant: %d%%", (hep * 100) / total));
-                tvLowEnergyPleasant.setText(String.format(Locale.getDefault(), "Low energy pleasant: %d%%", (lep * 100) / total));
-                tvHighEnergyUnpleasant.setText(String.format(Locale.getDefault(), "High energy unpleasant: %d%%", (heu * 100) / total));
-                tvLowEnergyUnpleasant.setText(String.format(Locale.getDefault(), "Low energy unpleasant: %d%%", (leu * 100) / total));
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                Timeframe selection = (Timeframe) parent.getItemAtPosition(position);
+                displayTimeframe(selection);
             }
 
             @Override
-            public void onFailure(DatabaseError error) {
-                tvHighEnergyPleasant.setText("High energy pleasant: --");
-                tvLowEnergyPleasant.setText("Low energy pleasant: --");
-                tvHighEnergyUnpleasant.setText("High energy unpleasant: --");
-                tvLowEnergyUnpleasant.setText("Low energy unpleasant: --");
+            public void onNothingSelected(AdapterView<?> parent) {
+
             }
         });
+
+        ArrayAdapter<Timeframe> adapter = new ArrayAdapter<>(this, R.layout.spinner_item_white, Timeframe.values());
+        adapter.setDropDownViewResource(R.layout.spinner_dropdown_item_white);
+        spinnerTimeframe.setAdapter(adapter);
+    }
+
+    /**
+     * Shows log frequency and emotion breakdown for the timeframe from the current snapshot
+     */
+    private void displayTimeframe(Timeframe timeframe) {
+        if (timeframe == null) {
+            return;
+        }
+
+        String custom_tf = timeframe.toString().toLowerCase();
+        tvBreakdownTitle.setText("This is your emotion breakdown for " + custom_tf + ":");
+
+        // Still loading; loadAnalytics will render when it finishes
+        if (snapshot == null) {
+            return;
+        }
+
+        TimeframeStats stats = snapshot.getStats(timeframe);
+        int totalLogs = stats.getCheckinCount();
+        int totalEmotions = stats.getEmotionCount();
+
+        String message = String.format(Locale.getDefault(),
+                "You’ve checked in %d time%s %s, logging %d emotion%s.",
+                totalLogs,
+                totalLogs == 1 ? "" : "s",
+                custom_tf,
+                totalEmotions,
+                totalEmotions == 1 ? "" : "s"
+        );
+        tvLogFrequency.setText(message);
+
+        tvHighEnergyPleasant.setText(String.format(Locale.getDefault(), "High energy pleasant: %d%%",
+                stats.getCategoryPercent(Emotion.Category.HIGH_ENERGY_PLEASANT)));
+        tvLowEnergyPleasant.setText(String.format(Locale.getDefault(), "Low energy pleasant: %d%%",
+                stats.getCategoryPercent(Emotion.Category.LOW_ENERGY_PLEASANT)));
+        tvHighEnergyUnpleasant.setText(String.format(Locale.getDefault(), "High energy unpleasant: %d%%",
+                stats.getCategoryPercent(Emotion.Category.HIGH_ENERGY_UNPLEASANT)));
+        tvLowEnergyUnpleasant.setText(String.format(Locale.getDefault(), "Low energy unpleasant: %d%%",
+                stats.getCategoryPercent(Emotion.Category.LOW_ENERGY_UNPLEASANT)));
+        displaySentimentByCategory(stats);
+    }
+
+    /**
+     * How the journal text written with each category's emotions reads, from
+     * -1 (negative) to 1 (positive), to set against the categories picked
+     */
+    private void displaySentimentByCategory(TimeframeStats stats) {
+        if (stats.getSentimentCount() == 0) {
+            tvSentimentByCategory.setText("How your journal reads: no journal text scored yet");
+            return;
+        }
+        tvSentimentByCategory.setText(String.format(Locale.getDefault(),
+                "How your journal reads (-1 to 1): %s overall\n"
+                        + "High energy pleasant: %s  ·  Low energy pleasant: %s\n"
+                        + "High energy unpleasant: %s  ·  Low energy unpleasant: %s",
+                formatSentiment(stats.getMeanSentiment()),
+                formatSentiment(stats.getMeanSentiment(Emotion.Category.HIGH_ENERGY_PLEASANT)),
+                formatSentiment(stats.getMeanSentiment(Emotion.Category.LOW_ENERGY_PLEASANT)),
+                formatSentiment(stats.getMeanSentiment(Emotion.Category.HIGH_ENERGY_UNPLEASANT)),
+                formatSentiment(stats.getMeanSentiment(Emotion.Category.LOW_ENERGY_UNPLEASANT))));
+    }
+
+    private static String formatSentiment(double sentiment) {
+        return Double.isNaN(sentiment) ? "--" : String.format(Locale.getDefault(), "%+.2f", sentiment);
+    }
+
+    private void showBreakdownUnavailable() {
+        tvHighEnergyPleasant.setText("High energy pleasant: --");
+        tvLowEnergyPleasant.setText("Low energy pleasant: --");
+        tvHighEnergyUnpleasant.setText("High energy unpleasant: --");
+        tvLowEnergyUnpleasant.setText("Low energy unpleasant: --");
+        tvSentimentByCategory.setText("How your journal reads: --");
     }
 
     @Override
@@ -424,10 +721,13 @@ public class AnalyticsActivity extends AppCompatActivity implements BottomNaviga
         }
 
         // Refresh everything after first open
-        Timeframe selectedTimeframe = (Timeframe) spinnerTimeframe.getSelectedItem();
-        loadStreak();
-        loadLogFrequency(selectedTimeframe);
-        loadEmotionBreakdown(selectedTimeframe);
+        loadAnalytics();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        computeExecutor.shutdown();
     }
 
 }
\ No newline at end of file
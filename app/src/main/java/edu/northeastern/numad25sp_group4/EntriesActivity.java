@@ -20,7 +20,6 @@ import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.ValueEventListener;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashSet;
@@ -35,6 +34,7 @@ public class EntriesActivity extends AppCompatActivity implements BottomNavigati
 
     private CalendarView calendarView;
     private TextView tvEntryLogTitle;
+    private TextView tvSearchEntries;
     private BottomNavigationView bottomNavigationView;
     private FirebaseHelper firebaseHelper;
     private LoginManager loginManager;
@@ -78,6 +78,7 @@ public class EntriesActivity extends AppCompatActivity implements BottomNavigati
     private void initViews() {
         calendarView = findViewById(R.id.calendarView);
         tvEntryLogTitle = findViewById(R.id.tv_entry_log_title);
+        tvSearchEntries = findViewById(R.id.tv_search_entries);
         bottomNavigationView = findViewById(R.id.bottom_navigation);
 
         // Set the Entries tab as selected
@@ -129,6 +130,9 @@ public class EntriesActivity extends AppCompatActivity implements BottomNavigati
         // Set up bottom navigation listener
         bottomNavigationView.setOnItemSelectedListener(this);
 
+        tvSearchEntries.setOnClickListener(view ->
+                startActivity(new Intent(EntriesActivity.this, SearchActivity.class)));
+
         calendarView.setOnCalendarDayClickListener(new OnCalendarDayClickListener() {
             @Override
             public void onClick(@NonNull CalendarDay calendarDay) {
@@ -146,18 +150,15 @@ public class EntriesActivity extends AppCompatActivity implements BottomNavigati
         firebaseHelper.getAllEntries(userId, new FirebaseHelper.FilteredEntriesListener() {
             @Override
             public void onSuccess(List<EmotionEntry> entries) {
-                Set<LocalDate> seenDates = new HashSet<>();
+                Set<Integer> seenDays = new HashSet<>();
                 List<CalendarDay> calendarDays = new ArrayList<>();
 
                 for (EmotionEntry entry : entries) {
                     if (entry.getTimestamp() != null) {
-                        // Convert Timestamp to LocalDate
-                        LocalDate localDate = entry.getTimestamp()
-                                .toInstant()
-                                .atZone(ZoneId.systemDefault())
-                                .toLocalDate();
+                        // One dot per local day the entries were written on
+                        if (seenDays.add(entry.getEpochDay())) {
+                            LocalDate localDate = LocalDate.ofEpochDay(entry.getEpochDay());
 
-                        if (seenDates.add(localDate)) {
                             // Convert LocalDate back to Calendar for CalendarDay
                             Calendar cal = Calendar.getInstance();
                             cal.set(localDate.getYear(), localDate.getMonthValue() - 1, localDate.getDayOfMonth());
@@ -15,6 +15,7 @@ import android.view.KeyEvent;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.inputmethod.EditorInfo;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.HorizontalScrollView;
@@ -49,8 +50,11 @@ import androidx.core.content.ContextCompat;
 
 
 import adapters.EntryImageAdapter;
+import adapters.TagSuggestionAdapter;
 import models.Emotion;
 import models.EmotionEntry;
+import search.InvertedIndex;
+import utils.EntrySearchIndex;
 import utils.FirebaseHelper;
 
 public class EntryEditActivity extends AppCompatActivity implements EntryImageAdapter.OnImageRemoveListener {
@@ -73,7 +77,7 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
     private TextView tvImageCount;
     private RecyclerView recyclerImages;
     private TextView tvNoImages;
-    private EditText etTags;
+    private AutoCompleteTextView etTags;
     private LinearLayout llTags;
     private LinearLayout llTagsDisplay;
     private TextView tvNoTags;
@@ -87,6 +91,9 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
     private EmotionEntry currentEntry;
     private boolean isEditMode = false;
     private List<String> tags = new ArrayList<>();
+    private TagSuggestionAdapter tagSuggestionAdapter;
+    // Open once suggestions are ready; null until then
+    private InvertedIndex tagIndex;
     private List<Uri> imageUris = new ArrayList<>();
     private List<byte[]> imageBytesList = new ArrayList<>();
     private FirebaseHelper firebaseHelper;
@@ -256,6 +263,9 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
             return false;
         });
 
+        // Suggest existing tags as one is typed
+        setupTagSuggestions();
+
         // Also handle space to add tag
         etTags.addTextChangedListener(new TextWatcher() {
             @Override
@@ -383,9 +393,9 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
                 }
             }
 
-            // Update adapter with loaded images
+            // Update adapter with loaded images, using the stored thumbnail renditions
             if (imageAdapter != null) {
-                imageAdapter.notifyDataSetChanged();
+                imageAdapter.setRenditionSource(currentEntry);
             }
 
             // Update image count text
@@ -553,12 +563,45 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
         }
     }
 
+    /**
+     * Suggests the user's existing tags while one is typed, once the search index is open
+     */
+    private void setupTagSuggestions() {
+        tagSuggestionAdapter = new TagSuggestionAdapter(this, tags);
+        etTags.setAdapter(tagSuggestionAdapter);
+        etTags.setOnItemClickListener((parent, view, position, id) -> addTag());
+
+        if (firebaseHelper.getCurrentUser() == null) {
+            return;
+        }
+        EntrySearchIndex.getInstance(this).open(firebaseHelper.getCurrentUser().getUid(),
+                new EntrySearchIndex.ReadyListener() {
+                    @Override
+                    public void onReady(InvertedIndex index) {
+                        tagIndex = index;
+                        tagSuggestionAdapter.setIndex(index);
+                    }
+
+                    @Override
+                    public void onFailure(DatabaseError error) {
+                        // Tags can still be typed in full
+                        Log.w(TAG, "Tag suggestions unavailable", error.toException());
+                    }
+                });
+    }
+
     private void addTag() {
         String tagText = etTags.getText().toString().trim();
 
+        // Write it the way the user already does, so "Work" and "work" stay one tag
+        String knownName = tagIndex != null ? tagIndex.tagName(tagText) : null;
+        if (knownName != null) {
+            tagText = knownName;
+        }
+
         if (!tagText.isEmpty() && tags.size() < MAX_TAGS) {
             // Don't add duplicate tags
-            if (!tags.contains(tagText)) {
+            if (!hasTag(tagText)) {
                 tags.add(tagText);
                 addTagView(tagText);
 
@@ -576,6 +619,17 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
         updateTagInputState();
     }
 
+    // Compares tags the way the index does, ignoring case and accents
+    private boolean hasTag(String tagText) {
+        String key = InvertedIndex.tagKey(tagText);
+        for (String tag : tags) {
+            if (InvertedIndex.tagKey(tag).equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void addTagView(String tagText) {
         // Inflate the tag view
         View tagView = LayoutInflater.from(this).inflate(R.layout.item_tag, null, false);
@@ -628,6 +682,13 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
         ImageView ivTagRemove = tagView.findViewById(R.id.iv_tag_remove);
         ivTagRemove.setVisibility(View.GONE);
 
+        // Tapping a tag browses every entry that has it
+        tagView.setOnClickListener(v -> {
+            Intent intent = new Intent(EntryEditActivity.this, SearchActivity.class);
+            intent.putExtra("tag", tagText);
+            startActivity(intent);
+        });
+
         // Add layout parameters
         LinearLayout.LayoutParams layoutParams = new LinearLayout.LayoutParams(
                 LinearLayout.LayoutParams.WRAP_CONTENT,
@@ -674,7 +735,6 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
 
         // Track upload progress
         final int[] uploadedCount = {0};
-        final List<String> imageUrls = new ArrayList<>();
 
         // Check if user is logged in
         if (firebaseHelper.getCurrentUser() == null) {
@@ -686,51 +746,20 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
 
         String userId = firebaseHelper.getCurrentUser().getUid();
 
-        // Upload each image
+        // Upload each image together with its small and medium renditions
         for (int i = 0; i < imageBytesList.size(); i++) {
-            final int imageIndex = i;
             byte[] imageData = imageBytesList.get(i);
 
-            // Upload to Firebase Storage
-            firebaseHelper.uploadImage(userId, imageData)
-                    .addOnSuccessListener(taskSnapshot -> {
-                        // Get download URL for this image
-                        taskSnapshot.getStorage().getDownloadUrl()
-                                .addOnSuccessListener(uri -> {
-                                    // Add URL to our list
-                                    imageUrls.add(uri.toString());
-                                    uploadedCount[0]++;
-
-                                    // If all uploads complete, save entry
-                                    if (uploadedCount[0] >= imageBytesList.size()) {
-                                        // Update entry with new image URLs
-                                        // Keep existing URLs if any
-                                        List<String> existingUrls = currentEntry.getImageUrls();
-                                        if (existingUrls == null) {
-                                            existingUrls = new ArrayList<>();
-                                        }
-                                        existingUrls.addAll(imageUrls);
-
-                                        // Ensure we don't exceed the max images limit
-                                        while (existingUrls.size() > MAX_IMAGES) {
-                                            existingUrls.remove(existingUrls.size() - 1);
-                                        }
-
-                                        currentEntry.setImageUrls(existingUrls);
-
-                                        // Now save the entry with updated URLs
-                                        saveEntryToFirebase();
-                                    }
-                                })
-                                .addOnFailureListener(e -> {
-                                    Log.e(TAG, "Failed to get download URL: " + e.getMessage());
-                                    uploadedCount[0]++;
-
-                                    // Continue with remaining uploads even if this one failed
-                                    if (uploadedCount[0] >= imageBytesList.size()) {
-                                        saveEntryToFirebase();
-                                    }
-                                });
+            firebaseHelper.uploadImageWithRenditions(userId, imageData)
+                    .addOnSuccessListener(urls -> {
+                        // Keep existing URLs; the entry caps itself at MAX_IMAGES
+                        currentEntry.addImageWithRenditions(urls.get(0), urls.get(1), urls.get(2));
+                        uploadedCount[0]++;
+
+                        // If all uploads complete, save entry
+                        if (uploadedCount[0] >= imageBytesList.size()) {
+                            saveEntryToFirebase();
+                        }
                     })
                     .addOnFailureListener(e -> {
                         Log.e(TAG, "Failed to upload image: " + e.getMessage());
@@ -910,12 +939,8 @@ public class EntryEditActivity extends AppCompatActivity implements EntryImageAd
             }
             // If it's an existing image, mark it for removal from Firebase
             else if (currentEntry != null && currentEntry.getImageUrls() != null && position < currentEntry.getImageUrls().size()) {
-                // Remove from the entry's image URLs too
-                List<String> updatedUrls = new ArrayList<>(currentEntry.getImageUrls());
-                if (position < updatedUrls.size()) {
-                    updatedUrls.remove(position);
-                    currentEntry.setImageUrls(updatedUrls);
-                }
+                // Remove from the entry's image URLs (and their renditions) too
+                currentEntry.removeImageAt(position);
             }
 
             // Update UI
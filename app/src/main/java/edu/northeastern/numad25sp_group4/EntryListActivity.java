@@ -30,6 +30,7 @@ import java.util.List;
 import adapters.EmotionEntryAdapter;
 import models.EmotionEntry;
 import utils.FirebaseHelper;
+import utils.ThumbnailPrefetcher;
 
 public class EntryListActivity extends AppCompatActivity {
 
@@ -44,6 +45,7 @@ public class EntryListActivity extends AppCompatActivity {
     private String userId;
 
     private ArrayList<EmotionEntry> emotionEntries = new ArrayList<>();
+    private ThumbnailPrefetcher thumbnailPrefetcher;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -92,6 +94,10 @@ public class EntryListActivity extends AppCompatActivity {
         rvEntries.setAdapter(adapter);
         rvEntries.setLayoutManager(new LinearLayoutManager(this));
 
+        // Warm the image cache with upcoming rows' thumbnails so they show without placeholders
+        thumbnailPrefetcher = new ThumbnailPrefetcher(this, emotionEntries, adapter.getThumbnailSizePx());
+        rvEntries.addOnScrollListener(thumbnailPrefetcher);
+
         // Enable swipe to delete
         enableSwipeToDelete();
     }
@@ -134,6 +140,10 @@ public class EntryListActivity extends AppCompatActivity {
 
                 adapter.notifyDataSetChanged();
 
+                // Prefetch thumbnails just past the first screen once it is laid out
+                thumbnailPrefetcher.reset();
+                rvEntries.post(() -> thumbnailPrefetcher.prefetch(rvEntries));
+
                 // Show fallback if no entries
                 updateEmptyState(emotionEntries.isEmpty());
             }
@@ -221,6 +231,15 @@ public class EntryListActivity extends AppCompatActivity {
         new ItemTouchHelper(simpleItemTouchCallback).attachToRecyclerView(rvEntries);
     }
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Nothing to prefetch for while the list is off screen
+        if (thumbnailPrefetcher != null) {
+            thumbnailPrefetcher.cancelAll();
+        }
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -1,12 +1,16 @@
 package edu.northeastern.numad25sp_group4;
 
+import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.graphics.Color;
 import android.os.Bundle;
+import android.util.Log;
 import android.text.SpannableString;
 import android.text.Spanned;
 import android.text.style.ForegroundColorSpan;
 import android.view.MenuItem;
+import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 
@@ -25,23 +29,35 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
+import analytics.MoodDriftDetector;
 import models.Emotion;
 import models.EmotionEntry;
+import utils.EntrySearchIndex;
 import utils.FirebaseHelper;
 import utils.LoginManager;
+import utils.MoodDriftTracker;
 import utils.NotificationHelper;
 import utils.NotificationScheduler;
+import utils.OrphanImageSweeper;
 
 public class HomeActivity extends AppCompatActivity implements BottomNavigationView.OnItemSelectedListener {
 
+    private static final String TAG = "HomeActivity";
+
+    // Orphaned images are swept at most this often
+    private static final long IMAGE_SWEEP_INTERVAL_MS = 24L * 60 * 60 * 1000;
+
     private TextView tvGreeting;
     private TextView tvLastCheckin;
+    private CardView cardMoodDrift;
+    private TextView tvMoodDrift;
     private CardView cardAddEntry;
     private Button btnAddEntry;
     private BottomNavigationView bottomNavigationView;
 
     private FirebaseHelper firebaseHelper;
     private LoginManager loginManager;
+    private MoodDriftTracker moodDriftTracker;
     private String userId;
 
     @Override
@@ -52,6 +68,8 @@ public class HomeActivity extends AppCompatActivity implements BottomNavigationV
         // Initialize helpers
         firebaseHelper = FirebaseHelper.getInstance();
         loginManager = LoginManager.getInstance();
+        moodDriftTracker = MoodDriftTracker.getInstance(this);
+        EntrySearchIndex.getInstance(this);
 
         // Get current user ID
         if (firebaseHelper.getCurrentUser() != null) {
@@ -72,6 +90,71 @@ public class HomeActivity extends AppCompatActivity implements BottomNavigationV
 
         // Initialize notifications
         initializeNotifications();
+
+        // Clean up images no entry points to any more
+        maybeSweepOrphanedImages();
+
+        // Store local days on entries saved before they were recorded
+        maybeBackfillLocalTime();
+    }
+
+    /**
+     * Runs the local time backfill once per user on this device; entries saved
+     * from here on carry the fields already
+     */
+    private void maybeBackfillLocalTime() {
+        if (userId == null) {
+            return;
+        }
+
+        SharedPreferences prefs = getSharedPreferences("UserPrefs", Context.MODE_PRIVATE);
+        String key = "localTimeBackfilled_" + userId;
+        if (prefs.getBoolean(key, false)) {
+            return;
+        }
+
+        firebaseHelper.backfillLocalTime(userId, new FirebaseHelper.LocalTimeBackfillListener() {
+            @Override
+            public void onSuccess(int updatedEntries) {
+                Log.d(TAG, "Local time backfilled on " + updatedEntries + " entries");
+                prefs.edit().putBoolean(key, true).apply();
+            }
+
+            @Override
+            public void onFailure(DatabaseError error) {
+                // Try again next launch
+                Log.w(TAG, "Local time backfill failed", error.toException());
+            }
+        });
+    }
+
+    /**
+     * Runs the orphaned image sweep at most once a day per user
+     */
+    private void maybeSweepOrphanedImages() {
+        if (userId == null) {
+            return;
+        }
+
+        SharedPreferences prefs = getSharedPreferences("UserPrefs", Context.MODE_PRIVATE);
+        String key = "lastImageSweep_" + userId;
+        long now = System.currentTimeMillis();
+        if (now - prefs.getLong(key, 0) < IMAGE_SWEEP_INTERVAL_MS) {
+            return;
+        }
+        prefs.edit().putLong(key, now).apply();
+
+        firebaseHelper.sweepOrphanedImages(userId, new FirebaseHelper.OrphanSweepCallback() {
+            @Override
+            public void onComplete(OrphanImageSweeper.SweepResult result) {
+                Log.d(TAG, "Orphaned image sweep: " + result);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.w(TAG, "Orphaned image sweep failed", e);
+            }
+        });
     }
 
     /**
@@ -113,6 +196,8 @@ public class HomeActivity extends AppCompatActivity implements BottomNavigationV
     private void initViews() {
         tvGreeting = findViewById(R.id.tv_greeting);
         tvLastCheckin = findViewById(R.id.tv_last_checkin);
+        cardMoodDrift = findViewById(R.id.card_mood_drift);
+        tvMoodDrift = findViewById(R.id.tv_mood_drift);
         cardAddEntry = findViewById(R.id.card_add_entry);
         btnAddEntry = findViewById(R.id.btn_add_entry);
         bottomNavigationView = findViewById(R.id.bottom_navigation);
@@ -170,10 +255,45 @@ public class HomeActivity extends AppCompatActivity implements BottomNavigationV
                     .start();
         });
 
+        // Tapping the mood message puts it away for a few days
+        cardMoodDrift.setOnClickListener(v -> {
+            if (userId != null) {
+                moodDriftTracker.dismiss(userId);
+            }
+            cardMoodDrift.setVisibility(View.GONE);
+        });
+
         // Set up bottom navigation listener
         bottomNavigationView.setOnItemSelectedListener(this);
     }
 
+    /**
+     * Shows a supportive note when recent entries have shifted toward
+     * unpleasant emotions. Reads the saved averages only, no entries.
+     */
+    private void showMoodDrift() {
+        MoodDriftDetector.Drift drift = userId != null
+                ? moodDriftTracker.getDriftToShow(userId)
+                : MoodDriftDetector.Drift.NONE;
+
+        switch (drift) {
+            case TENSE:
+                tvMoodDrift.setText("Things have felt tense lately. A few slow breaths or a short walk "
+                        + "can help. Be gentle with yourself.\n\nTap to hide");
+                cardMoodDrift.setVisibility(View.VISIBLE);
+                break;
+            case LOW:
+                tvMoodDrift.setText("You've been feeling low lately. Reaching out to someone you trust "
+                        + "or doing something small you enjoy might help.\n\nTap to hide");
+                cardMoodDrift.setVisibility(View.VISIBLE);
+                break;
+            case NONE:
+            default:
+                cardMoodDrift.setVisibility(View.GONE);
+                break;
+        }
+    }
+
     @Override
     public boolean onNavigationItemSelected(@NonNull MenuItem item) {
         int itemId = item.getItemId();
@@ -408,6 +528,9 @@ public class HomeActivity extends AppCompatActivity implements BottomNavigationV
         // Refreshes the last check-in info when returning to this screen
         loadLastCheckinInfo();
 
+        // A new entry may have started or ended a drift
+        showMoodDrift();
+
         // Also refresh the greeting to ensure the name is correct
         setGreeting();
     }
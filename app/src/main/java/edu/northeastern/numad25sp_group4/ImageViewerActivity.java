@@ -0,0 +1,128 @@
+package edu.northeastern.numad25sp_group4;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+import android.os.Bundle;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.View;
+import android.widget.ImageButton;
+import android.widget.ProgressBar;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.bumptech.glide.request.target.CustomTarget;
+import com.bumptech.glide.request.transition.Transition;
+
+import java.io.File;
+
+import utils.ImageLoader;
+import utils.TiledImageView;
+
+/**
+ * Full-screen, zoomable view of one entry image.
+ *
+ * Shows the list thumbnail straight from the memory cache, then the medium
+ * rendition sized to the screen, then opens the original for tiled region
+ * decoding while zooming (see TiledImageView).
+ */
+public class ImageViewerActivity extends AppCompatActivity {
+
+    private static final String TAG = "ImageViewerActivity";
+
+    private TiledImageView ivFullImage;
+    private ProgressBar progressBar;
+    private ImageButton btnBack;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_image_viewer);
+
+        // Initialize views
+        initViews();
+
+        btnBack.setOnClickListener(v -> finish());
+
+        String imageUri = getIntent().getStringExtra("imageUri");
+        if (imageUri == null) {
+            finish();
+            return;
+        }
+
+        loadImage(imageUri,
+                getIntent().getStringExtra("previewUri"),
+                getIntent().getIntExtra("previewSizePx", 0),
+                getIntent().getStringExtra("mediumUri"));
+    }
+
+    private void initViews() {
+        ivFullImage = findViewById(R.id.iv_full_image);
+        progressBar = findViewById(R.id.progress_bar);
+        btnBack = findViewById(R.id.btn_back);
+    }
+
+    private void loadImage(String imageUri, @Nullable String previewUri, int previewSizePx,
+                           @Nullable String mediumUri) {
+        // 1. Thumbnail the list was already showing: same String model and size, so a memory-cache hit
+        if (previewUri != null && previewSizePx > 0) {
+            ImageLoader.loadThumbnailInto(this, previewUri, previewSizePx, new CustomTarget<Drawable>() {
+                @Override
+                public void onResourceReady(@NonNull Drawable resource, @Nullable Transition<? super Drawable> transition) {
+                    ivFullImage.setPreview(resource);
+                }
+
+                @Override
+                public void onLoadCleared(@Nullable Drawable placeholder) {
+                    ivFullImage.setPreview(null);
+                }
+            });
+        }
+
+        // 2. Screen-sized rendition; without one the view decodes its own from the original
+        if (mediumUri != null) {
+            DisplayMetrics metrics = getResources().getDisplayMetrics();
+            ImageLoader.loadFitted(this, mediumUri, metrics.widthPixels, metrics.heightPixels,
+                    new CustomTarget<Bitmap>() {
+                        @Override
+                        public void onResourceReady(@NonNull Bitmap resource, @Nullable Transition<? super Bitmap> transition) {
+                            ivFullImage.setBaseBitmap(resource);
+                        }
+
+                        @Override
+                        public void onLoadCleared(@Nullable Drawable placeholder) {
+                            ivFullImage.setBaseBitmap(null);
+                        }
+                    });
+        }
+
+        // 3. Original, region-decoded on demand
+        ImageLoader.downloadOriginal(this, imageUri, new CustomTarget<File>() {
+            @Override
+            public void onResourceReady(@NonNull File resource, @Nullable Transition<? super File> transition) {
+                progressBar.setVisibility(View.GONE);
+                ivFullImage.setImageFile(resource);
+            }
+
+            @Override
+            public void onLoadFailed(@Nullable Drawable errorDrawable) {
+                // Keep showing whatever rendition we have
+                progressBar.setVisibility(View.GONE);
+                Log.w(TAG, "Could not load original " + imageUri);
+            }
+
+            @Override
+            public void onLoadCleared(@Nullable Drawable placeholder) {
+                // The view keeps its own handle on the file
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        ivFullImage.release();
+    }
+}
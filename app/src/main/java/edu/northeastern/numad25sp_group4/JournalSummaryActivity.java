@@ -6,9 +6,6 @@ import android.graphics.Color;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
-import android.speech.RecognitionListener;
-import android.speech.RecognizerIntent;
-import android.speech.SpeechRecognizer;
 import android.text.Editable;
 import android.text.InputFilter;
 import android.text.SpannableString;
@@ -23,6 +20,7 @@ import android.util.Log;
 import android.view.animation.Animation;
 import android.view.animation.ScaleAnimation;
 import android.view.inputmethod.EditorInfo;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.HorizontalScrollView;
@@ -44,9 +42,7 @@ import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.firebase.storage.StorageReference;
-import com.google.firebase.storage.UploadTask;
-import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.database.DatabaseError;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -54,18 +50,23 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
-import android.os.Handler;
-import android.os.Looper;
 
 import adapters.EntryImageAdapter;
+import adapters.TagSuggestionAdapter;
 import models.Emotion;
 import models.EmotionEntry;
+import search.InvertedIndex;
+import utils.DictationEngine;
+import utils.DictationTranscript;
+import utils.EmotionPredictionTracker;
+import utils.EntrySearchIndex;
 import utils.FirebaseHelper;
+import utils.MoodDriftTracker;
 
 public class JournalSummaryActivity extends AppCompatActivity implements EntryImageAdapter.OnImageRemoveListener {
 
+    private static final String TAG = "JournalSummaryActivity";
     private static final int MAX_CHAR_COUNT = 500;
     private static final int MAX_IMAGES = 3;
     private static final int MAX_TAGS = 6;
@@ -81,7 +82,7 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
     private ImageButton btnCamera;
     private TextView tvImageCount;
     private RecyclerView recyclerImages;
-    private EditText etTags;
+    private AutoCompleteTextView etTags;
     private LinearLayout llTags;
     private LinearLayout llTagsDisplay;
     private HorizontalScrollView tagsScrollView;
@@ -91,21 +92,20 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
     // Data
     private EmotionEntry currentEntry;
     private List<String> tags = new ArrayList<>();
+    private TagSuggestionAdapter tagSuggestionAdapter;
+    // Open once suggestions are ready; null until then
+    private InvertedIndex tagIndex;
     private List<Uri> imageUris = new ArrayList<>();
     private List<byte[]> imageBytesList = new ArrayList<>();
     private FirebaseHelper firebaseHelper;
     private EntryImageAdapter imageAdapter;
 
     // Voice recognition
-    private SpeechRecognizer speechRecognizer;
-    private boolean isListening = false;
+    private DictationEngine dictationEngine;
+    private DictationTranscript transcript;
     private boolean isPaused = false;
     private AlertDialog voiceDialog = null;
-    private StringBuilder currentSessionText = new StringBuilder();
-    private int availableCharacters = MAX_CHAR_COUNT;
     private Animation pulseAnimation;
-    private Handler recognitionHandler = new Handler(Looper.getMainLooper());
-    private Runnable restartRecognitionRunnable;
 
     // Activity Result Launchers
     private final ActivityResultLauncher<Intent> imagePickerLauncher =
@@ -130,6 +130,11 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
         // Initialize Firebase Helper
         firebaseHelper = FirebaseHelper.getInstance();
 
+        // Make sure the entry saved here reaches the mood drift averages, the quick picks and the search index
+        MoodDriftTracker.getInstance(this);
+        EmotionPredictionTracker.getInstance(this);
+        EntrySearchIndex.getInstance(this);
+
         // Initialize entry
         initEmotionEntry();
 
@@ -151,20 +156,18 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
         // Update UI with current entry data
         updateUI();
 
-        // Initialize speech recognizer
-        if (SpeechRecognizer.isRecognitionAvailable(this)) {
-            speechRecognizer = SpeechRecognizer.createSpeechRecognizer(this);
-            setupSpeechRecognizer();
+        // Initialize speech recognition
+        if (DictationEngine.isAvailable(this)) {
+            setupDictation();
         }
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        // Initialize speech recognizer if needed
-        if (speechRecognizer == null && SpeechRecognizer.isRecognitionAvailable(this)) {
-            speechRecognizer = SpeechRecognizer.createSpeechRecognizer(this);
-            setupSpeechRecognizer();
+        // Initialize speech recognition if needed
+        if (dictationEngine == null && DictationEngine.isAvailable(this)) {
+            setupDictation();
         }
     }
 
@@ -178,10 +181,10 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Clean up speech recognizer
-        if (speechRecognizer != null) {
-            speechRecognizer.destroy();
-            speechRecognizer = null;
+        // Clean up speech recognizers
+        if (dictationEngine != null) {
+            dictationEngine.destroy();
+            dictationEngine = null;
         }
     }
 
@@ -307,7 +310,7 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
         // Voice to text click listener
         btnVoiceToText.setOnClickListener(v -> {
             if (etJournalText.length() < MAX_CHAR_COUNT) {
-                if (!isListening) {
+                if (voiceDialog == null) {
                     startVoiceRecognition();
                 } else {
                     stopVoiceRecognition();
@@ -354,6 +357,9 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
             return false;
         });
 
+        // Suggest existing tags as one is typed
+        setupTagSuggestions();
+
         // Also handle space to add tag
         etTags.addTextChangedListener(new TextWatcher() {
             @Override
@@ -385,244 +391,51 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
     }
 
     /**
-     * Sets up the speech recognizer with recognition listener
+     * Sets up dictation and how its progress shows in the voice dialog
      */
-    private void setupSpeechRecognizer() {
-        if (speechRecognizer != null) {
-            speechRecognizer.setRecognitionListener(new RecognitionListener() {
-                @Override
-                public void onReadyForSpeech(Bundle params) {
-                    isListening = true;
-                    if (voiceDialog != null) {
-                        TextView statusView = voiceDialog.findViewById(R.id.tv_listening_status);
-                        if (statusView != null) {
-                            statusView.setText("Listening...");
-                        }
-                    }
-                }
-
-                @Override
-                public void onBeginningOfSpeech() {
-                    // User started speaking
-                    if (voiceDialog != null) {
-                        TextView statusView = voiceDialog.findViewById(R.id.tv_listening_status);
-                        if (statusView != null) {
-                            statusView.setText("Hearing you...");
-                        }
-                    }
-                }
-
-                @Override
-                public void onRmsChanged(float rmsdB) {
-                    // Could use this to show a volume meter
-                }
-
-                @Override
-                public void onBufferReceived(byte[] buffer) {
-                    // Not needed for our implementation
-                }
-
-                @Override
-                public void onEndOfSpeech() {
-                    isListening = false;
-                    if (voiceDialog != null) {
-                        TextView statusView = voiceDialog.findViewById(R.id.tv_listening_status);
-                        if (statusView != null) {
-                            statusView.setText("Processing...");
-                        }
-                    }
-                }
-
-                @Override
-                public void onError(int error) {
-                    isListening = false;
-
-                    if (voiceDialog == null || !voiceDialog.isShowing() || isPaused) {
-                        return;
-                    }
-
+    private void setupDictation() {
+        dictationEngine = new DictationEngine(this, new DictationEngine.Listener() {
+            @Override
+            public void onStatus(String status) {
+                if (voiceDialog != null && !isPaused) {
                     TextView statusView = voiceDialog.findViewById(R.id.tv_listening_status);
-
-                    switch (error) {
-                        case SpeechRecognizer.ERROR_NO_MATCH:
-                        case SpeechRecognizer.ERROR_SPEECH_TIMEOUT:
-                            // No speech detected, just restart
-                            if (statusView != null) {
-                                statusView.setText("Didn't catch that. Please try again.");
-                            }
-                            // Restart recognition after a short delay
-                            if (!isPaused) {
-                                recognitionHandler.postDelayed(restartRecognitionRunnable, 1000);
-                            }
-                            break;
-
-                        case SpeechRecognizer.ERROR_NETWORK:
-                        case SpeechRecognizer.ERROR_NETWORK_TIMEOUT:
-                            if (statusView != null) {
-                                statusView.setText("Network error. Please check your connection.");
-                            }
-                            // Restart after a longer delay
-                            if (!isPaused) {
-                                recognitionHandler.postDelayed(restartRecognitionRunnable, 3000);
-                            }
-                            break;
-
-                        case SpeechRecognizer.ERROR_CLIENT:
-                        case SpeechRecognizer.ERROR_INSUFFICIENT_PERMISSIONS:
-                        case SpeechRecognizer.ERROR_RECOGNIZER_BUSY:
-                            if (statusView != null) {
-                                statusView.setText("Recognition error. Restarting...");
-                            }
-                            // Wait a bit and restart
-                            if (!isPaused) {
-                                recognitionHandler.postDelayed(restartRecognitionRunnable, 1000);
-                            }
-                            break;
-
-                        default:
-                            if (statusView != null) {
-                                statusView.setText("Error occurred. Restarting...");
-                            }
-                            // Generic error, restart after a short delay
-                            if (!isPaused) {
-                                recognitionHandler.postDelayed(restartRecognitionRunnable, 1000);
-                            }
-                            break;
+                    if (statusView != null) {
+                        statusView.setText(status);
                     }
                 }
+            }
 
-                @Override
-                public void onResults(Bundle results) {
-                    isListening = false;
-
-                    if (voiceDialog == null || !voiceDialog.isShowing() || isPaused) {
-                        return;
-                    }
-
-                    ArrayList<String> matches = results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION);
-
-                    if (matches != null && !matches.isEmpty()) {
-                        String recognizedText = matches.get(0);
-
-                        // Get UI references
-                        TextView statusView = voiceDialog.findViewById(R.id.tv_listening_status);
-                        TextView previewView = voiceDialog.findViewById(R.id.tv_recognition_preview);
-                        TextView charCountView = voiceDialog.findViewById(R.id.tv_dialog_char_count);
-
-                        // Add recognized text to the currentSessionText
-                        if (availableCharacters > 0) {
-                            // Add space if needed between segments
-                            if (currentSessionText.length() > 0 &&
-                                    !currentSessionText.toString().endsWith(" ") &&
-                                    !currentSessionText.toString().endsWith("\n") &&
-                                    !recognizedText.isEmpty()) {
-                                currentSessionText.append(" ");
-                            }
-
-                            // Trim recognized text if needed
-                            if (recognizedText.length() > availableCharacters) {
-                                recognizedText = recognizedText.substring(0, availableCharacters);
-                            }
-
-                            // Append to current session text
-                            currentSessionText.append(recognizedText);
-
-                            // Show in preview
-                            if (previewView != null) {
-                                previewView.setText(currentSessionText.toString());
-                            }
-
-                            // Update character count
-                            availableCharacters = MAX_CHAR_COUNT -
-                                    (etJournalText.getText().length() + currentSessionText.length());
-
-                            if (charCountView != null) {
-                                charCountView.setText(availableCharacters + "/" + MAX_CHAR_COUNT + " characters available");
-                            }
-
-                            // Show successful transcription feedback briefly
-                            if (statusView != null) {
-                                statusView.setText("Recognized: \"" + recognizedText + "\"");
-                            }
-
-                            // If we still have characters and not paused, continue listening
-                            if (availableCharacters > 0 && !isPaused) {
-                                // Start next recognition after a short delay
-                                recognitionHandler.postDelayed(restartRecognitionRunnable, 1000);
-                            } else if (availableCharacters <= 0) {
-                                // No characters left
-                                if (statusView != null) {
-                                    statusView.setText("Character limit reached");
-                                }
-                                TextView promptView = voiceDialog.findViewById(R.id.tv_voice_prompt);
-                                if (promptView != null) {
-                                    promptView.setText("Tap 'Done' to apply text");
-                                }
-
-                                // Stop animations
-                                ImageView micIcon = voiceDialog.findViewById(R.id.iv_mic_icon);
-                                if (micIcon != null) {
-                                    micIcon.clearAnimation();
-                                }
-
-                                // Update pause button text
-                                updatePauseButtonText(true);
-                                isPaused = true;
-                            }
-                        } else {
-                            // No characters left
-                            if (statusView != null) {
-                                statusView.setText("Character limit reached");
-                            }
-                            TextView promptView = voiceDialog.findViewById(R.id.tv_voice_prompt);
-                            if (promptView != null) {
-                                promptView.setText("Tap 'Done' to apply text");
-                            }
-
-                            // Stop animations
-                            ImageView micIcon = voiceDialog.findViewById(R.id.iv_mic_icon);
-                            if (micIcon != null) {
-                                micIcon.clearAnimation();
-                            }
-
-                            // Update pause button text
-                            updatePauseButtonText(true);
-                            isPaused = true;
-                        }
-                    } else {
-                        // No results, restart if not paused
-                        TextView statusView = voiceDialog.findViewById(R.id.tv_listening_status);
-                        if (statusView != null) {
-                            statusView.setText("No speech detected. Please try again.");
-                        }
+            @Override
+            public void onTranscriptChanged(DictationTranscript changed) {
+                showTranscript();
+            }
 
-                        if (!isPaused) {
-                            recognitionHandler.postDelayed(restartRecognitionRunnable, 1000);
-                        }
-                    }
+            @Override
+            public void onFull() {
+                if (voiceDialog == null) {
+                    return;
                 }
-
-                @Override
-                public void onPartialResults(Bundle partialResults) {
-                    // We could show partial results here if desired
-                    // For now, we'll just wait for final results
+                // No characters left
+                TextView statusView = voiceDialog.findViewById(R.id.tv_listening_status);
+                if (statusView != null) {
+                    statusView.setText("Character limit reached");
                 }
-
-                @Override
-                public void onEvent(int eventType, Bundle params) {
-                    // Not used in this implementation
+                TextView promptView = voiceDialog.findViewById(R.id.tv_voice_prompt);
+                if (promptView != null) {
+                    promptView.setText("Tap 'Done' to apply text");
                 }
-            });
 
-            // Create the runnable for restarting recognition
-            restartRecognitionRunnable = () -> {
-                if (isListening || isPaused || voiceDialog == null || !voiceDialog.isShowing()) {
-                    return;
+                // Stop animations
+                ImageView micIcon = voiceDialog.findViewById(R.id.iv_mic_icon);
+                if (micIcon != null) {
+                    micIcon.clearAnimation();
                 }
 
-                startListening();
-            };
-        }
+                // Update pause button text
+                updatePauseButtonText(true);
+                isPaused = true;
+            }
+        });
     }
 
     /**
@@ -634,12 +447,16 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
             return;
         }
 
+        if (dictationEngine == null) {
+            Toast.makeText(this, "Speech recognition isn't available on this device", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
         // Reset state
-        currentSessionText.setLength(0);
+        transcript = new DictationTranscript(etJournalText.getText(), MAX_CHAR_COUNT);
         isPaused = false;
-        availableCharacters = MAX_CHAR_COUNT - etJournalText.getText().length();
 
-        if (availableCharacters <= 0) {
+        if (transcript.isFull()) {
             Toast.makeText(this, "Character limit reached", Toast.LENGTH_SHORT).show();
             return;
         }
@@ -660,17 +477,13 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
         builder.setView(dialogView);
 
         // Get references to dialog views
-        TextView tvTitle = dialogView.findViewById(R.id.tv_voice_title);
         ImageView ivMic = dialogView.findViewById(R.id.iv_mic_icon);
-        TextView tvListeningStatus = dialogView.findViewById(R.id.tv_listening_status);
-        TextView tvRecognitionPreview = dialogView.findViewById(R.id.tv_recognition_preview);
-        TextView tvPrompt = dialogView.findViewById(R.id.tv_voice_prompt);
         TextView tvCharCount = dialogView.findViewById(R.id.tv_dialog_char_count);
         Button btnPauseResume = dialogView.findViewById(R.id.btn_pause_resume_listening);
         Button btnStop = dialogView.findViewById(R.id.btn_stop_listening);
 
         // Update character count
-        tvCharCount.setText(availableCharacters + "/" + MAX_CHAR_COUNT + " characters available");
+        tvCharCount.setText(transcript.getRemaining() + "/" + MAX_CHAR_COUNT + " characters available");
 
         // Create and show dialog
         voiceDialog = builder.create();
@@ -683,17 +496,13 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
         // Setup button actions
         btnPauseResume.setOnClickListener(v -> togglePauseState());
 
-        btnStop.setOnClickListener(v -> applyRecognizedTextAndClose());
+        btnStop.setOnClickListener(v -> finishVoiceRecognition());
     }
 
     /**
      * Starts the speech recognition
      */
     private void startListening() {
-        if (speechRecognizer == null || isListening) {
-            return;
-        }
-
         // Update UI to show we're listening
         if (voiceDialog != null) {
             TextView statusView = voiceDialog.findViewById(R.id.tv_listening_status);
@@ -710,29 +519,26 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
             if (micIcon != null) {
                 micIcon.startAnimation(pulseAnimation);
             }
-
-            // Update available character count
-            TextView charCountView = voiceDialog.findViewById(R.id.tv_dialog_char_count);
-            if (charCountView != null) {
-                availableCharacters = MAX_CHAR_COUNT - (etJournalText.getText().length() + currentSessionText.length());
-                charCountView.setText(availableCharacters + "/" + MAX_CHAR_COUNT + " characters available");
-            }
         }
+        showTranscript();
 
-        // Create and configure recognition intent
-        Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
-        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL, RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
-        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, Locale.getDefault());
-        intent.putExtra(RecognizerIntent.EXTRA_PARTIAL_RESULTS, true);
-        intent.putExtra(RecognizerIntent.EXTRA_MAX_RESULTS, 1);
+        dictationEngine.start(transcript);
+    }
 
-        // Start recognizing
-        try {
-            speechRecognizer.startListening(intent);
-            isListening = true;
-        } catch (Exception e) {
-            Toast.makeText(this, "Error starting speech recognition", Toast.LENGTH_SHORT).show();
-            e.printStackTrace();
+    /**
+     * Shows the dictated text so far and the characters left in the dialog
+     */
+    private void showTranscript() {
+        if (voiceDialog == null || transcript == null) {
+            return;
+        }
+        TextView previewView = voiceDialog.findViewById(R.id.tv_recognition_preview);
+        if (previewView != null && !transcript.isEmpty()) {
+            previewView.setText(transcript.getText());
+        }
+        TextView charCountView = voiceDialog.findViewById(R.id.tv_dialog_char_count);
+        if (charCountView != null) {
+            charCountView.setText(transcript.getRemaining() + "/" + MAX_CHAR_COUNT + " characters available");
         }
     }
 
@@ -740,49 +546,45 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
      * Stops speech recognition
      */
     private void stopVoiceRecognition() {
-        // Cancel any pending recognition restarts
-        recognitionHandler.removeCallbacks(restartRecognitionRunnable);
-
-        // Stop speech recognizer if active
-        if (speechRecognizer != null && isListening) {
-            speechRecognizer.stopListening();
-            isListening = false;
+        if (dictationEngine != null) {
+            dictationEngine.stop();
+        }
+        if (voiceDialog != null) {
+            Log.d(TAG, "Dictation latency so far:\n" + DictationEngine.getStats());
         }
 
         // Close dialog if open
         if (voiceDialog != null && voiceDialog.isShowing()) {
             voiceDialog.dismiss();
-            voiceDialog = null;
         }
+        voiceDialog = null;
 
         // Reset state
         isPaused = false;
     }
 
     /**
-     * Apply recognized text to the journal entry field and close the dialog
+     * Waits for the last utterance to be recognized, then applies the text
      */
-    private void applyRecognizedTextAndClose() {
-        if (currentSessionText.length() > 0) {
-            // Get current text
-            String currentText = etJournalText.getText().toString();
-
-            // Add space if needed
-            if (!currentText.isEmpty() && !currentText.endsWith(" ") && !currentText.endsWith("\n")) {
-                currentText += " ";
-            }
-
-            // Combine with recognized text
-            String combinedText = currentText + currentSessionText.toString();
-
-            // Ensure we don't exceed max length
-            if (combinedText.length() > MAX_CHAR_COUNT) {
-                combinedText = combinedText.substring(0, MAX_CHAR_COUNT);
-                Toast.makeText(this, "Text truncated to character limit", Toast.LENGTH_SHORT).show();
+    private void finishVoiceRecognition() {
+        if (voiceDialog != null) {
+            TextView statusView = voiceDialog.findViewById(R.id.tv_listening_status);
+            if (statusView != null) {
+                statusView.setText("Finishing...");
             }
+            voiceDialog.findViewById(R.id.btn_pause_resume_listening).setEnabled(false);
+            voiceDialog.findViewById(R.id.btn_stop_listening).setEnabled(false);
+        }
+        dictationEngine.finish(this::applyRecognizedTextAndClose);
+    }
 
-            // Set the complete text back to the main field
-            etJournalText.setText(combinedText);
+    /**
+     * Apply recognized text to the journal entry field and close the dialog
+     */
+    private void applyRecognizedTextAndClose() {
+        if (transcript != null && !transcript.isEmpty()) {
+            // Fits by construction: the transcript's budget left room for the joining space
+            etJournalText.setText(transcript.appendTo(etJournalText.getText()));
             etJournalText.setSelection(etJournalText.getText().length());
         }
 
@@ -794,6 +596,10 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
      * Toggle between paused and active listening states
      */
     private void togglePauseState() {
+        if (isPaused && transcript.isFull()) {
+            Toast.makeText(this, "Character limit reached", Toast.LENGTH_SHORT).show();
+            return;
+        }
         isPaused = !isPaused;
 
         if (voiceDialog != null && voiceDialog.isShowing()) {
@@ -804,11 +610,8 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
             TextView tvStatus = voiceDialog.findViewById(R.id.tv_listening_status);
 
             if (isPaused) {
-                // Update UI for paused state
-                if (isListening) {
-                    speechRecognizer.stopListening();
-                    isListening = false;
-                }
+                // Whatever is mid-utterance still gets recognized and added
+                dictationEngine.pause();
 
                 if (ivMic != null) {
                     ivMic.clearAnimation();
@@ -817,19 +620,7 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
                 if (tvStatus != null) {
                     tvStatus.setText("Paused");
                 }
-
-                // Cancel any pending recognition restarts
-                recognitionHandler.removeCallbacks(restartRecognitionRunnable);
             } else {
-                // Update UI for active listening
-                if (ivMic != null) {
-                    ivMic.startAnimation(pulseAnimation);
-                }
-
-                if (tvStatus != null) {
-                    tvStatus.setText("Listening...");
-                }
-
                 // Restart listening
                 startListening();
             }
@@ -1079,12 +870,45 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
         }
     }
 
+    /**
+     * Suggests the user's existing tags while one is typed, once the search index is open
+     */
+    private void setupTagSuggestions() {
+        tagSuggestionAdapter = new TagSuggestionAdapter(this, tags);
+        etTags.setAdapter(tagSuggestionAdapter);
+        etTags.setOnItemClickListener((parent, view, position, id) -> addTag());
+
+        if (firebaseHelper.getCurrentUser() == null) {
+            return;
+        }
+        EntrySearchIndex.getInstance(this).open(firebaseHelper.getCurrentUser().getUid(),
+                new EntrySearchIndex.ReadyListener() {
+                    @Override
+                    public void onReady(InvertedIndex index) {
+                        tagIndex = index;
+                        tagSuggestionAdapter.setIndex(index);
+                    }
+
+                    @Override
+                    public void onFailure(DatabaseError error) {
+                        // Tags can still be typed in full
+                        Log.w(TAG, "Tag suggestions unavailable", error.toException());
+                    }
+                });
+    }
+
     private void addTag() {
         String tagText = etTags.getText().toString().trim();
 
+        // Write it the way the user already does, so "Work" and "work" stay one tag
+        String knownName = tagIndex != null ? tagIndex.tagName(tagText) : null;
+        if (knownName != null) {
+            tagText = knownName;
+        }
+
         if (!tagText.isEmpty() && tags.size() < MAX_TAGS) {
             // Don't add duplicate tags
-            if (!tags.contains(tagText)) {
+            if (!hasTag(tagText)) {
                 tags.add(tagText);
                 addTagView(tagText);
             }
@@ -1096,6 +920,17 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
         }
     }
 
+    // Compares tags the way the index does, ignoring case and accents
+    private boolean hasTag(String tagText) {
+        String key = InvertedIndex.tagKey(tagText);
+        for (String tag : tags) {
+            if (InvertedIndex.tagKey(tag).equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void addTagView(String tagText) {
         // Inflate the tag view
         View tagView = LayoutInflater.from(this).inflate(R.layout.item_tag, null, false);
@@ -1181,53 +1016,39 @@ public class JournalSummaryActivity extends AppCompatActivity implements EntryIm
     }
 
     private void uploadImages() {
-        List<String> imageUrls = new ArrayList<>();
         final int[] uploadCount = {0};
         final int totalImages = imageBytesList.size();
 
         // Show progress message
         Toast.makeText(this, "Uploading images...", Toast.LENGTH_SHORT).show();
 
-        for (int i = 0; i < imageBytesList.size(); i++) {
-            byte[] imageData = imageBytesList.get(i);
-            final int imageIndex = i;
+        if (firebaseHelper.getCurrentUser() == null) {
+            Toast.makeText(this, "User not logged in", Toast.LENGTH_SHORT).show();
+            btnSaveEntry.setEnabled(true);
+            return;
+        }
 
-            if (firebaseHelper.getCurrentUser() == null) {
-                Toast.makeText(this, "User not logged in", Toast.LENGTH_SHORT).show();
-                btnSaveEntry.setEnabled(true);
-                return;
-            }
+        String userId = firebaseHelper.getCurrentUser().getUid();
 
-            String userId = firebaseHelper.getCurrentUser().getUid();
-            String filename = "image_" + System.currentTimeMillis() + "_" + imageIndex + ".jpg";
+        // Start from a clean set of images; each upload adds its original plus renditions
+        currentEntry.setImageUrls(new ArrayList<>());
+        currentEntry.setImageSmallUrls(new ArrayList<>());
+        currentEntry.setImageMediumUrls(new ArrayList<>());
 
-            // Create a direct reference to Firebase Storage
-            StorageReference imageRef = FirebaseStorage.getInstance().getReference()
-                    .child("images")
-                    .child(userId)
-                    .child(filename);
+        for (int i = 0; i < imageBytesList.size(); i++) {
+            byte[] imageData = imageBytesList.get(i);
 
-            // Upload directly and get the URL in one continuous operation
-            imageRef.putBytes(imageData)
-                    .continueWithTask(task -> {
-                        if (!task.isSuccessful()) {
-                            throw task.getException();
-                        }
-                        // Get the download URL from the same reference
-                        return imageRef.getDownloadUrl();
-                    })
+            // Upload the original together with its small and medium renditions
+            firebaseHelper.uploadImageWithRenditions(userId, imageData)
                     .addOnCompleteListener(task -> {
-                        if (task.isSuccessful()) {
-                            Uri downloadUri = task.getResult();
-                            if (downloadUri != null) {
-                                imageUrls.add(downloadUri.toString());
-                            }
+                        if (task.isSuccessful() && task.getResult() != null) {
+                            List<String> urls = task.getResult();
+                            currentEntry.addImageWithRenditions(urls.get(0), urls.get(1), urls.get(2));
                         }
 
                         uploadCount[0]++;
                         if (uploadCount[0] >= totalImages) {
                             // All uploads complete
-                            currentEntry.setImageUrls(imageUrls);
                             saveEntryToFirebase();
                         }
                     });
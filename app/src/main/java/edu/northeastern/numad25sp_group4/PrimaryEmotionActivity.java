@@ -2,16 +2,28 @@ package edu.northeastern.numad25sp_group4;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.View;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
+import android.widget.HorizontalScrollView;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
+import com.google.firebase.auth.FirebaseUser;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import models.Emotion;
+import models.EmotionCatalog;
 import models.EmotionEntry;
+import utils.EmotionPredictionTracker;
+import utils.FirebaseHelper;
 import utils.LoginManager;
 
 /**
@@ -20,12 +32,17 @@ import utils.LoginManager;
  */
 public class PrimaryEmotionActivity extends AppCompatActivity {
 
+    // Most emotions offered for a single tap
+    private static final int QUICK_PICK_COUNT = 5;
+
     private TextView tvTitle;
     private CardView cardHighEnergyPleasant;
     private CardView cardHighEnergyUnpleasant;
     private CardView cardLowEnergyPleasant;
     private CardView cardLowEnergyUnpleasant;
     private ImageView ivBackArrow;
+    private HorizontalScrollView scrollQuickPicks;
+    private ChipGroup chipGroupQuickPicks;
 
     private EmotionEntry currentEntry;
     private boolean isAddingSecondEmotion = false;
@@ -64,6 +81,9 @@ public class PrimaryEmotionActivity extends AppCompatActivity {
 
         // Set up click listeners
         setupListeners();
+
+        // Offer the emotions this user is likely to log now
+        loadQuickPicks();
     }
 
     private void initViews() {
@@ -73,6 +93,8 @@ public class PrimaryEmotionActivity extends AppCompatActivity {
         cardLowEnergyPleasant = findViewById(R.id.card_low_energy_pleasant);
         cardLowEnergyUnpleasant = findViewById(R.id.card_low_energy_unpleasant);
         ivBackArrow = findViewById(R.id.iv_back_arrow);
+        scrollQuickPicks = findViewById(R.id.scroll_quick_picks);
+        chipGroupQuickPicks = findViewById(R.id.chip_group_quick_picks);
 
         // No initial animations - will only animate on click
     }
@@ -172,6 +194,100 @@ public class PrimaryEmotionActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Fills the quick pick row from the user's history, leaving out emotions
+     * already in the entry. The row stays hidden until there are enough picks.
+     */
+    private void loadQuickPicks() {
+        FirebaseUser user = FirebaseHelper.getInstance().getCurrentUser();
+        if (user == null) {
+            return;
+        }
+        EmotionPredictionTracker.getInstance(this).getQuickPicks(user.getUid(), QUICK_PICK_COUNT, picks -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            chipGroupQuickPicks.removeAllViews();
+            for (Emotion emotion : picks) {
+                if (!isInEntry(emotion)) {
+                    chipGroupQuickPicks.addView(quickPickChip(emotion));
+                }
+            }
+            scrollQuickPicks.setVisibility(chipGroupQuickPicks.getChildCount() > 0 ? View.VISIBLE : View.GONE);
+        });
+    }
+
+    private Chip quickPickChip(Emotion emotion) {
+        Chip chip = new Chip(this);
+        chip.setText(emotion.getName());
+        // Colored like the emotion's quadrant
+        switch (emotion.getCategory()) {
+            case HIGH_ENERGY_PLEASANT:
+                chip.setChipBackgroundColorResource(R.color.high_energy_pleasant);
+                chip.setTextColor(0xFF5F5000);
+                break;
+            case HIGH_ENERGY_UNPLEASANT:
+                chip.setChipBackgroundColorResource(R.color.high_energy_unpleasant);
+                chip.setTextColor(0xFF8E2020);
+                break;
+            case LOW_ENERGY_PLEASANT:
+                chip.setChipBackgroundColorResource(R.color.low_energy_pleasant);
+                chip.setTextColor(0xFF0F5B0F);
+                break;
+            default:
+                chip.setChipBackgroundColorResource(R.color.low_energy_unpleasant);
+                chip.setTextColor(0xFF004975);
+                break;
+        }
+        chip.setOnClickListener(v -> selectQuickPick(emotion));
+        return chip;
+    }
+
+    private boolean isInEntry(Emotion emotion) {
+        if (currentEntry.getEmotions() == null) {
+            return false;
+        }
+        for (Emotion existing : currentEntry.getEmotions()) {
+            if (existing != null && existing.getCategory() == emotion.getCategory()
+                    && EmotionCatalog.key(existing.getName()).equals(EmotionCatalog.key(emotion.getName()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts the picked emotion in the entry as the emotion list would and goes
+     * straight to the journal, skipping the list and its catalog load
+     */
+    private void selectQuickPick(Emotion emotion) {
+        if (currentEntry.getEmotions() == null) {
+            currentEntry.setEmotions(new ArrayList<>());
+        }
+        List<Emotion> emotions = currentEntry.getEmotions();
+        if (isAddingSecondEmotion) {
+            // Replace the second emotion if there are already two
+            if (emotions.size() >= 2) {
+                emotions.set(1, emotion);
+            } else {
+                currentEntry.addEmotion(emotion);
+            }
+        } else {
+            emotions.clear();
+            currentEntry.addEmotion(emotion);
+        }
+
+        Intent intent = new Intent(PrimaryEmotionActivity.this, JournalSummaryActivity.class);
+        intent.putExtra("CURRENT_ENTRY", currentEntry);
+        startActivity(intent);
+        overridePendingTransition(R.anim.anim_slide_in_right, R.anim.anim_slide_out_left);
+
+        // A second emotion goes back to the journal it came from, not through this screen again
+        if (isAddingSecondEmotion) {
+            finish();
+        }
+    }
+
     /**
      * Navigate to specific emotions screen with the selected category
      */
@@ -0,0 +1,366 @@
+package edu.northeastern.numad25sp_group4;
+
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
+import android.view.View;
+import android.widget.EditText;
+import android.widget.HorizontalScrollView;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
+import com.google.android.material.switchmaterial.SwitchMaterial;
+import com.google.firebase.database.DatabaseError;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import adapters.SearchResultAdapter;
+import models.Emotion;
+import search.EntryQuery;
+import search.InvertedIndex;
+import search.QueryCursor;
+import utils.EntrySearchIndex;
+import utils.FirebaseHelper;
+
+/**
+ * Finds journal entries by the words in them and browses them by tag, date,
+ * mood and photos. Queries the on-device index as words are typed or filters
+ * picked, best matches first, showing each with the matched words
+ * highlighted; nothing is fetched per query. Results are loaded a page at a
+ * time as the list is scrolled.
+ *
+ * Pass a tag as the "tag" extra to open with it selected.
+ */
+public class SearchActivity extends AppCompatActivity {
+
+    private static final String TAG = "SearchActivity";
+
+    private static final int PAGE_SIZE = 30;
+    // Load the next page once the list is scrolled this close to its end
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int RECENT_DAYS = 30;
+
+    private EditText etSearchQuery;
+    private TextView tvSearchStatus;
+    private RecyclerView rvSearchResults;
+    private ImageView ivBackArrow;
+    private ChipGroup chipGroupSearchFilters;
+    private HorizontalScrollView scrollSearchTags;
+    private ChipGroup chipGroupSearchTags;
+    private SwitchMaterial switchMatchAllTags;
+    private SearchResultAdapter adapter;
+    private String userId;
+
+    private final List<InvertedIndex.Hit> hits = new ArrayList<>();
+    // Keys of the selected tags
+    private final Set<String> selectedTags = new LinkedHashSet<>();
+    private boolean recentOnly;
+    private boolean withPhotosOnly;
+    private Emotion.Category selectedCategory;
+    private final List<Chip> categoryChips = new ArrayList<>();
+    private InvertedIndex index;
+    private QueryCursor cursor;
+    // Whether a next page is already posted, so scroll callbacks don't queue more
+    private boolean pagePosted;
+    // Query plans are logged in debug builds
+    private boolean debuggable;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_search);
+
+        // Get current user ID
+        FirebaseHelper firebaseHelper = FirebaseHelper.getInstance();
+        if (firebaseHelper.getCurrentUser() != null) {
+            userId = firebaseHelper.getCurrentUser().getUid();
+        }
+
+        String tag = getIntent().getStringExtra("tag");
+        if (tag != null && !InvertedIndex.tagKey(tag).isEmpty()) {
+            selectedTags.add(InvertedIndex.tagKey(tag));
+        }
+
+        debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+
+        initViews();
+        setupRecyclerView();
+        setupFilters();
+        setupListeners();
+    }
+
+    private void initViews() {
+        etSearchQuery = findViewById(R.id.et_search_query);
+        tvSearchStatus = findViewById(R.id.tv_search_status);
+        rvSearchResults = findViewById(R.id.rv_search_results);
+        ivBackArrow = findViewById(R.id.iv_back_arrow);
+        chipGroupSearchFilters = findViewById(R.id.chip_group_search_filters);
+        scrollSearchTags = findViewById(R.id.scroll_search_tags);
+        chipGroupSearchTags = findViewById(R.id.chip_group_search_tags);
+        switchMatchAllTags = findViewById(R.id.switch_match_all_tags);
+    }
+
+    private void setupRecyclerView() {
+        adapter = new SearchResultAdapter(this, hits, hit -> {
+            Intent intent = new Intent(SearchActivity.this, EntryEditActivity.class);
+            intent.putExtra("entryId", hit.getEntryId());
+            startActivity(intent);
+        });
+        rvSearchResults.setAdapter(adapter);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        rvSearchResults.setLayoutManager(layoutManager);
+
+        rvSearchResults.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                if (layoutManager.findLastVisibleItemPosition() >= hits.size() - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
+            }
+        });
+    }
+
+    // Recent days, one mood category at a time, and entries with photos
+    private void setupFilters() {
+        chipGroupSearchFilters.addView(filterChip("Last " + RECENT_DAYS + " days", isChecked -> {
+            recentOnly = isChecked;
+            runSearch();
+        }));
+        chipGroupSearchFilters.addView(filterChip("With photos", isChecked -> {
+            withPhotosOnly = isChecked;
+            runSearch();
+        }));
+        for (Emotion.Category category : Emotion.Category.values()) {
+            Chip chip = filterChip(categoryLabel(category), isChecked -> {
+                if (isChecked) {
+                    selectedCategory = category;
+                    for (Chip other : categoryChips) {
+                        if (other.getTag() != category) {
+                            other.setChecked(false);
+                        }
+                    }
+                } else if (selectedCategory == category) {
+                    selectedCategory = null;
+                }
+                runSearch();
+            });
+            chip.setTag(category);
+            categoryChips.add(chip);
+            chipGroupSearchFilters.addView(chip);
+        }
+    }
+
+    private interface OnFilterChangedListener {
+        void onFilterChanged(boolean isChecked);
+    }
+
+    private Chip filterChip(String label, OnFilterChangedListener listener) {
+        Chip chip = new Chip(this);
+        chip.setText(label);
+        chip.setCheckable(true);
+        chip.setCheckedIconVisible(false);
+        chip.setChipBackgroundColorResource(R.color.tag_chip_background);
+        chip.setTextColor(ContextCompat.getColorStateList(this, R.color.tag_chip_text));
+        chip.setOnCheckedChangeListener((button, isChecked) -> listener.onFilterChanged(isChecked));
+        return chip;
+    }
+
+    private String categoryLabel(Emotion.Category category) {
+        switch (category) {
+            case HIGH_ENERGY_PLEASANT:
+                return "High energy pleasant";
+            case HIGH_ENERGY_UNPLEASANT:
+                return "High energy unpleasant";
+            case LOW_ENERGY_PLEASANT:
+                return "Low energy pleasant";
+            default:
+                return "Low energy unpleasant";
+        }
+    }
+
+    private void setupListeners() {
+        ivBackArrow.setOnClickListener(view -> finish());
+
+        etSearchQuery.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                runSearch();
+            }
+        });
+
+        switchMatchAllTags.setOnCheckedChangeListener((button, isChecked) -> runSearch());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Reopen each time so edits and deletes made from a result show up
+        openIndex();
+    }
+
+    private void openIndex() {
+        if (userId == null) {
+            tvSearchStatus.setText("Sign in to search your entries.");
+            return;
+        }
+        if (index == null) {
+            tvSearchStatus.setText("Getting your entries ready...");
+        }
+        EntrySearchIndex.getInstance(this).open(userId, new EntrySearchIndex.ReadyListener() {
+            @Override
+            public void onReady(InvertedIndex readyIndex) {
+                index = readyIndex;
+                showTags();
+                refreshResults();
+            }
+
+            @Override
+            public void onFailure(DatabaseError error) {
+                Log.e(TAG, "Failed to open search index", error.toException());
+                tvSearchStatus.setText("Couldn't load your entries for searching.");
+            }
+        });
+    }
+
+    // One chip per tag in use, keeping selections for tags that still exist
+    private void showTags() {
+        List<InvertedIndex.Tag> tags = index.getTags();
+        Set<String> inUse = new LinkedHashSet<>();
+        chipGroupSearchTags.removeAllViews();
+        for (InvertedIndex.Tag tag : tags) {
+            inUse.add(tag.getKey());
+
+            Chip chip = new Chip(this);
+            chip.setText(tag.getName() + " · " + tag.getCount());
+            chip.setCheckable(true);
+            chip.setCheckedIconVisible(false);
+            chip.setChipBackgroundColorResource(R.color.tag_chip_background);
+            chip.setTextColor(ContextCompat.getColorStateList(this, R.color.tag_chip_text));
+            chip.setChecked(selectedTags.contains(tag.getKey()));
+            chip.setOnCheckedChangeListener((button, isChecked) -> {
+                if (isChecked) {
+                    selectedTags.add(tag.getKey());
+                } else {
+                    selectedTags.remove(tag.getKey());
+                }
+                runSearch();
+            });
+            chipGroupSearchTags.addView(chip);
+        }
+        selectedTags.retainAll(inUse);
+        scrollSearchTags.setVisibility(tags.isEmpty() ? View.GONE : View.VISIBLE);
+    }
+
+    private void runSearch() {
+        if (index == null) {
+            return;
+        }
+        String query = etSearchQuery.getText().toString();
+        // Any or all only matters once there are two tags to choose between
+        switchMatchAllTags.setVisibility(selectedTags.size() > 1 ? View.VISIBLE : View.GONE);
+
+        boolean filtered = !selectedTags.isEmpty() || recentOnly || withPhotosOnly || selectedCategory != null;
+        if (query.trim().isEmpty() && !filtered) {
+            cursor = null;
+            hits.clear();
+            adapter.notifyDataSetChanged();
+            tvSearchStatus.setText("Search " + index.size() + (index.size() == 1 ? " entry" : " entries")
+                    + " or pick filters to browse");
+            return;
+        }
+
+        EntryQuery entryQuery = new EntryQuery()
+                .text(query)
+                .tags(selectedTags, switchMatchAllTags.isChecked());
+        if (recentOnly) {
+            long today = LocalDate.now().toEpochDay();
+            entryQuery.between((int) today - RECENT_DAYS + 1, (int) today);
+        }
+        if (withPhotosOnly) {
+            entryQuery.withImages(true);
+        }
+        if (selectedCategory != null) {
+            entryQuery.category(selectedCategory);
+        }
+        cursor = index.query(entryQuery);
+        if (debuggable) {
+            Log.d(TAG, "Plan for \"" + query + "\":\n" + cursor.explain());
+        }
+
+        hits.clear();
+        hits.addAll(cursor.next(PAGE_SIZE));
+        adapter.notifyDataSetChanged();
+        rvSearchResults.scrollToPosition(0);
+        showStatus(query, entryQuery);
+    }
+
+    // Runs the search again, as far down as had been scrolled, keeping the position
+    private void refreshResults() {
+        int shown = hits.size();
+        Parcelable position = rvSearchResults.getLayoutManager().onSaveInstanceState();
+        runSearch();
+        while (cursor != null && cursor.hasMore() && hits.size() < shown) {
+            hits.addAll(cursor.next(PAGE_SIZE));
+        }
+        adapter.notifyDataSetChanged();
+        rvSearchResults.getLayoutManager().onRestoreInstanceState(position);
+    }
+
+    private void showStatus(String query, EntryQuery entryQuery) {
+        int matchCount = cursor.getMatchCount();
+        if (matchCount == 0) {
+            tvSearchStatus.setText(query.trim().isEmpty() ? "No entries match those filters." : "No entries mention that.");
+        } else if (query.trim().isEmpty()) {
+            // Without tags this is counted off the index bitmaps alone
+            int days = index.countDays(entryQuery);
+            tvSearchStatus.setText(matchCount + (matchCount == 1 ? " entry" : " entries") + " on " + days
+                    + (days == 1 ? " day" : " days") + ", newest first");
+        } else {
+            tvSearchStatus.setText(matchCount + (matchCount == 1 ? " entry" : " entries") + ", best match first");
+        }
+    }
+
+    private void loadNextPage() {
+        if (cursor == null || !cursor.hasMore() || pagePosted) {
+            return;
+        }
+        // Posted so the list isn't changed in the middle of its scroll callback; the
+        // hits and the adapter change together, so the adapter never sees extra items
+        pagePosted = true;
+        QueryCursor pageCursor = cursor;
+        rvSearchResults.post(() -> {
+            pagePosted = false;
+            // A new search since replaced the results
+            if (cursor != pageCursor || !cursor.hasMore()) {
+                return;
+            }
+            int start = hits.size();
+            List<InvertedIndex.Hit> page = cursor.next(PAGE_SIZE);
+            hits.addAll(page);
+            adapter.notifyItemRangeInserted(start, page.size());
+        });
+    }
+}
@@ -12,10 +12,12 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.android.material.bottomnavigation.BottomNavigationView;
+import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.ValueEventListener;
 
+import utils.DictationEngine;
 import utils.FirebaseHelper;
 import utils.LoginManager;
 import android.graphics.Color;
@@ -25,6 +27,7 @@ public class SettingsActivity extends AppCompatActivity implements BottomNavigat
     private TextView tvUserGreeting;
     private TextView tvEditProfile;
     private TextView tvNotifications;
+    private SwitchMaterial switchOnDeviceDictation;
     private TextView tvAboutApp;
     private TextView tvLogout;
     private BottomNavigationView bottomNavigationView;
@@ -57,6 +60,7 @@ public class SettingsActivity extends AppCompatActivity implements BottomNavigat
     private void initViews() {
         tvEditProfile = findViewById(R.id.tv_edit_profile);
         tvNotifications = findViewById(R.id.tv_notifications);
+        switchOnDeviceDictation = findViewById(R.id.switch_on_device_dictation);
         tvAboutApp = findViewById(R.id.tv_about_app);
         tvLogout = findViewById(R.id.tv_logout);
         bottomNavigationView = findViewById(R.id.bottom_navigation);
@@ -113,6 +117,11 @@ public class SettingsActivity extends AppCompatActivity implements BottomNavigat
             }
         });
 
+        // Prefer on-device speech recognition when dictating; it falls back to the default by itself
+        switchOnDeviceDictation.setChecked(DictationEngine.isPreferOnDevice(this));
+        switchOnDeviceDictation.setOnCheckedChangeListener((buttonView, isChecked) ->
+                DictationEngine.setPreferOnDevice(this, isChecked));
+
         // About App click listener
         tvAboutApp.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -1,6 +1,8 @@
 package models;
 
 import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -11,18 +13,35 @@ import java.util.List;
 public class EmotionEntry implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    // Longest edge, in pixels, of the generated image renditions
+    public static final int SMALL_RENDITION_PX = 320;
+    public static final int MEDIUM_RENDITION_PX = 1080;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
     private String entryId;
     private String userId;
     private List<Emotion> emotions; // Limited to max 2 emotions per entry
     private String journalText;
     private List<String> imageUrls; // URLs to stored images, max 3
+    private List<String> imageSmallUrls; // Small renditions, parallel to imageUrls ("" if missing)
+    private List<String> imageMediumUrls; // Medium renditions, parallel to imageUrls ("" if missing)
     private List<String> tags; // Tags associated with the entry, max 6
     private Date timestamp;
 
+    // Local time as the writer saw it, fixed at save time (see stampLocalTime)
+    private long timestampMillis;
+    private int utcOffsetSeconds;
+    private int epochDay;
+
+    private Double sentimentScore; // -1..1 from the journal text, null if never scored
+
     // Empty constructor required for Firebase
     public EmotionEntry() {
         emotions = new ArrayList<>();
         imageUrls = new ArrayList<>();
+        imageSmallUrls = new ArrayList<>();
+        imageMediumUrls = new ArrayList<>();
         tags = new ArrayList<>();
     }
 
@@ -32,6 +51,8 @@ public class EmotionEntry implements Serializable {
         this.timestamp = timestamp;
         this.emotions = new ArrayList<>();
         this.imageUrls = new ArrayList<>();
+        this.imageSmallUrls = new ArrayList<>();
+        this.imageMediumUrls = new ArrayList<>();
         this.tags = new ArrayList<>();
         this.journalText = "";
     }
@@ -89,6 +110,107 @@ public class EmotionEntry implements Serializable {
         }
     }
 
+    public List<String> getImageSmallUrls() {
+        return imageSmallUrls;
+    }
+
+    public void setImageSmallUrls(List<String> imageSmallUrls) {
+        this.imageSmallUrls = imageSmallUrls;
+    }
+
+    public List<String> getImageMediumUrls() {
+        return imageMediumUrls;
+    }
+
+    public void setImageMediumUrls(List<String> imageMediumUrls) {
+        this.imageMediumUrls = imageMediumUrls;
+    }
+
+    /**
+     * Adds an uploaded image together with its small and medium renditions,
+     * keeping the rendition lists aligned with imageUrls
+     */
+    public void addImageWithRenditions(String imageUrl, String smallUrl, String mediumUrl) {
+        if (imageUrls == null) {
+            imageUrls = new ArrayList<>();
+        }
+        if (imageUrls.size() >= 3) {
+            return;
+        }
+        alignRenditionLists();
+        imageUrls.add(imageUrl);
+        imageSmallUrls.add(smallUrl != null ? smallUrl : "");
+        imageMediumUrls.add(mediumUrl != null ? mediumUrl : "");
+    }
+
+    /**
+     * Removes the image at the given position along with its renditions
+     */
+    public void removeImageAt(int index) {
+        if (imageUrls == null || index < 0 || index >= imageUrls.size()) {
+            return;
+        }
+        alignRenditionLists();
+        imageUrls.remove(index);
+        imageSmallUrls.remove(index);
+        imageMediumUrls.remove(index);
+    }
+
+    /**
+     * Returns the smallest stored rendition of the image at the given position
+     * that still covers targetPx, falling back to the original for entries
+     * saved before renditions existed
+     */
+    public String getImageUrlForSize(int index, int targetPx) {
+        if (imageUrls == null || index < 0 || index >= imageUrls.size()) {
+            return null;
+        }
+        String original = imageUrls.get(index);
+        if (targetPx <= SMALL_RENDITION_PX) {
+            String small = renditionAt(imageSmallUrls, index);
+            if (small != null) {
+                return small;
+            }
+        }
+        if (targetPx <= MEDIUM_RENDITION_PX) {
+            String medium = renditionAt(imageMediumUrls, index);
+            if (medium != null) {
+                return medium;
+            }
+        }
+        return original;
+    }
+
+    private static String renditionAt(List<String> renditions, int index) {
+        if (renditions == null || index >= renditions.size()) {
+            return null;
+        }
+        String url = renditions.get(index);
+        return url == null || url.isEmpty() ? null : url;
+    }
+
+    // Older entries have no renditions, so pad with "" until the lists line up
+    private void alignRenditionLists() {
+        if (imageSmallUrls == null) {
+            imageSmallUrls = new ArrayList<>();
+        }
+        if (imageMediumUrls == null) {
+            imageMediumUrls = new ArrayList<>();
+        }
+        while (imageSmallUrls.size() < imageUrls.size()) {
+            imageSmallUrls.add("");
+        }
+        while (imageMediumUrls.size() < imageUrls.size()) {
+            imageMediumUrls.add("");
+        }
+        while (imageSmallUrls.size() > imageUrls.size()) {
+            imageSmallUrls.remove(imageSmallUrls.size() - 1);
+        }
+        while (imageMediumUrls.size() > imageUrls.size()) {
+            imageMediumUrls.remove(imageMediumUrls.size() - 1);
+        }
+    }
+
     public List<String> getTags() {
         return tags;
     }
@@ -110,4 +232,75 @@ public class EmotionEntry implements Serializable {
     public void setTimestamp(Date timestamp) {
         this.timestamp = timestamp;
     }
-}
\ No newline at end of file
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public void setTimestampMillis(long timestampMillis) {
+        this.timestampMillis = timestampMillis;
+    }
+
+    public int getUtcOffsetSeconds() {
+        return utcOffsetSeconds;
+    }
+
+    public void setUtcOffsetSeconds(int utcOffsetSeconds) {
+        this.utcOffsetSeconds = utcOffsetSeconds;
+    }
+
+    /**
+     * Local calendar day (days since 1970-01-01) the entry was written on,
+     * in the writer's time zone at that moment
+     */
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    public void setEpochDay(int epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    /**
+     * How positive the journal text reads, from -1 to 1, as scored when the
+     * entry was last saved. Null for entries saved before scoring existed.
+     */
+    public Double getSentimentScore() {
+        return sentimentScore;
+    }
+
+    public void setSentimentScore(Double sentimentScore) {
+        this.sentimentScore = sentimentScore;
+    }
+
+    /**
+     * Whether the local time fields match the timestamp. False for entries
+     * saved before the fields existed and after the timestamp was changed.
+     */
+    public boolean hasLocalTime() {
+        return timestamp != null && timestampMillis == timestamp.getTime();
+    }
+
+    /**
+     * Fills in the local time fields from the timestamp as seen in the zone.
+     * Entries that already have them keep their original day, so an entry
+     * written at 11pm in New York stays on that day when read in Tokyo.
+     */
+    public void stampLocalTime(ZoneId zone) {
+        if (timestamp == null || hasLocalTime()) {
+            return;
+        }
+        long millis = timestamp.getTime();
+        int offsetSeconds = zone.getRules().getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds();
+        timestampMillis = millis;
+        utcOffsetSeconds = offsetSeconds;
+        epochDay = (int) Math.floorDiv(millis + offsetSeconds * 1000L, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Minutes since local midnight the entry was written at, in the writer's zone
+     */
+    public int localMinuteOfDay() {
+        return (int) (Math.floorMod(timestampMillis + utcOffsetSeconds * 1000L, MILLIS_PER_DAY) / 60000);
+    }
+}
@@ -0,0 +1,123 @@
+package search;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import models.Emotion;
+
+/**
+ * What to look for in the entry index. Every criterion that is set must hold;
+ * the rest don't filter, so an empty query matches every entry. Setters return
+ * the query so they can be chained:
+ *
+ * new EntryQuery().text("walk").category(Emotion.Category.LOW_ENERGY_PLEASANT).withImages(true)
+ */
+public class EntryQuery {
+
+    private String text = "";
+    private boolean hasDateRange;
+    private int fromEpochDay;
+    private int toEpochDay;
+    private Emotion.Category category;
+    private String emotionKey;
+    private final Set<String> tagKeys = new LinkedHashSet<>();
+    private boolean matchAllTags;
+    private Boolean hasImages;
+
+    /**
+     * Words the entry's text must contain, the last also as a prefix
+     */
+    public EntryQuery text(String text) {
+        this.text = text != null ? text : "";
+        return this;
+    }
+
+    /**
+     * Entries written on these days, inclusive, in the writer's zone
+     */
+    public EntryQuery between(int fromEpochDay, int toEpochDay) {
+        this.hasDateRange = true;
+        this.fromEpochDay = fromEpochDay;
+        this.toEpochDay = toEpochDay;
+        return this;
+    }
+
+    /**
+     * Entries with at least one emotion in the category
+     */
+    public EntryQuery category(Emotion.Category category) {
+        this.category = category;
+        return this;
+    }
+
+    /**
+     * Entries with this emotion, compared folded like tags
+     */
+    public EntryQuery emotion(String emotion) {
+        this.emotionKey = emotion != null && !InvertedIndex.tagKey(emotion).isEmpty()
+                ? InvertedIndex.tagKey(emotion) : null;
+        return this;
+    }
+
+    /**
+     * Entries with all of the tags, or any of them if matchAll is false
+     *
+     * @param tags tag names or keys
+     */
+    public EntryQuery tags(Collection<String> tags, boolean matchAll) {
+        tagKeys.clear();
+        for (String tag : tags) {
+            if (!InvertedIndex.tagKey(tag).isEmpty()) {
+                tagKeys.add(InvertedIndex.tagKey(tag));
+            }
+        }
+        this.matchAllTags = matchAll;
+        return this;
+    }
+
+    /**
+     * Entries with images attached, or without any if false
+     */
+    public EntryQuery withImages(boolean hasImages) {
+        this.hasImages = hasImages;
+        return this;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    boolean hasDateRange() {
+        return hasDateRange;
+    }
+
+    int getFromEpochDay() {
+        return fromEpochDay;
+    }
+
+    int getToEpochDay() {
+        return toEpochDay;
+    }
+
+    Emotion.Category getCategory() {
+        return category;
+    }
+
+    String getEmotionKey() {
+        return emotionKey;
+    }
+
+    Set<String> getTagKeys() {
+        return Collections.unmodifiableSet(tagKeys);
+    }
+
+    boolean isMatchAllTags() {
+        return matchAllTags;
+    }
+
+    Boolean getHasImages() {
+        return hasImages;
+    }
+}
@@ -0,0 +1,1224 @@
+package search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import models.Emotion;
+
+/**
+ * Word index over one user's journal texts, answering multi-word queries
+ * without loading any entries.
+ *
+ * Each entry gets a small integer document id, and each term (see
+ * TextAnalyzer) maps to the ascending ids of the entries containing it. New
+ * and edited entries take the next id, so indexing one is an append to each of
+ * its terms' lists; deleting clears its slot and removes it from its terms'
+ * lists. Slots left empty are reclaimed by compacting once they outnumber the
+ * live ones.
+ *
+ * Every entry's tokens are kept too, as terms and positions in the text. They
+ * give the term frequencies and lengths BM25 ranks by, and the positions to cut
+ * and highlight snippets at, without analyzing the text again.
+ *
+ * Tags get postings lists of their own, keyed by the tag folded like text, so
+ * "Work" and "work" are one tag. A tag filter is a merge of those lists, and
+ * narrows text matches by one more merge. Entries with tags but no text are
+ * indexed for browsing but never match words. A TagTrie over the same keys
+ * suggests tags by prefix as they are typed.
+ *
+ * Emotions, emotion categories and whether an entry has images are indexed
+ * the same way, and entries are also kept in day order, so an EntryQuery can
+ * combine any of them with words and tags. query() leaves the order they are
+ * applied in to QueryPlanner and returns a QueryCursor to page through.
+ * Emotions, categories and images are kept as RoaringBitmaps, so count() and
+ * countDays() answer filters on them with bitmap ANDs.
+ *
+ * The index remembers the user and data version it was built for, and is
+ * saved to and loaded from a single file. Methods are synchronized so it can be
+ * built off the main thread and queried on it.
+ */
+public class InvertedIndex {
+
+    private static final int FORMAT_VERSION = 5;
+
+    // Usual BM25 constants; entries are capped at 500 chars, so lengths vary
+    // less than in most collections and the defaults hold up fine
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    // Longest snippet shown for a result, in chars
+    public static final int SNIPPET_CHARS = 140;
+
+    // Cleared slots tolerated before compacting, regardless of live count
+    private static final int MIN_COMPACT_SLOTS = 64;
+
+    // Sanity limit when reading a stored text back
+    private static final int MAX_TEXT_BYTES = 4 << 20;
+
+    private String userId;
+    private long dataVersion = -1;
+
+    private final TreeMap<String, PostingsList> postings = new TreeMap<>();
+    private final TreeMap<String, PostingsList> tagPostings = new TreeMap<>();
+    // How each tag was last written, by key
+    private final Map<String, String> tagNames = new HashMap<>();
+    // Tag keys by prefix, counted like tagPostings
+    private final TagTrie tagTrie = new TagTrie();
+    // Emotions keyed folded like tags. These, categories and images are
+    // bitmaps so filters on them combine and count with word-wise ANDs
+    private final TreeMap<String, RoaringBitmap> emotionBitmaps = new TreeMap<>();
+    private final Map<Emotion.Category, RoaringBitmap> categoryBitmaps = new EnumMap<>(Emotion.Category.class);
+    private RoaringBitmap imageBitmap = new RoaringBitmap();
+    private RoaringBitmap liveBitmap = new RoaringBitmap();
+    // Live entries as (epochDay << 32 | doc), ascending; rebuilt on first use after a change
+    private long[] timeline;
+    private final Map<String, Integer> docIds = new HashMap<>();
+
+    // Per document id; entryIds[doc] is null once the entry is gone
+    private String[] entryIds = new String[16];
+    private long[] timestamps = new long[16];
+    private int[] epochDays = new int[16];
+    private String[] texts = new String[16];
+    // Each token's term, sharing the postings map's key instances, and its
+    // start and end offsets in pairs
+    private String[][] tokenTerms = new String[16][];
+    private int[][] tokenSpans = new int[16][];
+    private String[][] tagKeys = new String[16][];
+    private String[][] emotionKeys = new String[16][];
+    private int docCount;
+    private int liveCount;
+    private int liveTextCount;
+    private long liveTokenCount;
+
+    /**
+     * One ranked result
+     */
+    public static class Hit {
+        private final String entryId;
+        private final long timestampMillis;
+        private final int epochDay;
+        private final double score;
+        private final Snippet snippet;
+        private final List<String> tags;
+
+        Hit(String entryId, long timestampMillis, int epochDay, double score, Snippet snippet, List<String> tags) {
+            this.entryId = entryId;
+            this.timestampMillis = timestampMillis;
+            this.epochDay = epochDay;
+            this.score = score;
+            this.snippet = snippet;
+            this.tags = tags;
+        }
+
+        public String getEntryId() {
+            return entryId;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        /**
+         * The day the entry was written on, in the writer's zone
+         */
+        public int getEpochDay() {
+            return epochDay;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public Snippet getSnippet() {
+            return snippet;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+    }
+
+    /**
+     * A tag in use and how many entries carry it
+     */
+    public static class Tag {
+        private final String key;
+        private final String name;
+        private final int count;
+
+        Tag(String key, String name, int count) {
+            this.key = key;
+            this.name = name;
+            this.count = count;
+        }
+
+        /**
+         * What to filter by
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * The tag as the user last wrote it
+         */
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * The best hits for a query and how many entries matched in all
+     */
+    public static class Results {
+        private final List<Hit> hits;
+        private final int matchCount;
+
+        Results(List<Hit> hits, int matchCount) {
+            this.hits = hits;
+            this.matchCount = matchCount;
+        }
+
+        /**
+         * Best first
+         */
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        public int getMatchCount() {
+            return matchCount;
+        }
+    }
+
+    public synchronized String getUserId() {
+        return userId;
+    }
+
+    /**
+     * The user's data version the index matches, or -1 if it may be behind
+     */
+    public synchronized long getDataVersion() {
+        return dataVersion;
+    }
+
+    public synchronized void setDataVersion(long dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+
+    /**
+     * Number of entries in the index
+     */
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    public synchronized int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Empties the index and assigns it to a user
+     */
+    public synchronized void reset(String userId, long dataVersion) {
+        this.userId = userId;
+        this.dataVersion = dataVersion;
+        postings.clear();
+        tagPostings.clear();
+        tagNames.clear();
+        tagTrie.clear();
+        emotionBitmaps.clear();
+        categoryBitmaps.clear();
+        imageBitmap = new RoaringBitmap();
+        liveBitmap = new RoaringBitmap();
+        timeline = null;
+        docIds.clear();
+        allocate(16);
+        docCount = 0;
+        liveCount = 0;
+        liveTextCount = 0;
+        liveTokenCount = 0;
+    }
+
+    private void allocate(int capacity) {
+        entryIds = new String[capacity];
+        timestamps = new long[capacity];
+        epochDays = new int[capacity];
+        texts = new String[capacity];
+        tokenTerms = new String[capacity][];
+        tokenSpans = new int[capacity][];
+        tagKeys = new String[capacity][];
+        emotionKeys = new String[capacity][];
+    }
+
+    /**
+     * Folded form of a tag, which tags are matched by
+     */
+    public static String tagKey(String tag) {
+        return TextAnalyzer.fold(tag.trim());
+    }
+
+    /**
+     * Indexes a new entry or replaces an indexed one, by its text and tags
+     */
+    public synchronized void put(String entryId, long timestampMillis, int epochDay, String text, List<String> tags) {
+        put(entryId, timestampMillis, epochDay, text, tags, Collections.emptyList(), false);
+    }
+
+    /**
+     * Indexes a new entry or replaces an indexed one, along with its emotions
+     * and whether it has images so queries can filter by those as well
+     */
+    public synchronized void put(String entryId, long timestampMillis, int epochDay, String text,
+                                 List<String> tags, List<Emotion> emotions, boolean hasImages) {
+        Set<String> keys = new LinkedHashSet<>();
+        int categoryMask = 0;
+        if (emotions != null) {
+            for (Emotion emotion : emotions) {
+                if (emotion == null) {
+                    continue;
+                }
+                if (emotion.getName() != null && !tagKey(emotion.getName()).isEmpty()) {
+                    keys.add(tagKey(emotion.getName()));
+                }
+                if (emotion.getCategory() != null) {
+                    categoryMask |= 1 << emotion.getCategory().ordinal();
+                }
+            }
+        }
+        index(entryId, timestampMillis, epochDay, text, tags, keys.toArray(new String[0]), categoryMask, hasImages);
+    }
+
+    private void index(String entryId, long timestampMillis, int epochDay, String text, List<String> tags,
+                       String[] emotions, int categoryMask, boolean hasImages) {
+        remove(entryId);
+        List<TextAnalyzer.Token> tokens = TextAnalyzer.tokens(text);
+        Map<String, String> entryTags = new LinkedHashMap<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tagKey(tag).isEmpty()) {
+                    entryTags.put(tagKey(tag), tag.trim());
+                }
+            }
+        }
+        int doc = docCount++;
+        if (doc == entryIds.length) {
+            int capacity = doc * 2;
+            entryIds = Arrays.copyOf(entryIds, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            tokenTerms = Arrays.copyOf(tokenTerms, capacity);
+            tokenSpans = Arrays.copyOf(tokenSpans, capacity);
+            tagKeys = Arrays.copyOf(tagKeys, capacity);
+            emotionKeys = Arrays.copyOf(emotionKeys, capacity);
+        }
+
+        String[] terms = new String[tokens.size()];
+        int[] spans = new int[2 * tokens.size()];
+        for (int t = 0; t < terms.length; t++) {
+            TextAnalyzer.Token token = tokens.get(t);
+            String term = token.getTerm();
+            PostingsList list = postings.get(term);
+            if (list == null) {
+                list = new PostingsList();
+                postings.put(term, list);
+            } else {
+                // Share the map's copy of the string rather than keep another
+                term = postings.ceilingKey(term);
+            }
+            list.add(doc);
+            terms[t] = term;
+            spans[2 * t] = token.getStart();
+            spans[2 * t + 1] = token.getEnd();
+        }
+
+        String[] keys = new String[entryTags.size()];
+        int k = 0;
+        for (Map.Entry<String, String> tag : entryTags.entrySet()) {
+            PostingsList list = tagPostings.get(tag.getKey());
+            if (list == null) {
+                list = new PostingsList();
+                tagPostings.put(tag.getKey(), list);
+            }
+            list.add(doc);
+            tagTrie.add(tag.getKey(), 1);
+            tagNames.put(tag.getKey(), tag.getValue());
+            keys[k++] = tagPostings.ceilingKey(tag.getKey());
+        }
+
+        String[] emotionKeysOfDoc = new String[emotions.length];
+        for (int e = 0; e < emotions.length; e++) {
+            emotionKeysOfDoc[e] = addEmotion(emotions[e], doc);
+        }
+        addCategories(categoryMask, doc);
+        if (hasImages) {
+            imageBitmap.add(doc);
+        }
+        liveBitmap.add(doc);
+
+        entryIds[doc] = entryId;
+        timestamps[doc] = timestampMillis;
+        epochDays[doc] = epochDay;
+        texts[doc] = text != null ? text : "";
+        tokenTerms[doc] = terms;
+        tokenSpans[doc] = spans;
+        tagKeys[doc] = keys;
+        emotionKeys[doc] = emotionKeysOfDoc;
+        timeline = null;
+        docIds.put(entryId, doc);
+        liveCount++;
+        if (terms.length > 0) {
+            liveTextCount++;
+            liveTokenCount += terms.length;
+        }
+    }
+
+    // Returns the bitmap map's copy of the key, for the entry to share
+    private String addEmotion(String key, int doc) {
+        RoaringBitmap bitmap = emotionBitmaps.get(key);
+        if (bitmap == null) {
+            bitmap = new RoaringBitmap();
+            emotionBitmaps.put(key, bitmap);
+        }
+        bitmap.add(doc);
+        return emotionBitmaps.ceilingKey(key);
+    }
+
+    // Bit per Emotion.Category ordinal
+    private void addCategories(int categoryMask, int doc) {
+        for (Emotion.Category category : Emotion.Category.values()) {
+            if ((categoryMask & 1 << category.ordinal()) != 0) {
+                RoaringBitmap bitmap = categoryBitmaps.get(category);
+                if (bitmap == null) {
+                    bitmap = new RoaringBitmap();
+                    categoryBitmaps.put(category, bitmap);
+                }
+                bitmap.add(doc);
+            }
+        }
+    }
+
+    private int categoryMask(int doc) {
+        int mask = 0;
+        for (Map.Entry<Emotion.Category, RoaringBitmap> entry : categoryBitmaps.entrySet()) {
+            if (entry.getValue().contains(doc)) {
+                mask |= 1 << entry.getKey().ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Drops an entry from the index, if it is there
+     */
+    public synchronized void remove(String entryId) {
+        Integer doc = docIds.remove(entryId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : new HashSet<>(Arrays.asList(tokenTerms[doc]))) {
+            PostingsList list = postings.get(term);
+            if (list != null) {
+                list.remove(doc);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (String key : tagKeys[doc]) {
+            PostingsList list = tagPostings.get(key);
+            if (list != null) {
+                list.remove(doc);
+                tagTrie.add(key, -1);
+                if (list.isEmpty()) {
+                    tagPostings.remove(key);
+                    tagNames.remove(key);
+                }
+            }
+        }
+        for (String key : emotionKeys[doc]) {
+            RoaringBitmap bitmap = emotionBitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.remove(doc);
+                if (bitmap.isEmpty()) {
+                    emotionBitmaps.remove(key);
+                }
+            }
+        }
+        categoryBitmaps.values().removeIf(bitmap -> {
+            bitmap.remove(doc);
+            return bitmap.isEmpty();
+        });
+        imageBitmap.remove(doc);
+        liveBitmap.remove(doc);
+        if (tokenTerms[doc].length > 0) {
+            liveTextCount--;
+            liveTokenCount -= tokenTerms[doc].length;
+        }
+        entryIds[doc] = null;
+        texts[doc] = null;
+        tokenTerms[doc] = null;
+        tokenSpans[doc] = null;
+        tagKeys[doc] = null;
+        emotionKeys[doc] = null;
+        timeline = null;
+        liveCount--;
+
+        int cleared = docCount - liveCount;
+        if (cleared >= MIN_COMPACT_SLOTS && cleared > liveCount) {
+            compact();
+        }
+    }
+
+    public synchronized boolean contains(String entryId) {
+        return docIds.containsKey(entryId);
+    }
+
+    /**
+     * The limit best entries containing every word of the query, ranked by
+     * BM25, newest first among equal scores. The last word also matches as a
+     * prefix, so results show up while it is being typed.
+     */
+    public synchronized Results search(String query, int limit) {
+        return search(query, Collections.emptyList(), false, limit);
+    }
+
+    /**
+     * Like search(query, limit), but only among entries with all of the tags
+     * (or any of them, if matchAllTags is false). With tags and no words,
+     * every entry passing the tag filter matches, newest first.
+     *
+     * @param tagKeys keys from tagKey() or Tag.getKey()
+     */
+    public synchronized Results search(String query, Collection<String> tagKeys, boolean matchAllTags, int limit) {
+        if ((TextAnalyzer.words(query).isEmpty() && tagKeys.isEmpty()) || limit <= 0) {
+            return new Results(Collections.emptyList(), 0);
+        }
+        QueryCursor cursor = query(new EntryQuery().text(query).tags(tagKeys, matchAllTags));
+        return new Results(cursor.next(limit), cursor.getMatchCount());
+    }
+
+    /**
+     * Entries meeting every criterion of the query, best first: by BM25 when it
+     * has words, otherwise newest first. An empty query pages through every
+     * entry.
+     */
+    public synchronized QueryCursor query(EntryQuery query) {
+        List<String> words = TextAnalyzer.words(query.getText());
+        List<Set<String>> wordTerms = new ArrayList<>();
+        String missing = resolveWords(words, wordTerms);
+        if (missing != null) {
+            return new QueryCursor(this, Collections.emptyList(), wordTerms,
+                    "no entry has a word like \"" + missing + "\"");
+        }
+
+        double[] idf = new double[wordTerms.size()];
+        QueryPlanner planner = new QueryPlanner();
+        int[] matches = planner.run(steps(query, words, wordTerms, idf));
+
+        double averageLength = liveTextCount > 0 ? (double) liveTokenCount / liveTextCount : 1;
+        List<QueryCursor.Ranked> ranked = new ArrayList<>(matches.length);
+        for (int doc : matches) {
+            double score = wordTerms.isEmpty() ? 0 : score(doc, wordTerms, idf, averageLength);
+            ranked.add(new QueryCursor.Ranked(entryIds[doc], score, timestamps[doc]));
+        }
+        return new QueryCursor(this, ranked, wordTerms, planner.explain());
+    }
+
+    /**
+     * Number of entries meeting every criterion of the query, such as those
+     * with Calm and a photo. Without words or tags it is counted straight off
+     * the emotion, category, image and day bitmaps, without listing entries.
+     */
+    public synchronized int count(EntryQuery query) {
+        List<RoaringBitmap> bitmaps = filterBitmaps(query);
+        if (bitmaps == null) {
+            return matchingDocs(query).length;
+        }
+        RoaringBitmap result = bitmaps.get(0);
+        for (int i = 1; i < bitmaps.size() - 1; i++) {
+            result = RoaringBitmap.and(result, bitmaps.get(i));
+        }
+        return bitmaps.size() > 1
+                ? RoaringBitmap.andCardinality(result, bitmaps.get(bitmaps.size() - 1))
+                : result.getCardinality();
+    }
+
+    /**
+     * Number of days with at least one entry meeting the query, such as the
+     * days in March with Anxious
+     */
+    public synchronized int countDays(EntryQuery query) {
+        List<RoaringBitmap> bitmaps = filterBitmaps(query);
+        int[] docs;
+        if (bitmaps == null) {
+            docs = matchingDocs(query);
+        } else {
+            RoaringBitmap result = bitmaps.get(0);
+            for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+                result = RoaringBitmap.and(result, bitmaps.get(i));
+            }
+            docs = result.toArray();
+        }
+        RoaringBitmap days = new RoaringBitmap();
+        for (int doc : docs) {
+            days.add(epochDays[doc]);
+        }
+        return days.getCardinality();
+    }
+
+    // Each query word stands for one or more index terms; returns the first
+    // word no entry has, or null if every word was found
+    private String resolveWords(List<String> words, List<Set<String>> wordTerms) {
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            Set<String> terms = new HashSet<>();
+            if (i == words.size() - 1) {
+                terms.addAll(prefixRange(word).keySet());
+                terms.addAll(prefixRange(TextAnalyzer.stem(word)).keySet());
+            } else if (postings.containsKey(TextAnalyzer.stem(word))) {
+                terms.add(TextAnalyzer.stem(word));
+            }
+            if (terms.isEmpty()) {
+                return word;
+            }
+            wordTerms.add(terms);
+        }
+        return null;
+    }
+
+    // One step per criterion set on the query; fills in each word's idf
+    private List<QueryPlanner.Step> steps(EntryQuery query, List<String> words, List<Set<String>> wordTerms,
+                                          double[] idf) {
+        List<QueryPlanner.Step> steps = new ArrayList<>();
+        if (!wordTerms.isEmpty()) {
+            int[][] lists = new int[wordTerms.size()][];
+            int fewest = Integer.MAX_VALUE;
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = union(wordTerms.get(i));
+                idf[i] = idf(lists[i].length);
+                fewest = Math.min(fewest, lists[i].length);
+            }
+            steps.add(new ListStep("text" + words, fewest, () -> intersectAll(lists),
+                    doc -> containsAll(tokenTerms[doc], wordTerms)));
+        }
+        if (query.hasDateRange()) {
+            steps.add(dateStep(query.getFromEpochDay(), query.getToEpochDay()));
+        }
+        if (query.getCategory() != null) {
+            steps.add(bitmapStep("category[" + query.getCategory() + "]", categoryBitmaps.get(query.getCategory())));
+        }
+        if (query.getEmotionKey() != null) {
+            steps.add(bitmapStep("emotion[" + query.getEmotionKey() + "]", emotionBitmaps.get(query.getEmotionKey())));
+        }
+        if (!query.getTagKeys().isEmpty()) {
+            steps.add(tagStep(query.getTagKeys(), query.isMatchAllTags()));
+        }
+        if (query.getHasImages() != null) {
+            steps.add(query.getHasImages() ? bitmapStep("images", imageBitmap)
+                    : bitmapStep("no images", RoaringBitmap.andNot(liveBitmap, imageBitmap)));
+        }
+        if (steps.isEmpty()) {
+            steps.add(bitmapStep("all", liveBitmap));
+        }
+        return steps;
+    }
+
+    // Ascending ids of the entries meeting the query, unranked
+    private int[] matchingDocs(EntryQuery query) {
+        List<String> words = TextAnalyzer.words(query.getText());
+        List<Set<String>> wordTerms = new ArrayList<>();
+        if (resolveWords(words, wordTerms) != null) {
+            return new int[0];
+        }
+        return new QueryPlanner().run(steps(query, words, wordTerms, new double[wordTerms.size()]));
+    }
+
+    // The query's filters as bitmaps, fewest entries first, or null if it has
+    // words or tags, which aren't kept as bitmaps
+    private List<RoaringBitmap> filterBitmaps(EntryQuery query) {
+        if (!TextAnalyzer.words(query.getText()).isEmpty() || !query.getTagKeys().isEmpty()) {
+            return null;
+        }
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        if (query.hasDateRange()) {
+            bitmaps.add(RoaringBitmap.of(dateStep(query.getFromEpochDay(), query.getToEpochDay()).docs()));
+        }
+        if (query.getCategory() != null) {
+            bitmaps.add(orEmpty(categoryBitmaps.get(query.getCategory())));
+        }
+        if (query.getEmotionKey() != null) {
+            bitmaps.add(orEmpty(emotionBitmaps.get(query.getEmotionKey())));
+        }
+        if (query.getHasImages() != null) {
+            bitmaps.add(query.getHasImages() ? imageBitmap : RoaringBitmap.andNot(liveBitmap, imageBitmap));
+        }
+        if (bitmaps.isEmpty()) {
+            bitmaps.add(liveBitmap);
+        }
+        bitmaps.sort((a, b) -> Integer.compare(a.getCardinality(), b.getCardinality()));
+        return bitmaps;
+    }
+
+    private static RoaringBitmap orEmpty(RoaringBitmap bitmap) {
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+
+    // The hit for an entry still in the index, or null once it is gone
+    synchronized Hit hit(String entryId, double score, List<Set<String>> wordTerms) {
+        Integer doc = docIds.get(entryId);
+        if (doc == null) {
+            return null;
+        }
+        return new Hit(entryId, timestamps[doc], epochDays[doc], score, snippet(doc, wordTerms), tagNames(doc));
+    }
+
+    /**
+     * Tags on indexed entries, most used first
+     */
+    public synchronized List<Tag> getTags() {
+        List<Tag> tags = new ArrayList<>(tagPostings.size());
+        for (Map.Entry<String, PostingsList> entry : tagPostings.entrySet()) {
+            tags.add(new Tag(entry.getKey(), tagNames.get(entry.getKey()), entry.getValue().size()));
+        }
+        tags.sort((a, b) -> a.count != b.count ? Integer.compare(b.count, a.count) : a.key.compareTo(b.key));
+        return tags;
+    }
+
+    /**
+     * The most used tags starting with what has been typed, compared folded
+     * like tags are, so "Wo" suggests "work". An empty prefix gives the most
+     * used tags overall.
+     *
+     * @param limit at most TagTrie.TOP_K are returned
+     */
+    public synchronized List<Tag> suggestTags(String prefix, int limit) {
+        List<String> keys = tagTrie.suggest(tagKey(prefix), limit);
+        List<Tag> tags = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            tags.add(new Tag(key, tagNames.get(key), tagTrie.count(key)));
+        }
+        return tags;
+    }
+
+    /**
+     * How an existing tag with the same key as this one was last written, or
+     * null if no entry has it
+     */
+    public synchronized String tagName(String tag) {
+        return tagNames.get(tagKey(tag));
+    }
+
+    // Entries with all or any of the tags
+    private int[] filterByTags(Collection<String> keys, boolean matchAll) {
+        int[][] lists = new int[keys.size()][];
+        int i = 0;
+        for (String key : keys) {
+            PostingsList list = tagPostings.get(key);
+            lists[i++] = list != null ? list.toArray() : new int[0];
+        }
+        if (matchAll) {
+            return intersectAll(lists);
+        }
+        int[] any = lists[0];
+        for (int l = 1; l < lists.length; l++) {
+            any = SortedIntArrays.union(any, lists[l]);
+        }
+        return any;
+    }
+
+    // Intersects smallest first so the running result only shrinks
+    private static int[] intersectAll(int[][] lists) {
+        int[][] bySize = lists.clone();
+        Arrays.sort(bySize, (a, b) -> Integer.compare(a.length, b.length));
+        int[] result = bySize[0];
+        for (int i = 1; i < bySize.length && result.length > 0; i++) {
+            result = SortedIntArrays.intersect(result, bySize[i]);
+        }
+        return result;
+    }
+
+    // A query criterion with its list made on demand, for QueryPlanner
+    private static class ListStep implements QueryPlanner.Step {
+        private final String label;
+        private final int estimate;
+        private final Supplier<int[]> docs;
+        private final IntPredicate test;
+
+        ListStep(String label, int estimate, Supplier<int[]> docs, IntPredicate test) {
+            this.label = label;
+            this.estimate = estimate;
+            this.docs = docs;
+            this.test = test;
+        }
+
+        @Override
+        public String describe() {
+            return label;
+        }
+
+        @Override
+        public int estimate() {
+            return estimate;
+        }
+
+        @Override
+        public int[] docs() {
+            return docs.get();
+        }
+
+        @Override
+        public boolean accepts(int doc) {
+            return test.test(doc);
+        }
+    }
+
+    private static ListStep bitmapStep(String label, RoaringBitmap bitmap) {
+        if (bitmap == null) {
+            return new ListStep(label, 0, () -> new int[0], doc -> false);
+        }
+        return new ListStep(label, bitmap.getCardinality(), bitmap::toArray, bitmap::contains);
+    }
+
+    // Exact count from the timeline; its slice is re-sorted by id when listed
+    private QueryPlanner.Step dateStep(int fromEpochDay, int toEpochDay) {
+        long[] days = timeline();
+        int from = lowerBound(days, (long) fromEpochDay << 32);
+        int to = lowerBound(days, ((long) toEpochDay << 32) | 0xFFFFFFFFL);
+        return new ListStep("days[" + fromEpochDay + ".." + toEpochDay + "]", Math.max(0, to - from), () -> {
+            int[] docs = new int[Math.max(0, to - from)];
+            for (int i = 0; i < docs.length; i++) {
+                docs[i] = (int) days[from + i];
+            }
+            Arrays.sort(docs);
+            return docs;
+        }, doc -> epochDays[doc] >= fromEpochDay && epochDays[doc] <= toEpochDay);
+    }
+
+    private QueryPlanner.Step tagStep(Collection<String> keys, boolean matchAll) {
+        int estimate = matchAll ? Integer.MAX_VALUE : 0;
+        for (String key : keys) {
+            int size = tagPostings.containsKey(key) ? tagPostings.get(key).size() : 0;
+            estimate = matchAll ? Math.min(estimate, size) : estimate + size;
+        }
+        return new ListStep((matchAll ? "all tags" : "any tag") + keys, Math.min(estimate, liveCount),
+                () -> filterByTags(keys, matchAll), doc -> {
+                    List<String> entryTags = Arrays.asList(tagKeys[doc]);
+                    return matchAll ? entryTags.containsAll(keys) : !Collections.disjoint(entryTags, keys);
+                });
+    }
+
+    private long[] timeline() {
+        if (timeline == null) {
+            long[] days = new long[liveCount];
+            int count = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (entryIds[doc] != null) {
+                    days[count++] = (long) epochDays[doc] << 32 | doc;
+                }
+            }
+            Arrays.sort(days);
+            timeline = days;
+        }
+        return timeline;
+    }
+
+    // First position holding a value at least key
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Whether every query word has one of its terms among the entry's tokens
+    private static boolean containsAll(String[] terms, List<Set<String>> wordTerms) {
+        for (Set<String> wanted : wordTerms) {
+            boolean found = false;
+            for (String term : terms) {
+                if (wanted.contains(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<String> tagNames(int doc) {
+        List<String> names = new ArrayList<>(tagKeys[doc].length);
+        for (String key : tagKeys[doc]) {
+            names.add(tagNames.get(key));
+        }
+        return names;
+    }
+
+    // BM25's idf, kept positive so words in most entries still count a little
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (liveTextCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private double score(int doc, List<Set<String>> wordTerms, double[] idf, double averageLength) {
+        String[] terms = tokenTerms[doc];
+        double lengthNorm = K1 * (1 - B + B * terms.length / averageLength);
+        double score = 0;
+        for (int i = 0; i < wordTerms.size(); i++) {
+            Set<String> wanted = wordTerms.get(i);
+            int frequency = 0;
+            for (String term : terms) {
+                if (wanted.contains(term)) {
+                    frequency++;
+                }
+            }
+            score += idf[i] * frequency * (K1 + 1) / (frequency + lengthNorm);
+        }
+        return score;
+    }
+
+    private Snippet snippet(int doc, List<Set<String>> wordTerms) {
+        String[] terms = tokenTerms[doc];
+        boolean[] matched = new boolean[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            for (Set<String> wanted : wordTerms) {
+                if (wanted.contains(terms[t])) {
+                    matched[t] = true;
+                    break;
+                }
+            }
+        }
+        return Snippet.of(texts[doc], tokenSpans[doc], matched, SNIPPET_CHARS);
+    }
+
+    // Ids of entries containing any of the terms
+    private int[] union(Set<String> terms) {
+        if (terms.size() == 1) {
+            return postings.get(terms.iterator().next()).toArray();
+        }
+
+        boolean[] seen = new boolean[docCount];
+        int count = 0;
+        for (String term : terms) {
+            for (int doc : postings.get(term).toArray()) {
+                if (!seen[doc]) {
+                    seen[doc] = true;
+                    count++;
+                }
+            }
+        }
+        int[] docs = new int[count];
+        int next = 0;
+        for (int doc = 0; doc < docCount && next < count; doc++) {
+            if (seen[doc]) {
+                docs[next++] = doc;
+            }
+        }
+        return docs;
+    }
+
+    private SortedMap<String, PostingsList> prefixRange(String prefix) {
+        return postings.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    // Renumbers the live entries from 0, keeping their order
+    private void compact() {
+        String[] oldEntryIds = Arrays.copyOf(entryIds, docCount);
+        long[] oldTimestamps = Arrays.copyOf(timestamps, docCount);
+        int[] oldEpochDays = Arrays.copyOf(epochDays, docCount);
+        String[] oldTexts = Arrays.copyOf(texts, docCount);
+        String[][] oldEmotionKeys = Arrays.copyOf(emotionKeys, docCount);
+        int[] oldCategoryMasks = new int[docCount];
+        boolean[] oldImageFlags = new boolean[docCount];
+        List<List<String>> oldTags = new ArrayList<>(docCount);
+        for (int doc = 0; doc < docCount; doc++) {
+            oldTags.add(entryIds[doc] != null ? tagNames(doc) : null);
+            oldCategoryMasks[doc] = categoryMask(doc);
+            oldImageFlags[doc] = imageBitmap.contains(doc);
+        }
+        reset(userId, dataVersion);
+        for (int doc = 0; doc < oldEntryIds.length; doc++) {
+            if (oldEntryIds[doc] != null) {
+                index(oldEntryIds[doc], oldTimestamps[doc], oldEpochDays[doc], oldTexts[doc], oldTags.get(doc),
+                        oldEmotionKeys[doc], oldCategoryMasks[doc], oldImageFlags[doc]);
+            }
+        }
+    }
+
+    /**
+     * Writes the index to the file, replacing it in one step
+     */
+    public synchronized void save(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(userId != null ? userId : "");
+            out.writeLong(dataVersion);
+
+            // Terms first, so tokens can refer to them by their place in this list
+            Map<String, Integer> termNumbers = new HashMap<>();
+            out.writeInt(postings.size());
+            for (Map.Entry<String, PostingsList> entry : postings.entrySet()) {
+                termNumbers.put(entry.getKey(), termNumbers.size());
+                out.writeUTF(entry.getKey());
+                int[] gaps = entry.getValue().gaps();
+                writeVarInt(out, gaps.length);
+                for (int gap : gaps) {
+                    writeVarInt(out, gap);
+                }
+            }
+
+            Map<String, Integer> tagNumbers = new HashMap<>();
+            out.writeInt(tagPostings.size());
+            for (Map.Entry<String, PostingsList> entry : tagPostings.entrySet()) {
+                tagNumbers.put(entry.getKey(), tagNumbers.size());
+                out.writeUTF(entry.getKey());
+                out.writeUTF(tagNames.get(entry.getKey()));
+                int[] gaps = entry.getValue().gaps();
+                writeVarInt(out, gaps.length);
+                for (int gap : gaps) {
+                    writeVarInt(out, gap);
+                }
+            }
+
+            out.writeInt(docCount);
+            for (int doc = 0; doc < docCount; doc++) {
+                boolean live = entryIds[doc] != null;
+                out.writeBoolean(live);
+                if (!live) {
+                    continue;
+                }
+                out.writeUTF(entryIds[doc]);
+                out.writeLong(timestamps[doc]);
+                out.writeInt(epochDays[doc]);
+                writeLongUTF(out, texts[doc]);
+                // Each token as its term's number, the gap since the last token and its length
+                int[] spans = tokenSpans[doc];
+                writeVarInt(out, tokenTerms[doc].length);
+                for (int t = 0, previousEnd = 0; t < tokenTerms[doc].length; t++) {
+                    writeVarInt(out, termNumbers.get(tokenTerms[doc][t]));
+                    writeVarInt(out, spans[2 * t] - previousEnd);
+                    writeVarInt(out, spans[2 * t + 1] - spans[2 * t]);
+                    previousEnd = spans[2 * t + 1];
+                }
+                writeVarInt(out, tagKeys[doc].length);
+                for (String key : tagKeys[doc]) {
+                    writeVarInt(out, tagNumbers.get(key));
+                }
+            }
+
+            // Emotions, categories and images as their bitmaps, after the
+            // entries so loading can check them against the live ones
+            writeVarInt(out, emotionBitmaps.size());
+            for (Map.Entry<String, RoaringBitmap> entry : emotionBitmaps.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+            writeVarInt(out, categoryBitmaps.size());
+            for (Map.Entry<Emotion.Category, RoaringBitmap> entry : categoryBitmaps.entrySet()) {
+                out.writeByte(entry.getKey().ordinal());
+                entry.getValue().write(out);
+            }
+            imageBitmap.write(out);
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Replaces the index with the file's contents. On failure the index is left
+     * empty and unassigned.
+     *
+     * @return whether the file held a readable index
+     */
+    public synchronized boolean load(File file) {
+        reset(null, -1);
+        if (!file.exists()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return false;
+            }
+            String storedUserId = in.readUTF();
+            long storedVersion = in.readLong();
+
+            String[] termList = new String[in.readInt()];
+            for (int t = 0; t < termList.length; t++) {
+                termList[t] = in.readUTF();
+                int[] gaps = new int[readVarInt(in)];
+                for (int i = 0; i < gaps.length; i++) {
+                    gaps[i] = readVarInt(in);
+                }
+                postings.put(termList[t], PostingsList.fromGaps(gaps));
+            }
+
+            String[] tagList = new String[in.readInt()];
+            for (int t = 0; t < tagList.length; t++) {
+                tagList[t] = in.readUTF();
+                tagNames.put(tagList[t], in.readUTF());
+                int[] gaps = new int[readVarInt(in)];
+                for (int i = 0; i < gaps.length; i++) {
+                    gaps[i] = readVarInt(in);
+                }
+                tagPostings.put(tagList[t], PostingsList.fromGaps(gaps));
+                tagTrie.add(tagList[t], gaps.length);
+            }
+
+            int storedDocs = in.readInt();
+            allocate(Math.max(16, storedDocs));
+            for (int doc = 0; doc < storedDocs; doc++) {
+                if (!in.readBoolean()) {
+                    continue;
+                }
+                entryIds[doc] = in.readUTF();
+                timestamps[doc] = in.readLong();
+                epochDays[doc] = in.readInt();
+                texts[doc] = readLongUTF(in);
+                String[] terms = new String[readVarInt(in)];
+                int[] spans = new int[2 * terms.length];
+                for (int t = 0, previousEnd = 0; t < terms.length; t++) {
+                    terms[t] = termList[readVarInt(in)];
+                    spans[2 * t] = previousEnd + readVarInt(in);
+                    spans[2 * t + 1] = spans[2 * t] + readVarInt(in);
+                    previousEnd = spans[2 * t + 1];
+                }
+                String[] keys = new String[readVarInt(in)];
+                for (int k = 0; k < keys.length; k++) {
+                    keys[k] = tagList[readVarInt(in)];
+                }
+                tokenTerms[doc] = terms;
+                tokenSpans[doc] = spans;
+                tagKeys[doc] = keys;
+                emotionKeys[doc] = new String[0];
+                liveBitmap.add(doc);
+                docIds.put(entryIds[doc], doc);
+                liveCount++;
+                if (terms.length > 0) {
+                    liveTextCount++;
+                    liveTokenCount += terms.length;
+                }
+            }
+            docCount = storedDocs;
+
+            int emotionCount = readVarInt(in);
+            for (int e = 0; e < emotionCount; e++) {
+                String key = in.readUTF();
+                RoaringBitmap bitmap = readLiveBitmap(in);
+                emotionBitmaps.put(key, bitmap);
+                // Each entry's own list of its emotions, from the bitmaps
+                for (int doc : bitmap.toArray()) {
+                    String[] emotions = Arrays.copyOf(emotionKeys[doc], emotionKeys[doc].length + 1);
+                    emotions[emotions.length - 1] = key;
+                    emotionKeys[doc] = emotions;
+                }
+            }
+            Emotion.Category[] categories = Emotion.Category.values();
+            int categoryCount = readVarInt(in);
+            for (int c = 0; c < categoryCount; c++) {
+                int ordinal = in.readUnsignedByte();
+                if (ordinal >= categories.length) {
+                    throw new IOException("Bad category " + ordinal);
+                }
+                categoryBitmaps.put(categories[ordinal], readLiveBitmap(in));
+            }
+            imageBitmap = readLiveBitmap(in);
+
+            userId = storedUserId.isEmpty() ? null : storedUserId;
+            dataVersion = storedVersion;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // Unreadable index is just an empty one; it gets rebuilt
+            reset(null, -1);
+            return false;
+        }
+    }
+
+    // A stored bitmap, which must only hold entries that were read
+    private RoaringBitmap readLiveBitmap(DataInputStream in) throws IOException {
+        RoaringBitmap bitmap = RoaringBitmap.read(in);
+        if (!RoaringBitmap.andNot(bitmap, liveBitmap).isEmpty()) {
+            throw new IOException("Bitmap refers to a missing entry");
+        }
+        return bitmap;
+    }
+
+    // Seven bits per byte, low first, so the small gaps and offsets take one byte
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Bad varint");
+    }
+
+    // writeUTF is limited to 64KB of encoded text, which a long entry can pass
+    private static void writeLongUTF(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readLongUTF(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_TEXT_BYTES) {
+            throw new IOException("Bad text length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,132 @@
+package search;
+
+import java.util.Arrays;
+
+/**
+ * Ascending, distinct document ids stored as gaps: the first id, then the
+ * difference to each next one. Appending a new, larger id is O(1) amortized,
+ * which is the usual case since new entries get new ids; inserting or removing
+ * elsewhere rewrites the list.
+ */
+public class PostingsList {
+
+    private int[] gaps;
+    private int size;
+    private int last = -1;
+
+    public PostingsList() {
+        gaps = new int[4];
+    }
+
+    private PostingsList(int[] gaps, int size, int last) {
+        this.gaps = gaps;
+        this.size = size;
+        this.last = last;
+    }
+
+    /**
+     * List of the given ids, which must be ascending and distinct
+     */
+    public static PostingsList of(int[] ids, int count) {
+        int[] gaps = new int[Math.max(4, count)];
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            gaps[i] = ids[i] - previous;
+            previous = ids[i];
+        }
+        return new PostingsList(gaps, count, count > 0 ? ids[count - 1] : -1);
+    }
+
+    /**
+     * Rebuilds a list from stored gaps
+     */
+    static PostingsList fromGaps(int[] gaps) {
+        int last = -1;
+        int id = 0;
+        for (int gap : gaps) {
+            id += gap;
+            last = id;
+        }
+        return new PostingsList(gaps.length >= 4 ? gaps : Arrays.copyOf(gaps, 4), gaps.length, last);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds the id if missing
+     */
+    public void add(int id) {
+        if (id == last) {
+            // A word repeated in the entry being indexed
+            return;
+        }
+        if (id > last) {
+            if (size == gaps.length) {
+                gaps = Arrays.copyOf(gaps, size * 2);
+            }
+            gaps[size++] = last < 0 ? id : id - last;
+            last = id;
+            return;
+        }
+        int[] ids = toArray();
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        int[] updated = new int[size + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, size - insertAt);
+        replaceWith(updated, size + 1);
+    }
+
+    /**
+     * Removes the id if present
+     */
+    public void remove(int id) {
+        if (id > last) {
+            return;
+        }
+        int[] ids = toArray();
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        replaceWith(ids, size - 1);
+    }
+
+    /**
+     * The ids, decoded
+     */
+    public int[] toArray() {
+        int[] ids = new int[size];
+        int id = 0;
+        for (int i = 0; i < size; i++) {
+            id += gaps[i];
+            ids[i] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * The stored gaps, for writing to disk
+     */
+    int[] gaps() {
+        return Arrays.copyOf(gaps, size);
+    }
+
+    private void replaceWith(int[] ids, int count) {
+        PostingsList rebuilt = of(ids, count);
+        gaps = rebuilt.gaps;
+        size = rebuilt.size;
+        last = rebuilt.last;
+    }
+}
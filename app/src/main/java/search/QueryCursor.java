@@ -0,0 +1,132 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The entries matching an EntryQuery, handed out a page at a time, best first.
+ *
+ * Only ids and ranks are kept; each page's hits, with their snippets and tags,
+ * are built when the page is asked for. The first page is picked with a heap
+ * bounded to the page size, O(n log page), since most searches stop there.
+ * Paging further heaps the rest of the matches once, in a linear pass, and
+ * takes each later page from it. Entries removed from the index since the
+ * query ran are skipped.
+ */
+public class QueryCursor {
+
+    private final InvertedIndex index;
+    private final List<Ranked> matches;
+    // The matches not handed out yet, heaped once paging goes past the first page
+    private PriorityQueue<Ranked> remaining;
+    private int taken;
+    private final List<Set<String>> wordTerms;
+    private final int matchCount;
+    private final String explanation;
+
+    // Higher score first, then the newer entry
+    static class Ranked implements Comparable<Ranked> {
+        final String entryId;
+        final double score;
+        final long timestampMillis;
+        boolean taken;
+
+        Ranked(String entryId, double score, long timestampMillis) {
+            this.entryId = entryId;
+            this.score = score;
+            this.timestampMillis = timestampMillis;
+        }
+
+        @Override
+        public int compareTo(Ranked other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : Long.compare(other.timestampMillis, timestampMillis);
+        }
+    }
+
+    QueryCursor(InvertedIndex index, List<Ranked> matches, List<Set<String>> wordTerms, String explanation) {
+        this.index = index;
+        this.matches = matches;
+        this.wordTerms = wordTerms;
+        this.matchCount = matches.size();
+        this.explanation = explanation;
+    }
+
+    /**
+     * Entries that matched when the query ran
+     */
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public boolean hasMore() {
+        return taken < matchCount;
+    }
+
+    /**
+     * The next pageSize best matches, fewer at the end
+     */
+    public List<InvertedIndex.Hit> next(int pageSize) {
+        List<InvertedIndex.Hit> hits = new ArrayList<>(Math.max(0, Math.min(pageSize, matchCount - taken)));
+        while (hits.size() < pageSize && hasMore()) {
+            for (Ranked ranked : take(pageSize - hits.size())) {
+                InvertedIndex.Hit hit = index.hit(ranked.entryId, ranked.score, wordTerms);
+                if (hit != null) {
+                    hits.add(hit);
+                }
+            }
+        }
+        return hits;
+    }
+
+    // The count best matches not handed out yet, best first
+    private List<Ranked> take(int count) {
+        List<Ranked> best = new ArrayList<>(count);
+        if (taken == 0) {
+            // Worst of the best so far on top, so a better match replaces it
+            PriorityQueue<Ranked> top = new PriorityQueue<>(count + 1, Collections.reverseOrder());
+            for (Ranked ranked : matches) {
+                if (top.size() < count) {
+                    top.add(ranked);
+                } else if (ranked.compareTo(top.peek()) < 0) {
+                    top.poll();
+                    top.add(ranked);
+                }
+            }
+            while (!top.isEmpty()) {
+                Ranked ranked = top.poll();
+                ranked.taken = true;
+                best.add(ranked);
+            }
+            Collections.reverse(best);
+        } else {
+            if (remaining == null) {
+                List<Ranked> rest = new ArrayList<>(matchCount - taken);
+                for (Ranked ranked : matches) {
+                    if (!ranked.taken) {
+                        rest.add(ranked);
+                    }
+                }
+                // Heapified in one linear pass; only what is paged through gets ordered
+                remaining = new PriorityQueue<>(rest);
+            }
+            while (best.size() < count && !remaining.isEmpty()) {
+                best.add(remaining.poll());
+            }
+        }
+        taken += best.size();
+        return best;
+    }
+
+    /**
+     * How the query was run: which index it started from, how each other
+     * criterion was applied, the candidates left after each, and the time
+     * taken. For debugging.
+     */
+    public String explain() {
+        return explanation;
+    }
+}
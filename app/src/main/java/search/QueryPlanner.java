@@ -0,0 +1,105 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Orders a query's criteria and applies them to the index's document ids.
+ *
+ * Each criterion can say about how many entries pass it, list those entries
+ * from its index, and check a single entry directly. The one passing the
+ * fewest drives: its list is the starting set of candidates. The others follow
+ * from fewest to most, each either merged with the candidates or, when its
+ * list is far longer than the candidates left, checked against each candidate,
+ * whichever touches fewer ids.
+ */
+class QueryPlanner {
+
+    // A list this many times longer than the candidates is checked per entry instead of merged
+    static final int PROBE_RATIO = 8;
+
+    /**
+     * One criterion, backed by one of the index's lists
+     */
+    interface Step {
+        /**
+         * Short label for explanations, such as "tag[work]"
+         */
+        String describe();
+
+        /**
+         * Entries passing, exact or an upper bound
+         */
+        int estimate();
+
+        /**
+         * Ascending ids of the entries passing
+         */
+        int[] docs();
+
+        boolean accepts(int doc);
+    }
+
+    private final List<String> explanation = new ArrayList<>();
+
+    /**
+     * Ids of the entries passing every step, ascending
+     */
+    int[] run(List<Step> steps) {
+        long start = System.nanoTime();
+        int[] estimates = new int[steps.size()];
+        for (int i = 0; i < estimates.length; i++) {
+            estimates[i] = steps.get(i).estimate();
+        }
+        // Sort by estimate, computing each only once
+        Integer[] order = new Integer[steps.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(estimates[a], estimates[b]));
+
+        Step driver = steps.get(order[0]);
+        int[] candidates = driver.docs();
+        explanation.add(String.format(Locale.ROOT, "scan %s ~%d -> %d",
+                driver.describe(), estimates[order[0]], candidates.length));
+
+        for (int i = 1; i < order.length && candidates.length > 0; i++) {
+            Step step = steps.get(order[i]);
+            int estimate = estimates[order[i]];
+            int before = candidates.length;
+            String how;
+            if (estimate > (long) PROBE_RATIO * candidates.length) {
+                candidates = probe(candidates, step);
+                how = "check";
+            } else {
+                candidates = SortedIntArrays.intersect(candidates, step.docs());
+                how = "merge";
+            }
+            explanation.add(String.format(Locale.ROOT, "%s %s ~%d: %d -> %d",
+                    how, step.describe(), estimate, before, candidates.length));
+        }
+        explanation.add(String.format(Locale.ROOT, "%d matches in %.3f ms",
+                candidates.length, (System.nanoTime() - start) / 1e6));
+        return candidates;
+    }
+
+    /**
+     * What run() did, one line per step
+     */
+    String explain() {
+        return String.join("\n", explanation);
+    }
+
+    private static int[] probe(int[] candidates, Step step) {
+        int[] kept = new int[candidates.length];
+        int count = 0;
+        for (int doc : candidates) {
+            if (step.accepts(doc)) {
+                kept[count++] = doc;
+            }
+        }
+        return Arrays.copyOf(kept, count);
+    }
+}
@@ -0,0 +1,513 @@
+package search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints, split Roaring-style by their high 16
+ * bits into chunks of up to 65536 values. A chunk holding at most 4096
+ * values keeps them as a sorted char array (2 bytes each); a fuller one
+ * switches to a 65536-bit bitmap (8KB), and switches back when it empties
+ * out. So sparse sets stay small, dense ones cost a bit per value, and
+ * intersections and counts work a chunk at a time: merges for arrays, ANDs
+ * and bit counts over 64-bit words for bitmaps.
+ */
+public class RoaringBitmap {
+
+    // Past this many values a chunk is smaller as a bitmap
+    static final int ARRAY_MAX = 4096;
+
+    private static final byte ARRAY = 0;
+    private static final byte BITMAP = 1;
+
+    // Sorted high halves, and the chunk for each
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    /**
+     * Bitmap of the given values, in any order
+     */
+    public static RoaringBitmap of(int[] values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public void add(int value) {
+        char high = (char) (value >>> 16);
+        int i = find(high);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, high, new ArrayContainer());
+        }
+        containers[i] = containers[i].add((char) value);
+    }
+
+    public void remove(int value) {
+        int i = find((char) (value >>> 16));
+        if (i < 0) {
+            return;
+        }
+        Container container = containers[i].remove((char) value);
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            containers[--size] = null;
+        } else {
+            containers[i] = container;
+        }
+    }
+
+    public boolean contains(int value) {
+        int i = find((char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    public int getCardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Values in both
+     */
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container both = a.containers[i].and(b.containers[j]);
+                if (both.cardinality() > 0) {
+                    result.insert(result.size, a.keys[i], both);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of values in both, without building the intersection
+     */
+    public static int andCardinality(RoaringBitmap a, RoaringBitmap b) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += a.containers[i].andCardinality(b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Values in a but not in b
+     */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            Container rest = j < b.size && b.keys[j] == a.keys[i]
+                    ? a.containers[i].andNot(b.containers[j]) : a.containers[i].copy();
+            if (rest.cardinality() > 0) {
+                result.insert(result.size, a.keys[i], rest);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The values, ascending
+     */
+    public int[] toArray() {
+        int[] values = new int[getCardinality()];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count = containers[i].copyTo(values, count, keys[i] << 16);
+        }
+        return values;
+    }
+
+    /**
+     * Chunk by chunk: arrays as gaps between values, bitmaps as raw words
+     */
+    void write(DataOutputStream out) throws IOException {
+        InvertedIndex.writeVarInt(out, size);
+        for (int i = 0; i < size; i++) {
+            out.writeChar(keys[i]);
+            containers[i].write(out);
+        }
+    }
+
+    static RoaringBitmap read(DataInputStream in) throws IOException {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        int count = InvertedIndex.readVarInt(in);
+        char previous = 0;
+        for (int i = 0; i < count; i++) {
+            char key = in.readChar();
+            if (i > 0 && key <= previous) {
+                throw new IOException("Bitmap chunks out of order");
+            }
+            previous = key;
+            byte type = in.readByte();
+            Container container = type == BITMAP ? BitmapContainer.read(in) : ArrayContainer.read(in);
+            bitmap.insert(bitmap.size, key, container);
+        }
+        return bitmap;
+    }
+
+    private int find(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insert(int at, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = high;
+        containers[at] = container;
+        size++;
+    }
+
+    // One chunk; changes return the container to use from then on, which may
+    // be of the other kind
+    private abstract static class Container {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract Container copy();
+
+        abstract int copyTo(int[] out, int at, int high);
+
+        abstract void write(DataOutputStream out) throws IOException;
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int count;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int count) {
+            this.values = values;
+            this.count = count;
+        }
+
+        @Override
+        Container add(char value) {
+            int i = Arrays.binarySearch(values, 0, count, value);
+            if (i >= 0) {
+                return this;
+            }
+            if (count == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            i = -i - 1;
+            if (count == values.length) {
+                values = Arrays.copyOf(values, Math.min(count * 2, ARRAY_MAX));
+            }
+            System.arraycopy(values, i, values, i + 1, count - i);
+            values[i] = value;
+            count++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, 0, count, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, count - i - 1);
+                count--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, count, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return count;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] both = new char[count];
+            int n = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+                while (i < count && j < array.count) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        both[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    if (other.contains(values[i])) {
+                        both[n++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(both, n);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            return and(other).cardinality();
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] rest = new char[count];
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (!other.contains(values[i])) {
+                    rest[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(rest, n);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(count, 4)), count);
+        }
+
+        @Override
+        int copyTo(int[] out, int at, int high) {
+            for (int i = 0; i < count; i++) {
+                out[at++] = high | values[i];
+            }
+            return at;
+        }
+
+        @Override
+        void write(DataOutputStream out) throws IOException {
+            out.writeByte(ARRAY);
+            InvertedIndex.writeVarInt(out, count);
+            int previous = 0;
+            for (int i = 0; i < count; i++) {
+                InvertedIndex.writeVarInt(out, values[i] - previous);
+                previous = values[i];
+            }
+        }
+
+        static ArrayContainer read(DataInputStream in) throws IOException {
+            int count = InvertedIndex.readVarInt(in);
+            if (count <= 0 || count > ARRAY_MAX) {
+                throw new IOException("Bad bitmap chunk size " + count);
+            }
+            char[] values = new char[count];
+            int value = 0;
+            for (int i = 0; i < count; i++) {
+                value += InvertedIndex.readVarInt(in);
+                if (value > Character.MAX_VALUE || (i > 0 && value == values[i - 1])) {
+                    throw new IOException("Bad bitmap chunk");
+                }
+                values[i] = (char) value;
+            }
+            return new ArrayContainer(values, count);
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < count; i++) {
+                bitmap.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            bitmap.cardinality = count;
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words = new long[1024];
+        private int cardinality;
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            BitmapContainer both = new BitmapContainer();
+            for (int w = 0; w < words.length; w++) {
+                both.words[w] = words[w] & otherWords[w];
+                both.cardinality += Long.bitCount(both.words[w]);
+            }
+            return both.cardinality <= ARRAY_MAX ? both.toArray() : both;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int w = 0; w < words.length; w++) {
+                count += Long.bitCount(words[w] & otherWords[w]);
+            }
+            return count;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            BitmapContainer rest = new BitmapContainer();
+            if (other instanceof BitmapContainer) {
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int w = 0; w < words.length; w++) {
+                    rest.words[w] = words[w] & ~otherWords[w];
+                    rest.cardinality += Long.bitCount(rest.words[w]);
+                }
+            } else {
+                System.arraycopy(words, 0, rest.words, 0, words.length);
+                rest.cardinality = cardinality;
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.count; i++) {
+                    rest.remove(array.values[i]);
+                }
+            }
+            return rest.cardinality <= ARRAY_MAX ? rest.toArray() : rest;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        int copyTo(int[] out, int at, int high) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    out[at++] = high | (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return at;
+        }
+
+        @Override
+        void write(DataOutputStream out) throws IOException {
+            out.writeByte(BITMAP);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        static BitmapContainer read(DataInputStream in) throws IOException {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int w = 0; w < bitmap.words.length; w++) {
+                bitmap.words[w] = in.readLong();
+                bitmap.cardinality += Long.bitCount(bitmap.words[w]);
+            }
+            if (bitmap.cardinality <= ARRAY_MAX) {
+                throw new IOException("Bad bitmap chunk");
+            }
+            return bitmap;
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(cardinality, 4)];
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package search;
+
+import java.util.Arrays;
+
+/**
+ * A short excerpt of an entry around the words that matched a query, with the
+ * matched words' positions in the excerpt so they can be highlighted.
+ */
+public class Snippet {
+
+    static final String ELLIPSIS = "…";
+
+    private final String text;
+    private final int[] highlights;
+
+    Snippet(String text, int[] highlights) {
+        this.text = text;
+        this.highlights = highlights;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Number of highlighted words
+     */
+    public int getHighlightCount() {
+        return highlights.length / 2;
+    }
+
+    public int getHighlightStart(int i) {
+        return highlights[2 * i];
+    }
+
+    public int getHighlightEnd(int i) {
+        return highlights[2 * i + 1];
+    }
+
+    /**
+     * Picks the window of at most maxChars that covers the most matched words,
+     * widened to whole words, from the token positions already stored for the
+     * entry. The text is not searched again.
+     *
+     * @param spans     start and end offset of each token, in pairs
+     * @param matched   which tokens matched the query
+     */
+    static Snippet of(String text, int[] spans, boolean[] matched, int maxChars) {
+        int tokenCount = matched.length;
+        if (text.length() <= maxChars) {
+            return new Snippet(text, highlights(spans, matched, 0, tokenCount, 0));
+        }
+        if (tokenCount == 0) {
+            return new Snippet(text.substring(0, maxChars) + ELLIPSIS, new int[0]);
+        }
+
+        // Slide a window over the tokens, keeping the one with the most matches
+        int bestFirst = 0;
+        int bestLast = -1;
+        int bestMatches = -1;
+        int last = -1;
+        int matches = 0;
+        for (int first = 0; first < tokenCount; first++) {
+            if (last < first - 1) {
+                last = first - 1;
+                matches = 0;
+            }
+            while (last + 1 < tokenCount && spans[2 * (last + 1) + 1] - spans[2 * first] <= maxChars) {
+                last++;
+                if (matched[last]) {
+                    matches++;
+                }
+            }
+            if (matches > bestMatches) {
+                bestMatches = matches;
+                bestFirst = first;
+                bestLast = last;
+            }
+            if (matched[first] && first <= last) {
+                matches--;
+            }
+        }
+        if (bestLast < bestFirst) {
+            // A single word longer than the window
+            bestLast = bestFirst;
+        }
+
+        int start = spans[2 * bestFirst];
+        int end = Math.min(spans[2 * bestLast + 1], start + maxChars);
+        // Start at the beginning of the text if the window nearly reaches it
+        if (start < maxChars / 10) {
+            start = 0;
+        }
+        String prefix = start > 0 ? ELLIPSIS : "";
+        String suffix = end < text.length() ? ELLIPSIS : "";
+        int shift = prefix.length() - start;
+        int[] highlights = highlights(spans, matched, bestFirst, bestLast + 1, shift);
+        for (int i = 1; i < highlights.length; i += 2) {
+            highlights[i] = Math.min(highlights[i], end + shift);
+        }
+        return new Snippet(prefix + text.substring(start, end) + suffix, highlights);
+    }
+
+    private static int[] highlights(int[] spans, boolean[] matched, int from, int to, int shift) {
+        int[] highlights = new int[2 * (to - from)];
+        int count = 0;
+        for (int t = from; t < to; t++) {
+            if (matched[t]) {
+                highlights[count++] = spans[2 * t] + shift;
+                highlights[count++] = spans[2 * t + 1] + shift;
+            }
+        }
+        return Arrays.copyOf(highlights, count);
+    }
+}
@@ -0,0 +1,63 @@
+package search;
+
+import java.util.Arrays;
+
+/**
+ * Merges of ascending, distinct int arrays, as decoded from postings lists.
+ * Both run in one linear pass over the inputs.
+ */
+public class SortedIntArrays {
+
+    private SortedIntArrays() {
+    }
+
+    /**
+     * Values in both
+     */
+    public static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /**
+     * Values in either
+     */
+    public static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                out[count++] = a[i++];
+            } else if (a[i] > b[j]) {
+                out[count++] = b[j++];
+            } else {
+                out[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        while (i < a.length) {
+            out[count++] = a[i++];
+        }
+        while (j < b.length) {
+            out[count++] = b[j++];
+        }
+        return Arrays.copyOf(out, count);
+    }
+}
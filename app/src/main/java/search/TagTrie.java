@@ -0,0 +1,208 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tag keys by prefix, each node holding the most used tags below it, so a
+ * suggestion is a walk down the typed prefix and a copy of that node's list.
+ *
+ * Counts change one tag at a time; only the nodes on that tag's path have
+ * their lists rebuilt, each from its children's lists. Nodes no tag passes
+ * through any more are dropped.
+ */
+public class TagTrie {
+
+    // Completions kept per node, and the most a suggestion can return
+    public static final int TOP_K = 6;
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private Node root = new Node();
+    private int size;
+
+    private static class Node {
+        // Children sorted by the char leading to them
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        // Set when a tag ends here
+        String key;
+        int count;
+        // Best completions at or below, most used first
+        String[] topKeys = new String[0];
+        int[] topCounts = new int[0];
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node addChild(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = c;
+            newChildren[at] = child;
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char c) {
+            int at = Arrays.binarySearch(labels, c);
+            if (at < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(labels, at + 1, newLabels, at, labels.length - at - 1);
+            System.arraycopy(children, at + 1, newChildren, at, children.length - at - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return count == 0 && labels.length == 0;
+        }
+    }
+
+    /**
+     * Number of tags with a positive count
+     */
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root = new Node();
+        size = 0;
+    }
+
+    /**
+     * Adds delta to the tag's count, dropping the tag once it reaches zero
+     *
+     * @param key a key from InvertedIndex.tagKey()
+     */
+    public void add(String key, int delta) {
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node next = delta > 0 ? path[i].addChild(key.charAt(i)) : path[i].child(key.charAt(i));
+            if (next == null) {
+                // Taking away from a tag that isn't here
+                return;
+            }
+            path[i + 1] = next;
+        }
+
+        Node end = path[key.length()];
+        int before = end.count;
+        end.count = Math.max(0, before + delta);
+        end.key = end.count > 0 ? key : null;
+        if (before == 0 && end.count > 0) {
+            size++;
+        } else if (before > 0 && end.count == 0) {
+            size--;
+        }
+
+        for (int i = key.length(); i >= 0; i--) {
+            Node node = path[i];
+            if (i > 0 && node.isEmpty()) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            } else {
+                rank(node);
+            }
+        }
+    }
+
+    /**
+     * The tag's count, or 0 if it isn't in use
+     */
+    public int count(String key) {
+        Node node = find(key);
+        return node != null ? node.count : 0;
+    }
+
+    /**
+     * Keys of the most used tags starting with the prefix, at most limit and
+     * never more than TOP_K
+     *
+     * @param prefix already folded, as by InvertedIndex.tagKey()
+     */
+    public List<String> suggest(String prefix, int limit) {
+        Node node = find(prefix);
+        if (node == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int n = Math.min(limit, node.topKeys.length);
+        List<String> keys = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            keys.add(node.topKeys[i]);
+        }
+        return keys;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    // Merges the node's own tag with its children's lists, keeping the best TOP_K
+    private static void rank(Node node) {
+        String[] keys = new String[TOP_K + 1];
+        int[] counts = new int[TOP_K + 1];
+        int n = 0;
+        if (node.count > 0) {
+            keys[0] = node.key;
+            counts[0] = node.count;
+            n = 1;
+        }
+        for (Node child : node.children) {
+            for (int c = 0; c < child.topKeys.length; c++) {
+                String key = child.topKeys[c];
+                int count = child.topCounts[c];
+                if (n == TOP_K && !ranksAbove(count, key, counts[n - 1], keys[n - 1])) {
+                    // The child's list is sorted, so the rest of it can't get in either
+                    break;
+                }
+                // Insertion into the short sorted list
+                int at = n;
+                while (at > 0 && ranksAbove(count, key, counts[at - 1], keys[at - 1])) {
+                    keys[at] = keys[at - 1];
+                    counts[at] = counts[at - 1];
+                    at--;
+                }
+                keys[at] = key;
+                counts[at] = count;
+                n = Math.min(n + 1, TOP_K);
+            }
+        }
+        node.topKeys = Arrays.copyOf(keys, n);
+        node.topCounts = Arrays.copyOf(counts, n);
+    }
+
+    // More used first, then alphabetical so equal counts come out the same each time
+    private static boolean ranksAbove(int count, String key, int otherCount, String otherKey) {
+        return count != otherCount ? count > otherCount : key.compareTo(otherKey) < 0;
+    }
+}
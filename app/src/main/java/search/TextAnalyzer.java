@@ -0,0 +1,168 @@
+package search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns journal text and search queries into index terms: lower case, accents
+ * removed ("café" matches "cafe"), split on anything that isn't a letter or
+ * digit, and lightly stemmed so "walks", "walked" and "walking" all become
+ * "walk". The same analysis runs on both sides, so it only has to be
+ * consistent, not linguistically perfect.
+ */
+public class TextAnalyzer {
+
+    // Shorter words are left unstemmed; "bed" is not "b" + "ed"
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * One word of a text: its index term and where it sits in the original
+     */
+    public static class Token {
+        private final String term;
+        private final int start;
+        private final int end;
+
+        Token(String term, int start, int end) {
+            this.term = term;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        /**
+         * Offset of the word's first char in the original text
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Offset just past the word's last char in the original text
+         */
+        public int getEnd() {
+            return end;
+        }
+    }
+
+    /**
+     * The text's words, in order, with their terms and positions
+     */
+    public static List<Token> tokens(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        // Word boundaries come from the original text so positions match it,
+        // whatever folding does to each word's length
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && isWordChar(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(new Token(stem(fold(text.substring(start, i))), start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Index terms of the text, in order, with repeats
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (Token token : tokens(text)) {
+            terms.add(token.term);
+        }
+        return terms;
+    }
+
+    /**
+     * Folded but unstemmed words of the text, in order, with repeats
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (Token token : tokens(text)) {
+            words.add(fold(text.substring(token.start, token.end)));
+        }
+        return words;
+    }
+
+    // Letters, digits and any accents typed as separate marks
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
+
+    /**
+     * Lower case with accents stripped
+     */
+    public static String fold(String text) {
+        if (isAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                out.append(c);
+            }
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Strips common English inflections: plurals, -ed, -ing and -ly
+     */
+    public static String stem(String word) {
+        String stem = word;
+        if (stem.endsWith("ies") && stem.length() > 4) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.endsWith("sses")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us")
+                && !stem.endsWith("is") && stem.length() > MIN_STEM_LENGTH) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        if (stem.endsWith("ing") && stem.length() - 3 >= MIN_STEM_LENGTH) {
+            stem = undouble(stem.substring(0, stem.length() - 3));
+        } else if (stem.endsWith("ed") && stem.length() - 2 >= MIN_STEM_LENGTH) {
+            stem = undouble(stem.substring(0, stem.length() - 2));
+        } else if (stem.endsWith("ly") && stem.length() - 2 >= MIN_STEM_LENGTH) {
+            stem = stem.substring(0, stem.length() - 2);
+        }
+        return stem;
+    }
+
+    // "runn" from "running" back to "run", but leave "fall", "miss" and "buzz" alone
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n >= 2 && stem.charAt(n - 1) == stem.charAt(n - 2)) {
+            char c = stem.charAt(n - 1);
+            if (Character.isLetter(c) && "aeiouylsz".indexOf(c) < 0) {
+                return stem.substring(0, n - 1);
+            }
+        }
+        return stem;
+    }
+}
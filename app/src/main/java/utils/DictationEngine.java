@@ -0,0 +1,572 @@
+package utils;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.speech.RecognitionListener;
+import android.speech.RecognizerIntent;
+import android.speech.SpeechRecognizer;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Keeps speech recognition going until paused or stopped, feeding what is
+ * heard into a DictationTranscript.
+ *
+ * A SpeechRecognizer session ends after each utterance, and the same
+ * recognizer can't listen again until it has delivered that utterance's
+ * results, so anything said in between is lost. The engine holds two
+ * recognizers and starts the other one as soon as the current one hears the
+ * end of speech, while it is still working out the results. Where the device
+ * only allows one recognizer at a time, the next session starts straight from
+ * the results instead. Partial results reach the listener as they come, at
+ * most once per PARTIAL_DEBOUNCE_MS.
+ *
+ * The user can prefer on-device recognition, which is faster and works
+ * offline. Where the platform has an on-device recognizer (Android 12 and up)
+ * it is used directly, otherwise the default one is asked to stay offline. If
+ * the on-device recognizer can't handle the language, the engine falls back to
+ * the default for the rest of the dictation; if the default loses the network,
+ * it switches to on-device where there is one. Latencies per mode go to
+ * getStats().
+ *
+ * finish() ends a dictation without losing its last words: it waits for the
+ * results of the utterance being recognized before calling back.
+ *
+ * Must be used on the main thread.
+ */
+public class DictationEngine {
+    private static final String TAG = "DictationEngine";
+
+    // Partial results arrive several times a second; the preview needn't redraw for each
+    static final long PARTIAL_DEBOUNCE_MS = 150;
+    // Before listening again after a network error, and after any other
+    static final long NETWORK_RETRY_MS = 3000;
+    static final long ERROR_RETRY_MS = 500;
+    // Longest finish() waits for final results before settling for the partial ones
+    static final long FINISH_TIMEOUT_MS = 2000;
+
+    private static final String PREF_PREFER_ON_DEVICE = "preferOnDeviceDictation";
+
+    private static final DictationStats stats = new DictationStats();
+
+    /**
+     * Which recognizer a session used
+     */
+    public enum Mode {
+        // The platform's on-device recognizer
+        ON_DEVICE,
+        // The default recognizer, asked to stay offline
+        PREFER_OFFLINE,
+        // The default recognizer, which may go to the network
+        DEFAULT
+    }
+
+    /**
+     * Told about the session on the main thread
+     */
+    public interface Listener {
+        /**
+         * A line for the user about what the recognizer is doing
+         */
+        void onStatus(String status);
+
+        /**
+         * Text was committed or the partial result changed
+         */
+        void onTranscriptChanged(DictationTranscript transcript);
+
+        /**
+         * The transcript is full and the engine has stopped listening
+         */
+        void onFull();
+    }
+
+    private final Context context;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Session[] sessions = new Session[2];
+    private DictationTranscript transcript;
+    private boolean running;
+    private Mode mode = Mode.DEFAULT;
+    // Set once on-device recognition has failed, so a lost network doesn't switch back to it
+    private boolean onDeviceFailed;
+    // Cleared once the device refuses a second recognizer while one is busy
+    private boolean overlapSupported = true;
+    // Latest partial result waiting out the debounce, and the one on show,
+    // with the sessions they came from
+    private Session pendingSession;
+    private String pendingPartial;
+    private Session shownSession;
+    private String shownPartial;
+    // Called once the utterances in progress are in, while finishing
+    private Runnable finishCallback;
+
+    private final Runnable restartRunnable = this::listenIfIdle;
+    private final Runnable partialRunnable = this::publishPartial;
+    private final Runnable finishTimeoutRunnable = this::finishNow;
+
+    public DictationEngine(Context context, Listener listener) {
+        this.context = context;
+        this.listener = listener;
+    }
+
+    public static boolean isAvailable(Context context) {
+        return SpeechRecognizer.isRecognitionAvailable(context);
+    }
+
+    public static boolean isPreferOnDevice(Context context) {
+        return context.getSharedPreferences("UserPrefs", Context.MODE_PRIVATE)
+                .getBoolean(PREF_PREFER_ON_DEVICE, false);
+    }
+
+    public static void setPreferOnDevice(Context context, boolean preferOnDevice) {
+        context.getSharedPreferences("UserPrefs", Context.MODE_PRIVATE).edit()
+                .putBoolean(PREF_PREFER_ON_DEVICE, preferOnDevice).apply();
+    }
+
+    /**
+     * Latencies and errors of every session so far, by mode
+     */
+    public static DictationStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Starts listening, adding to the transcript, with the mode the user's
+     * preference calls for
+     */
+    public void start(DictationTranscript transcript) {
+        this.transcript = transcript;
+        onDeviceFailed = false;
+        Mode preferred = !isPreferOnDevice(context) ? Mode.DEFAULT
+                : hasOnDeviceRecognizer() ? Mode.ON_DEVICE : Mode.PREFER_OFFLINE;
+        if (preferred != mode) {
+            switchMode(preferred);
+        }
+        resume();
+    }
+
+    /**
+     * Stops listening after the utterance in progress, whose results are
+     * still committed
+     */
+    public void pause() {
+        running = false;
+        handler.removeCallbacks(restartRunnable);
+        for (Session session : sessions) {
+            if (session != null && session.active && !session.speechEnded) {
+                session.recognizer.stopListening();
+            }
+        }
+    }
+
+    public void resume() {
+        if (transcript == null || transcript.isFull()) {
+            return;
+        }
+        running = true;
+        listenIfIdle();
+    }
+
+    /**
+     * Stops listening and calls back once the utterances in progress have
+     * their final results committed. A recognizer that hasn't delivered them
+     * within FINISH_TIMEOUT_MS is cancelled, keeping its latest partial result.
+     */
+    public void finish(Runnable onFinished) {
+        pause();
+        finishCallback = onFinished;
+        handler.removeCallbacks(finishTimeoutRunnable);
+        handler.postDelayed(finishTimeoutRunnable, FINISH_TIMEOUT_MS);
+        finishIfIdle();
+    }
+
+    /**
+     * Stops listening and drops anything not yet recognized; the transcript
+     * keeps what was
+     */
+    public void stop() {
+        running = false;
+        handler.removeCallbacks(restartRunnable);
+        handler.removeCallbacks(partialRunnable);
+        for (Session session : sessions) {
+            if (session != null && session.active) {
+                session.recognizer.cancel();
+                session.active = false;
+            }
+        }
+        pendingSession = null;
+        pendingPartial = null;
+        shownSession = null;
+        shownPartial = null;
+    }
+
+    /**
+     * Releases the recognizers; the engine can start again afterwards
+     */
+    public void destroy() {
+        finishCallback = null;
+        handler.removeCallbacks(finishTimeoutRunnable);
+        stop();
+        for (int i = 0; i < sessions.length; i++) {
+            if (sessions[i] != null) {
+                sessions[i].recognizer.destroy();
+                sessions[i] = null;
+            }
+        }
+    }
+
+    // Calls back from finish() once no session is still recognizing
+    private void finishIfIdle() {
+        if (finishCallback == null) {
+            return;
+        }
+        for (Session session : sessions) {
+            if (session != null && session.active) {
+                return;
+            }
+        }
+        Runnable callback = finishCallback;
+        finishCallback = null;
+        handler.removeCallbacks(finishTimeoutRunnable);
+        stop();
+        callback.run();
+    }
+
+    // The final results are taking too long; keeps what was heard of them
+    private void finishNow() {
+        for (Session session : sessions) {
+            if (session != null && session.active) {
+                session.active = false;
+                String partial = takePartial(session);
+                if (partial != null) {
+                    transcript.commit(partial);
+                    listener.onTranscriptChanged(transcript);
+                }
+                session.recognizer.cancel();
+            }
+        }
+        finishIfIdle();
+    }
+
+    private boolean hasOnDeviceRecognizer() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                && SpeechRecognizer.isOnDeviceRecognitionAvailable(context);
+    }
+
+    // Releases the recognizers of the old mode; the next session makes new ones
+    private void switchMode(Mode newMode) {
+        Log.d(TAG, "Recognition mode " + mode + " -> " + newMode);
+        for (int i = 0; i < sessions.length; i++) {
+            if (sessions[i] != null) {
+                if (sessions[i].active) {
+                    sessions[i].active = false;
+                    String partial = takePartial(sessions[i]);
+                    if (partial != null) {
+                        transcript.commit(partial);
+                        listener.onTranscriptChanged(transcript);
+                    }
+                    sessions[i].recognizer.cancel();
+                }
+                sessions[i].recognizer.destroy();
+                sessions[i] = null;
+            }
+        }
+        mode = newMode;
+        overlapSupported = true;
+    }
+
+    private SpeechRecognizer createRecognizer() {
+        if (mode == Mode.ON_DEVICE && Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            return SpeechRecognizer.createOnDeviceSpeechRecognizer(context);
+        }
+        return SpeechRecognizer.createSpeechRecognizer(context);
+    }
+
+    // Starts a session unless one is already listening for new speech
+    private void listenIfIdle() {
+        if (!running || transcript.isFull()) {
+            return;
+        }
+        for (Session session : sessions) {
+            if (session != null && session.active && !session.speechEnded) {
+                return;
+            }
+        }
+        Session idle = null;
+        int usable = overlapSupported ? sessions.length : 1;
+        for (int i = 0; i < usable && idle == null; i++) {
+            if (sessions[i] == null) {
+                sessions[i] = new Session(createRecognizer(), mode);
+            }
+            if (!sessions[i].active) {
+                idle = sessions[i];
+            }
+        }
+        if (idle == null) {
+            // Both busy finishing utterances; the first to finish starts the next
+            return;
+        }
+        try {
+            idle.listen();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Could not start listening", e);
+            idle.active = false;
+            if (mode == Mode.ON_DEVICE) {
+                onDeviceFailed = true;
+                switchMode(Mode.DEFAULT);
+                listenIfIdle();
+            } else {
+                listener.onStatus("Error starting speech recognition");
+            }
+        }
+    }
+
+    private boolean anotherActive(Session session) {
+        for (Session other : sessions) {
+            if (other != null && other != session && other.active) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void publishPartial() {
+        if (pendingPartial != null && transcript != null) {
+            transcript.setPartial(pendingPartial);
+            shownSession = pendingSession;
+            shownPartial = pendingPartial;
+            pendingSession = null;
+            pendingPartial = null;
+            listener.onTranscriptChanged(transcript);
+        }
+    }
+
+    // Takes the session's partial result off the preview, returning the
+    // latest one heard, if any
+    private String takePartial(Session session) {
+        String latest = null;
+        if (shownSession == session) {
+            latest = shownPartial;
+            transcript.setPartial("");
+            shownSession = null;
+            shownPartial = null;
+        }
+        if (pendingSession == session) {
+            latest = pendingPartial;
+            handler.removeCallbacks(partialRunnable);
+            pendingSession = null;
+            pendingPartial = null;
+        }
+        return latest;
+    }
+
+    private static String bestResult(Bundle results) {
+        ArrayList<String> matches = results != null
+                ? results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION) : null;
+        return matches != null && !matches.isEmpty() ? matches.get(0) : null;
+    }
+
+    // Whether the error means the on-device recognizer can't serve this user
+    private static boolean isOnDeviceUnsupported(int error) {
+        return error == SpeechRecognizer.ERROR_LANGUAGE_NOT_SUPPORTED
+                || error == SpeechRecognizer.ERROR_LANGUAGE_UNAVAILABLE
+                || error == SpeechRecognizer.ERROR_CANNOT_CHECK_SUPPORT
+                || error == SpeechRecognizer.ERROR_SERVER_DISCONNECTED;
+    }
+
+    // One recognizer and the state of its current session
+    private class Session implements RecognitionListener {
+        final SpeechRecognizer recognizer;
+        final Mode mode;
+        boolean active;
+        boolean speechEnded;
+        // Elapsed realtime of each step of the utterance, 0 until it happens
+        long listenAt;
+        long speechStartAt;
+        long firstPartialAt;
+        long speechEndAt;
+
+        Session(SpeechRecognizer recognizer, Mode mode) {
+            this.recognizer = recognizer;
+            this.mode = mode;
+            recognizer.setRecognitionListener(this);
+        }
+
+        void listen() {
+            Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
+            intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL, RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
+            intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, Locale.getDefault());
+            intent.putExtra(RecognizerIntent.EXTRA_PARTIAL_RESULTS, true);
+            intent.putExtra(RecognizerIntent.EXTRA_MAX_RESULTS, 1);
+            if (mode == Mode.PREFER_OFFLINE) {
+                intent.putExtra(RecognizerIntent.EXTRA_PREFER_OFFLINE, true);
+            }
+            active = true;
+            speechEnded = false;
+            listenAt = SystemClock.elapsedRealtime();
+            speechStartAt = 0;
+            firstPartialAt = 0;
+            speechEndAt = 0;
+            recognizer.startListening(intent);
+        }
+
+        // Records the finished utterance's latencies
+        void recordResult() {
+            long now = SystemClock.elapsedRealtime();
+            long speechStart = speechStartAt != 0 ? speechStartAt : listenAt;
+            long firstPartialMs = firstPartialAt != 0 ? firstPartialAt - speechStart : -1;
+            long finalMs = now - (speechEndAt != 0 ? speechEndAt : listenAt);
+            stats.recordResult(mode, firstPartialMs, finalMs);
+            Log.d(TAG, mode + ": first partial " + firstPartialMs + " ms, final " + finalMs + " ms");
+        }
+
+        @Override
+        public void onReadyForSpeech(Bundle params) {
+            if (running) {
+                listener.onStatus("Listening...");
+            }
+        }
+
+        @Override
+        public void onBeginningOfSpeech() {
+            speechStartAt = SystemClock.elapsedRealtime();
+            listener.onStatus("Hearing you...");
+        }
+
+        @Override
+        public void onRmsChanged(float rmsdB) {
+        }
+
+        @Override
+        public void onBufferReceived(byte[] buffer) {
+        }
+
+        @Override
+        public void onEndOfSpeech() {
+            speechEnded = true;
+            speechEndAt = SystemClock.elapsedRealtime();
+            if (running && overlapSupported) {
+                // Hand over to the other recognizer while this one finishes up
+                listenIfIdle();
+            } else {
+                listener.onStatus("Processing...");
+            }
+        }
+
+        @Override
+        public void onPartialResults(Bundle partialResults) {
+            String partial = bestResult(partialResults);
+            if (partial == null || !active) {
+                return;
+            }
+            if (firstPartialAt == 0) {
+                firstPartialAt = SystemClock.elapsedRealtime();
+            }
+            boolean scheduled = pendingPartial != null;
+            pendingSession = this;
+            pendingPartial = partial;
+            if (!scheduled) {
+                handler.postDelayed(partialRunnable, PARTIAL_DEBOUNCE_MS);
+            }
+        }
+
+        @Override
+        public void onResults(Bundle results) {
+            if (!active) {
+                return;
+            }
+            active = false;
+            recordResult();
+            takePartial(this);
+            String recognized = bestResult(results);
+            if (recognized != null && transcript.commit(recognized) > 0) {
+                listener.onStatus("Recognized: \"" + recognized.trim() + "\"");
+            }
+            listener.onTranscriptChanged(transcript);
+
+            if (transcript.isFull()) {
+                stop();
+                listener.onFull();
+            } else if (running) {
+                listenIfIdle();
+            }
+            finishIfIdle();
+        }
+
+        @Override
+        public void onError(int error) {
+            if (!active) {
+                return;
+            }
+            active = false;
+            // Keep what was heard of the utterance rather than lose it
+            String partial = takePartial(this);
+            if (partial != null) {
+                transcript.commit(partial);
+                listener.onTranscriptChanged(transcript);
+            }
+            stats.recordError(mode);
+            if (!running) {
+                finishIfIdle();
+                return;
+            }
+            if (error == SpeechRecognizer.ERROR_RECOGNIZER_BUSY && anotherActive(this)) {
+                Log.d(TAG, "Only one recognizer at a time here; restarting from results instead");
+                overlapSupported = false;
+                return;
+            }
+            if (mode == Mode.ON_DEVICE && DictationEngine.this.mode == Mode.ON_DEVICE
+                    && isOnDeviceUnsupported(error)) {
+                Log.w(TAG, "On-device recognition failed with " + error + "; using the default recognizer");
+                onDeviceFailed = true;
+                switchMode(Mode.DEFAULT);
+                listenIfIdle();
+                return;
+            }
+            if (mode != Mode.ON_DEVICE && DictationEngine.this.mode == mode
+                    && (error == SpeechRecognizer.ERROR_NETWORK || error == SpeechRecognizer.ERROR_NETWORK_TIMEOUT)
+                    && !onDeviceFailed && hasOnDeviceRecognizer()) {
+                listener.onStatus("No connection. Listening offline...");
+                switchMode(Mode.ON_DEVICE);
+                listenIfIdle();
+                return;
+            }
+            if (anotherActive(this)) {
+                // The other session is still going and will start the next
+                return;
+            }
+
+            switch (error) {
+                case SpeechRecognizer.ERROR_NO_MATCH:
+                case SpeechRecognizer.ERROR_SPEECH_TIMEOUT:
+                    // Nothing said; listen again straight away
+                    listenIfIdle();
+                    break;
+
+                case SpeechRecognizer.ERROR_NETWORK:
+                case SpeechRecognizer.ERROR_NETWORK_TIMEOUT:
+                    listener.onStatus("Network error. Please check your connection.");
+                    handler.postDelayed(restartRunnable, NETWORK_RETRY_MS);
+                    break;
+
+                default:
+                    Log.w(TAG, "Recognition error " + error);
+                    listener.onStatus("Recognition error. Restarting...");
+                    handler.postDelayed(restartRunnable, ERROR_RETRY_MS);
+                    break;
+            }
+        }
+
+        @Override
+        public void onEvent(int eventType, Bundle params) {
+        }
+    }
+}
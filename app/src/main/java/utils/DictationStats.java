@@ -0,0 +1,109 @@
+package utils;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How long dictation took to show text, per recognition mode, so on-device and
+ * network recognition can be compared. Updated by DictationEngine for every
+ * utterance.
+ *
+ * Time to first partial is counted from when the user started speaking, and
+ * time to final from when they stopped, so silence before an utterance doesn't
+ * count against either mode.
+ */
+public class DictationStats {
+
+    /**
+     * Counters for one mode
+     */
+    public static class ModeStats {
+        private final AtomicLong results = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong partials = new AtomicLong();
+        private final AtomicLong firstPartialMsTotal = new AtomicLong();
+        private final AtomicLong finalMsTotal = new AtomicLong();
+        private final AtomicLong finalMsMax = new AtomicLong();
+
+        public long getResults() {
+            return results.get();
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        /**
+         * Average time to the first partial result, over utterances that had one
+         */
+        public double getAverageFirstPartialMs() {
+            long count = partials.get();
+            return count == 0 ? 0 : (double) firstPartialMsTotal.get() / count;
+        }
+
+        public double getAverageFinalMs() {
+            long count = results.get();
+            return count == 0 ? 0 : (double) finalMsTotal.get() / count;
+        }
+
+        public long getMaxFinalMs() {
+            return finalMsMax.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "results=%d errors=%d firstPartial=%.0fms final=%.0fms maxFinal=%dms",
+                    getResults(), getErrors(), getAverageFirstPartialMs(), getAverageFinalMs(), getMaxFinalMs());
+        }
+    }
+
+    private final Map<DictationEngine.Mode, ModeStats> byMode = new EnumMap<>(DictationEngine.Mode.class);
+
+    public DictationStats() {
+        for (DictationEngine.Mode mode : DictationEngine.Mode.values()) {
+            byMode.put(mode, new ModeStats());
+        }
+    }
+
+    /**
+     * @param firstPartialMs -1 if no partial result came first
+     */
+    void recordResult(DictationEngine.Mode mode, long firstPartialMs, long finalMs) {
+        ModeStats stats = byMode.get(mode);
+        stats.results.incrementAndGet();
+        stats.finalMsTotal.addAndGet(finalMs);
+        stats.finalMsMax.accumulateAndGet(finalMs, Math::max);
+        if (firstPartialMs >= 0) {
+            stats.partials.incrementAndGet();
+            stats.firstPartialMsTotal.addAndGet(firstPartialMs);
+        }
+    }
+
+    void recordError(DictationEngine.Mode mode) {
+        byMode.get(mode).errors.incrementAndGet();
+    }
+
+    public ModeStats get(DictationEngine.Mode mode) {
+        return byMode.get(mode);
+    }
+
+    public void reset() {
+        for (DictationEngine.Mode mode : DictationEngine.Mode.values()) {
+            byMode.put(mode, new ModeStats());
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<DictationEngine.Mode, ModeStats> entry : byMode.entrySet()) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package utils;
+
+/**
+ * Text dictated in one voice session, kept within what the journal field can
+ * still take. Final results are committed in the order they arrive; the latest
+ * partial result of the utterance still being heard follows them until it is
+ * replaced or its final result comes in.
+ *
+ * Everything lives in one builder. Committing appends, and a new partial only
+ * rewrites the tail after the committed text, so nothing already dictated is
+ * copied again. The budget counts the separating spaces, including the one
+ * joining the dictation to the field's text, so the result always fits.
+ */
+public class DictationTranscript {
+
+    private final StringBuilder text = new StringBuilder();
+    private final int budget;
+    private int committedLength;
+    private String partial = "";
+
+    /**
+     * @param existing the field's text the dictation will be added to
+     * @param maxLength the field's limit
+     */
+    public DictationTranscript(CharSequence existing, int maxLength) {
+        this.budget = Math.max(0, maxLength - existing.length() - (needsSpace(existing) ? 1 : 0));
+    }
+
+    /**
+     * Adds an utterance's final result for good, cut to fit. Any partial
+     * result is kept after it.
+     *
+     * @return chars added, including the space before it
+     */
+    public int commit(String segment) {
+        text.setLength(committedLength);
+        int before = committedLength;
+        append(segment, budget);
+        committedLength = text.length();
+        append(partial, budget);
+        return committedLength - before;
+    }
+
+    /**
+     * Shows the utterance being heard after the committed text, replacing the
+     * last partial result. An empty one clears it.
+     */
+    public void setPartial(String partial) {
+        this.partial = partial != null ? partial : "";
+        text.setLength(committedLength);
+        append(this.partial, budget);
+    }
+
+    /**
+     * Committed text and the partial result after it. The builder itself, so
+     * it reads the same until the next change.
+     */
+    public CharSequence getText() {
+        return text;
+    }
+
+    public boolean isEmpty() {
+        return text.length() == 0;
+    }
+
+    /**
+     * Chars that can still be committed, spaces included
+     */
+    public int getRemaining() {
+        return budget - committedLength;
+    }
+
+    /**
+     * No room left for another word after the committed text
+     */
+    public boolean isFull() {
+        return getRemaining() <= (committedLength > 0 ? 1 : 0);
+    }
+
+    /**
+     * The field's text with everything dictated added, which never passes the
+     * limit given
+     */
+    public String appendTo(CharSequence existing) {
+        if (text.length() == 0) {
+            return existing.toString();
+        }
+        StringBuilder combined = new StringBuilder(existing.length() + 1 + text.length()).append(existing);
+        if (needsSpace(existing)) {
+            combined.append(' ');
+        }
+        return combined.append(text).toString();
+    }
+
+    // Appends the trimmed segment after a space, as much as fits within limit
+    private void append(String segment, int limit) {
+        if (segment == null) {
+            return;
+        }
+        String trimmed = segment.trim();
+        if (trimmed.isEmpty()) {
+            return;
+        }
+        int room = limit - text.length() - (needsSpace(text) ? 1 : 0);
+        if (room <= 0) {
+            return;
+        }
+        int end = Math.min(trimmed.length(), room);
+        // Don't split a surrogate pair at the cut
+        if (end < trimmed.length() && Character.isHighSurrogate(trimmed.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0) {
+            return;
+        }
+        if (needsSpace(text)) {
+            text.append(' ');
+        }
+        text.append(trimmed, 0, end);
+    }
+
+    private static boolean needsSpace(CharSequence before) {
+        return before.length() > 0 && !Character.isWhitespace(before.charAt(before.length() - 1));
+    }
+}
@@ -0,0 +1,142 @@
+package utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.database.DatabaseError;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import analytics.EmotionPredictor;
+import models.Emotion;
+import models.EmotionEntry;
+
+/**
+ * Feeds every newly saved entry to the user's EmotionPredictor and keeps its
+ * state in SharedPreferences, so the first check-in screen can offer quick
+ * picks on open without loading any entries or the emotion catalog.
+ *
+ * A user with no saved state yet (a new install, or entries from before quick
+ * picks) gets it built once from their full history.
+ *
+ * Decoding, updating and encoding the state all run on one background thread,
+ * which also keeps saves and the first build in order; picks are handed back
+ * on the main thread.
+ */
+public class EmotionPredictionTracker implements FirebaseHelper.EntryChangeListener {
+    private static final String TAG = "EmotionPredictionTracker";
+    private static EmotionPredictionTracker instance;
+
+    private final SharedPreferences prefs;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Callback for quick picks, on the main thread
+     */
+    public interface QuickPicksListener {
+        void onQuickPicks(List<Emotion> picks);
+    }
+
+    private EmotionPredictionTracker(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences("UserPrefs", Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Also starts listening for saved entries, so call it before entries can be saved
+     */
+    public static synchronized EmotionPredictionTracker getInstance(Context context) {
+        if (instance == null) {
+            instance = new EmotionPredictionTracker(context);
+            FirebaseHelper.getInstance().addEntryChangeListener(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Emotions to offer for the check-in starting now, best first. Calls back
+     * as soon as saved state is read; the first time for a user, only after
+     * their entries have been loaded, and with none if that fails.
+     */
+    public void getQuickPicks(String userId, int limit, QuickPicksListener listener) {
+        executor.execute(() -> {
+            String saved = prefs.getString(stateKey(userId), null);
+            if (saved != null) {
+                deliver(listener, predict(EmotionPredictor.decode(saved), limit));
+                return;
+            }
+            FirebaseHelper.getInstance().getAllEntries(userId, new FirebaseHelper.FilteredEntriesListener() {
+                @Override
+                public void onSuccess(List<EmotionEntry> entries) {
+                    executor.execute(() -> deliver(listener, predict(build(userId, entries), limit)));
+                }
+
+                @Override
+                public void onFailure(DatabaseError error) {
+                    Log.e(TAG, "Couldn't load entries for quick picks: " + error.getMessage());
+                    listener.onQuickPicks(new ArrayList<>());
+                }
+            });
+        });
+    }
+
+    @Override
+    public void onEntrySaved(EmotionEntry entry) {
+        if (entry.getUserId() == null) {
+            return;
+        }
+        executor.execute(() -> {
+            // Without saved state the first getQuickPicks builds it from the history, this entry included
+            if (!prefs.contains(stateKey(entry.getUserId()))) {
+                return;
+            }
+            EmotionPredictor predictor = load(entry.getUserId());
+            if (predictor.update(entry)) {
+                prefs.edit().putString(stateKey(entry.getUserId()), predictor.encode()).apply();
+            }
+        });
+    }
+
+    @Override
+    public void onEntryDeleted(EmotionEntry entry) {
+        // Counts keep a deleted entry; among all the others it barely moves a pick
+    }
+
+    // Runs on executor: the user's state built from their whole history, and saved
+    private EmotionPredictor build(String userId, List<EmotionEntry> entries) {
+        ZoneId zone = ZoneId.systemDefault();
+        for (EmotionEntry entry : entries) {
+            entry.stampLocalTime(zone);
+        }
+        EmotionPredictor predictor = EmotionPredictor.of(entries);
+        prefs.edit().putString(stateKey(userId), predictor.encode()).apply();
+        Log.d(TAG, "Built " + predictor + " from " + entries.size() + " entries");
+        return predictor;
+    }
+
+    private void deliver(QuickPicksListener listener, List<Emotion> picks) {
+        mainHandler.post(() -> listener.onQuickPicks(picks));
+    }
+
+    private EmotionPredictor load(String userId) {
+        return EmotionPredictor.decode(prefs.getString(stateKey(userId), null));
+    }
+
+    private static List<Emotion> predict(EmotionPredictor predictor, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return predictor.predict(System.currentTimeMillis(), now.toLocalDate().toEpochDay(),
+                now.getHour() * 60 + now.getMinute(), limit);
+    }
+
+    private static String stateKey(String userId) {
+        return "emotionPredictor_" + userId;
+    }
+}
@@ -0,0 +1,303 @@
+package utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.firebase.database.DatabaseError;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import analytics.CoOccurrenceMatrix;
+import analytics.DayRangeCounts;
+import analytics.HourWeekdayMatrix;
+import analytics.IndexCache;
+import models.EmotionEntry;
+
+/**
+ * In-memory indexes over the signed-in user's entries, built once from a full
+ * load and then kept current from FirebaseHelper's entry change notifications,
+ * so saving or deleting an entry updates them in place.
+ *
+ * Holds the emotion co-occurrence matrix, per-day range counts and the
+ * hour x weekday check-in matrix. Each full build is saved to IndexCache with
+ * the data version it was built at, and a load at that version reads it back
+ * instead of downloading the entries. Counts read back don't know what each
+ * entry added, so the first save or delete after that drops them and the next
+ * load builds from the entries again.
+ *
+ * The index also knows the data version it matches. Every save or delete
+ * applied here moves it up by one, as on the server, so a load at any other
+ * version means entries changed elsewhere (another device) and the index is
+ * read from the cache or built again.
+ *
+ * Only used from the main thread, except build(), which makes the indexes
+ * for a full set of entries on any thread for install() to put in place.
+ */
+public class EntryIndex implements FirebaseHelper.EntryChangeListener {
+    private static EntryIndex instance;
+
+    private final IndexCache cache;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private String userId;
+    // The user's data version the indexes match, -1 if unknown
+    private long dataVersion = -1;
+    private boolean loaded;
+    // Whether contributions holds every indexed entry; false for counts from the cache
+    private boolean tracking;
+
+    // What each indexed entry currently contributes, to undo it on edit or delete
+    private Map<String, Contribution> contributions = new HashMap<>();
+    private CoOccurrenceMatrix coOccurrence = new CoOccurrenceMatrix();
+    private DayRangeCounts dayRangeCounts = new DayRangeCounts();
+    private HourWeekdayMatrix hourWeekday = new HourWeekdayMatrix();
+
+    /**
+     * An entry's share of the indexes
+     */
+    private static class Contribution {
+        final int[] emotionIds;
+        final boolean hasDay;
+        final int epochDay;
+        final int[] categoryOrdinals;
+        final int hourWeekdayCell;
+
+        Contribution(EmotionEntry entry, long todayEpochDay) {
+            emotionIds = CoOccurrenceMatrix.ids(entry.getEmotions());
+            hasDay = entry.hasLocalTime() && DayRangeCounts.isTracked(entry.getEpochDay(), todayEpochDay);
+            epochDay = entry.getEpochDay();
+            categoryOrdinals = DayRangeCounts.categoryOrdinals(entry.getEmotions());
+            hourWeekdayCell = HourWeekdayMatrix.cell(entry);
+        }
+    }
+
+    /**
+     * Indexes over a user's complete set of entries, not yet in place
+     */
+    public static class Built {
+        private final Map<String, Contribution> contributions;
+        private final CoOccurrenceMatrix coOccurrence;
+        private final DayRangeCounts dayRangeCounts;
+        private final HourWeekdayMatrix hourWeekday;
+
+        private Built(Map<String, Contribution> contributions, CoOccurrenceMatrix coOccurrence,
+                      DayRangeCounts dayRangeCounts, HourWeekdayMatrix hourWeekday) {
+            this.contributions = contributions;
+            this.coOccurrence = coOccurrence;
+            this.dayRangeCounts = dayRangeCounts;
+            this.hourWeekday = hourWeekday;
+        }
+    }
+
+    /**
+     * Callback for loading the index
+     */
+    public interface LoadListener {
+        void onLoaded(EntryIndex index);
+
+        void onFailure(DatabaseError error);
+    }
+
+    private EntryIndex(Context context) {
+        cache = IndexCache.getInstance(context.getApplicationContext().getCacheDir());
+    }
+
+    public static synchronized EntryIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new EntryIndex(context);
+            FirebaseHelper.getInstance().addEntryChangeListener(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Whether the index holds this user's entries
+     */
+    public boolean isLoaded(String userId) {
+        return loaded && userId != null && userId.equals(this.userId);
+    }
+
+    /**
+     * Calls back right away if the user's entries are indexed or cached at this
+     * data version, otherwise loads them first
+     *
+     * @param dataVersion the user's data version, read before calling; -1 if
+     *                    unknown, which takes whatever is indexed
+     */
+    public void load(String userId, long dataVersion, LoadListener listener) {
+        if (isLoaded(userId) && (dataVersion < 0 || dataVersion == this.dataVersion)) {
+            listener.onLoaded(this);
+            return;
+        }
+        IndexCache.Indexes cached = dataVersion >= 0 ? cache.get(userId, dataVersion) : null;
+        if (cached != null) {
+            this.userId = userId;
+            this.dataVersion = dataVersion;
+            contributions.clear();
+            coOccurrence = cached.getCoOccurrence();
+            dayRangeCounts = cached.getDayRangeCounts();
+            hourWeekday = cached.getHourWeekday();
+            loaded = true;
+            tracking = false;
+            listener.onLoaded(this);
+            return;
+        }
+        FirebaseHelper.getInstance().getAllEntries(userId, new FirebaseHelper.FilteredEntriesListener() {
+            @Override
+            public void onSuccess(List<EmotionEntry> entries) {
+                executor.execute(() -> {
+                    Built built = build(entries);
+                    mainHandler.post(() -> {
+                        install(userId, dataVersion, built);
+                        listener.onLoaded(EntryIndex.this);
+                    });
+                });
+            }
+
+            @Override
+            public void onFailure(DatabaseError error) {
+                listener.onFailure(error);
+            }
+        });
+    }
+
+    /**
+     * The indexes over a user's complete set of entries, in one pass. Touches
+     * nothing shared, so it can run off the main thread.
+     */
+    public static Built build(Collection<EmotionEntry> entries) {
+        Map<String, Contribution> contributions = new HashMap<>();
+        CoOccurrenceMatrix coOccurrence = new CoOccurrenceMatrix();
+        HourWeekdayMatrix hourWeekday = new HourWeekdayMatrix();
+
+        long todayEpochDay = LocalDate.now().toEpochDay();
+        long[] epochDays = new long[entries.size()];
+        int[][] categoryOrdinals = new int[entries.size()][];
+        int dayCount = 0;
+        for (EmotionEntry entry : entries) {
+            if (entry.getEntryId() == null) {
+                continue;
+            }
+            Contribution contribution = new Contribution(entry, todayEpochDay);
+            contributions.put(entry.getEntryId(), contribution);
+            coOccurrence.apply(contribution.emotionIds, 1);
+            if (contribution.hourWeekdayCell >= 0) {
+                hourWeekday.apply(contribution.hourWeekdayCell, contribution.categoryOrdinals, 1);
+            }
+            if (contribution.hasDay) {
+                epochDays[dayCount] = contribution.epochDay;
+                categoryOrdinals[dayCount] = contribution.categoryOrdinals;
+                dayCount++;
+            }
+        }
+        return new Built(contributions, coOccurrence, DayRangeCounts.of(epochDays, categoryOrdinals, dayCount),
+                hourWeekday);
+    }
+
+    /**
+     * Replaces the index with indexes from build(), and caches them when the
+     * data version is known
+     *
+     * @param dataVersion the user's data version, read before the entries; -1 if unknown
+     */
+    public void install(String userId, long dataVersion, Built built) {
+        this.userId = userId;
+        this.dataVersion = dataVersion;
+        contributions = built.contributions;
+        coOccurrence = built.coOccurrence;
+        dayRangeCounts = built.dayRangeCounts;
+        hourWeekday = built.hourWeekday;
+        loaded = true;
+        tracking = true;
+
+        if (dataVersion >= 0) {
+            cache.put(userId, dataVersion, coOccurrence, dayRangeCounts, hourWeekday);
+        }
+    }
+
+    public CoOccurrenceMatrix getCoOccurrence() {
+        return coOccurrence;
+    }
+
+    /**
+     * Check-in and emotion counts for any range of days the entries were written on
+     */
+    public DayRangeCounts getDayRangeCounts() {
+        return dayRangeCounts;
+    }
+
+    /**
+     * Check-ins by weekday and hour of the writer's local time
+     */
+    public HourWeekdayMatrix getHourWeekday() {
+        return hourWeekday;
+    }
+
+    @Override
+    public void onEntrySaved(EmotionEntry entry) {
+        if (!tracks(entry)) {
+            return;
+        }
+        unindex(entry.getEntryId());
+        index(entry);
+    }
+
+    @Override
+    public void onEntryDeleted(EmotionEntry entry) {
+        if (!tracks(entry)) {
+            return;
+        }
+        unindex(entry.getEntryId());
+    }
+
+    // Whether the entry's change can be applied, counting it toward the data
+    // version if so; a change to counts from the cache unloads them
+    private boolean tracks(EmotionEntry entry) {
+        if (!loaded || entry.getEntryId() == null || !userId.equals(entry.getUserId())) {
+            return false;
+        }
+        if (!tracking) {
+            loaded = false;
+            return false;
+        }
+        // The write that told us bumped the server's version by one
+        if (dataVersion >= 0) {
+            dataVersion++;
+        }
+        return true;
+    }
+
+    private void index(EmotionEntry entry) {
+        Contribution contribution = new Contribution(entry, LocalDate.now().toEpochDay());
+        contributions.put(entry.getEntryId(), contribution);
+        coOccurrence.apply(contribution.emotionIds, 1);
+        if (contribution.hourWeekdayCell >= 0) {
+            hourWeekday.apply(contribution.hourWeekdayCell, contribution.categoryOrdinals, 1);
+        }
+        if (contribution.hasDay) {
+            dayRangeCounts.apply(contribution.epochDay, contribution.categoryOrdinals, 1);
+        }
+    }
+
+    private void unindex(String entryId) {
+        Contribution previous = contributions.remove(entryId);
+        if (previous == null) {
+            return;
+        }
+        coOccurrence.apply(previous.emotionIds, -1);
+        if (previous.hourWeekdayCell >= 0) {
+            hourWeekday.apply(previous.hourWeekdayCell, previous.categoryOrdinals, -1);
+        }
+        if (previous.hasDay) {
+            dayRangeCounts.apply(previous.epochDay, previous.categoryOrdinals, -1);
+        }
+    }
+}
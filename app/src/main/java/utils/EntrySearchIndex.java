@@ -0,0 +1,194 @@
+package utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.database.DatabaseError;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import models.EmotionEntry;
+import search.InvertedIndex;
+
+/**
+ * The signed-in user's entry index (text, tags, emotions, dates and images),
+ * kept in a file so searching and filtering never have to load entries.
+ *
+ * On open the saved index is checked against the user's data version and
+ * rebuilt from a full load only if they differ. After that, entries saved or
+ * deleted through FirebaseHelper are applied in place and the file rewritten
+ * in the background. If the data version moved by more than our own change
+ * (another device wrote too), the index is marked stale and rebuilt on the
+ * next open.
+ */
+public class EntrySearchIndex implements FirebaseHelper.EntryChangeListener {
+    private static final String TAG = "EntrySearchIndex";
+    private static final String FILE_NAME = "search_index.bin";
+
+    private static EntrySearchIndex instance;
+
+    private final File file;
+    private final InvertedIndex index = new InvertedIndex();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private boolean ready;
+
+    /**
+     * Callback for opening the index
+     */
+    public interface ReadyListener {
+        void onReady(InvertedIndex index);
+
+        void onFailure(DatabaseError error);
+    }
+
+    private EntrySearchIndex(Context context) {
+        file = new File(context.getApplicationContext().getFilesDir(), FILE_NAME);
+        executor.execute(() -> index.load(file));
+    }
+
+    /**
+     * Also starts listening for saved and deleted entries, so call it before
+     * entries can be changed to keep the saved index current
+     */
+    public static synchronized EntrySearchIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new EntrySearchIndex(context);
+            FirebaseHelper.getInstance().addEntryChangeListener(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Calls back on the main thread with the user's up-to-date index, loading
+     * it from disk and rebuilding it first if needed
+     */
+    public void open(String userId, ReadyListener listener) {
+        if (ready && userId.equals(index.getUserId()) && index.getDataVersion() >= 0) {
+            listener.onReady(index);
+            return;
+        }
+        // Queued behind loading the file
+        executor.execute(() -> mainHandler.post(() -> checkVersion(userId, listener)));
+    }
+
+    private void checkVersion(String userId, ReadyListener listener) {
+        FirebaseHelper.getInstance().getDataVersion(userId, new FirebaseHelper.DataVersionListener() {
+            @Override
+            public void onSuccess(long dataVersion) {
+                if (userId.equals(index.getUserId()) && index.getDataVersion() == dataVersion) {
+                    ready = true;
+                    listener.onReady(index);
+                } else {
+                    rebuild(userId, dataVersion, listener);
+                }
+            }
+
+            @Override
+            public void onFailure(DatabaseError error) {
+                // Offline: a saved index for this user is still worth searching
+                if (userId.equals(index.getUserId())) {
+                    listener.onReady(index);
+                } else {
+                    listener.onFailure(error);
+                }
+            }
+        });
+    }
+
+    private void rebuild(String userId, long dataVersion, ReadyListener listener) {
+        FirebaseHelper.getInstance().getAllEntries(userId, new FirebaseHelper.FilteredEntriesListener() {
+            @Override
+            public void onSuccess(List<EmotionEntry> entries) {
+                executor.execute(() -> {
+                    index.reset(userId, dataVersion);
+                    for (EmotionEntry entry : entries) {
+                        put(entry);
+                    }
+                    Log.d(TAG, "Indexed " + index.size() + " entries, " + index.termCount() + " terms");
+                    save();
+                    mainHandler.post(() -> {
+                        ready = true;
+                        listener.onReady(index);
+                    });
+                });
+            }
+
+            @Override
+            public void onFailure(DatabaseError error) {
+                listener.onFailure(error);
+            }
+        });
+    }
+
+    @Override
+    public void onEntrySaved(EmotionEntry entry) {
+        if (!tracks(entry)) {
+            return;
+        }
+        long expectedVersion = index.getDataVersion() + 1;
+        executor.execute(() -> put(entry));
+        confirmVersion(entry.getUserId(), expectedVersion);
+    }
+
+    @Override
+    public void onEntryDeleted(EmotionEntry entry) {
+        if (!tracks(entry)) {
+            return;
+        }
+        long expectedVersion = index.getDataVersion() + 1;
+        executor.execute(() -> index.remove(entry.getEntryId()));
+        confirmVersion(entry.getUserId(), expectedVersion);
+    }
+
+    private boolean tracks(EmotionEntry entry) {
+        return entry.getEntryId() != null && entry.getUserId() != null
+                && entry.getUserId().equals(index.getUserId());
+    }
+
+    private void put(EmotionEntry entry) {
+        if (entry.getEntryId() == null || entry.getTimestamp() == null) {
+            return;
+        }
+        index.put(entry.getEntryId(), entry.getTimestamp().getTime(), entry.getEpochDay(),
+                entry.getJournalText(), entry.getTags(), entry.getEmotions(),
+                entry.getImageUrls() != null && !entry.getImageUrls().isEmpty());
+    }
+
+    // Keeps the saved version if the change was the only one, otherwise marks the index stale
+    private void confirmVersion(String userId, long expectedVersion) {
+        FirebaseHelper.getInstance().getDataVersion(userId, new FirebaseHelper.DataVersionListener() {
+            @Override
+            public void onSuccess(long dataVersion) {
+                long version = dataVersion == expectedVersion ? dataVersion : -1;
+                executor.execute(() -> {
+                    index.setDataVersion(version);
+                    save();
+                });
+            }
+
+            @Override
+            public void onFailure(DatabaseError error) {
+                executor.execute(() -> {
+                    index.setDataVersion(-1);
+                    save();
+                });
+            }
+        });
+    }
+
+    private void save() {
+        try {
+            index.save(file);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not save search index", e);
+        }
+    }
+}
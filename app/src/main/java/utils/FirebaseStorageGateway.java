@@ -0,0 +1,63 @@
+package utils;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.ListResult;
+import com.google.firebase.storage.StorageReference;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OrphanImageSweeper gateway backed by Firebase Storage.
+ * Blocks on Firebase tasks, so it must only be used from a background thread.
+ */
+public class FirebaseStorageGateway implements OrphanImageSweeper.StorageGateway {
+
+    private final FirebaseStorage storage;
+
+    public FirebaseStorageGateway(FirebaseStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public OrphanImageSweeper.ListPage list(String prefix, String pageToken, int pageSize) throws Exception {
+        StorageReference ref = storage.getReference().child(prefix);
+        ListResult result = Tasks.await(pageToken == null
+                ? ref.list(pageSize)
+                : ref.list(pageSize, pageToken));
+
+        List<OrphanImageSweeper.StoredObject> items = new ArrayList<>();
+        for (StorageReference item : result.getItems()) {
+            // Our uploads carry their timestamp in the name; only fall back to metadata when they don't
+            long createdMillis = OrphanImageSweeper.timestampFromName(item.getName());
+            if (createdMillis <= 0) {
+                createdMillis = Tasks.await(item.getMetadata()).getCreationTimeMillis();
+            }
+            items.add(new OrphanImageSweeper.StoredObject(relativePath(item), createdMillis));
+        }
+
+        List<String> prefixes = new ArrayList<>();
+        for (StorageReference child : result.getPrefixes()) {
+            prefixes.add(relativePath(child));
+        }
+
+        return new OrphanImageSweeper.ListPage(items, prefixes, result.getPageToken());
+    }
+
+    @Override
+    public void delete(List<String> paths) throws Exception {
+        List<Task<Void>> deletes = new ArrayList<>();
+        for (String path : paths) {
+            deletes.add(storage.getReference().child(path).delete());
+        }
+        Tasks.await(Tasks.whenAll(deletes));
+    }
+
+    // StorageReference paths start with "/", download URLs encode them without it
+    private static String relativePath(StorageReference ref) {
+        String path = ref.getPath();
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+}
@@ -0,0 +1,123 @@
+package utils;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import analytics.HourWeekdayMatrix;
+import edu.northeastern.numad25sp_group4.R;
+import models.Emotion;
+
+/**
+ * 7 x 24 grid of when check-ins happen, one row per weekday from Sunday. Each
+ * cell takes the color of the category logged most at that time, and is more
+ * opaque the more check-ins it holds.
+ */
+public class HourWeekHeatmapView extends View {
+
+    private static final String[] WEEKDAY_LABELS = {"S", "M", "T", "W", "T", "F", "S"};
+    private static final int[] HOUR_LABELS = {0, 6, 12, 18};
+
+    // Cells with any check-ins are at least this opaque so single ones show
+    private static final float MIN_ALPHA = 0.2f;
+
+    private final Paint cellPaint = new Paint();
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final int[] categoryColors;
+    private final int emptyColor;
+    private final float gap;
+    private final float labelWidth;
+    private final float labelHeight;
+
+    private HourWeekdayMatrix matrix;
+
+    public HourWeekHeatmapView(Context context) {
+        this(context, null);
+    }
+
+    public HourWeekHeatmapView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+
+        labelPaint.setColor(ContextCompat.getColor(context, R.color.gray));
+        labelPaint.setTextSize(11 * getResources().getDisplayMetrics().scaledDensity);
+        labelWidth = labelPaint.measureText("M") + 6 * density;
+        labelHeight = labelPaint.getFontSpacing();
+        gap = density;
+
+        // Indexed by Emotion.Category ordinal, same colors as the emotion picker
+        categoryColors = new int[]{
+                ContextCompat.getColor(context, R.color.high_energy_pleasant),
+                ContextCompat.getColor(context, R.color.high_energy_unpleasant),
+                ContextCompat.getColor(context, R.color.low_energy_pleasant),
+                ContextCompat.getColor(context, R.color.low_energy_unpleasant)
+        };
+        emptyColor = Color.argb(24, 255, 255, 255);
+    }
+
+    public void setMatrix(HourWeekdayMatrix matrix) {
+        this.matrix = matrix;
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        float left = getPaddingLeft() + labelWidth;
+        float top = getPaddingTop();
+        float gridWidth = getWidth() - getPaddingRight() - left;
+        float gridHeight = getHeight() - getPaddingBottom() - top - labelHeight;
+        float cellWidth = gridWidth / HourWeekdayMatrix.HOURS;
+        float cellHeight = gridHeight / HourWeekdayMatrix.WEEKDAYS;
+        if (cellWidth <= gap || cellHeight <= gap) {
+            return;
+        }
+
+        int max = matrix != null ? matrix.maxCheckins() : 0;
+        for (int weekday = 0; weekday < HourWeekdayMatrix.WEEKDAYS; weekday++) {
+            float y = top + weekday * cellHeight;
+            canvas.drawText(WEEKDAY_LABELS[weekday], getPaddingLeft(),
+                    y + cellHeight / 2 - (labelPaint.ascent() + labelPaint.descent()) / 2, labelPaint);
+
+            for (int hour = 0; hour < HourWeekdayMatrix.HOURS; hour++) {
+                cellPaint.setColor(cellColor(weekday, hour, max));
+                float x = left + hour * cellWidth;
+                canvas.drawRect(x, y, x + cellWidth - gap, y + cellHeight - gap, cellPaint);
+            }
+        }
+
+        float labelBaseline = top + gridHeight - labelPaint.ascent();
+        for (int hour : HOUR_LABELS) {
+            canvas.drawText(formatHour(hour), left + hour * cellWidth, labelBaseline, labelPaint);
+        }
+    }
+
+    private int cellColor(int weekday, int hour, int max) {
+        int count = max > 0 ? matrix.getCheckins(weekday, hour) : 0;
+        if (count == 0) {
+            return emptyColor;
+        }
+        Emotion.Category dominant = matrix.dominantCategory(weekday, hour);
+        int color = dominant != null ? categoryColors[dominant.ordinal()] : Color.WHITE;
+        // Square root so a few busy cells don't wash out the rest
+        float alpha = MIN_ALPHA + (1 - MIN_ALPHA) * (float) Math.sqrt((double) count / max);
+        return Color.argb(Math.round(alpha * 255), Color.red(color), Color.green(color), Color.blue(color));
+    }
+
+    private static String formatHour(int hour) {
+        if (hour == 0) {
+            return "12am";
+        }
+        if (hour == 12) {
+            return "12pm";
+        }
+        return hour < 12 ? hour + "am" : (hour - 12) + "pm";
+    }
+}
@@ -0,0 +1,85 @@
+package utils;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing where loaded images came from.
+ * Updated by ImageLoader for every completed request.
+ */
+public class ImageCacheStats {
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong networkLoads = new AtomicLong();
+    private final AtomicLong localLoads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    void recordMemoryHit() {
+        memoryHits.incrementAndGet();
+    }
+
+    void recordDiskHit() {
+        diskHits.incrementAndGet();
+    }
+
+    void recordNetworkLoad() {
+        networkLoads.incrementAndGet();
+    }
+
+    void recordLocalLoad() {
+        localLoads.incrementAndGet();
+    }
+
+    void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getNetworkLoads() {
+        return networkLoads.get();
+    }
+
+    public long getLocalLoads() {
+        return localLoads.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getTotalLoads() {
+        return getMemoryHits() + getDiskHits() + getNetworkLoads() + getLocalLoads();
+    }
+
+    /**
+     * Fraction of successful loads served from the memory or disk cache
+     */
+    public double getCacheHitRate() {
+        long total = getTotalLoads();
+        return total == 0 ? 0 : (double) (getMemoryHits() + getDiskHits()) / total;
+    }
+
+    public void reset() {
+        memoryHits.set(0);
+        diskHits.set(0);
+        networkLoads.set(0);
+        localLoads.set(0);
+        failures.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "memory=%d disk=%d network=%d local=%d failed=%d hitRate=%.2f",
+                getMemoryHits(), getDiskHits(), getNetworkLoads(), getLocalLoads(),
+                getFailures(), getCacheHitRate());
+    }
+}
@@ -0,0 +1,183 @@
+package utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.util.Log;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.resource.bitmap.DownsampleStrategy;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+import java.io.File;
+
+/**
+ * Single entry point for drawing images in the app.
+ * All loads go through Glide (see MindfulJotGlideModule), so they share one
+ * memory cache, one bitmap pool and one disk cache, and are downsampled to
+ * the size they are displayed at.
+ */
+public class ImageLoader {
+
+    private static final String TAG = "ImageLoader";
+
+    private static final ImageCacheStats stats = new ImageCacheStats();
+
+    private static final RequestListener<Drawable> statsListener = new StatsListener<>();
+
+    /**
+     * Records where each load was served from; never consumes the event
+     */
+    private static class StatsListener<T> implements RequestListener<T> {
+        @Override
+        public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                    @NonNull Target<T> target, boolean isFirstResource) {
+            stats.recordFailure();
+            Log.w(TAG, "Failed to load " + model, e);
+            return false;
+        }
+
+        @Override
+        public boolean onResourceReady(@NonNull T resource, @NonNull Object model,
+                                       Target<T> target, @NonNull DataSource dataSource,
+                                       boolean isFirstResource) {
+            recordSource(dataSource);
+            return false;
+        }
+    }
+
+    private ImageLoader() {
+    }
+
+    /**
+     * Loads a square, center-cropped thumbnail decoded at sizePx
+     */
+    public static void loadThumbnail(ImageView view, Object source, int sizePx) {
+        thumbnailRequest(Glide.with(view).load(model(source)), sizePx)
+                .listener(statsListener)
+                .into(view);
+    }
+
+    /**
+     * Warms the caches with the same thumbnail loadThumbnail would draw, so a later
+     * load of the same source and size is a memory-cache hit.
+     * The listener (may be null) is notified when the preload finishes either way.
+     */
+    public static Target<Drawable> preloadThumbnail(Context context, Object source, int sizePx,
+                                                    @Nullable RequestListener<Drawable> listener) {
+        return thumbnailRequest(Glide.with(context).load(model(source)), sizePx)
+                .listener(listener)
+                .preload(sizePx, sizePx);
+    }
+
+    /**
+     * Cancels a pending preload
+     */
+    public static void cancel(Context context, Target<?> target) {
+        Glide.with(context).clear(target);
+    }
+
+    /**
+     * Delivers the same thumbnail loadThumbnail draws to a custom target,
+     * so it is normally an instant memory-cache hit
+     */
+    public static void loadThumbnailInto(Context context, Object source, int sizePx, Target<Drawable> target) {
+        thumbnailRequest(Glide.with(context).load(model(source)), sizePx)
+                .listener(statsListener)
+                .into(target);
+    }
+
+    /**
+     * Loads a bitmap downsampled to fit within widthPx x heightPx, never upscaled
+     */
+    public static void loadFitted(Context context, Object source, int widthPx, int heightPx, Target<Bitmap> target) {
+        Glide.with(context)
+                .asBitmap()
+                .load(model(source))
+                .override(widthPx, heightPx)
+                .downsample(DownsampleStrategy.CENTER_INSIDE)
+                .listener(new StatsListener<>())
+                .into(target);
+    }
+
+    /**
+     * Fetches the undecoded source into the disk cache and delivers the cached file.
+     * Used where the caller decodes the image itself (e.g. region decoding).
+     */
+    public static void downloadOriginal(Context context, Object source, Target<File> target) {
+        Glide.with(context)
+                .downloadOnly()
+                .load(model(source))
+                .listener(new StatsListener<>())
+                .into(target);
+    }
+
+    // Glide's cache keys include the model's type, so the same image given as a Uri
+    // and as a String would be cached twice. Uris are loaded by their string form.
+    private static Object model(Object source) {
+        return source instanceof Uri ? source.toString() : source;
+    }
+
+    // Options shared by thumbnail loads and preloads; they must match for cache keys to line up
+    private static RequestBuilder<Drawable> thumbnailRequest(RequestBuilder<Drawable> request, int sizePx) {
+        return request
+                .override(sizePx, sizePx)
+                .downsample(DownsampleStrategy.CENTER_OUTSIDE)
+                .centerCrop();
+    }
+
+    /**
+     * Loads a bundled drawable, downsampled to the measured size of the view
+     */
+    public static void loadResource(ImageView view, @DrawableRes int resourceId) {
+        Glide.with(view)
+                .load(resourceId)
+                .downsample(DownsampleStrategy.FIT_CENTER)
+                .fitCenter()
+                .listener(statsListener)
+                .into(view);
+    }
+
+    /**
+     * Cancels any pending load for the view and frees its pooled bitmap
+     */
+    public static void clear(ImageView view) {
+        Glide.with(view).clear(view);
+    }
+
+    /**
+     * Cache-hit counters for all loads made through this class
+     */
+    public static ImageCacheStats getStats() {
+        return stats;
+    }
+
+    static void recordSource(DataSource dataSource) {
+        switch (dataSource) {
+            case MEMORY_CACHE:
+                stats.recordMemoryHit();
+                break;
+            case DATA_DISK_CACHE:
+            case RESOURCE_DISK_CACHE:
+                stats.recordDiskHit();
+                break;
+            case REMOTE:
+                stats.recordNetworkLoad();
+                break;
+            case LOCAL:
+            default:
+                stats.recordLocalLoad();
+                break;
+        }
+    }
+}
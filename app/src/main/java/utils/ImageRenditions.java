@@ -0,0 +1,81 @@
+package utils;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import java.io.ByteArrayOutputStream;
+
+import models.EmotionEntry;
+
+/**
+ * Utility class to generate downscaled renditions of entry images before upload
+ */
+public class ImageRenditions {
+
+    private static final int JPEG_QUALITY = 80;
+
+    private ImageRenditions() {
+    }
+
+    /**
+     * Small rendition, sized for thumbnails in lists and entry screens
+     */
+    public static byte[] createSmall(byte[] original) {
+        return createRendition(original, EmotionEntry.SMALL_RENDITION_PX);
+    }
+
+    /**
+     * Medium rendition, sized for larger previews
+     */
+    public static byte[] createMedium(byte[] original) {
+        return createRendition(original, EmotionEntry.MEDIUM_RENDITION_PX);
+    }
+
+    /**
+     * Decodes the original at the smallest power-of-two sample size that still
+     * covers maxEdgePx, scales it down to fit and re-encodes it as JPEG.
+     * Returns the original bytes if the image is already small enough or cannot be decoded.
+     */
+    public static byte[] createRendition(byte[] original, int maxEdgePx) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(original, 0, original.length, bounds);
+
+        int width = bounds.outWidth;
+        int height = bounds.outHeight;
+        if (width <= 0 || height <= 0 || Math.max(width, height) <= maxEdgePx) {
+            return original;
+        }
+
+        // Sample down while the decoded image still covers the target edge
+        int sampleSize = 1;
+        while (Math.max(width, height) / (sampleSize * 2) >= maxEdgePx) {
+            sampleSize *= 2;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        Bitmap sampled = BitmapFactory.decodeByteArray(original, 0, original.length, options);
+        if (sampled == null) {
+            return original;
+        }
+
+        float scale = (float) maxEdgePx / Math.max(sampled.getWidth(), sampled.getHeight());
+        Bitmap scaled = sampled;
+        if (scale < 1f) {
+            int targetWidth = Math.max(1, Math.round(sampled.getWidth() * scale));
+            int targetHeight = Math.max(1, Math.round(sampled.getHeight() * scale));
+            scaled = Bitmap.createScaledBitmap(sampled, targetWidth, targetHeight, true);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        scaled.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+
+        if (scaled != sampled) {
+            scaled.recycle();
+        }
+        sampled.recycle();
+
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,63 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * OrphanImageSweeper gateway over a local directory laid out like the bucket
+ * (e.g. a downloaded copy of images/), for offline admin runs and testing.
+ * Page tokens are offsets into the sorted directory listing.
+ */
+public class LocalStorageGateway implements OrphanImageSweeper.StorageGateway {
+
+    private final File root;
+
+    public LocalStorageGateway(File root) {
+        this.root = root;
+    }
+
+    @Override
+    public OrphanImageSweeper.ListPage list(String prefix, String pageToken, int pageSize) {
+        File dir = new File(root, prefix);
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return new OrphanImageSweeper.ListPage(new ArrayList<>(), new ArrayList<>(), null);
+        }
+        Arrays.sort(children);
+
+        List<OrphanImageSweeper.StoredObject> items = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+
+        int offset = pageToken == null ? 0 : Integer.parseInt(pageToken);
+        int end = Math.min(children.length, offset + pageSize);
+        for (int i = offset; i < end; i++) {
+            String path = prefix + "/" + children[i].getName();
+            if (children[i].isDirectory()) {
+                prefixes.add(path);
+            } else {
+                // A downloaded copy has fresh mtimes, so trust the upload time in the name first
+                long createdMillis = OrphanImageSweeper.timestampFromName(path);
+                if (createdMillis <= 0) {
+                    createdMillis = children[i].lastModified();
+                }
+                items.add(new OrphanImageSweeper.StoredObject(path, createdMillis));
+            }
+        }
+
+        String nextPageToken = end < children.length ? String.valueOf(end) : null;
+        return new OrphanImageSweeper.ListPage(items, prefixes, nextPageToken);
+    }
+
+    @Override
+    public void delete(List<String> paths) throws IOException {
+        for (String path : paths) {
+            File file = new File(root, path);
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Could not delete " + file);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package utils;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * App-wide Glide configuration: the single image loader used by every screen.
+ * Sets up a size-bounded LRU memory cache, a bitmap pool and an on-disk cache
+ * with a fixed eviction budget.
+ */
+@GlideModule
+public final class MindfulJotGlideModule extends AppGlideModule {
+
+    private static final String DISK_CACHE_DIR = "image_cache";
+    private static final long DISK_CACHE_BYTES = 100L * 1024 * 1024; // 100 MB
+
+    // Screens worth of pixels held by the memory cache and the bitmap pool
+    private static final float MEMORY_CACHE_SCREENS = 2f;
+    private static final float BITMAP_POOL_SCREENS = 3f;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(MEMORY_CACHE_SCREENS)
+                .setBitmapPoolScreens(BITMAP_POOL_SCREENS)
+                .build();
+
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_DIR, DISK_CACHE_BYTES));
+
+        // Thumbnails are photos without transparency, so 16-bit is plenty and halves memory
+        builder.setDefaultRequestOptions(new RequestOptions()
+                .format(DecodeFormat.PREFER_RGB_565)
+                .diskCacheStrategy(DiskCacheStrategy.AUTOMATIC));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        // No legacy manifest modules; skip the parsing cost at startup
+        return false;
+    }
+}
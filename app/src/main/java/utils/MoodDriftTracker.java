@@ -0,0 +1,78 @@
+package utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import analytics.MoodDriftDetector;
+import models.EmotionEntry;
+
+/**
+ * Feeds every newly saved entry to the user's MoodDriftDetector and keeps its
+ * state in SharedPreferences, so Home can check for drift on open without
+ * loading any entries.
+ */
+public class MoodDriftTracker implements FirebaseHelper.EntryChangeListener {
+    private static MoodDriftTracker instance;
+
+    // After the user dismisses the message it stays hidden this long
+    private static final long DISMISS_MS = 3L * 24 * 60 * 60 * 1000;
+
+    private final SharedPreferences prefs;
+
+    private MoodDriftTracker(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences("UserPrefs", Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Also starts listening for saved entries, so call it before entries can be saved
+     */
+    public static synchronized MoodDriftTracker getInstance(Context context) {
+        if (instance == null) {
+            instance = new MoodDriftTracker(context);
+            FirebaseHelper.getInstance().addEntryChangeListener(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Drift to tell the user about: none while the message is dismissed
+     */
+    public MoodDriftDetector.Drift getDriftToShow(String userId) {
+        if (System.currentTimeMillis() - prefs.getLong(dismissedKey(userId), 0) < DISMISS_MS) {
+            return MoodDriftDetector.Drift.NONE;
+        }
+        return load(userId).getDrift();
+    }
+
+    public void dismiss(String userId) {
+        prefs.edit().putLong(dismissedKey(userId), System.currentTimeMillis()).apply();
+    }
+
+    @Override
+    public void onEntrySaved(EmotionEntry entry) {
+        if (entry.getUserId() == null || entry.getTimestamp() == null) {
+            return;
+        }
+        MoodDriftDetector detector = load(entry.getUserId());
+        if (detector.update(entry.getEmotions(), entry.getTimestamp().getTime())) {
+            prefs.edit().putString(stateKey(entry.getUserId()), detector.encode()).apply();
+        }
+    }
+
+    @Override
+    public void onEntryDeleted(EmotionEntry entry) {
+        // Averages can't take an entry back out; the next entries outweigh it soon enough
+    }
+
+    private MoodDriftDetector load(String userId) {
+        return MoodDriftDetector.decode(prefs.getString(stateKey(userId), null));
+    }
+
+    private static String stateKey(String userId) {
+        return "moodDrift_" + userId;
+    }
+
+    private static String dismissedKey(String userId) {
+        return "moodDriftDismissed_" + userId;
+    }
+}
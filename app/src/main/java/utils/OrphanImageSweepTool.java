@@ -0,0 +1,54 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Command-line entry point for running the orphaned image sweep offline against
+ * a local copy of the storage bucket.
+ *
+ * Usage: OrphanImageSweepTool <bucketDir> <referencedUrlsFile> <prefix> [--delete] [--grace-hours N]
+ *
+ * referencedUrlsFile holds one image download URL per line (every imageUrls,
+ * imageSmallUrls and imageMediumUrls value from the database export).
+ * Without --delete the sweep is a dry run that only reports what it would remove.
+ */
+public class OrphanImageSweepTool {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: OrphanImageSweepTool <bucketDir> <referencedUrlsFile> <prefix>"
+                    + " [--delete] [--grace-hours N]");
+            System.exit(2);
+        }
+
+        File bucketDir = new File(args[0]);
+        Set<String> referenced = OrphanImageSweeper.referencedPaths(readLines(new File(args[1])));
+        String prefix = args[2];
+
+        boolean delete = false;
+        long graceMillis = OrphanImageSweeper.DEFAULT_GRACE_MILLIS;
+        for (int i = 3; i < args.length; i++) {
+            if ("--delete".equals(args[i])) {
+                delete = true;
+            } else if ("--grace-hours".equals(args[i]) && i + 1 < args.length) {
+                graceMillis = Long.parseLong(args[++i]) * 60 * 60 * 1000;
+            }
+        }
+
+        OrphanImageSweeper sweeper = new OrphanImageSweeper(new LocalStorageGateway(bucketDir));
+        sweeper.setGraceMillis(graceMillis);
+        sweeper.setDryRun(!delete);
+
+        OrphanImageSweeper.SweepResult result = sweeper.sweep(prefix, referenced, System.currentTimeMillis());
+        System.out.println((delete ? "" : "[dry run] ") + result);
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+}
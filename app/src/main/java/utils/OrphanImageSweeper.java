@@ -0,0 +1,288 @@
+package utils;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds and deletes stored images that no entry references any more.
+ *
+ * Walks a storage prefix (e.g. images/{uid}) page by page, compares every object
+ * against the set of paths still referenced by the user's entries, and deletes the
+ * unreferenced ones in batches. Objects younger than the grace period are kept,
+ * because images are uploaded before the entry that references them is saved.
+ *
+ * Storage access goes through StorageGateway, so the same sweep runs against
+ * Firebase Storage on the device or against a local copy for offline admin runs.
+ * This class has no Android dependencies.
+ */
+public class OrphanImageSweeper {
+
+    public static final long DEFAULT_GRACE_MILLIS = 24L * 60 * 60 * 1000;
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_BATCH_SIZE = 20;
+
+    // Upload names look like image_<epochMillis>[_<n>].jpg
+    private static final Pattern TIMESTAMP_IN_NAME = Pattern.compile("image_(\\d{10,})");
+
+    /**
+     * A stored object as seen by the sweep
+     */
+    public static class StoredObject {
+        private final String path;
+        private final long createdMillis;
+
+        public StoredObject(String path, long createdMillis) {
+            this.path = path;
+            this.createdMillis = createdMillis;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getCreatedMillis() {
+            return createdMillis;
+        }
+    }
+
+    /**
+     * One page of a listing: objects directly under the prefix, sub-prefixes,
+     * and the token for the next page (null when done)
+     */
+    public static class ListPage {
+        private final List<StoredObject> items;
+        private final List<String> prefixes;
+        private final String nextPageToken;
+
+        public ListPage(List<StoredObject> items, List<String> prefixes, String nextPageToken) {
+            this.items = items;
+            this.prefixes = prefixes;
+            this.nextPageToken = nextPageToken;
+        }
+
+        public List<StoredObject> getItems() {
+            return items;
+        }
+
+        public List<String> getPrefixes() {
+            return prefixes;
+        }
+
+        public String getNextPageToken() {
+            return nextPageToken;
+        }
+    }
+
+    /**
+     * Blocking access to a storage bucket. Called from a background thread.
+     */
+    public interface StorageGateway {
+        ListPage list(String prefix, String pageToken, int pageSize) throws Exception;
+
+        void delete(List<String> paths) throws Exception;
+    }
+
+    /**
+     * Counts describing one sweep
+     */
+    public static class SweepResult {
+        private int scanned;
+        private int orphaned;
+        private int keptInGracePeriod;
+        private int deleted;
+        private int failedDeletes;
+
+        public int getScanned() {
+            return scanned;
+        }
+
+        public int getOrphaned() {
+            return orphaned;
+        }
+
+        public int getKeptInGracePeriod() {
+            return keptInGracePeriod;
+        }
+
+        public int getDeleted() {
+            return deleted;
+        }
+
+        public int getFailedDeletes() {
+            return failedDeletes;
+        }
+
+        @Override
+        public String toString() {
+            return "scanned=" + scanned + " orphaned=" + orphaned
+                    + " keptInGracePeriod=" + keptInGracePeriod
+                    + " deleted=" + deleted + " failedDeletes=" + failedDeletes;
+        }
+    }
+
+    private final StorageGateway gateway;
+    private long graceMillis = DEFAULT_GRACE_MILLIS;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean dryRun = false;
+
+    public OrphanImageSweeper(StorageGateway gateway) {
+        this.gateway = gateway;
+    }
+
+    public void setGraceMillis(long graceMillis) {
+        this.graceMillis = graceMillis;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * When true, orphans are counted but nothing is deleted
+     */
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    /**
+     * Sweeps everything under rootPrefix, including nested prefixes
+     * (e.g. the small/ and medium/ rendition folders)
+     *
+     * @param referencedPaths storage paths still referenced by entries
+     * @param nowMillis       current time, used for the grace period
+     */
+    public SweepResult sweep(String rootPrefix, Set<String> referencedPaths, long nowMillis) throws Exception {
+        SweepResult result = new SweepResult();
+        List<String> pendingDeletes = new ArrayList<>();
+
+        Deque<String> prefixes = new ArrayDeque<>();
+        prefixes.add(rootPrefix);
+
+        while (!prefixes.isEmpty()) {
+            String prefix = prefixes.poll();
+            String pageToken = null;
+
+            do {
+                ListPage page = gateway.list(prefix, pageToken, pageSize);
+
+                for (StoredObject object : page.getItems()) {
+                    result.scanned++;
+                    if (referencedPaths.contains(object.getPath())) {
+                        continue;
+                    }
+
+                    result.orphaned++;
+                    long createdMillis = object.getCreatedMillis() > 0
+                            ? object.getCreatedMillis()
+                            : timestampFromName(object.getPath());
+                    if (createdMillis <= 0 || nowMillis - createdMillis < graceMillis) {
+                        // Too new (or age unknown): its entry may not be saved yet
+                        result.keptInGracePeriod++;
+                        continue;
+                    }
+
+                    pendingDeletes.add(object.getPath());
+                    if (pendingDeletes.size() >= batchSize) {
+                        flushDeletes(pendingDeletes, result);
+                    }
+                }
+
+                prefixes.addAll(page.getPrefixes());
+                pageToken = page.getNextPageToken();
+            } while (pageToken != null);
+        }
+
+        flushDeletes(pendingDeletes, result);
+        return result;
+    }
+
+    private void flushDeletes(List<String> pendingDeletes, SweepResult result) {
+        if (pendingDeletes.isEmpty()) {
+            return;
+        }
+        if (dryRun) {
+            pendingDeletes.clear();
+            return;
+        }
+
+        List<String> batch = new ArrayList<>(pendingDeletes);
+        pendingDeletes.clear();
+        try {
+            gateway.delete(batch);
+            result.deleted += batch.size();
+        } catch (Exception e) {
+            // Leave them for the next sweep
+            result.failedDeletes += batch.size();
+        }
+    }
+
+    /**
+     * Collects the storage paths referenced by a set of download URLs.
+     * URLs that are not Firebase Storage download URLs are ignored.
+     */
+    public static Set<String> referencedPaths(Collection<String> downloadUrls) {
+        Set<String> paths = new HashSet<>();
+        for (String url : downloadUrls) {
+            String path = storagePathFromDownloadUrl(url);
+            if (path != null) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Extracts the object path from a Firebase Storage download URL, e.g.
+     * https://firebasestorage.googleapis.com/v0/b/bucket/o/images%2Fuid%2Fimage_1.jpg?alt=media&token=...
+     * becomes images/uid/image_1.jpg
+     */
+    public static String storagePathFromDownloadUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        int start = url.indexOf("/o/");
+        if (start < 0) {
+            return null;
+        }
+        start += 3;
+        int end = url.indexOf('?', start);
+        String encoded = end < 0 ? url.substring(start) : url.substring(start, end);
+        if (encoded.isEmpty()) {
+            return null;
+        }
+        try {
+            return URLDecoder.decode(encoded, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Upload time encoded in our file names, or -1 if the name has none
+     */
+    public static long timestampFromName(String path) {
+        Matcher matcher = TIMESTAMP_IN_NAME.matcher(path);
+        if (matcher.find()) {
+            try {
+                return Long.parseLong(matcher.group(1));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,241 @@
+package utils;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import models.EmotionEntry;
+
+/**
+ * Warms the image cache with entry thumbnails ahead of the scroll position.
+ *
+ * Attach to a RecyclerView backed by a list of EmotionEntry objects whose rows show the
+ * entry's first image through ImageLoader.loadThumbnail at thumbnailSizePx. While the user
+ * scrolls, the next itemsAhead entries in the scroll direction have that same thumbnail
+ * preloaded, so scrolling to them shows images without placeholders.
+ * Prefetching is skipped and outstanding requests are cancelled during fast flings, and is
+ * capped by a memory budget (how many thumbnails may be held ahead) and a bandwidth budget
+ * (a token bucket of estimated bytes per second).
+ */
+public class ThumbnailPrefetcher extends RecyclerView.OnScrollListener {
+
+    public static final int DEFAULT_ITEMS_AHEAD = 6;
+
+    // Scroll distance per frame above which we treat the gesture as a fling
+    private static final int DEFAULT_FLING_THRESHOLD_PX = 120;
+
+    // Rough size of one small rendition on the wire; used for bandwidth accounting
+    private static final long ESTIMATED_THUMBNAIL_BYTES = 40 * 1024;
+
+    private static final long DEFAULT_MEMORY_BUDGET_BYTES = 4L * 1024 * 1024;
+    private static final long DEFAULT_BANDWIDTH_BYTES_PER_SECOND = 256 * 1024;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private final Context context;
+    private final List<EmotionEntry> entries;
+    private final int thumbnailSizePx;
+
+    private int itemsAhead = DEFAULT_ITEMS_AHEAD;
+    private int flingThresholdPx = DEFAULT_FLING_THRESHOLD_PX;
+    private long memoryBudgetBytes = DEFAULT_MEMORY_BUDGET_BYTES;
+    private long bandwidthBytesPerSecond = DEFAULT_BANDWIDTH_BYTES_PER_SECOND;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+    // Token bucket for the bandwidth budget
+    private double availableBytes = DEFAULT_BANDWIDTH_BYTES_PER_SECOND;
+    private long lastRefillMillis = SystemClock.elapsedRealtime();
+
+    private final Set<String> prefetchedUrls = new HashSet<>();
+    private final Map<String, Target<Drawable>> inFlight = new HashMap<>();
+    private int lastDirection = 1;
+
+    public ThumbnailPrefetcher(Context context, List<EmotionEntry> entries, int thumbnailSizePx) {
+        this.context = context;
+        this.entries = entries;
+        this.thumbnailSizePx = thumbnailSizePx;
+    }
+
+    public void setItemsAhead(int itemsAhead) {
+        this.itemsAhead = Math.max(0, itemsAhead);
+    }
+
+    public void setFlingThresholdPx(int flingThresholdPx) {
+        this.flingThresholdPx = flingThresholdPx;
+    }
+
+    public void setMemoryBudgetBytes(long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    public void setBandwidthBytesPerSecond(long bandwidthBytesPerSecond) {
+        this.bandwidthBytesPerSecond = bandwidthBytesPerSecond;
+        this.availableBytes = Math.min(availableBytes, bandwidthBytesPerSecond);
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy == 0) {
+            return;
+        }
+
+        if (Math.abs(dy) > flingThresholdPx) {
+            // Flinging: whatever we'd fetch now will be off screen before it arrives
+            cancelAll();
+            return;
+        }
+
+        lastDirection = dy > 0 ? 1 : -1;
+        prefetch(recyclerView);
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            // Fling settled; fill in around the new position
+            prefetch(recyclerView);
+        }
+    }
+
+    /**
+     * Prefetches from the current visible window in the last scroll direction.
+     * Call after the adapter data changes to warm the first screen's neighbours.
+     */
+    public void prefetch(RecyclerView recyclerView) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager) || entries.isEmpty()) {
+            return;
+        }
+
+        LinearLayoutManager linearLayoutManager = (LinearLayoutManager) layoutManager;
+        int first = linearLayoutManager.findFirstVisibleItemPosition();
+        int last = linearLayoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION || last == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        int window = Math.min(itemsAhead, maxItemsForMemoryBudget());
+        if (lastDirection > 0) {
+            for (int position = last + 1; position <= last + window && position < entries.size(); position++) {
+                if (!prefetchEntry(entries.get(position))) {
+                    return;
+                }
+            }
+        } else {
+            for (int position = first - 1; position >= first - window && position >= 0; position--) {
+                if (!prefetchEntry(entries.get(position))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels every outstanding prefetch request
+     */
+    public void cancelAll() {
+        for (Map.Entry<String, Target<Drawable>> request : new ArrayList<>(inFlight.entrySet())) {
+            if (request.getValue() != null) {
+                ImageLoader.cancel(context, request.getValue());
+            }
+            // Cancelled before it arrived, so it may be fetched again later
+            prefetchedUrls.remove(request.getKey());
+        }
+        inFlight.clear();
+    }
+
+    /**
+     * Forgets which URLs were prefetched, e.g. after the list is reloaded
+     */
+    public void reset() {
+        cancelAll();
+        prefetchedUrls.clear();
+    }
+
+    // Returns false once a budget is exhausted so the caller stops walking the list
+    private boolean prefetchEntry(EmotionEntry entry) {
+        if (entry.getImageUrls() == null || entry.getImageUrls().isEmpty()) {
+            return true;
+        }
+
+        // Only the image the row shows, as the same String model and size it loads
+        String url = entry.getImageUrlForSize(0, thumbnailSizePx);
+        if (url == null || url.isEmpty() || prefetchedUrls.contains(url)) {
+            return true;
+        }
+
+        if (inFlight.size() >= maxInFlight || !takeBandwidth()) {
+            return false;
+        }
+
+        prefetchedUrls.add(url);
+        // Mark in flight before starting: memory-cache hits complete synchronously
+        inFlight.put(url, null);
+        Target<Drawable> target = ImageLoader.preloadThumbnail(context, url, thumbnailSizePx,
+                new RequestListener<Drawable>() {
+                    @Override
+                    public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                                @NonNull Target<Drawable> target, boolean isFirstResource) {
+                        // Allow a retry on a later scroll
+                        prefetchedUrls.remove(url);
+                        inFlight.remove(url);
+                        return false;
+                    }
+
+                    @Override
+                    public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model,
+                                                   Target<Drawable> target, @NonNull DataSource dataSource,
+                                                   boolean isFirstResource) {
+                        inFlight.remove(url);
+                        return false;
+                    }
+                });
+
+        if (inFlight.containsKey(url)) {
+            inFlight.put(url, target);
+        }
+        return true;
+    }
+
+    private int maxItemsForMemoryBudget() {
+        // Decoded as RGB_565, so two bytes per pixel; one image per entry
+        long bytesPerEntry = (long) thumbnailSizePx * thumbnailSizePx * 2;
+        if (bytesPerEntry <= 0) {
+            return itemsAhead;
+        }
+        return (int) Math.max(1, memoryBudgetBytes / bytesPerEntry);
+    }
+
+    private boolean takeBandwidth() {
+        long now = SystemClock.elapsedRealtime();
+        double refill = (now - lastRefillMillis) * bandwidthBytesPerSecond / 1000.0;
+        availableBytes = Math.min(bandwidthBytesPerSecond, availableBytes + refill);
+        lastRefillMillis = now;
+
+        if (availableBytes < ESTIMATED_THUMBNAIL_BYTES) {
+            return false;
+        }
+        availableBytes -= ESTIMATED_THUMBNAIL_BYTES;
+        return true;
+    }
+}
@@ -0,0 +1,445 @@
+package utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Zoomable image view that never decodes more than it can show.
+ *
+ * Content arrives in stages, each drawn as soon as it is available:
+ * a preview drawable (the cached, center-cropped thumbnail), a screen-sized base
+ * bitmap (the medium rendition, or a subsampled decode of the original), and the
+ * original file itself. Once the original is set, zooming past the base bitmap's
+ * resolution decodes only the visible part of the original in tiles with
+ * BitmapRegionDecoder, at the power-of-two sample size matching the zoom level.
+ * Tiles live in a byte-bounded LRU cache, so memory stays roughly constant
+ * whatever the source resolution.
+ */
+public class TiledImageView extends View {
+
+    private static final String TAG = "TiledImageView";
+
+    // Tile edge in decoded pixels
+    private static final int TILE_SIZE = 512;
+
+    private static final int MAX_TILE_CACHE_BYTES = 24 * 1024 * 1024;
+
+    // How far past 1:1 on the original the user may zoom
+    private static final float MAX_ZOOM_PAST_ORIGINAL = 2f;
+    private static final float DOUBLE_TAP_ZOOM = 3f;
+
+    private static final float SQRT_2 = 1.4142f;
+
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final ExecutorService decodeExecutor = Executors.newSingleThreadExecutor();
+
+    private final LruCache<String, Bitmap> tileCache;
+    private final int tileCacheBytes;
+    private final Set<String> pendingTiles = new HashSet<>();
+
+    private final ScaleGestureDetector scaleDetector;
+    private final GestureDetector gestureDetector;
+
+    private Drawable preview;
+    private Bitmap base;
+    private boolean ownsBase;
+    private BitmapRegionDecoder decoder;
+
+    // Content size in source pixels (the original's size once known)
+    private int contentWidth;
+    private int contentHeight;
+
+    // View pixels per source pixel, and where the content origin sits in the view.
+    // Scale is also read by the decode thread to drop stale tile requests.
+    private volatile float scale = 1f;
+    private float translateX;
+    private float translateY;
+    private float minScale;
+    private boolean zoomed;
+
+    private final Rect tileRect = new Rect();
+    private final RectF drawRect = new RectF();
+
+    private volatile boolean released;
+
+    public TiledImageView(Context context) {
+        this(context, null);
+    }
+
+    public TiledImageView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+
+        tileCacheBytes = (int) Math.min(MAX_TILE_CACHE_BYTES, Runtime.getRuntime().maxMemory() / 8);
+        tileCache = new LruCache<String, Bitmap>(tileCacheBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap tile) {
+                return tile.getByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldTile, Bitmap newTile) {
+                // Tiles are only touched on the main thread, so nothing is drawing it now
+                oldTile.recycle();
+            }
+        };
+
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                zoomAround(scale * detector.getScaleFactor(), detector.getFocusX(), detector.getFocusY());
+                return true;
+            }
+        });
+
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onScroll(MotionEvent e1, @NonNull MotionEvent e2, float distanceX, float distanceY) {
+                translateX -= distanceX;
+                translateY -= distanceY;
+                clampTranslation();
+                invalidate();
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(@NonNull MotionEvent e) {
+                float target = scale > minScale * 1.01f ? minScale : minScale * DOUBLE_TAP_ZOOM;
+                zoomAround(target, e.getX(), e.getY());
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Shows a placeholder until better content arrives. The drawable is assumed
+     * to be a center-cropped square of the image, as entry thumbnails are.
+     */
+    public void setPreview(@Nullable Drawable preview) {
+        this.preview = preview;
+        if (preview != null && contentWidth == 0) {
+            setContentSize(preview.getIntrinsicWidth(), preview.getIntrinsicHeight());
+        }
+        invalidate();
+    }
+
+    /**
+     * Shows a screen-sized version of the whole image. The bitmap belongs to the
+     * caller (e.g. Glide) and is only drawn; pass null when it is released.
+     */
+    public void setBaseBitmap(@Nullable Bitmap bitmap) {
+        replaceBase(bitmap, false);
+        if (bitmap != null && decoder == null) {
+            // Until the original is open this is the best idea of the aspect ratio
+            setContentSize(bitmap.getWidth(), bitmap.getHeight());
+        }
+        invalidate();
+    }
+
+    /**
+     * Opens the original for region decoding. If no base bitmap has been set,
+     * a subsampled copy that fits the view is decoded from it.
+     */
+    public void setImageFile(File file) {
+        if (released) {
+            return;
+        }
+        decodeExecutor.execute(() -> {
+            try {
+                BitmapRegionDecoder opened = openDecoder(file);
+                Bitmap decodedBase = null;
+                if (base == null) {
+                    decodedBase = decodeFittedBase(opened);
+                }
+                Bitmap finalBase = decodedBase;
+                post(() -> onDecoderReady(opened, finalBase));
+            } catch (IOException e) {
+                Log.w(TAG, "Could not open " + file, e);
+            }
+        });
+    }
+
+    /**
+     * Frees the decoder and all tiles. Call when the hosting screen is destroyed.
+     */
+    public void release() {
+        released = true;
+        decodeExecutor.shutdownNow();
+        tileCache.evictAll();
+        pendingTiles.clear();
+        replaceBase(null, false);
+        preview = null;
+        if (decoder != null) {
+            decoder.recycle();
+            decoder = null;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static BitmapRegionDecoder openDecoder(File file) throws IOException {
+        // newInstance(String) only exists from API 31
+        return BitmapRegionDecoder.newInstance(file.getAbsolutePath(), false);
+    }
+
+    private Bitmap decodeFittedBase(BitmapRegionDecoder regionDecoder) {
+        int width = regionDecoder.getWidth();
+        int height = regionDecoder.getHeight();
+        int maxEdge = Math.max(Math.max(getWidth(), getHeight()), 1);
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = Bitmap.Config.RGB_565;
+        options.inSampleSize = 1;
+        while (Math.max(width, height) / (options.inSampleSize * 2) >= maxEdge) {
+            options.inSampleSize *= 2;
+        }
+        return regionDecoder.decodeRegion(new Rect(0, 0, width, height), options);
+    }
+
+    private void onDecoderReady(BitmapRegionDecoder opened, @Nullable Bitmap decodedBase) {
+        if (released) {
+            opened.recycle();
+            if (decodedBase != null) {
+                decodedBase.recycle();
+            }
+            return;
+        }
+        decoder = opened;
+        if (decodedBase != null && base == null) {
+            replaceBase(decodedBase, true);
+        } else if (decodedBase != null) {
+            decodedBase.recycle();
+        }
+        setContentSize(opened.getWidth(), opened.getHeight());
+        invalidate();
+    }
+
+    private void replaceBase(@Nullable Bitmap bitmap, boolean owned) {
+        if (base != null && ownsBase && base != bitmap) {
+            base.recycle();
+        }
+        base = bitmap;
+        ownsBase = owned;
+    }
+
+    /**
+     * Switches to new content dimensions. If the user has zoomed, the current
+     * view of the image is kept; otherwise the image is refitted to the view.
+     */
+    private void setContentSize(int width, int height) {
+        if (width <= 0 || height <= 0 || (width == contentWidth && height == contentHeight)) {
+            return;
+        }
+        int oldWidth = contentWidth;
+        contentWidth = width;
+        contentHeight = height;
+
+        if (zoomed && oldWidth > 0) {
+            // Same on-screen size, finer coordinates
+            scale = scale * oldWidth / width;
+            minScale = fitScale();
+            clampTranslation();
+        } else {
+            resetToFit();
+        }
+    }
+
+    private float fitScale() {
+        if (contentWidth == 0 || getWidth() == 0) {
+            return 1f;
+        }
+        return Math.min((float) getWidth() / contentWidth, (float) getHeight() / contentHeight);
+    }
+
+    private void resetToFit() {
+        minScale = fitScale();
+        scale = minScale;
+        zoomed = false;
+        clampTranslation();
+    }
+
+    private float maxScale() {
+        if (decoder == null) {
+            // Nothing sharper than the base to zoom into yet
+            return minScale * DOUBLE_TAP_ZOOM;
+        }
+        return Math.max(minScale * DOUBLE_TAP_ZOOM, MAX_ZOOM_PAST_ORIGINAL);
+    }
+
+    private void zoomAround(float targetScale, float focusX, float focusY) {
+        float newScale = Math.max(minScale, Math.min(targetScale, maxScale()));
+        translateX = focusX - (focusX - translateX) * newScale / scale;
+        translateY = focusY - (focusY - translateY) * newScale / scale;
+        scale = newScale;
+        zoomed = scale > minScale * 1.01f;
+        clampTranslation();
+        invalidate();
+    }
+
+    // Center content smaller than the view, otherwise keep its edges outside the view
+    private void clampTranslation() {
+        float shownWidth = contentWidth * scale;
+        float shownHeight = contentHeight * scale;
+        if (shownWidth <= getWidth()) {
+            translateX = (getWidth() - shownWidth) / 2f;
+        } else {
+            translateX = Math.min(0, Math.max(getWidth() - shownWidth, translateX));
+        }
+        if (shownHeight <= getHeight()) {
+            translateY = (getHeight() - shownHeight) / 2f;
+        } else {
+            translateY = Math.min(0, Math.max(getHeight() - shownHeight, translateY));
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+
+        // The cache must at least hold one screen of tiles, or drawing would evict
+        // tiles it is about to draw and keep re-decoding them
+        long tileBytes = (long) TILE_SIZE * TILE_SIZE * 2;
+        long tilesPerScreen = (long) (Math.ceil(w * SQRT_2 / TILE_SIZE) + 1) * (long) (Math.ceil(h * SQRT_2 / TILE_SIZE) + 1);
+        tileCache.resize((int) Math.max(tileCacheBytes, tilesPerScreen * tileBytes));
+
+        resetToFit();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean handled = scaleDetector.onTouchEvent(event);
+        handled |= gestureDetector.onTouchEvent(event);
+        return handled || super.onTouchEvent(event);
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (contentWidth == 0) {
+            return;
+        }
+
+        drawRect.set(translateX, translateY,
+                translateX + contentWidth * scale, translateY + contentHeight * scale);
+
+        if (base != null && !base.isRecycled()) {
+            canvas.drawBitmap(base, null, drawRect, bitmapPaint);
+        } else if (preview != null) {
+            drawPreview(canvas);
+        }
+
+        if (decoder != null) {
+            drawTiles(canvas);
+        }
+    }
+
+    // The thumbnail is the centered square of the image, so draw it there
+    private void drawPreview(Canvas canvas) {
+        float side = Math.min(drawRect.width(), drawRect.height());
+        float left = drawRect.centerX() - side / 2f;
+        float top = drawRect.centerY() - side / 2f;
+        preview.setBounds(Math.round(left), Math.round(top), Math.round(left + side), Math.round(top + side));
+        preview.draw(canvas);
+    }
+
+    private void drawTiles(Canvas canvas) {
+        int sampleSize = sampleSizeForScale();
+
+        // The base already shows at least this much detail
+        if (base != null && sampleSize >= (float) contentWidth / base.getWidth()) {
+            return;
+        }
+
+        // Visible part of the content, in source pixels
+        int visibleLeft = (int) Math.max(0, -translateX / scale);
+        int visibleTop = (int) Math.max(0, -translateY / scale);
+        int visibleRight = (int) Math.min(contentWidth, (getWidth() - translateX) / scale);
+        int visibleBottom = (int) Math.min(contentHeight, (getHeight() - translateY) / scale);
+
+        int tileSourceSize = TILE_SIZE * sampleSize;
+        for (int row = visibleTop / tileSourceSize; row * tileSourceSize < visibleBottom; row++) {
+            for (int col = visibleLeft / tileSourceSize; col * tileSourceSize < visibleRight; col++) {
+                tileRect.set(col * tileSourceSize, row * tileSourceSize,
+                        Math.min(contentWidth, (col + 1) * tileSourceSize),
+                        Math.min(contentHeight, (row + 1) * tileSourceSize));
+
+                String key = sampleSize + ":" + col + ":" + row;
+                Bitmap tile = tileCache.get(key);
+                if (tile != null) {
+                    drawRect.set(translateX + tileRect.left * scale, translateY + tileRect.top * scale,
+                            translateX + tileRect.right * scale, translateY + tileRect.bottom * scale);
+                    canvas.drawBitmap(tile, null, drawRect, bitmapPaint);
+                } else {
+                    requestTile(key, new Rect(tileRect), sampleSize);
+                }
+            }
+        }
+    }
+
+    // Power of two nearest to the source pixels per screen pixel, so tiles are
+    // decoded at between 0.7x and 1.4x screen density
+    private int sampleSizeForScale() {
+        int sampleSize = 1;
+        while (sampleSize * 2 <= SQRT_2 / scale) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private void requestTile(String key, Rect region, int sampleSize) {
+        if (!pendingTiles.add(key)) {
+            return;
+        }
+        BitmapRegionDecoder regionDecoder = decoder;
+        decodeExecutor.execute(() -> {
+            // Skip work the user has already zoomed away from
+            if (released || sampleSize != sampleSizeForScale()) {
+                post(() -> pendingTiles.remove(key));
+                return;
+            }
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = sampleSize;
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+            Bitmap tile;
+            try {
+                tile = regionDecoder.decodeRegion(region, options);
+            } catch (IllegalStateException e) {
+                // Decoder was recycled by release() while this was queued
+                return;
+            }
+            post(() -> {
+                pendingTiles.remove(key);
+                if (released || tile == null) {
+                    if (tile != null) {
+                        tile.recycle();
+                    }
+                    return;
+                }
+                tileCache.put(key, tile);
+                invalidate();
+            });
+        });
+    }
+}
@@ -0,0 +1,473 @@
+package utils;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import analytics.DailySeries;
+import analytics.TrendDownsampler;
+import edu.northeastern.numad25sp_group4.R;
+
+/**
+ * Pannable, pinch-zoomable chart of a per-day series: either a line (daily
+ * counts, mean energy) or stacked bars of the emotion category mix.
+ *
+ * The full series is never drawn. Whenever the visible range changes enough,
+ * the part around it is downsampled to about one point per two pixels on a
+ * background thread (LTTB for lines, per-bucket shares for the mix). Results
+ * are kept in day units, so while a pan is in progress the last result is
+ * simply redrawn at the new offset; each frame draws at most a few hundred
+ * segments regardless of how many years the series covers.
+ */
+public class TrendChartView extends View {
+
+    private static final ExecutorService DOWNSAMPLE_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private static final int MIN_VISIBLE_DAYS = 14;
+    private static final int DEFAULT_VISIBLE_DAYS = 365;
+
+    // Downsampled range reaches this many visible spans past each edge, so pans show real data
+    private static final double MARGIN_SPANS = 0.5;
+
+    private static final float POINTS_PER_PX = 0.5f;
+    private static final int MIX_BAR_PX = 4;
+
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint axisPaint = new Paint();
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint barPaint = new Paint();
+    private final int[] bandColors;
+
+    private final DateTimeFormatter labelFormat = DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.getDefault());
+    private final float labelHeight;
+    private final float padding;
+
+    private final ScaleGestureDetector scaleDetector;
+    private final GestureDetector gestureDetector;
+
+    // Source data: either a line series or the daily series for the category mix
+    private double[] xs;
+    private double[] ys;
+    private DailySeries mixSeries;
+    private long firstEpochDay;
+    private int totalDays;
+    private float minValue;
+    private float maxValue;
+
+    // Visible range in days since firstEpochDay
+    private double viewStart;
+    private double viewEnd;
+
+    // Latest downsampled result and the range it covers
+    private float[] pointDays = new float[0];
+    private float[] pointValues = new float[0];
+    private float[][] shares;
+    private int sharesFromDay;
+    private int sharesBucketDays;
+    private double resultStart;
+    private double resultEnd;
+    private double resultSpan;
+    private int generation;
+
+    private float[] lineBuffer = new float[0];
+    private final RectF plot = new RectF();
+
+    // Axis labels only change when the visible start/end day does
+    private long startLabelDay = Long.MIN_VALUE;
+    private long endLabelDay = Long.MIN_VALUE;
+    private String startLabel = "";
+    private String endLabel = "";
+
+    public TrendChartView(Context context) {
+        this(context, null);
+    }
+
+    public TrendChartView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+
+        linePaint.setColor(Color.WHITE);
+        linePaint.setStrokeWidth(2 * density);
+        linePaint.setStrokeCap(Paint.Cap.ROUND);
+        axisPaint.setColor(ContextCompat.getColor(context, R.color.gray));
+        axisPaint.setStrokeWidth(density);
+        labelPaint.setColor(ContextCompat.getColor(context, R.color.gray));
+        labelPaint.setTextSize(11 * getResources().getDisplayMetrics().scaledDensity);
+
+        labelHeight = labelPaint.getFontSpacing();
+        padding = 4 * density;
+
+        // Indexed by Emotion.Category ordinal, same colors as the emotion picker
+        bandColors = new int[]{
+                ContextCompat.getColor(context, R.color.high_energy_pleasant),
+                ContextCompat.getColor(context, R.color.high_energy_unpleasant),
+                ContextCompat.getColor(context, R.color.low_energy_pleasant),
+                ContextCompat.getColor(context, R.color.low_energy_unpleasant)
+        };
+
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                zoomAround(detector.getScaleFactor(), detector.getFocusX());
+                return true;
+            }
+        });
+
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, @NonNull MotionEvent e2, float distanceX, float distanceY) {
+                if (Math.abs(distanceX) > Math.abs(distanceY)) {
+                    // Horizontal drag pans the chart instead of scrolling the page
+                    getParent().requestDisallowInterceptTouchEvent(true);
+                }
+                pan(distanceX);
+                return true;
+            }
+        });
+    }
+
+    public void setLineColor(int color) {
+        linePaint.setColor(color);
+        invalidate();
+    }
+
+    /**
+     * Shows a line through (xs[i], ys[i]), xs being ascending day indexes into a
+     * series of totalDays days starting at firstEpochDay
+     *
+     * @param maxValue top of the value axis, or 0 to use the series maximum
+     */
+    public void setLineData(double[] xs, double[] ys, long firstEpochDay, int totalDays, float maxValue) {
+        float max = maxValue;
+        if (max <= 0) {
+            for (double y : ys) {
+                max = (float) Math.max(max, y);
+            }
+        }
+        setLineData(xs, ys, firstEpochDay, totalDays, 0, Math.max(1f, max));
+    }
+
+    /**
+     * Shows a line as above on a value axis from minValue to maxValue; below
+     * zero, a line marks zero
+     */
+    public void setLineData(double[] xs, double[] ys, long firstEpochDay, int totalDays,
+                            float minValue, float maxValue) {
+        this.xs = xs;
+        this.ys = ys;
+        this.mixSeries = null;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        setRange(firstEpochDay, totalDays);
+    }
+
+    /**
+     * Shows the share of each emotion category as stacked bars
+     */
+    public void setMixData(DailySeries series) {
+        this.xs = null;
+        this.ys = null;
+        this.mixSeries = series;
+        this.minValue = 0f;
+        this.maxValue = 1f;
+        setRange(series.getFirstEpochDay(), series.length());
+    }
+
+    private void setRange(long firstEpochDay, int totalDays) {
+        this.firstEpochDay = firstEpochDay;
+        this.totalDays = totalDays;
+
+        // Most recent year, with today at the right edge
+        double span = Math.max(MIN_VISIBLE_DAYS, Math.min(DEFAULT_VISIBLE_DAYS, totalDays));
+        viewEnd = totalDays;
+        viewStart = totalDays - span;
+
+        pointDays = new float[0];
+        pointValues = new float[0];
+        shares = null;
+        resultSpan = 0;
+        requestDownsample();
+        invalidate();
+    }
+
+    private boolean hasData() {
+        return totalDays > 0 && (mixSeries != null || (xs != null && xs.length > 0));
+    }
+
+    private void pan(float distancePx) {
+        if (!hasData() || plot.width() <= 0) {
+            return;
+        }
+        double span = viewEnd - viewStart;
+        viewStart += distancePx / plot.width() * span;
+        viewEnd = viewStart + span;
+        onViewportChanged();
+    }
+
+    private void zoomAround(float scaleFactor, float focusX) {
+        if (!hasData() || plot.width() <= 0) {
+            return;
+        }
+        double span = viewEnd - viewStart;
+        double maxSpan = Math.max(totalDays, MIN_VISIBLE_DAYS);
+        double newSpan = Math.max(MIN_VISIBLE_DAYS, Math.min(maxSpan, span / scaleFactor));
+        double focusDay = viewStart + (focusX - plot.left) / plot.width() * span;
+
+        viewStart = focusDay - (focusDay - viewStart) * newSpan / span;
+        viewEnd = viewStart + newSpan;
+        onViewportChanged();
+    }
+
+    private void onViewportChanged() {
+        // Keep the data on screen; a short history stays pinned to the right edge
+        double span = viewEnd - viewStart;
+        double lowest = Math.min(0, totalDays - span);
+        double highest = Math.max(0, totalDays - span);
+        viewStart = Math.max(lowest, Math.min(highest, viewStart));
+        viewEnd = viewStart + span;
+
+        if (resultSpan == 0 || viewStart < resultStart || viewEnd > resultEnd
+                || Math.abs(span / resultSpan - 1) > 0.25) {
+            requestDownsample();
+        }
+        invalidate();
+    }
+
+    /**
+     * Downsamples the visible range plus margins on the background thread
+     */
+    private void requestDownsample() {
+        if (!hasData() || plot.width() <= 0) {
+            return;
+        }
+
+        final int requestGeneration = ++generation;
+        final double span = viewEnd - viewStart;
+        final double from = Math.max(0, viewStart - span * MARGIN_SPANS);
+        final double to = Math.min(totalDays, viewEnd + span * MARGIN_SPANS);
+        final float plotWidth = plot.width();
+        final double[] lineXs = xs;
+        final double[] lineYs = ys;
+        final DailySeries series = mixSeries;
+        final int days = totalDays;
+
+        DOWNSAMPLE_EXECUTOR.execute(() -> {
+            if (series != null) {
+                int bucketDays = (int) Math.max(1, Math.ceil(span / (plotWidth / MIX_BAR_PX)));
+                // Align buckets to a fixed grid so bars don't shift while panning
+                int fromDay = (int) (Math.floor(from / bucketDays) * bucketDays);
+                int toDay = (int) Math.min(days, Math.ceil(to));
+                float[][] mix = TrendDownsampler.categoryShares(series, fromDay, toDay, bucketDays);
+                post(() -> {
+                    if (requestGeneration == generation) {
+                        shares = mix;
+                        sharesFromDay = fromDay;
+                        sharesBucketDays = bucketDays;
+                        onResult(from, to, span);
+                    }
+                });
+                return;
+            }
+
+            int fromIndex = lowerBound(lineXs, from - 1);
+            int toIndex = lowerBound(lineXs, to + 1);
+            int threshold = (int) Math.max(3, (to - from) / span * plotWidth * POINTS_PER_PX);
+            int[] kept = TrendDownsampler.lttb(lineXs, lineYs, fromIndex, toIndex, threshold);
+
+            float[] keptDays = new float[kept.length];
+            float[] values = new float[kept.length];
+            for (int i = 0; i < kept.length; i++) {
+                // Plot each day's value in the middle of the day
+                keptDays[i] = (float) lineXs[kept[i]] + 0.5f;
+                values[i] = (float) lineYs[kept[i]];
+            }
+            post(() -> {
+                if (requestGeneration == generation) {
+                    pointDays = keptDays;
+                    pointValues = values;
+                    onResult(from, to, span);
+                }
+            });
+        });
+    }
+
+    private void onResult(double from, double to, double span) {
+        resultStart = from;
+        resultEnd = to;
+        resultSpan = span;
+        invalidate();
+    }
+
+    // First index whose x is >= value
+    private static int lowerBound(double[] values, double value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        plot.set(padding, labelHeight + padding, w - padding, h - labelHeight - padding);
+        requestDownsample();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // Drop results still in flight
+        generation++;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean handled = scaleDetector.onTouchEvent(event);
+        handled |= gestureDetector.onTouchEvent(event);
+
+        int action = event.getActionMasked();
+        if ((action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL)
+                && resultSpan != viewEnd - viewStart) {
+            // Gesture over: redo at the final zoom level so the chart is crisp
+            requestDownsample();
+        }
+        return handled || super.onTouchEvent(event);
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (!hasData()) {
+            labelPaint.setTextAlign(Paint.Align.CENTER);
+            canvas.drawText("Not enough data yet", getWidth() / 2f, getHeight() / 2f, labelPaint);
+            return;
+        }
+
+        canvas.drawLine(plot.left, plot.bottom, plot.right, plot.bottom, axisPaint);
+        if (minValue < 0) {
+            float zero = valueToY(0);
+            canvas.drawLine(plot.left, zero, plot.right, zero, axisPaint);
+        }
+
+        canvas.save();
+        canvas.clipRect(plot);
+        if (mixSeries != null) {
+            drawMix(canvas);
+        } else {
+            drawLine(canvas);
+        }
+        canvas.restore();
+
+        drawLabels(canvas);
+    }
+
+    private float dayToX(double day) {
+        return (float) (plot.left + (day - viewStart) / (viewEnd - viewStart) * plot.width());
+    }
+
+    private void drawLine(Canvas canvas) {
+        int count = pointDays.length;
+        if (count == 1) {
+            canvas.drawCircle(dayToX(pointDays[0]), valueToY(pointValues[0]), linePaint.getStrokeWidth(), linePaint);
+            return;
+        }
+        if (lineBuffer.length < (count - 1) * 4) {
+            lineBuffer = new float[(count - 1) * 4];
+        }
+
+        int used = 0;
+        for (int i = 0; i < count - 1; i++) {
+            float x0 = dayToX(pointDays[i]);
+            float x1 = dayToX(pointDays[i + 1]);
+            if (x1 < plot.left || x0 > plot.right) {
+                continue;
+            }
+            lineBuffer[used++] = x0;
+            lineBuffer[used++] = valueToY(pointValues[i]);
+            lineBuffer[used++] = x1;
+            lineBuffer[used++] = valueToY(pointValues[i + 1]);
+        }
+        canvas.drawLines(lineBuffer, 0, used, linePaint);
+    }
+
+    private float valueToY(float value) {
+        return plot.bottom - (value - minValue) / (maxValue - minValue) * plot.height();
+    }
+
+    private void drawMix(Canvas canvas) {
+        if (shares == null || shares.length == 0) {
+            return;
+        }
+        int buckets = shares[0].length;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int day = sharesFromDay + bucket * sharesBucketDays;
+            float x0 = dayToX(day);
+            float x1 = dayToX(day + sharesBucketDays);
+            if (x1 < plot.left || x0 > plot.right) {
+                continue;
+            }
+
+            float bottom = plot.bottom;
+            for (int c = 0; c < shares.length; c++) {
+                float height = shares[c][bucket] * plot.height();
+                if (height <= 0) {
+                    continue;
+                }
+                barPaint.setColor(bandColors[c]);
+                canvas.drawRect(x0, bottom - height, x1, bottom, barPaint);
+                bottom -= height;
+            }
+        }
+    }
+
+    private void drawLabels(Canvas canvas) {
+        long startDay = firstEpochDay + (long) Math.floor(Math.max(0, viewStart));
+        long endDay = firstEpochDay + (long) Math.ceil(Math.min(totalDays, viewEnd)) - 1;
+        if (startDay != startLabelDay) {
+            startLabelDay = startDay;
+            startLabel = LocalDate.ofEpochDay(startDay).format(labelFormat);
+        }
+        if (endDay != endLabelDay) {
+            endLabelDay = endDay;
+            endLabel = LocalDate.ofEpochDay(endDay).format(labelFormat);
+        }
+
+        float baseline = getHeight() - padding;
+        labelPaint.setTextAlign(Paint.Align.LEFT);
+        canvas.drawText(startLabel, plot.left, baseline, labelPaint);
+        canvas.drawText(mixSeries != null ? "100%" : String.format(Locale.getDefault(), "%.0f", maxValue),
+                plot.left, labelHeight, labelPaint);
+        labelPaint.setTextAlign(Paint.Align.RIGHT);
+        canvas.drawText(endLabel, plot.right, baseline, labelPaint);
+    }
+}
@@ -0,0 +1,108 @@
+package analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import models.Emotion;
+
+public class AnalyticsCacheTest {
+
+    private static final String USER = "user";
+    private static final long VERSION = 7;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void snapshotSurvivesARestart() throws Exception {
+        AnalyticsSnapshot snapshot = saveSnapshot();
+
+        AnalyticsSnapshot reloaded = new AnalyticsCache(cacheFile())
+                .getSnapshot(USER, SyntheticHistory.TODAY, SyntheticHistory.ZONE, VERSION);
+
+        assertNotNull(reloaded);
+        for (Timeframe timeframe : Timeframe.values()) {
+            assertEquals(snapshot.getStats(timeframe).getCheckinCount(),
+                    reloaded.getStats(timeframe).getCheckinCount());
+            assertEquals(snapshot.getStats(timeframe).getMeanSentiment(),
+                    reloaded.getStats(timeframe).getMeanSentiment(), 0);
+            for (Emotion.Category category : Emotion.Category.values()) {
+                assertEquals(snapshot.getStats(timeframe).getMeanSentiment(category),
+                        reloaded.getStats(timeframe).getMeanSentiment(category), 0);
+            }
+        }
+        int today = snapshot.getDailySeries().length() - 1;
+        assertEquals(snapshot.getDailySeries().getMeanSentiment(today),
+                reloaded.getDailySeries().getMeanSentiment(today), 0);
+        assertEquals(snapshot.getStreak(), reloaded.getStreak());
+        assertEquals(snapshot.getDailySeries().length(), reloaded.getDailySeries().length());
+    }
+
+    @Test
+    public void truncatedFileIsAMiss() throws Exception {
+        saveSnapshot();
+        File file = cacheFile();
+        byte[] whole = Files.readAllBytes(file.toPath());
+
+        for (int length = 0; length < whole.length; length += 7) {
+            Files.write(file.toPath(), Arrays.copyOf(whole, length));
+            assertNull("truncated to " + length, load());
+        }
+    }
+
+    @Test
+    public void corruptLengthIsAMiss() throws Exception {
+        saveSnapshot();
+        // The first timeframe's category count: version, user count, user id,
+        // data version, today, zone id, timeframe count, name, start, two counts
+        int offset = 4 + 4 + (2 + USER.length()) + 8 + 8 + (2 + SyntheticHistory.ZONE.getId().length()) + 4
+                + (2 + Timeframe.values()[0].name().length()) + 8 + 4 + 4;
+        for (int length : new int[]{-1, Integer.MAX_VALUE, 1 << 28}) {
+            try (RandomAccessFile file = new RandomAccessFile(cacheFile(), "rw")) {
+                file.seek(offset);
+                file.writeInt(length);
+            }
+            assertNull("length " + length, load());
+        }
+    }
+
+    @Test
+    public void garbageIsAMiss() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(cacheFile()))) {
+            out.writeInt(3);
+            out.writeInt(Integer.MAX_VALUE);
+        }
+        assertNull(load());
+    }
+
+    private AnalyticsSnapshot saveSnapshot() throws Exception {
+        AnalyticsSnapshot snapshot = new AnalyticsEngine(SyntheticHistory.ZONE)
+                .compute(SyntheticHistory.entries(2000, 2, 3), SyntheticHistory.TODAY);
+        AnalyticsCache cache = new AnalyticsCache(cacheFile());
+        cache.put(USER, VERSION, snapshot);
+        cache.awaitSaved();
+        return snapshot;
+    }
+
+    private AnalyticsSnapshot load() {
+        return new AnalyticsCache(cacheFile())
+                .getSnapshot(USER, SyntheticHistory.TODAY, SyntheticHistory.ZONE, VERSION);
+    }
+
+    private File cacheFile() {
+        return new File(folder.getRoot(), "analytics_cache.bin");
+    }
+}
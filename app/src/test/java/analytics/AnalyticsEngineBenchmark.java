@@ -0,0 +1,52 @@
+package analytics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import models.EmotionEntry;
+
+/**
+ * One AnalyticsEngine pass over a 100k-entry history, the size the analytics
+ * screen has to handle without a loading pause. Run main() from the test
+ * classpath (JMH's annotation processor generates the harness).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsEngineBenchmark {
+
+    private List<EmotionEntry> entries;
+    private AnalyticsEngine engine;
+
+    @Setup
+    public void setUp() {
+        entries = SyntheticHistory.entries(100_000, 5, 1);
+        engine = new AnalyticsEngine(SyntheticHistory.ZONE);
+    }
+
+    @Benchmark
+    public AnalyticsSnapshot compute() {
+        return engine.compute(entries, SyntheticHistory.TODAY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AnalyticsEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
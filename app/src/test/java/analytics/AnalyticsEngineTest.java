@@ -0,0 +1,220 @@
+package analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import models.Emotion;
+import models.EmotionEntry;
+
+public class AnalyticsEngineTest {
+
+    private static final LocalDate TODAY = SyntheticHistory.TODAY; // a Wednesday
+    private static final Emotion CALM = new Emotion("Calm", Emotion.Category.LOW_ENERGY_PLEASANT, "", 4);
+    private static final Emotion ANXIOUS = new Emotion("Anxious", Emotion.Category.HIGH_ENERGY_UNPLEASANT, "", 7);
+
+    private final AnalyticsEngine engine = new AnalyticsEngine(SyntheticHistory.ZONE);
+
+    @Test
+    public void emptyHistoryHasNothing() {
+        AnalyticsSnapshot snapshot = engine.compute(Collections.emptyList(), TODAY);
+
+        for (Timeframe timeframe : Timeframe.values()) {
+            assertEquals(0, snapshot.getStats(timeframe).getCheckinCount());
+            assertEquals(0, snapshot.getStats(timeframe).getEmotionCount());
+        }
+        assertEquals(0, snapshot.getStreak());
+        assertFalse(snapshot.isLoggedToday());
+        assertNull(snapshot.getStreakStats().getLongest());
+    }
+
+    @Test
+    public void countsEachTimeframeFromItsStartDate() {
+        List<EmotionEntry> entries = Arrays.asList(
+                SyntheticHistory.entryAt(TODAY, 9, CALM, ANXIOUS),
+                SyntheticHistory.entryAt(LocalDate.of(2026, 3, 15), 23, CALM),   // Sunday, this week
+                SyntheticHistory.entryAt(LocalDate.of(2026, 3, 14), 23, CALM),   // Saturday, last week
+                SyntheticHistory.entryAt(LocalDate.of(2026, 3, 1), 0, ANXIOUS),  // this month
+                SyntheticHistory.entryAt(LocalDate.of(2026, 2, 28), 12, CALM),   // this year
+                SyntheticHistory.entryAt(LocalDate.of(2025, 12, 31), 23, CALM)); // last year
+
+        AnalyticsSnapshot snapshot = engine.compute(entries, TODAY);
+
+        TimeframeStats week = snapshot.getStats(Timeframe.WEEK);
+        assertEquals(2, week.getCheckinCount());
+        assertEquals(3, week.getEmotionCount());
+        assertEquals(2, week.getCategoryCount(Emotion.Category.LOW_ENERGY_PLEASANT));
+        assertEquals(1, week.getCategoryCount(Emotion.Category.HIGH_ENERGY_UNPLEASANT));
+        assertEquals(4, snapshot.getStats(Timeframe.MONTH).getCheckinCount());
+        assertEquals(5, snapshot.getStats(Timeframe.YEAR).getCheckinCount());
+        assertEquals(0, snapshot.getStats(Timeframe.YEAR).getCategoryCount(Emotion.Category.HIGH_ENERGY_PLEASANT));
+    }
+
+    @Test
+    public void sentimentIsAveragedByTheCategoriesPickedWithIt() {
+        EmotionEntry calmAndAnxious = SyntheticHistory.entryAt(TODAY, 9, CALM, ANXIOUS);
+        calmAndAnxious.setSentimentScore(-0.4);
+        EmotionEntry calm = SyntheticHistory.entryAt(TODAY.minusDays(1), 9, CALM);
+        calm.setSentimentScore(0.8);
+        EmotionEntry calmYesterday = SyntheticHistory.entryAt(TODAY.minusDays(1), 20, CALM);
+        calmYesterday.setSentimentScore(0.5);
+        // Never scored, so left out of every mean
+        EmotionEntry unscored = SyntheticHistory.entryAt(TODAY, 10, ANXIOUS);
+
+        AnalyticsSnapshot snapshot = engine.compute(
+                Arrays.asList(calmAndAnxious, calm, calmYesterday, unscored), TODAY);
+
+        TimeframeStats week = snapshot.getStats(Timeframe.WEEK);
+        assertEquals(3, week.getSentimentCount());
+        assertEquals(0.3, week.getMeanSentiment(), 1e-9);
+        assertEquals(3, week.getSentimentCount(Emotion.Category.LOW_ENERGY_PLEASANT));
+        assertEquals(0.3, week.getMeanSentiment(Emotion.Category.LOW_ENERGY_PLEASANT), 1e-9);
+        assertEquals(1, week.getSentimentCount(Emotion.Category.HIGH_ENERGY_UNPLEASANT));
+        assertEquals(-0.4, week.getMeanSentiment(Emotion.Category.HIGH_ENERGY_UNPLEASANT), 1e-9);
+        assertTrue(Double.isNaN(week.getMeanSentiment(Emotion.Category.HIGH_ENERGY_PLEASANT)));
+
+        DailySeries series = snapshot.getDailySeries();
+        int today = series.length() - 1;
+        assertEquals(-0.4, series.getMeanSentiment(today), 1e-9);
+        assertEquals(0.65, series.getMeanSentiment(today - 1), 1e-9);
+        double[][] points = TrendDownsampler.meanSentimentPoints(series);
+        assertEquals(Arrays.asList(today - 1.0, (double) today), Arrays.asList(points[0][0], points[0][1]));
+    }
+
+    @Test
+    public void futureEntriesCountNowhere() {
+        List<EmotionEntry> entries = Arrays.asList(
+                SyntheticHistory.entryAt(TODAY, 8, CALM),
+                SyntheticHistory.entryAt(TODAY.plusDays(AnalyticsEngine.MAX_DAYS_AHEAD + 1), 8, CALM),
+                SyntheticHistory.entryAt(TODAY.plusDays(30), 8, CALM));
+
+        AnalyticsSnapshot snapshot = engine.compute(entries, TODAY);
+
+        assertEquals(1, snapshot.getStats(Timeframe.WEEK).getCheckinCount());
+        assertEquals(1, snapshot.getStreak());
+        assertEquals(TODAY, snapshot.getStreakStats().getLongest().getEnd());
+    }
+
+    @Test
+    public void entriesFromAZoneAheadCountAsToday() {
+        // 22:00 here is already tomorrow in Kiribati, where the entry was written
+        long millis = TODAY.atTime(22, 0).atZone(SyntheticHistory.ZONE).toInstant().toEpochMilli();
+        EmotionEntry ahead = new EmotionEntry("ahead", "user", new Date(millis));
+        ahead.addEmotion(ANXIOUS);
+        ahead.stampLocalTime(ZoneId.of("Pacific/Kiritimati"));
+        assertEquals(TODAY.plusDays(1).toEpochDay(), ahead.getEpochDay());
+
+        AnalyticsSnapshot snapshot = engine.compute(Arrays.asList(
+                SyntheticHistory.entryAt(TODAY.minusDays(1), 8, CALM), ahead), TODAY);
+
+        assertEquals(2, snapshot.getStats(Timeframe.WEEK).getCheckinCount());
+        assertEquals(1, snapshot.getStats(Timeframe.WEEK).getCategoryCount(Emotion.Category.HIGH_ENERGY_UNPLEASANT));
+        assertTrue(snapshot.isLoggedToday());
+        assertEquals(2, snapshot.getStreak());
+    }
+
+    @Test
+    public void streakEndingYesterdayStillCounts() {
+        List<EmotionEntry> entries = new ArrayList<>();
+        for (int daysAgo = 1; daysAgo <= 4; daysAgo++) {
+            entries.add(SyntheticHistory.entryAt(TODAY.minusDays(daysAgo), 20, CALM));
+        }
+        entries.add(SyntheticHistory.entryAt(TODAY.minusDays(10), 20, CALM));
+
+        AnalyticsSnapshot snapshot = engine.compute(entries, TODAY);
+
+        assertEquals(4, snapshot.getStreak());
+        assertFalse(snapshot.isLoggedToday());
+        assertEquals(2, snapshot.getStreakStats().getRuns().size());
+        assertEquals(4, snapshot.getStreakStats().getLongest().getLength());
+        assertEquals(6, snapshot.getStreakStats().getGapDays());
+
+        assertEquals(0, engine.compute(entries, TODAY.plusDays(1)).getStreak());
+    }
+
+    @Test
+    public void entriesKeepTheDayTheyWereWrittenOn() {
+        // 11pm on Tuesday in New York is already Wednesday in UTC
+        EmotionEntry stamped = SyntheticHistory.entryAt(TODAY.minusDays(1), 23, CALM);
+        EmotionEntry legacy = new EmotionEntry("legacy", "user", new Date(stamped.getTimestampMillis()));
+        legacy.addEmotion(CALM);
+        List<EmotionEntry> entries = Arrays.asList(stamped, legacy);
+
+        AnalyticsSnapshot utc = new AnalyticsEngine(ZoneOffset.UTC).compute(entries, TODAY);
+
+        // The stamped entry stays on Tuesday; the legacy one falls on the engine's day
+        assertEquals(Arrays.asList((int) TODAY.minusDays(1).toEpochDay(), (int) TODAY.toEpochDay()),
+                boxed(utc.getDailySeries().loggedEpochDays()));
+        assertTrue(utc.isLoggedToday());
+        assertEquals(2, utc.getStreak());
+    }
+
+    @Test
+    public void matchesCountingEachMetricSeparately() {
+        List<EmotionEntry> entries = SyntheticHistory.entries(5000, 3, 42);
+
+        AnalyticsSnapshot snapshot = engine.compute(entries, TODAY);
+
+        long today = TODAY.toEpochDay();
+        for (Timeframe timeframe : Timeframe.values()) {
+            long start = timeframe.startDate(TODAY).toEpochDay();
+            int checkins = 0;
+            int[] categories = new int[Emotion.Category.values().length];
+            for (EmotionEntry entry : entries) {
+                long day = dayOf(entry);
+                if (day >= start && day <= today) {
+                    checkins++;
+                    for (Emotion emotion : entry.getEmotions()) {
+                        categories[emotion.getCategory().ordinal()]++;
+                    }
+                }
+            }
+            TimeframeStats stats = snapshot.getStats(timeframe);
+            assertEquals(timeframe.name(), checkins, stats.getCheckinCount());
+            for (Emotion.Category category : Emotion.Category.values()) {
+                assertEquals(timeframe + " " + category, categories[category.ordinal()],
+                        stats.getCategoryCount(category));
+            }
+        }
+
+        TreeSet<Long> days = new TreeSet<>();
+        for (EmotionEntry entry : entries) {
+            days.add(dayOf(entry));
+        }
+        long day = days.contains(today) ? today : today - 1;
+        int streak = 0;
+        while (days.contains(day)) {
+            streak++;
+            day--;
+        }
+        assertEquals(streak, snapshot.getStreak());
+    }
+
+    private static long dayOf(EmotionEntry entry) {
+        ZoneId zone = SyntheticHistory.ZONE;
+        return entry.hasLocalTime()
+                ? entry.getEpochDay()
+                : entry.getTimestamp().toInstant().atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    private static List<Integer> boxed(int[] values) {
+        List<Integer> list = new ArrayList<>();
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
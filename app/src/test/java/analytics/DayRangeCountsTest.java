@@ -0,0 +1,86 @@
+package analytics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import models.Emotion;
+
+public class DayRangeCountsTest {
+
+    private static final long TODAY = SyntheticHistory.TODAY.toEpochDay();
+    private static final int CATEGORY_COUNT = Emotion.Category.values().length;
+
+    @Test
+    public void applyOnEmptyCounts() {
+        DayRangeCounts counts = new DayRangeCounts();
+        counts.apply(TODAY, new int[]{0}, 1);
+
+        assertEquals(1, counts.query(TODAY, TODAY).getCheckinCount());
+        assertEquals(0, counts.query(TODAY - 1, TODAY - 1).getCheckinCount());
+        assertEquals(TODAY, counts.getMinEpochDay());
+        assertEquals(TODAY, counts.getMaxEpochDay());
+
+        DayRangeCounts built = DayRangeCounts.of(new long[0], new int[0][], 0);
+        built.apply(TODAY, new int[]{1, 2}, 1);
+        assertEquals(2, built.query(TODAY - 10, TODAY + 10).getEmotionCount());
+    }
+
+    @Test
+    public void growsOnBothSides() {
+        DayRangeCounts counts = new DayRangeCounts();
+        List<long[]> applied = new ArrayList<>();
+        // Each day further out than the last, alternating sides, to force several regrowths
+        for (int i = 0; i < 12; i++) {
+            long day = TODAY + (i % 2 == 0 ? -1 : 1) * (long) i * i * 20;
+            counts.apply(day, new int[]{i % CATEGORY_COUNT}, 1);
+            applied.add(new long[]{day, i % CATEGORY_COUNT});
+        }
+
+        for (long[] entry : applied) {
+            TimeframeStats day = counts.query(entry[0], entry[0]);
+            assertEquals(1, day.getCheckinCount());
+            assertEquals(1, day.getCategoryCount(Emotion.Category.values()[(int) entry[1]]));
+        }
+        assertEquals(applied.size(), counts.query(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2).getCheckinCount());
+    }
+
+    @Test
+    public void matchesBruteForce() {
+        Random random = new Random(5);
+        DayRangeCounts counts = new DayRangeCounts();
+        List<long[]> entries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (!entries.isEmpty() && random.nextInt(4) == 0) {
+                long[] removed = entries.remove(random.nextInt(entries.size()));
+                counts.apply(removed[0], new int[]{(int) removed[1]}, -1);
+            } else {
+                long[] entry = {TODAY - random.nextInt(1500), random.nextInt(CATEGORY_COUNT)};
+                counts.apply(entry[0], new int[]{(int) entry[1]}, 1);
+                entries.add(entry);
+            }
+        }
+
+        for (int q = 0; q < 200; q++) {
+            long start = TODAY - random.nextInt(1600);
+            long end = start + random.nextInt(400);
+            int checkins = 0;
+            int[] categories = new int[CATEGORY_COUNT];
+            for (long[] entry : entries) {
+                if (entry[0] >= start && entry[0] <= end) {
+                    checkins++;
+                    categories[(int) entry[1]]++;
+                }
+            }
+            TimeframeStats stats = counts.query(start, end);
+            assertEquals(checkins, stats.getCheckinCount());
+            for (int c = 0; c < CATEGORY_COUNT; c++) {
+                assertEquals(categories[c], stats.getCategoryCount(Emotion.Category.values()[c]));
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import models.Emotion;
+import models.EmotionCatalog;
+
+public class EmotionIdsTest {
+
+    @Test
+    public void everyListedEmotionHasItsOwnId() {
+        Set<Integer> ids = new HashSet<>();
+        for (Emotion emotion : EmotionCatalog.getAll().values()) {
+            int id = EmotionIds.of(emotion);
+            assertTrue(emotion.getName(), id >= 0 && id < EmotionIds.COUNT);
+            assertEquals(emotion.getName(), EmotionIds.name(id));
+            assertEquals(emotion.getCategory(), EmotionIds.category(id));
+            assertEquals(emotion.getEnergyLevel(), EmotionIds.emotion(id).getEnergyLevel());
+            ids.add(id);
+        }
+        assertEquals(EmotionCatalog.getAll().size(), ids.size());
+
+        for (Emotion emotion : EmotionCatalog.createFirstRunDefaults().values()) {
+            int id = EmotionIds.of(emotion);
+            assertTrue(emotion.getName(), id >= 0);
+            assertEquals(emotion.getName(), EmotionIds.name(id));
+        }
+    }
+
+    @Test
+    public void sameCategoryAndEnergyStillDiffer() {
+        Emotion excited = emotion("Excited", Emotion.Category.HIGH_ENERGY_PLEASANT, 10);
+        Emotion energetic = emotion("Energetic", Emotion.Category.HIGH_ENERGY_PLEASANT, 10);
+
+        assertNotEquals(EmotionIds.of(excited), EmotionIds.of(energetic));
+    }
+
+    @Test
+    public void namesMatchWhateverTheirCase() {
+        int id = EmotionIds.of(emotion("At Ease", Emotion.Category.LOW_ENERGY_PLEASANT, 0));
+
+        assertTrue(id >= 0);
+        assertEquals(id, EmotionIds.of(emotion("at ease", Emotion.Category.LOW_ENERGY_PLEASANT, 0)));
+        assertEquals(id, EmotionIds.of(emotion(" AT EASE", Emotion.Category.LOW_ENERGY_PLEASANT, 0)));
+    }
+
+    @Test
+    public void categoryIsPartOfTheId() {
+        int low = EmotionIds.of(emotion("Hopeful", Emotion.Category.LOW_ENERGY_PLEASANT, 4));
+        int high = EmotionIds.of(emotion("Hopeful", Emotion.Category.HIGH_ENERGY_PLEASANT, 3));
+
+        assertTrue(low >= 0 && high >= 0);
+        assertNotEquals(low, high);
+        assertEquals(Emotion.Category.HIGH_ENERGY_PLEASANT, EmotionIds.category(high));
+    }
+
+    @Test
+    public void unlistedEmotionsHaveNoId() {
+        assertEquals(-1, EmotionIds.of(emotion("Hangry", Emotion.Category.HIGH_ENERGY_UNPLEASANT, 5)));
+        assertEquals(-1, EmotionIds.of(emotion(null, Emotion.Category.HIGH_ENERGY_UNPLEASANT, 5)));
+        assertEquals(-1, EmotionIds.of(emotion("Calm", null, 5)));
+    }
+
+    @Test
+    public void coOccurrenceNamesTheEmotionsLogged() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        List<Emotion> entry = Arrays.asList(
+                emotion("Excited", Emotion.Category.HIGH_ENERGY_PLEASANT, 10),
+                emotion("Energetic", Emotion.Category.HIGH_ENERGY_PLEASANT, 10));
+        matrix.add(entry);
+        matrix.add(entry);
+
+        CoOccurrenceMatrix.Pair top = matrix.topPairs(1).get(0);
+        Set<String> names = new HashSet<>(Arrays.asList(EmotionIds.name(top.getFirst()), EmotionIds.name(top.getSecond())));
+        assertEquals(new HashSet<>(Arrays.asList("Excited", "Energetic")), names);
+        assertEquals(2, top.getCount());
+        assertEquals(2, matrix.categoryPairCount(Emotion.Category.HIGH_ENERGY_PLEASANT, Emotion.Category.HIGH_ENERGY_PLEASANT));
+    }
+
+    private static Emotion emotion(String name, Emotion.Category category, int energyLevel) {
+        return new Emotion(name, category, "", energyLevel);
+    }
+}
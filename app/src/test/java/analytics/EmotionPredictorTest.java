@@ -0,0 +1,113 @@
+package analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.Test;
+
+import models.Emotion;
+import models.EmotionEntry;
+
+public class EmotionPredictorTest {
+
+    private static final Emotion EXCITED = new Emotion("Excited", Emotion.Category.HIGH_ENERGY_PLEASANT, "Eager", 10);
+    private static final Emotion ENERGETIC = new Emotion("Energetic", Emotion.Category.HIGH_ENERGY_PLEASANT, "Lively", 10);
+    private static final Emotion STRESSED = new Emotion("Stressed", Emotion.Category.HIGH_ENERGY_UNPLEASANT, "Pressured", 23);
+    private static final Emotion CALM = new Emotion("Calm", Emotion.Category.LOW_ENERGY_PLEASANT, "Peaceful", 4);
+
+    @Test
+    public void noPicksBeforeEnoughEntries() {
+        EmotionPredictor predictor = new EmotionPredictor();
+        for (int i = 0; i < EmotionPredictor.MIN_ENTRIES - 1; i++) {
+            predictor.update(SyntheticHistory.entryAt(SyntheticHistory.TODAY.minusDays(10 - i), 9, CALM));
+        }
+
+        assertTrue(predict(predictor, SyntheticHistory.TODAY, 9).isEmpty());
+    }
+
+    @Test
+    public void sameEnergyEmotionsStayApart() {
+        EmotionPredictor predictor = new EmotionPredictor();
+        for (int i = 0; i < 10; i++) {
+            predictor.update(SyntheticHistory.entryAt(SyntheticHistory.TODAY.minusDays(30 - i), 9, EXCITED));
+        }
+        predictor.update(SyntheticHistory.entryAt(SyntheticHistory.TODAY.minusDays(15), 9, ENERGETIC));
+        predictor.update(SyntheticHistory.entryAt(SyntheticHistory.TODAY.minusDays(14), 21, CALM));
+
+        List<Emotion> picks = predict(predictor, SyntheticHistory.TODAY, 9);
+
+        assertEquals("Excited", picks.get(0).getName());
+        assertEquals("Energetic", picks.get(1).getName());
+    }
+
+    @Test
+    public void encodingKeepsNamesAndEnergyLevels() {
+        EmotionPredictor predictor = new EmotionPredictor();
+        for (int i = 0; i < 6; i++) {
+            LocalDate date = SyntheticHistory.TODAY.minusDays(20 - i);
+            predictor.update(SyntheticHistory.entryAt(date, 8, STRESSED, EXCITED));
+            predictor.update(SyntheticHistory.entryAt(date, 20, CALM));
+        }
+
+        EmotionPredictor decoded = EmotionPredictor.decode(predictor.encode());
+
+        assertEquals(predictor.encode(), decoded.encode());
+        List<Emotion> picks = predict(decoded, SyntheticHistory.TODAY, 8);
+        assertEquals(predict(predictor, SyntheticHistory.TODAY, 8).size(), picks.size());
+        for (Emotion pick : picks) {
+            if ("Stressed".equals(pick.getName())) {
+                assertEquals(23, pick.getEnergyLevel());
+                assertEquals(Emotion.Category.HIGH_ENERGY_UNPLEASANT, pick.getCategory());
+                assertEquals("Pressured", pick.getDefinition());
+            }
+        }
+        assertTrue(picks.stream().anyMatch(pick -> "Stressed".equals(pick.getName())));
+    }
+
+    @Test
+    public void followingEmotionsComeFirst() {
+        EmotionPredictor predictor = new EmotionPredictor();
+        // Mornings are mostly Excited, but Calm always follows Stressed
+        for (int i = 0; i < 8; i++) {
+            LocalDate date = SyntheticHistory.TODAY.minusDays(20 - 2 * i);
+            predictor.update(SyntheticHistory.entryAt(date, 8, EXCITED));
+            predictor.update(SyntheticHistory.entryAt(date, 9, EXCITED));
+            predictor.update(SyntheticHistory.entryAt(date, 18, STRESSED));
+            predictor.update(SyntheticHistory.entryAt(date.plusDays(1), 8, CALM));
+        }
+        predictor.update(SyntheticHistory.entryAt(SyntheticHistory.TODAY, 7, STRESSED));
+
+        assertEquals("Calm", predict(predictor, SyntheticHistory.TODAY, 8).get(0).getName());
+    }
+
+    @Test
+    public void unreadableStateStartsFresh() {
+        EmotionPredictor predictor = new EmotionPredictor();
+        for (int i = 0; i < 5; i++) {
+            predictor.update(SyntheticHistory.entryAt(SyntheticHistory.TODAY.minusDays(10 - i), 9, CALM));
+        }
+        String encoded = predictor.encode();
+        String[] lines = encoded.split("\n");
+
+        assertFresh(null);
+        assertFresh("");
+        assertFresh("not a predictor");
+        // An older format, a different emotion list, and an id that now names another emotion
+        assertFresh(encoded.replaceFirst("^\\d+,", "2,"));
+        assertFresh(encoded.replaceFirst("^(\\d+),\\d+,", "$1," + (EmotionIds.COUNT + 1) + ","));
+        assertFresh(lines[0] + "\n" + lines[1] + "\n" + lines[2].replace("Calm", "Content"));
+        assertFresh(lines[0] + "\n" + lines[1] + "\n" + lines[2].replace("\t4\t", "\tfour\t"));
+    }
+
+    private static void assertFresh(String encoded) {
+        assertEquals(new EmotionPredictor().encode(), EmotionPredictor.decode(encoded).encode());
+    }
+
+    private static List<Emotion> predict(EmotionPredictor predictor, LocalDate date, int hour) {
+        EmotionEntry now = SyntheticHistory.entryAt(date, hour);
+        return predictor.predict(now.getTimestampMillis(), date.toEpochDay(), hour * 60, EmotionPredictor.MAX_PICKS);
+    }
+}
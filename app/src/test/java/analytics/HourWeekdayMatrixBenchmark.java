@@ -0,0 +1,49 @@
+package analytics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import models.EmotionEntry;
+
+/**
+ * A full HourWeekdayMatrix rebuild over 100k entries, which has to stay well
+ * under 100 ms. Run main() from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HourWeekdayMatrixBenchmark {
+
+    private List<EmotionEntry> entries;
+
+    @Setup
+    public void setUp() {
+        entries = SyntheticHistory.entries(100_000, 5, 1);
+    }
+
+    @Benchmark
+    public HourWeekdayMatrix rebuild() {
+        return HourWeekdayMatrix.of(entries);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HourWeekdayMatrixBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package analytics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import models.Emotion;
+import models.EmotionEntry;
+
+public class HourWeekdayMatrixTest {
+
+    private static final Emotion CALM = new Emotion("Calm", Emotion.Category.LOW_ENERGY_PLEASANT, "", 4);
+    private static final Emotion ANXIOUS = new Emotion("Anxious", Emotion.Category.HIGH_ENERGY_UNPLEASANT, "", 7);
+
+    @Test
+    public void cellsMatchJavaTime() {
+        for (EmotionEntry entry : SyntheticHistory.entries(2000, 3, 11)) {
+            if (!entry.hasLocalTime()) {
+                continue;
+            }
+            ZonedDateTime local = entry.getTimestamp().toInstant().atZone(SyntheticHistory.ZONE);
+            int weekday = local.getDayOfWeek().getValue() % 7; // Sunday = 0
+            assertEquals(weekday * HourWeekdayMatrix.HOURS + local.getHour(), HourWeekdayMatrix.cell(entry));
+        }
+    }
+
+    @Test
+    public void entriesWithoutLocalTimeHaveNoCell() {
+        EmotionEntry legacy = new EmotionEntry("legacy", "user", new Date());
+
+        assertEquals(-1, HourWeekdayMatrix.cell(legacy));
+        assertEquals(0, HourWeekdayMatrix.of(Collections.singletonList(legacy)).maxCheckins());
+    }
+
+    @Test
+    public void countsAndDominantCategoryPerCell() {
+        LocalDate sunday = LocalDate.of(2026, 3, 15);
+        HourWeekdayMatrix matrix = HourWeekdayMatrix.of(List.of(
+                SyntheticHistory.entryAt(sunday, 9, CALM),
+                SyntheticHistory.entryAt(sunday.plusWeeks(1), 9, CALM, ANXIOUS),
+                SyntheticHistory.entryAt(sunday.plusDays(3), 22, ANXIOUS)));
+
+        assertEquals(2, matrix.getCheckins(0, 9));
+        assertEquals(2, matrix.getCategoryCount(Emotion.Category.LOW_ENERGY_PLEASANT, 0, 9));
+        assertEquals(Emotion.Category.LOW_ENERGY_PLEASANT, matrix.dominantCategory(0, 9));
+        assertEquals(Emotion.Category.HIGH_ENERGY_UNPLEASANT, matrix.dominantCategory(3, 22));
+        assertNull(matrix.dominantCategory(1, 9));
+        assertEquals(2, matrix.maxCheckins());
+        assertArrayEquals(new int[]{2, 0, 0, 1, 0, 0, 0}, matrix.weekdayHistogram());
+        assertEquals(2, matrix.hourHistogram()[9]);
+    }
+
+    @Test
+    public void removingUndoesAdding() {
+        List<EmotionEntry> entries = SyntheticHistory.entries(500, 1, 2);
+        HourWeekdayMatrix matrix = HourWeekdayMatrix.of(entries);
+
+        for (EmotionEntry entry : entries) {
+            int cell = HourWeekdayMatrix.cell(entry);
+            if (cell >= 0) {
+                matrix.apply(cell, DayRangeCounts.categoryOrdinals(entry.getEmotions()), -1);
+            }
+        }
+
+        assertEquals(0, matrix.maxCheckins());
+        for (int[] hours : matrix.categoryHourHistogram()) {
+            assertArrayEquals(new int[HourWeekdayMatrix.HOURS], hours);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package analytics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import models.Emotion;
+import models.EmotionCatalog;
+import models.EmotionEntry;
+
+public class IndexCacheTest {
+
+    private static final String USER = "user";
+    private static final long VERSION = 12;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void countsSurviveARestart() throws Exception {
+        List<EmotionEntry> entries = catalogHistory();
+        CoOccurrenceMatrix coOccurrence = CoOccurrenceMatrix.of(entries);
+        HourWeekdayMatrix hourWeekday = HourWeekdayMatrix.of(entries);
+        DayRangeCounts dayRangeCounts = dayRangeCounts(entries);
+        save(coOccurrence, dayRangeCounts, hourWeekday);
+
+        IndexCache.Indexes indexes = new IndexCache(cacheFile()).get(USER, VERSION);
+
+        assertNotNull(indexes);
+        assertArrayEquals(coOccurrence.counts(), indexes.getCoOccurrence().counts());
+        assertArrayEquals(coOccurrence.categoryHeatmap(), indexes.getCoOccurrence().categoryHeatmap());
+        assertArrayEquals(hourWeekday.checkins(), indexes.getHourWeekday().checkins());
+        assertArrayEquals(hourWeekday.categories(), indexes.getHourWeekday().categories());
+        DayRangeCounts restored = indexes.getDayRangeCounts();
+        assertEquals(dayRangeCounts.getMinEpochDay(), restored.getMinEpochDay());
+        assertEquals(dayRangeCounts.getMaxEpochDay(), restored.getMaxEpochDay());
+        long today = SyntheticHistory.TODAY.toEpochDay();
+        for (long start : new long[]{today - 6, today - 400, today - 5000}) {
+            TimeframeStats expected = dayRangeCounts.query(start, today);
+            TimeframeStats actual = restored.query(start, today);
+            assertEquals(expected.getCheckinCount(), actual.getCheckinCount());
+            assertEquals(expected.getEmotionCount(), actual.getEmotionCount());
+        }
+
+        // Read-back counts keep taking changes
+        restored.apply(today, new int[]{0}, 1);
+        assertEquals(dayRangeCounts.query(today, today).getCheckinCount() + 1,
+                restored.query(today, today).getCheckinCount());
+    }
+
+    @Test
+    public void otherDataVersionIsAMiss() throws Exception {
+        save(new CoOccurrenceMatrix(), new DayRangeCounts(), new HourWeekdayMatrix());
+
+        IndexCache cache = new IndexCache(cacheFile());
+
+        assertNotNull(cache.get(USER, VERSION));
+        assertNull(cache.get(USER, VERSION + 1));
+        assertNull(cache.get("someone else", VERSION));
+    }
+
+    @Test
+    public void damagedFileIsAMiss() throws Exception {
+        List<EmotionEntry> entries = catalogHistory();
+        save(CoOccurrenceMatrix.of(entries), dayRangeCounts(entries), HourWeekdayMatrix.of(entries));
+        byte[] whole = Files.readAllBytes(cacheFile().toPath());
+
+        for (int length = 0; length < whole.length; length += 97) {
+            Files.write(cacheFile().toPath(), Arrays.copyOf(whole, length));
+            assertNull("truncated to " + length, new IndexCache(cacheFile()).get(USER, VERSION));
+        }
+
+        byte[] flipped = whole.clone();
+        for (int i = 30; i < flipped.length; i += 50) {
+            flipped[i] = (byte) 0xFF;
+        }
+        Files.write(cacheFile().toPath(), flipped);
+        new IndexCache(cacheFile()).get(USER, VERSION); // must not throw
+    }
+
+    // Entries using the catalog's emotions, so co-occurrence cells get counted
+    private static List<EmotionEntry> catalogHistory() {
+        List<EmotionEntry> entries = SyntheticHistory.entries(3000, 3, 5);
+        Emotion[] catalog = EmotionCatalog.getAll().values().toArray(new Emotion[0]);
+        for (int i = 0; i < entries.size(); i++) {
+            List<Emotion> emotions = entries.get(i).getEmotions();
+            for (int e = 0; e < emotions.size(); e++) {
+                emotions.set(e, catalog[(i * 7 + e * 13) % catalog.length]);
+            }
+        }
+        return entries;
+    }
+
+    private static DayRangeCounts dayRangeCounts(List<EmotionEntry> entries) {
+        long[] epochDays = new long[entries.size()];
+        int[][] ordinals = new int[entries.size()][];
+        int count = 0;
+        for (EmotionEntry entry : entries) {
+            if (entry.hasLocalTime()) {
+                epochDays[count] = entry.getEpochDay();
+                ordinals[count++] = DayRangeCounts.categoryOrdinals(entry.getEmotions());
+            }
+        }
+        return DayRangeCounts.of(epochDays, ordinals, count);
+    }
+
+    private void save(CoOccurrenceMatrix coOccurrence, DayRangeCounts dayRangeCounts,
+                      HourWeekdayMatrix hourWeekday) throws Exception {
+        IndexCache cache = new IndexCache(cacheFile());
+        cache.put(USER, VERSION, coOccurrence, dayRangeCounts, hourWeekday);
+        cache.awaitSaved();
+    }
+
+    private File cacheFile() {
+        return new File(folder.getRoot(), "entry_index_cache.bin");
+    }
+}
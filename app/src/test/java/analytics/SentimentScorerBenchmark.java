@@ -0,0 +1,53 @@
+package analytics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Scoring one 500-character journal entry, which should take microseconds.
+ * Run main() from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SentimentScorerBenchmark {
+
+    private static final String JOURNAL = "Woke up tired again and didn't want to get out of bed, but the coffee"
+            + " helped. Work was stressful this morning: the deadline moved up and my manager wasn't happy with"
+            + " the draft. I felt a bit anxious through lunch. In the afternoon things got better, we fixed the"
+            + " problem together and I was honestly proud of the team. Called mom on the way home, which was"
+            + " lovely. Not a perfect day, but I'm grateful for the small wins and I feel calm now. Going to"
+            + " read for a while and sleep early. Tomorrow should be a quieter day.";
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = JOURNAL.substring(0, 500);
+    }
+
+    @Benchmark
+    public double score() {
+        return SentimentScorer.score(text);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SentimentScorerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
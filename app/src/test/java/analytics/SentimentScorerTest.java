@@ -0,0 +1,70 @@
+package analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SentimentScorerTest {
+
+    @Test
+    public void emptyAndNeutralTextScoreZero() {
+        assertEquals(0, SentimentScorer.score(null), 0);
+        assertEquals(0, SentimentScorer.score(""), 0);
+        assertEquals(0, SentimentScorer.score("Went to the store and then home."), 0);
+    }
+
+    @Test
+    public void signFollowsTheWords() {
+        assertTrue(SentimentScorer.score("What a wonderful, happy day") > 0.5);
+        assertTrue(SentimentScorer.score("I feel miserable and hopeless") < -0.5);
+    }
+
+    @Test
+    public void scoresStayInsideTheRange() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("amazing ");
+        }
+        double score = SentimentScorer.score(text);
+        assertTrue(score > 0.99 && score < 1);
+    }
+
+    @Test
+    public void negationFlipsAndSoftens() {
+        double happy = SentimentScorer.score("I am happy");
+        double notHappy = SentimentScorer.score("I am not happy");
+        double didntEnjoy = SentimentScorer.score("I didn’t really enjoy it");
+
+        assertTrue(notHappy < 0);
+        assertTrue(Math.abs(notHappy) < happy);
+        assertTrue(didntEnjoy < 0);
+        // A negation doesn't reach past the sentence
+        assertTrue(SentimentScorer.score("Not today. I am happy") > 0);
+    }
+
+    @Test
+    public void modifiersScaleTheNextWord() {
+        double good = SentimentScorer.score("good");
+
+        assertTrue(SentimentScorer.score("very good") > good);
+        assertTrue(SentimentScorer.score("slightly good") < good);
+    }
+
+    @Test
+    public void clauseAfterButCountsMore() {
+        assertTrue(SentimentScorer.score("The morning was great but the evening was awful") < 0);
+        assertTrue(SentimentScorer.score("The morning was awful but the evening was great") > 0);
+    }
+
+    @Test
+    public void caseAndQuotesDontMatter() {
+        assertEquals(SentimentScorer.score("happy"), SentimentScorer.score("'HAPPY'"), 1e-12);
+    }
+
+    @Test
+    public void strongerWordsScoreFurther() {
+        assertTrue(SentimentScorer.score("thrilled") > SentimentScorer.score("happy"));
+        assertTrue(SentimentScorer.score("furious") < SentimentScorer.score("sad"));
+    }
+}
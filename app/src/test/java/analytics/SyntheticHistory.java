@@ -0,0 +1,72 @@
+package analytics;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import models.Emotion;
+import models.EmotionEntry;
+
+/**
+ * Made-up entry histories for the analytics tests and benchmarks: random times
+ * over the last few years, one or two emotions each, and a share of old entries
+ * without local time fields, like the ones saved before those existed.
+ */
+final class SyntheticHistory {
+
+    static final LocalDate TODAY = LocalDate.of(2026, 3, 18);
+    static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private SyntheticHistory() {
+    }
+
+    /**
+     * count entries spread over the days years back from TODAY, in ZONE
+     */
+    static List<EmotionEntry> entries(int count, int years, long seed) {
+        Random random = new Random(seed);
+        Emotion.Category[] categories = Emotion.Category.values();
+        long endMillis = TODAY.plusDays(1).atStartOfDay(ZONE).toInstant().toEpochMilli();
+        long spanMillis = years * 365L * MILLIS_PER_DAY;
+
+        List<EmotionEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long millis = endMillis - 1 - (long) (random.nextDouble() * spanMillis);
+            EmotionEntry entry = new EmotionEntry("e" + i, "user", new Date(millis));
+            int emotions = 1 + random.nextInt(2);
+            for (int e = 0; e < emotions; e++) {
+                Emotion.Category category = categories[random.nextInt(categories.length)];
+                int energy = 1 + random.nextInt(10);
+                entry.addEmotion(new Emotion(category + " " + energy, category, "", energy));
+            }
+            // Journal text scored on most entries, without drawing on the seed
+            if (i % 4 != 0) {
+                entry.setSentimentScore((i * 37 % 2001 - 1000) / 1000.0);
+            }
+            // Entries from before local time was stored
+            if (random.nextInt(10) != 0) {
+                entry.stampLocalTime(ZONE);
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * An entry at the local date and time in ZONE, with local time stamped
+     */
+    static EmotionEntry entryAt(LocalDate date, int hour, Emotion... emotions) {
+        long millis = date.atTime(hour, 0).atZone(ZONE).toInstant().toEpochMilli();
+        EmotionEntry entry = new EmotionEntry("e" + millis, "user", new Date(millis));
+        for (Emotion emotion : emotions) {
+            entry.addEmotion(emotion);
+        }
+        entry.stampLocalTime(ZONE);
+        return entry;
+    }
+}
@@ -0,0 +1,310 @@
+package search;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import models.Emotion;
+
+public class InvertedIndexTest {
+
+    private static final String[] WORDS = {
+            "walk", "walked", "walking", "rain", "rainy", "coffee", "friend", "friends", "work", "worked",
+            "tired", "happy", "sleep", "slept", "park", "music", "call", "called", "mother", "cat",
+            "catalog", "dinner", "run", "running", "the", "a", "and", "today"};
+    private static final String[] TAGS = {"Work", "work", "Family", "Travel", "Health", "Café"};
+    private static final Emotion[] EMOTIONS = {
+            new Emotion("Calm", Emotion.Category.LOW_ENERGY_PLEASANT, "", 4),
+            new Emotion("Anxious", Emotion.Category.HIGH_ENERGY_UNPLEASANT, "", 10),
+            new Emotion("Excited", Emotion.Category.HIGH_ENERGY_PLEASANT, "", 10),
+            new Emotion("Tired", Emotion.Category.LOW_ENERGY_UNPLEASANT, "", 2),
+            new Emotion("Content", Emotion.Category.LOW_ENERGY_PLEASANT, "", 3)};
+    private static final int FIRST_DAY = 20000;
+    private static final int DAYS = 120;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // What the test put in, to check the index against
+    private static class Doc {
+        final String entryId;
+        final long timestampMillis;
+        final int epochDay;
+        final String text;
+        final List<String> tags;
+        final List<Emotion> emotions;
+        final boolean hasImages;
+
+        Doc(String entryId, long timestampMillis, int epochDay, String text, List<String> tags,
+            List<Emotion> emotions, boolean hasImages) {
+            this.entryId = entryId;
+            this.timestampMillis = timestampMillis;
+            this.epochDay = epochDay;
+            this.text = text;
+            this.tags = tags;
+            this.emotions = emotions;
+            this.hasImages = hasImages;
+        }
+    }
+
+    @Test
+    public void repeatedWordsCountOncePerEntry() {
+        InvertedIndex index = new InvertedIndex();
+        index.reset("user", 1);
+        index.put("a", 1, FIRST_DAY, "rain rain rain, more rain", Arrays.asList("work", "Work"));
+        index.put("b", 2, FIRST_DAY, "no rain today rain", Collections.emptyList());
+
+        QueryCursor cursor = index.query(new EntryQuery().text("rain"));
+        assertEquals(2, cursor.getMatchCount());
+        List<InvertedIndex.Hit> hits = cursor.next(10);
+        // Four times in the first entry ranks it above two in the second
+        assertEquals("a", hits.get(0).getEntryId());
+        assertEquals(4, hits.get(0).getSnippet().getHighlightCount());
+        assertEquals(1, index.count(new EntryQuery().tags(Collections.singletonList("work"), true)));
+
+        index.remove("a");
+        assertEquals(1, index.count(new EntryQuery().text("rain")));
+        assertEquals(0, index.count(new EntryQuery().tags(Collections.singletonList("work"), true)));
+    }
+
+    @Test
+    public void queriesMatchBruteForce() throws Exception {
+        Random random = new Random(41);
+        InvertedIndex index = new InvertedIndex();
+        index.reset("user", 1);
+        Map<String, Doc> docs = new LinkedHashMap<>();
+        for (int i = 0; i < 600; i++) {
+            put(index, docs, randomDoc(random, "e" + i, i));
+        }
+        checkQueries(random, index, docs);
+
+        // Edits take new ids; deleting most entries compacts the rest
+        for (int i = 0; i < 100; i++) {
+            put(index, docs, randomDoc(random, "e" + random.nextInt(600), 600 + i));
+        }
+        List<String> ids = new ArrayList<>(docs.keySet());
+        Collections.shuffle(ids, random);
+        for (String entryId : ids.subList(0, 450)) {
+            index.remove(entryId);
+            docs.remove(entryId);
+        }
+        assertEquals(docs.size(), index.size());
+        checkQueries(random, index, docs);
+
+        File file = new File(folder.getRoot(), "index.bin");
+        index.save(file);
+        InvertedIndex loaded = new InvertedIndex();
+        assertTrue(loaded.load(file));
+        assertEquals("user", loaded.getUserId());
+        assertEquals(1, loaded.getDataVersion());
+        assertEquals(docs.size(), loaded.size());
+        checkQueries(random, loaded, docs);
+
+        // The loaded index keeps taking changes
+        for (int i = 0; i < 50; i++) {
+            put(loaded, docs, randomDoc(random, "n" + i, 800 + i));
+        }
+        checkQueries(random, loaded, docs);
+    }
+
+    @Test
+    public void unreadableFileLeavesItEmpty() throws Exception {
+        File file = folder.newFile("index.bin");
+        java.nio.file.Files.write(file.toPath(), new byte[]{0, 0, 0, 5, 1, 2});
+
+        InvertedIndex index = new InvertedIndex();
+        assertFalse(index.load(file));
+        assertEquals(0, index.size());
+        assertEquals(null, index.getUserId());
+    }
+
+    private static void put(InvertedIndex index, Map<String, Doc> docs, Doc doc) {
+        index.put(doc.entryId, doc.timestampMillis, doc.epochDay, doc.text, doc.tags, doc.emotions, doc.hasImages);
+        docs.remove(doc.entryId);
+        docs.put(doc.entryId, doc);
+    }
+
+    private static Doc randomDoc(Random random, String entryId, int order) {
+        StringBuilder text = new StringBuilder();
+        int words = random.nextInt(6) == 0 ? 0 : 1 + random.nextInt(30);
+        for (int w = 0; w < words; w++) {
+            text.append(w > 0 ? (random.nextInt(8) == 0 ? ". " : " ") : "").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        List<String> tags = new ArrayList<>();
+        for (int t = random.nextInt(3); t > 0; t--) {
+            tags.add(TAGS[random.nextInt(TAGS.length)]);
+        }
+        List<Emotion> emotions = new ArrayList<>();
+        for (int e = random.nextInt(3); e > 0; e--) {
+            emotions.add(EMOTIONS[random.nextInt(EMOTIONS.length)]);
+        }
+        int epochDay = FIRST_DAY + random.nextInt(DAYS);
+        return new Doc(entryId, epochDay * 86_400_000L + order, epochDay, text.toString(), tags, emotions,
+                random.nextInt(4) == 0);
+    }
+
+    private static void checkQueries(Random random, InvertedIndex index, Map<String, Doc> docs) {
+        for (int q = 0; q < 300; q++) {
+            EntryQuery query = new EntryQuery();
+            List<String> words = new ArrayList<>();
+            for (int w = random.nextInt(3); w > 0; w--) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                // Sometimes only part of the last word, as while typing
+                words.add(random.nextInt(4) == 0 ? word.substring(0, 1 + random.nextInt(word.length())) : word);
+            }
+            query.text(String.join(" ", words));
+            Integer from = null;
+            Integer to = null;
+            if (random.nextInt(3) == 0) {
+                from = FIRST_DAY + random.nextInt(DAYS);
+                to = from + random.nextInt(30);
+                query.between(from, to);
+            }
+            Emotion.Category category = random.nextInt(4) == 0
+                    ? Emotion.Category.values()[random.nextInt(Emotion.Category.values().length)] : null;
+            query.category(category);
+            String emotion = random.nextInt(4) == 0 ? EMOTIONS[random.nextInt(EMOTIONS.length)].getName() : null;
+            query.emotion(emotion);
+            List<String> tags = new ArrayList<>();
+            for (int t = random.nextInt(4) == 0 ? 1 + random.nextInt(2) : 0; t > 0; t--) {
+                tags.add(TAGS[random.nextInt(TAGS.length)]);
+            }
+            boolean matchAllTags = random.nextBoolean();
+            query.tags(tags, matchAllTags);
+            Boolean images = random.nextInt(4) == 0 ? random.nextBoolean() : null;
+            if (images != null) {
+                query.withImages(images);
+            }
+
+            Set<String> expected = new HashSet<>();
+            Set<Integer> expectedDays = new HashSet<>();
+            for (Doc doc : docs.values()) {
+                if (matchesWords(doc, words) && (from == null || doc.epochDay >= from && doc.epochDay <= to)
+                        && (category == null || hasCategory(doc, category))
+                        && (emotion == null || hasEmotion(doc, emotion))
+                        && matchesTags(doc, tags, matchAllTags)
+                        && (images == null || doc.hasImages == images)) {
+                    expected.add(doc.entryId);
+                    expectedDays.add(doc.epochDay);
+                }
+            }
+
+            String label = query.getText() + " " + from + ".." + to + " " + category + " " + emotion + " "
+                    + tags + (matchAllTags ? " all" : " any") + " images=" + images;
+            assertEquals(label, expected.size(), index.count(query));
+            assertEquals(label, expectedDays.size(), index.countDays(query));
+
+            QueryCursor cursor = index.query(query);
+            assertEquals(label, expected.size(), cursor.getMatchCount());
+            Set<String> found = new HashSet<>();
+            InvertedIndex.Hit previous = null;
+            while (cursor.hasMore()) {
+                for (InvertedIndex.Hit hit : cursor.next(1 + random.nextInt(40))) {
+                    assertTrue(label, found.add(hit.getEntryId()));
+                    if (previous != null) {
+                        assertTrue(label, previous.getScore() > hit.getScore()
+                                || previous.getScore() == hit.getScore()
+                                && previous.getTimestampMillis() >= hit.getTimestampMillis());
+                    }
+                    previous = hit;
+                }
+            }
+            assertEquals(label, expected, found);
+        }
+    }
+
+    // Every word as a term of the text, the last one also as a prefix
+    private static boolean matchesWords(Doc doc, List<String> words) {
+        List<String> terms = TextAnalyzer.terms(doc.text);
+        for (int i = 0; i < words.size(); i++) {
+            String word = TextAnalyzer.fold(words.get(i));
+            String stem = TextAnalyzer.stem(word);
+            boolean found = false;
+            for (String term : terms) {
+                if (i == words.size() - 1 ? term.startsWith(word) || term.startsWith(stem) : term.equals(stem)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasCategory(Doc doc, Emotion.Category category) {
+        for (Emotion emotion : doc.emotions) {
+            if (emotion.getCategory() == category) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasEmotion(Doc doc, String name) {
+        for (Emotion emotion : doc.emotions) {
+            if (InvertedIndex.tagKey(emotion.getName()).equals(InvertedIndex.tagKey(name))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesTags(Doc doc, List<String> tags, boolean matchAll) {
+        if (tags.isEmpty()) {
+            return true;
+        }
+        Map<String, Boolean> keys = new HashMap<>();
+        for (String tag : doc.tags) {
+            keys.put(InvertedIndex.tagKey(tag), true);
+        }
+        for (String tag : tags) {
+            boolean has = keys.containsKey(InvertedIndex.tagKey(tag));
+            if (matchAll && !has) {
+                return false;
+            }
+            if (!matchAll && has) {
+                return true;
+            }
+        }
+        return matchAll;
+    }
+
+    @Test
+    public void tagSuggestionsFollowEntries() {
+        InvertedIndex index = new InvertedIndex();
+        index.reset("user", 1);
+        index.put("a", 1, FIRST_DAY, "", Arrays.asList("Work", "Workout"));
+        index.put("b", 2, FIRST_DAY, "", Arrays.asList("work"));
+        index.put("c", 3, FIRST_DAY, "", Arrays.asList("World"));
+
+        List<InvertedIndex.Tag> tags = index.suggestTags("Wo", TagTrie.TOP_K);
+        assertArrayEquals(new String[]{"work", "workout", "world"},
+                tags.stream().map(InvertedIndex.Tag::getKey).toArray());
+        assertEquals(2, tags.get(0).getCount());
+        assertEquals("work", tags.get(0).getName());
+
+        index.remove("b");
+        index.remove("a");
+        assertEquals(Collections.singletonList("world"),
+                Arrays.asList(index.suggestTags("w", TagTrie.TOP_K).stream().map(InvertedIndex.Tag::getKey).toArray()));
+    }
+}
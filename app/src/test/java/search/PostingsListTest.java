@@ -0,0 +1,80 @@
+package search;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class PostingsListTest {
+
+    @Test
+    public void repeatedIdsAreKeptOnce() {
+        PostingsList list = new PostingsList();
+        for (int doc = 0; doc < 5; doc++) {
+            // Like a word written three times in each entry
+            list.add(doc);
+            list.add(doc);
+            list.add(doc);
+        }
+        list.add(2);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, list.toArray());
+    }
+
+    @Test
+    public void matchesASortedSet() {
+        Random random = new Random(11);
+        PostingsList list = new PostingsList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            // Mostly appends, as indexing does, with inserts and removals anywhere
+            int id = random.nextInt(4) == 0 ? random.nextInt(3000) : 2000 + i;
+            if (random.nextInt(5) == 0) {
+                list.remove(id);
+                expected.remove(id);
+            } else {
+                list.add(id);
+                expected.add(id);
+            }
+        }
+
+        assertArrayEquals(toArray(expected), list.toArray());
+        assertEquals(expected.size(), list.size());
+    }
+
+    @Test
+    public void gapsRoundTrip() {
+        PostingsList list = PostingsList.of(new int[]{0, 3, 4, 1000, 70000}, 5);
+
+        int[] gaps = list.gaps();
+        assertArrayEquals(new int[]{0, 3, 1, 996, 69000}, gaps);
+        PostingsList restored = PostingsList.fromGaps(gaps);
+        assertArrayEquals(list.toArray(), restored.toArray());
+
+        // Appending after a restore continues from the last id
+        restored.add(70001);
+        restored.add(5);
+        assertArrayEquals(new int[]{0, 3, 4, 5, 1000, 70000, 70001}, restored.toArray());
+    }
+
+    @Test
+    public void removingEverythingEmptiesIt() {
+        PostingsList list = PostingsList.of(new int[]{1, 2, 3}, 3);
+        list.remove(2);
+        list.remove(7);
+        list.remove(1);
+        list.remove(3);
+
+        assertTrue(list.isEmpty());
+        list.add(0);
+        assertArrayEquals(new int[]{0}, list.toArray());
+    }
+
+    static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,97 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Paging through 100k ranked matches, a page being what SearchActivity loads
+ * at a time: the first page from QueryCursor's bounded heap, the same page
+ * from a heap of every match, and ten pages in a row. Run main() from the test
+ * classpath (JMH's annotation processor generates the harness).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryCursorBenchmark {
+
+    private static final int MATCHES = 100_000;
+    private static final int PAGE = 30;
+
+    private InvertedIndex index;
+    private List<QueryCursor.Ranked> matches;
+    private final List<Set<String>> wordTerms = Collections.emptyList();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        index = new InvertedIndex();
+        index.reset("user", 1);
+        matches = new ArrayList<>(MATCHES);
+        for (int i = 0; i < MATCHES; i++) {
+            index.put("e" + i, i, 20000 + i / 10, "", Collections.emptyList());
+            matches.add(new QueryCursor.Ranked("e" + i, random.nextDouble() * 10, i));
+        }
+    }
+
+    @Benchmark
+    public List<InvertedIndex.Hit> firstPage() {
+        return new QueryCursor(index, matches, wordTerms, "").next(PAGE);
+    }
+
+    // What the first page cost when every match was heaped up front
+    @Benchmark
+    public List<InvertedIndex.Hit> firstPageFromFullHeap() {
+        PriorityQueue<QueryCursor.Ranked> all = new PriorityQueue<>(matches);
+        List<InvertedIndex.Hit> hits = new ArrayList<>(PAGE);
+        while (hits.size() < PAGE && !all.isEmpty()) {
+            QueryCursor.Ranked ranked = all.poll();
+            hits.add(index.hit(ranked.entryId, ranked.score, wordTerms));
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int tenPages() {
+        QueryCursor cursor = new QueryCursor(index, copy(matches), wordTerms, "");
+        int count = 0;
+        for (int page = 0; page < 10; page++) {
+            count += cursor.next(PAGE).size();
+        }
+        return count;
+    }
+
+    // Fresh matches, since a cursor marks the ones it hands out
+    private static List<QueryCursor.Ranked> copy(List<QueryCursor.Ranked> matches) {
+        List<QueryCursor.Ranked> copy = new ArrayList<>(matches.size());
+        for (QueryCursor.Ranked ranked : matches) {
+            copy.add(new QueryCursor.Ranked(ranked.entryId, ranked.score, ranked.timestampMillis));
+        }
+        return copy;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(QueryCursorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
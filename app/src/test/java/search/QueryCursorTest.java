@@ -0,0 +1,65 @@
+package search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class QueryCursorTest {
+
+    @Test
+    public void pagesComeOutFullySorted() {
+        Random random = new Random(51);
+        InvertedIndex index = new InvertedIndex();
+        index.reset("user", 1);
+        List<QueryCursor.Ranked> matches = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long timestampMillis = random.nextInt(500);
+            index.put("e" + i, timestampMillis, 20000, "", Collections.emptyList());
+            // Few distinct scores, so ties fall back to the newer entry
+            matches.add(new QueryCursor.Ranked("e" + i, random.nextInt(20), timestampMillis));
+        }
+        List<QueryCursor.Ranked> sorted = new ArrayList<>(matches);
+        Collections.sort(sorted);
+
+        QueryCursor cursor = new QueryCursor(index, matches, Collections.emptyList(), "");
+        List<InvertedIndex.Hit> paged = new ArrayList<>();
+        for (int pageSize : new int[]{30, 1, 30, 200, 1000}) {
+            paged.addAll(cursor.next(pageSize));
+        }
+
+        assertFalse(cursor.hasMore());
+        assertEquals(sorted.size(), paged.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i).score, paged.get(i).getScore(), 0);
+            assertEquals(sorted.get(i).timestampMillis, paged.get(i).getTimestampMillis());
+        }
+    }
+
+    @Test
+    public void removedEntriesDontShortenAPage() {
+        InvertedIndex index = new InvertedIndex();
+        index.reset("user", 1);
+        List<QueryCursor.Ranked> matches = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            index.put("e" + i, i, 20000, "", Collections.emptyList());
+            matches.add(new QueryCursor.Ranked("e" + i, i, i));
+        }
+        QueryCursor cursor = new QueryCursor(index, matches, Collections.emptyList(), "");
+        // The best three go before the first page is built
+        index.remove("e9");
+        index.remove("e8");
+        index.remove("e7");
+
+        List<InvertedIndex.Hit> first = cursor.next(3);
+        assertEquals("e6", first.get(0).getEntryId());
+        assertEquals("e4", first.get(2).getEntryId());
+        assertEquals(4, cursor.next(10).size());
+        assertFalse(cursor.hasMore());
+    }
+}
@@ -0,0 +1,111 @@
+package search;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class RoaringBitmapTest {
+
+    private static final int CHUNK = 1 << 16;
+
+    @Test
+    public void crossesBetweenArrayAndBitmapChunks() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        // Fill one chunk past the array limit, then empty it back below
+        for (int value = 0; value <= RoaringBitmap.ARRAY_MAX; value++) {
+            add(bitmap, expected, CHUNK + value * 3);
+        }
+        assertSame(expected, bitmap);
+
+        for (int value = 0; value <= RoaringBitmap.ARRAY_MAX; value += 2) {
+            remove(bitmap, expected, CHUNK + value * 3);
+        }
+        assertSame(expected, bitmap);
+
+        for (int value = 0; value <= RoaringBitmap.ARRAY_MAX; value++) {
+            remove(bitmap, expected, CHUNK + value * 3);
+        }
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    public void operationsMatchSortedSets() throws IOException {
+        Random random = new Random(21);
+        for (int round = 0; round < 20; round++) {
+            TreeSet<Integer> expectedA = new TreeSet<>();
+            TreeSet<Integer> expectedB = new TreeSet<>();
+            RoaringBitmap a = randomBitmap(random, expectedA);
+            RoaringBitmap b = randomBitmap(random, expectedB);
+
+            TreeSet<Integer> both = new TreeSet<>(expectedA);
+            both.retainAll(expectedB);
+            TreeSet<Integer> onlyA = new TreeSet<>(expectedA);
+            onlyA.removeAll(expectedB);
+
+            assertSame(expectedA, a);
+            assertSame(both, RoaringBitmap.and(a, b));
+            assertEquals(both.size(), RoaringBitmap.andCardinality(a, b));
+            assertSame(onlyA, RoaringBitmap.andNot(a, b));
+            assertSame(expectedA, roundTrip(a));
+            for (int probe = 0; probe < 200; probe++) {
+                int value = random.nextInt(4 * CHUNK);
+                assertEquals(expectedA.contains(value), a.contains(value));
+            }
+        }
+    }
+
+    // Chunks of every kind: dense enough for a bitmap, sparse, and around the limit
+    private static RoaringBitmap randomBitmap(Random random, TreeSet<Integer> expected) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        int[] perChunk = {
+                RoaringBitmap.ARRAY_MAX + random.nextInt(20000),
+                random.nextInt(300),
+                RoaringBitmap.ARRAY_MAX - 50 + random.nextInt(100),
+                random.nextInt(2) * 40000};
+        for (int chunk = 0; chunk < perChunk.length; chunk++) {
+            for (int i = 0; i < perChunk[chunk]; i++) {
+                add(bitmap, expected, chunk * CHUNK + random.nextInt(CHUNK));
+            }
+        }
+        // Some removals so chunks near the limit drop back to arrays
+        for (int i = 0; i < 3000; i++) {
+            remove(bitmap, expected, random.nextInt(4 * CHUNK));
+        }
+        return bitmap;
+    }
+
+    private static void add(RoaringBitmap bitmap, TreeSet<Integer> expected, int value) {
+        bitmap.add(value);
+        expected.add(value);
+    }
+
+    private static void remove(RoaringBitmap bitmap, TreeSet<Integer> expected, int value) {
+        bitmap.remove(value);
+        expected.remove(value);
+    }
+
+    private static RoaringBitmap roundTrip(RoaringBitmap bitmap) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            bitmap.write(out);
+        }
+        return RoaringBitmap.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static void assertSame(TreeSet<Integer> expected, RoaringBitmap bitmap) {
+        assertArrayEquals(PostingsListTest.toArray(expected), bitmap.toArray());
+        assertEquals(expected.size(), bitmap.getCardinality());
+        assertEquals(expected.isEmpty(), bitmap.isEmpty());
+    }
+}
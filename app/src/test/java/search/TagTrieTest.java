@@ -0,0 +1,79 @@
+package search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TagTrieTest {
+
+    private static final String[] KEYS = {
+            "work", "workout", "works", "world", "walk", "weekend", "w", "family", "friends", "food",
+            "fun", "f", "travel", "trip", "therapy", "the", "sleep", "sport", "sun", "school"};
+
+    @Test
+    public void suggestsTheMostUsedByPrefix() {
+        TagTrie trie = new TagTrie();
+        trie.add("work", 5);
+        trie.add("workout", 2);
+        trie.add("world", 2);
+        trie.add("walk", 9);
+        trie.add("family", 1);
+
+        assertEquals(Arrays.asList("work", "workout", "world"), trie.suggest("wor", TagTrie.TOP_K));
+        assertEquals(Arrays.asList("walk", "work"), trie.suggest("w", 2));
+        assertEquals(Arrays.asList("walk", "work", "workout", "world", "family"), trie.suggest("", 10));
+        assertTrue(trie.suggest("x", TagTrie.TOP_K).isEmpty());
+    }
+
+    @Test
+    public void droppedTagsStopBeingSuggested() {
+        TagTrie trie = new TagTrie();
+        trie.add("work", 2);
+        trie.add("workout", 1);
+        trie.add("work", -2);
+
+        assertEquals(Arrays.asList("workout"), trie.suggest("wo", TagTrie.TOP_K));
+        assertEquals(0, trie.count("work"));
+        assertEquals(1, trie.size());
+
+        trie.add("workout", -1);
+        assertTrue(trie.suggest("", TagTrie.TOP_K).isEmpty());
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    public void topKMatchesBruteForce() {
+        Random random = new Random(31);
+        TagTrie trie = new TagTrie();
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            String key = KEYS[random.nextInt(KEYS.length)];
+            int delta = random.nextInt(3) == 0 ? -1 : 1;
+            trie.add(key, delta);
+            counts.put(key, Math.max(0, counts.getOrDefault(key, 0) + delta));
+
+            String typed = key.substring(0, random.nextInt(key.length() + 1));
+            assertEquals(typed, expected(counts, typed), trie.suggest(typed, TagTrie.TOP_K));
+        }
+    }
+
+    private static List<String> expected(Map<String, Integer> counts, String prefix) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > 0 && entry.getKey().startsWith(prefix)) {
+                keys.add(entry.getKey());
+            }
+        }
+        keys.sort((a, b) -> !counts.get(a).equals(counts.get(b))
+                ? Integer.compare(counts.get(b), counts.get(a)) : a.compareTo(b));
+        return keys.subList(0, Math.min(TagTrie.TOP_K, keys.size()));
+    }
+}